@@ -1,5 +1,7 @@
 package com.medibook.api.config;
 
+import com.medibook.api.model.UserStripedExecutor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.retry.annotation.EnableRetry;
@@ -26,15 +28,23 @@ public class AsyncConfig {
         return executor;
     }
 
-    @Bean(name = "badgeEvaluationTaskExecutor")
-    public Executor badgeEvaluationTaskExecutor() {
+    @Bean(name = "badgeEvaluationTaskExecutor", destroyMethod = "shutdown")
+    public UserStripedExecutor badgeEvaluationTaskExecutor() {
+        return new UserStripedExecutor(4, 256, "BadgeEval-");
+    }
+
+    /**
+     * Runs streaming admin exports. Each export holds a database connection for its whole
+     * duration, so the pool size caps how many can run at once.
+     */
+    @Bean(name = "exportTaskExecutor")
+    public ThreadPoolTaskExecutor exportTaskExecutor(
+            @Value("${admin.export.max-concurrent:2}") int maxConcurrent) {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);
-        executor.setMaxPoolSize(4);
-        executor.setQueueCapacity(50);
-        executor.setKeepAliveSeconds(60);
-        executor.setThreadNamePrefix("BadgeEval-");
-        executor.setRejectedExecutionHandler(new java.util.concurrent.ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setCorePoolSize(maxConcurrent);
+        executor.setMaxPoolSize(maxConcurrent);
+        executor.setQueueCapacity(maxConcurrent * 4);
+        executor.setThreadNamePrefix("Export-");
         executor.initialize();
         return executor;
     }
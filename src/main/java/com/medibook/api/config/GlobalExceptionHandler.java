@@ -1,11 +1,14 @@
 package com.medibook.api.config;
 
 import com.medibook.api.dto.ErrorResponseDTO;
+import com.medibook.api.exception.SlotAlreadyTakenException;
+import com.medibook.api.exception.SlotHoldLimitExceededException;
 import com.medibook.api.util.ErrorResponseUtil;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.support.DefaultMessageSourceResolvable;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -75,6 +78,40 @@ public class GlobalExceptionHandler {
         return ErrorResponseUtil.createBadRequestResponse(ex.getMessage(), request.getRequestURI());
     }
 
+    @ExceptionHandler(SlotAlreadyTakenException.class)
+    public ResponseEntity<ErrorResponseDTO> handleSlotAlreadyTaken(
+            SlotAlreadyTakenException ex, HttpServletRequest request) {
+        return ErrorResponseUtil.createErrorResponse(
+            "SLOT_ALREADY_TAKEN",
+            ex.getMessage(),
+            HttpStatus.CONFLICT,
+            request.getRequestURI()
+        );
+    }
+
+    @ExceptionHandler(SlotHoldLimitExceededException.class)
+    public ResponseEntity<ErrorResponseDTO> handleSlotHoldLimitExceeded(
+            SlotHoldLimitExceededException ex, HttpServletRequest request) {
+        return ErrorResponseUtil.createErrorResponse(
+            "TOO_MANY_SLOT_HOLDS",
+            ex.getMessage(),
+            HttpStatus.TOO_MANY_REQUESTS,
+            request.getRequestURI()
+        );
+    }
+
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ErrorResponseDTO> handleDataIntegrityViolation(
+            DataIntegrityViolationException ex, HttpServletRequest request) {
+        log.warn("Data integrity violation: {}", ex.getMostSpecificCause().getMessage());
+        return ErrorResponseUtil.createErrorResponse(
+            "CONFLICT",
+            "La operación entra en conflicto con datos existentes",
+            HttpStatus.CONFLICT,
+            request.getRequestURI()
+        );
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponseDTO> handleAllUncaughtExceptions(
             Exception ex, HttpServletRequest request) {
@@ -1,5 +1,6 @@
 package com.medibook.api.config;
 
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -63,6 +64,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers("/api/gymcloud/**").permitAll()
                 .requestMatchers("/error").permitAll()
+                // Reenvío ASYNC de respuestas ya autorizadas (exportaciones en streaming)
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 // Rutas privadas
                 .anyRequest().authenticated()
             )
@@ -3,27 +3,42 @@ package com.medibook.api.controller;
 import com.medibook.api.dto.ErrorResponseDTO;
 import com.medibook.api.dto.Admin.AdminStatsDTO;
 import com.medibook.api.dto.Admin.AdminRatingsResponseDTO;
+import com.medibook.api.dto.Admin.BadgeRecomputeJobDTO;
 import com.medibook.api.dto.Admin.DoctorApprovalResponseDTO;
 import com.medibook.api.dto.Admin.PendingDoctorDTO;
-import com.medibook.api.dto.Rating.RatingResponseDTO;
-import com.medibook.api.entity.Rating;
 import com.medibook.api.entity.User;
 import com.medibook.api.mapper.AdminMapper;
-import com.medibook.api.mapper.RatingMapper;
-import com.medibook.api.repository.RatingRepository;
+import com.medibook.api.model.ExportFormat;
 import com.medibook.api.repository.UserRepository;
 import com.medibook.api.repository.FamilyMemberRepository;
+import com.medibook.api.service.AdminExportService;
+import com.medibook.api.service.AdminRatingService;
+import com.medibook.api.service.BadgeRecomputationService;
+import com.medibook.api.service.DoctorLeaderboardService;
 import com.medibook.api.service.EmailService;
+import com.medibook.api.service.RatingSummaryService;
 import com.medibook.api.util.AuthorizationUtil;
 import com.medibook.api.util.ErrorResponseUtil;
 import com.medibook.api.util.UserValidationUtil;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.AccessDeniedException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import lombok.extern.slf4j.Slf4j;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -35,19 +50,35 @@ public class AdminController {
     private final UserRepository userRepository;
     private final AdminMapper adminMapper;
     private final EmailService emailService;
-    private final RatingRepository ratingRepository;
-    private final RatingMapper ratingMapper;
+    private final AdminRatingService adminRatingService;
     private final FamilyMemberRepository familyMemberRepository;
+    private final BadgeRecomputationService badgeRecomputationService;
+    private final RatingSummaryService ratingSummaryService;
+    private final AdminExportService adminExportService;
+    private final DoctorLeaderboardService doctorLeaderboardService;
+    private final AsyncTaskExecutor exportTaskExecutor;
+    private final long exportTimeoutMs;
 
     public AdminController(UserRepository userRepository, AdminMapper adminMapper, EmailService emailService, 
-                          RatingRepository ratingRepository, RatingMapper ratingMapper,
-                          FamilyMemberRepository familyMemberRepository) {
+                          AdminRatingService adminRatingService,
+                          FamilyMemberRepository familyMemberRepository,
+                          BadgeRecomputationService badgeRecomputationService,
+                          RatingSummaryService ratingSummaryService,
+                          AdminExportService adminExportService,
+                          DoctorLeaderboardService doctorLeaderboardService,
+                          @Qualifier("exportTaskExecutor") AsyncTaskExecutor exportTaskExecutor,
+                          @Value("${admin.export.timeout-ms:1800000}") long exportTimeoutMs) {
         this.userRepository = userRepository;
         this.adminMapper = adminMapper;
         this.emailService = emailService;
-        this.ratingRepository = ratingRepository;
-        this.ratingMapper = ratingMapper;
+        this.adminRatingService = adminRatingService;
         this.familyMemberRepository = familyMemberRepository;
+        this.badgeRecomputationService = badgeRecomputationService;
+        this.ratingSummaryService = ratingSummaryService;
+        this.adminExportService = adminExportService;
+        this.doctorLeaderboardService = doctorLeaderboardService;
+        this.exportTaskExecutor = exportTaskExecutor;
+        this.exportTimeoutMs = exportTimeoutMs;
     }
 
     @GetMapping("/pending-doctors")
@@ -92,6 +123,7 @@ public class AdminController {
 
             doctor.setStatus("ACTIVE");
             userRepository.save(doctor);
+            doctorLeaderboardService.refresh(doctorId);
 
             try {
                 final String doctorEmail = doctor.getEmail();
@@ -152,6 +184,7 @@ public class AdminController {
 
             doctor.setStatus("REJECTED");
             userRepository.save(doctor);
+            doctorLeaderboardService.refresh(doctorId);
 
             try {
                 final String doctorEmail = doctor.getEmail();
@@ -219,7 +252,12 @@ public class AdminController {
     }
 
     @GetMapping("/ratings")
-    public ResponseEntity<?> getAllRatings(HttpServletRequest request) {
+    public ResponseEntity<?> getAllRatings(
+            @RequestParam(required = false) String raterRole,
+            @RequestParam(required = false) String ratedRole,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
         User authenticatedUser = (User) request.getAttribute("authenticatedUser");
         
         if (!AuthorizationUtil.isAdmin(authenticatedUser)) {
@@ -227,40 +265,164 @@ public class AdminController {
         }
 
         try {
-            List<Rating> allRatings = ratingRepository.findAllOrderByCreatedAtDesc();
-            
-            List<RatingResponseDTO> allRatingDTOs = allRatings.stream()
-                .map(ratingMapper::toDTO)
-                .collect(Collectors.toList());
-            
-            List<RatingResponseDTO> patientRatings = allRatingDTOs.stream()
-                .filter(rating -> {
-                    return allRatings.stream()
-                        .anyMatch(r -> r.getId().equals(rating.getId()) && "PATIENT".equals(r.getRater().getRole()));
-                })
-                .collect(Collectors.toList());
-                
-            List<RatingResponseDTO> doctorRatings = allRatingDTOs.stream()
-                .filter(rating -> {
-                    return allRatings.stream()
-                        .anyMatch(r -> r.getId().equals(rating.getId()) && "DOCTOR".equals(r.getRater().getRole()));
-                })
-                .collect(Collectors.toList());
-            
-            AdminRatingsResponseDTO response = AdminRatingsResponseDTO.builder()
-                .allRatings(allRatingDTOs)
-                .patientRatings(patientRatings)
-                .doctorRatings(doctorRatings)
-                .stats(null) 
-                .build();
-            
+            AdminRatingsResponseDTO response = adminRatingService.getRatingsPage(raterRole, ratedRole, cursor, limit);
             return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            return ErrorResponseUtil.createBadRequestResponse(e.getMessage(), request.getRequestURI());
         } catch (Exception e) {
             log.error("Error fetching admin ratings: ", e);
             return ErrorResponseUtil.createDatabaseErrorResponse(request.getRequestURI());
         }
     }
 
+    @PostMapping("/badges/recompute")
+    public ResponseEntity<?> recomputeBadges(
+            @RequestParam(defaultValue = "false") boolean restart,
+            HttpServletRequest request) {
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+
+        if (!AuthorizationUtil.isAdmin(authenticatedUser)) {
+            return AuthorizationUtil.createAdminAccessDeniedResponse(request.getRequestURI());
+        }
+
+        try {
+            BadgeRecomputeJobDTO job = badgeRecomputationService.start(restart);
+            log.info("Badge recomputation {} started by admin {}", job.getId(), authenticatedUser.getEmail());
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (IllegalStateException e) {
+            return ErrorResponseUtil.createErrorResponse(
+                "RECOMPUTATION_RUNNING",
+                e.getMessage(),
+                HttpStatus.CONFLICT,
+                request.getRequestURI()
+            );
+        } catch (Exception e) {
+            log.error("Error starting badge recomputation: ", e);
+            return ErrorResponseUtil.createDatabaseErrorResponse(request.getRequestURI());
+        }
+    }
+
+    @GetMapping("/badges/recompute")
+    public ResponseEntity<?> getBadgeRecomputation(HttpServletRequest request) {
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+
+        if (!AuthorizationUtil.isAdmin(authenticatedUser)) {
+            return AuthorizationUtil.createAdminAccessDeniedResponse(request.getRequestURI());
+        }
+
+        try {
+            return badgeRecomputationService.getLatestJob()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ErrorResponseUtil.createNotFoundResponse(
+                    "No badge recomputation has been run", request.getRequestURI()));
+        } catch (Exception e) {
+            return ErrorResponseUtil.createDatabaseErrorResponse(request.getRequestURI());
+        }
+    }
+
+    @PostMapping("/ratings/summary/rebuild")
+    public ResponseEntity<?> rebuildRatingSummaries(HttpServletRequest request) {
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+
+        if (!AuthorizationUtil.isAdmin(authenticatedUser)) {
+            return AuthorizationUtil.createAdminAccessDeniedResponse(request.getRequestURI());
+        }
+
+        try {
+            int summaries = ratingSummaryService.rebuild();
+            log.info("Rating summaries of {} users rebuilt by admin {}", summaries, authenticatedUser.getEmail());
+            return ResponseEntity.ok(Map.of("rebuiltSummaries", summaries));
+        } catch (Exception e) {
+            log.error("Error rebuilding rating summaries: ", e);
+            return ErrorResponseUtil.createDatabaseErrorResponse(request.getRequestURI());
+        }
+    }
+
+    @GetMapping("/export/turns")
+    public ResponseEntity<StreamingResponseBody> exportTurns(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            HttpServletRequest request) {
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+
+        if (!AuthorizationUtil.isAdmin(authenticatedUser)) {
+            throw new AccessDeniedException("Only administrators can export data");
+        }
+
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        adminExportService.validateTurnFilters(fromDate, toDate);
+        log.info("Turn export requested by admin {}", authenticatedUser.getEmail());
+        return exportResponse("turns", exportFormat, request,
+            out -> adminExportService.writeTurns(fromDate, toDate, exportFormat, out));
+    }
+
+    @GetMapping("/export/ratings")
+    public ResponseEntity<StreamingResponseBody> exportRatings(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(required = false) String raterRole,
+            @RequestParam(required = false) String ratedRole,
+            HttpServletRequest request) {
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+
+        if (!AuthorizationUtil.isAdmin(authenticatedUser)) {
+            throw new AccessDeniedException("Only administrators can export data");
+        }
+
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        adminExportService.validateRatingFilters(fromDate, toDate, raterRole, ratedRole);
+        log.info("Rating export requested by admin {}", authenticatedUser.getEmail());
+        return exportResponse("ratings", exportFormat, request,
+            out -> adminExportService.writeRatings(fromDate, toDate, raterRole, ratedRole, exportFormat, out));
+    }
+
+    @GetMapping("/export/users")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String role,
+            @RequestParam(required = false) String status,
+            HttpServletRequest request) {
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+
+        if (!AuthorizationUtil.isAdmin(authenticatedUser)) {
+            throw new AccessDeniedException("Only administrators can export data");
+        }
+
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        adminExportService.validateUserFilters(role);
+        log.info("User export requested by admin {}", authenticatedUser.getEmail());
+        return exportResponse("users", exportFormat, request,
+            out -> adminExportService.writeUsers(role, status, exportFormat, out));
+    }
+
+    /**
+     * Streams the export on the bounded export pool with the export timeout. Both are set on this
+     * request's async manager only, so other async requests keep the MVC defaults. On timeout the
+     * export thread is interrupted and the export stops at the next row.
+     */
+    private ResponseEntity<StreamingResponseBody> exportResponse(String name, ExportFormat format,
+                                                                 HttpServletRequest request, StreamingResponseBody body) {
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(request);
+        asyncManager.setTaskExecutor(exportTaskExecutor);
+        asyncManager.getAsyncWebRequest().setTimeout(exportTimeoutMs);
+        ContentDisposition disposition = ContentDisposition.attachment()
+            .filename(name + "-" + LocalDate.now() + "." + format.getExtension())
+            .build();
+        return ResponseEntity.ok()
+            .contentType(format.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, disposition.toString())
+            .body(body);
+    }
+
+    @ExceptionHandler(AccessDeniedException.class)
+    public ResponseEntity<ErrorResponseDTO> handleAccessDenied(
+            AccessDeniedException ex, HttpServletRequest request) {
+
+        return AuthorizationUtil.createAdminAccessDeniedResponse(request.getRequestURI());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<ErrorResponseDTO> handleIllegalArgument(
             IllegalArgumentException ex, HttpServletRequest request) {
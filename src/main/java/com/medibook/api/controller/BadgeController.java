@@ -1,15 +1,13 @@
 package com.medibook.api.controller;
 
-import com.medibook.api.dto.Badge.BadgeProgressSummaryDTO;
-import com.medibook.api.dto.Badge.BadgesResponseDTO;
 import com.medibook.api.service.BadgeService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -20,34 +18,30 @@ public class BadgeController {
 
     private final BadgeService badgeService;
 
-    @GetMapping("/{userId}")
+    @GetMapping(value = "/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<BadgesResponseDTO> getUserBadges(@PathVariable UUID userId) {
-        BadgesResponseDTO badges = badgeService.getUserBadges(userId);
-        return ResponseEntity.ok(badges);
+    public ResponseEntity<byte[]> getUserBadges(@PathVariable UUID userId) {
+        return json(badgeService.getUserBadgesJson(userId));
     }
 
-    @GetMapping("/my-badges")
+    @GetMapping(value = "/my-badges", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('PATIENT') or hasRole('DOCTOR')")
-    public ResponseEntity<BadgesResponseDTO> getMyBadges(Authentication authentication) {
+    public ResponseEntity<byte[]> getMyBadges(Authentication authentication) {
         UUID userId = ((com.medibook.api.entity.User) authentication.getPrincipal()).getId();
-        BadgesResponseDTO badges = badgeService.getUserBadges(userId);
-        return ResponseEntity.ok(badges);
+        return json(badgeService.getUserBadgesJson(userId));
     }
 
-    @GetMapping("/{userId}/progress")
+    @GetMapping(value = "/{userId}/progress", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<BadgeProgressSummaryDTO>> getUserBadgeProgress(@PathVariable UUID userId) {
-        List<BadgeProgressSummaryDTO> progress = badgeService.getUserBadgeProgress(userId);
-        return ResponseEntity.ok(progress);
+    public ResponseEntity<byte[]> getUserBadgeProgress(@PathVariable UUID userId) {
+        return json(badgeService.getUserBadgeProgressJson(userId));
     }
 
-    @GetMapping("/my-progress")
+    @GetMapping(value = "/my-progress", produces = MediaType.APPLICATION_JSON_VALUE)
     @PreAuthorize("hasRole('PATIENT') or hasRole('DOCTOR')")
-    public ResponseEntity<List<BadgeProgressSummaryDTO>> getMyBadgeProgress(Authentication authentication) {
+    public ResponseEntity<byte[]> getMyBadgeProgress(Authentication authentication) {
         UUID userId = ((com.medibook.api.entity.User) authentication.getPrincipal()).getId();
-        List<BadgeProgressSummaryDTO> progress = badgeService.getUserBadgeProgress(userId);
-        return ResponseEntity.ok(progress);
+        return json(badgeService.getUserBadgeProgressJson(userId));
     }
 
     @PostMapping("/{userId}/evaluate")
@@ -64,4 +58,8 @@ public class BadgeController {
         badgeService.evaluateAllBadges(userId);
         return ResponseEntity.ok().build();
     }
+
+    private ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.medibook.api.controller;
 
 import com.medibook.api.dto.Availability.*;
 import com.medibook.api.dto.DoctorDTO;
+import com.medibook.api.dto.DoctorLeaderboardPageDTO;
 import com.medibook.api.dto.DoctorPublicDTO;
 import com.medibook.api.dto.DoctorMetricsDTO;
 import com.medibook.api.dto.PatientDTO;
@@ -10,6 +11,7 @@ import com.medibook.api.dto.CreateMedicalHistoryRequestDTO;
 import com.medibook.api.dto.UpdateMedicalHistoryContentRequestDTO;
 import com.medibook.api.dto.MedicalHistoryDTO;
 import com.medibook.api.service.DoctorAvailabilityService;
+import com.medibook.api.service.DoctorLeaderboardService;
 import com.medibook.api.service.DoctorService;
 import com.medibook.api.service.MedicalHistoryService;
 import jakarta.validation.Valid;
@@ -33,6 +35,7 @@ public class DoctorController {
     private final DoctorService doctorService;
     private final DoctorAvailabilityService availabilityService;
     private final MedicalHistoryService medicalHistoryService;
+    private final DoctorLeaderboardService leaderboardService;
 
     @GetMapping
     public ResponseEntity<List<DoctorPublicDTO>> getAllDoctors() {
@@ -52,6 +55,14 @@ public class DoctorController {
         return ResponseEntity.ok(specialties);
     }
 
+    @GetMapping("/leaderboard")
+    public ResponseEntity<DoctorLeaderboardPageDTO> getLeaderboard(
+            @RequestParam String specialty,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(leaderboardService.getLeaderboard(specialty, cursor, limit));
+    }
+
     @GetMapping("/{doctorId}/patients")
     @PreAuthorize("hasRole('DOCTOR') and authentication.principal.id.equals(#doctorId)")
     public ResponseEntity<List<PatientDTO>> getPatientsByDoctor(@PathVariable UUID doctorId) {
@@ -6,10 +6,12 @@ import com.medibook.api.dto.Rating.RatingRequestDTO;
 import com.medibook.api.dto.Rating.RatingResponseDTO;
 import com.medibook.api.entity.Rating;
 import com.medibook.api.entity.User;
+import com.medibook.api.service.RatingBucketService;
+import com.medibook.api.service.RatingSummaryService;
 import com.medibook.api.service.TurnAssignedService;
+import com.medibook.api.util.AuthorizationUtil;
 import com.medibook.api.util.ErrorResponseUtil;
 import com.medibook.api.mapper.RatingMapper;
-import com.medibook.api.repository.RatingRepository;
 import com.medibook.api.dto.Rating.SubcategoryCountDTO;
 
 import jakarta.servlet.http.HttpServletRequest;
@@ -27,7 +29,8 @@ public class RatingController {
 
     private final TurnAssignedService turnService;
     private final RatingMapper ratingMapper;
-    private final RatingRepository ratingRepository;
+    private final RatingSummaryService ratingSummaryService;
+    private final RatingBucketService ratingBucketService;
 
     @PostMapping("/turns/{turnId}/rate")
     public ResponseEntity<Object> rateTurn(
@@ -62,11 +65,7 @@ public class RatingController {
             @RequestParam(required = false) String raterRole) {
 
         try {
-            java.util.List<RatingRepository.SubcategoryCount> results = ratingRepository.countSubcategoriesByRatedId(ratedId, raterRole);
-
-            java.util.List<SubcategoryCountDTO> dto = results.stream()
-                    .map(r -> new SubcategoryCountDTO(r.getSubcategory(), r.getCount()))
-                    .toList();
+            java.util.List<SubcategoryCountDTO> dto = ratingSummaryService.getSubcategoryCounts(ratedId, raterRole);
 
             return ResponseEntity.ok(dto);
         } catch (Exception e) {
@@ -75,6 +74,46 @@ public class RatingController {
         }
     }
 
+    @GetMapping("/rated/{ratedId}/window")
+    public ResponseEntity<Object> getRatingWindow(
+            @PathVariable java.util.UUID ratedId,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) String raterRole,
+            HttpServletRequest request) {
+
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+        if (!AuthorizationUtil.isAdmin(authenticatedUser) && !AuthorizationUtil.hasOwnership(authenticatedUser, ratedId)) {
+            return AuthorizationUtil.createOwnershipAccessDeniedResponse("Only admins and the rated user can view rating metrics");
+        }
+
+        try {
+            return ResponseEntity.ok(ratingBucketService.getWindow(ratedId, days, raterRole));
+        } catch (IllegalArgumentException e) {
+            var resp = ErrorResponseUtil.createBadRequestResponse(e.getMessage(), request.getRequestURI());
+            return new ResponseEntity<Object>(resp.getBody(), resp.getStatusCode());
+        }
+    }
+
+    @GetMapping("/rated/{ratedId}/trend")
+    public ResponseEntity<Object> getRatingTrend(
+            @PathVariable java.util.UUID ratedId,
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(defaultValue = "30") int periods,
+            HttpServletRequest request) {
+
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+        if (!AuthorizationUtil.isAdmin(authenticatedUser) && !AuthorizationUtil.hasOwnership(authenticatedUser, ratedId)) {
+            return AuthorizationUtil.createOwnershipAccessDeniedResponse("Only admins and the rated user can view rating metrics");
+        }
+
+        try {
+            return ResponseEntity.ok(ratingBucketService.getTrend(ratedId, granularity, periods));
+        } catch (IllegalArgumentException e) {
+            var resp = ErrorResponseUtil.createBadRequestResponse(e.getMessage(), request.getRequestURI());
+            return new ResponseEntity<Object>(resp.getBody(), resp.getStatusCode());
+        }
+    }
+
     @GetMapping("/rating-subcategories")
     public ResponseEntity<Object> getRatingSubcategories(@RequestParam(required = false) String role) {
 
@@ -2,27 +2,31 @@ package com.medibook.api.controller;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
-import java.time.ZoneOffset;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
+import com.medibook.api.dto.Turn.SlotHoldRequestDTO;
+import com.medibook.api.dto.Turn.SlotHoldResponseDTO;
 import com.medibook.api.dto.Turn.TurnCreateRequestDTO;
 import com.medibook.api.dto.Turn.TurnResponseDTO;
+import com.medibook.api.dto.Turn.TurnSeriesRequestDTO;
 
 import static com.medibook.api.util.DateTimeUtils.ARGENTINA_ZONE;
 import com.medibook.api.entity.User;
-import com.medibook.api.dto.Availability.AvailableSlotDTO;
-import com.medibook.api.service.DoctorAvailabilityService;
+import com.medibook.api.dto.Availability.EarliestSlotDTO;
+import com.medibook.api.service.SlotHoldService;
+import com.medibook.api.service.SlotOccupancyService;
+import com.medibook.api.service.SlotSearchService;
 import com.medibook.api.service.TurnAssignedService;
-import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.service.TurnSeriesService;
 import com.medibook.api.util.AuthorizationUtil;
 import com.medibook.api.util.TurnAuthorizationUtil;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import com.medibook.api.util.ErrorResponseUtil;
@@ -35,8 +39,10 @@ import org.springframework.web.bind.annotation.*;
 public class TurnAssignedController {
 
     private final TurnAssignedService turnService;
-    private final DoctorAvailabilityService doctorAvailabilityService;
-    private final TurnAssignedRepository turnAssignedRepository;
+    private final SlotOccupancyService slotOccupancyService;
+    private final SlotSearchService slotSearchService;
+    private final SlotHoldService slotHoldService;
+    private final TurnSeriesService turnSeriesService;
 
     @PostMapping
     public ResponseEntity<Object> createTurn(
@@ -66,6 +72,54 @@ public class TurnAssignedController {
         return new ResponseEntity<>(result, HttpStatus.CREATED);
     }
 
+    @PostMapping("/series")
+    public ResponseEntity<Object> createTurnSeries(
+            @Valid @RequestBody TurnSeriesRequestDTO dto,
+            HttpServletRequest request) {
+
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+
+        ResponseEntity<Object> validationError = AuthorizationUtil.isDoctor(authenticatedUser)
+                ? TurnAuthorizationUtil.validateDoctorTurnCreation(authenticatedUser, dto.getDoctorId())
+                : TurnAuthorizationUtil.validatePatientTurnCreation(authenticatedUser, dto.getPatientId());
+        if (validationError != null) {
+            return validationError;
+        }
+
+        List<TurnResponseDTO> result = turnSeriesService.createTurnSeries(dto);
+        return new ResponseEntity<>(result, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/holds")
+    public ResponseEntity<Object> holdSlot(
+            @Valid @RequestBody SlotHoldRequestDTO dto,
+            HttpServletRequest request) {
+
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+
+        if (!AuthorizationUtil.isPatient(authenticatedUser)) {
+            return new ResponseEntity<>(
+                Map.of("error", "Forbidden", "message", "Only patients can hold turns"),
+                HttpStatus.FORBIDDEN);
+        }
+
+        SlotHoldResponseDTO hold = slotHoldService.placeHold(dto.getDoctorId(), authenticatedUser.getId(), dto.getScheduledAt());
+        return new ResponseEntity<>(hold, HttpStatus.CREATED);
+    }
+
+    @DeleteMapping("/holds/{holdToken}")
+    public ResponseEntity<Void> releaseHold(
+            @PathVariable UUID holdToken,
+            HttpServletRequest request) {
+
+        User authenticatedUser = (User) request.getAttribute("authenticatedUser");
+
+        if (!slotHoldService.releaseHold(holdToken, authenticatedUser.getId())) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/available")
     public ResponseEntity<List<OffsetDateTime>> getAvailableTurns(
             @RequestParam UUID doctorId,
@@ -74,36 +128,41 @@ public class TurnAssignedController {
         
         LocalDate localDate = LocalDate.parse(date);
         
-        List<AvailableSlotDTO> availableSlots = doctorAvailabilityService.getAvailableSlots(
-                doctorId, localDate, localDate);
-        
-        if (availableSlots.isEmpty()) {
-            return ResponseEntity.ok(new ArrayList<>());
-        }
-        
-        List<OffsetDateTime> availableTimes = new ArrayList<>();
-        ZoneOffset argentinaOffset = ZoneOffset.of("-03:00");
-        
-        for (AvailableSlotDTO slot : availableSlots) {
-            OffsetDateTime slotDateTime = slot.getDate().atTime(slot.getStartTime()).atOffset(argentinaOffset);
-            
-            boolean isOccupied = turnAssignedRepository.existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(doctorId, slotDateTime);
-            
-            if (!isOccupied) {
-                availableTimes.add(slotDateTime);
-            }
-        }
+        List<OffsetDateTime> availableTimes = slotOccupancyService.getFreeSlotTimes(doctorId, localDate, localDate);
         
         return ResponseEntity.ok(availableTimes);
     }
 
+    @GetMapping("/available/search")
+    public ResponseEntity<List<EarliestSlotDTO>> searchEarliestAvailableTurns(
+            @RequestParam String specialty,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(defaultValue = "10") int limit) {
+        
+        List<EarliestSlotDTO> slots = slotSearchService.findEarliestSlots(specialty, fromDate, toDate, limit);
+        return ResponseEntity.ok(slots);
+    }
+
     @GetMapping("/my-turns")
     public ResponseEntity<Object> getMyTurns(
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String when,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             HttpServletRequest request) {
         
         User authenticatedUser = (User) request.getAttribute("authenticatedUser");
         
+        if (isPageRequest(when, cursor, limit)) {
+            if (AuthorizationUtil.isDoctor(authenticatedUser)) {
+                return ResponseEntity.ok(turnService.getTurnsPageByDoctor(authenticatedUser.getId(), emptyToNull(status), when, cursor, limit));
+            } else if (AuthorizationUtil.isPatient(authenticatedUser)) {
+                return ResponseEntity.ok(turnService.getTurnsPageByPatient(authenticatedUser.getId(), emptyToNull(status), when, cursor, limit));
+            }
+            return AuthorizationUtil.createInvalidRoleResponse();
+        }
+        
         List<TurnResponseDTO> turns;
         
         if (AuthorizationUtil.isDoctor(authenticatedUser)) {
@@ -129,6 +188,9 @@ public class TurnAssignedController {
     public ResponseEntity<Object> getTurnsByDoctor(
             @PathVariable UUID doctorId,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String when,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             HttpServletRequest request) {
         
         User authenticatedUser = (User) request.getAttribute("authenticatedUser");
@@ -138,6 +200,10 @@ public class TurnAssignedController {
             return validationError;
         }
         
+        if (isPageRequest(when, cursor, limit)) {
+            return ResponseEntity.ok(turnService.getTurnsPageByDoctor(doctorId, emptyToNull(status), when, cursor, limit));
+        }
+        
         List<TurnResponseDTO> turns;
         if (status != null && !status.isEmpty()) {
             turns = turnService.getTurnsByDoctorAndStatus(doctorId, status);
@@ -152,6 +218,9 @@ public class TurnAssignedController {
     public ResponseEntity<Object> getTurnsByPatient(
             @PathVariable UUID patientId,
             @RequestParam(required = false) String status,
+            @RequestParam(required = false) String when,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
             HttpServletRequest request) {
         
         User authenticatedUser = (User) request.getAttribute("authenticatedUser");
@@ -161,6 +230,10 @@ public class TurnAssignedController {
             return validationError;
         }
         
+        if (isPageRequest(when, cursor, limit)) {
+            return ResponseEntity.ok(turnService.getTurnsPageByPatient(patientId, emptyToNull(status), when, cursor, limit));
+        }
+        
         List<TurnResponseDTO> turns;
         if (status != null && !status.isEmpty()) {
             turns = turnService.getTurnsByPatientAndStatus(patientId, status);
@@ -233,5 +306,12 @@ public class TurnAssignedController {
             return new ResponseEntity<Object>(resp.getBody(), resp.getStatusCode());
         }
     }
-   
+
+    private static boolean isPageRequest(String when, String cursor, Integer limit) {
+        return when != null || cursor != null || limit != null;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
 }
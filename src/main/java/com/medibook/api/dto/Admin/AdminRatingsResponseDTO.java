@@ -11,9 +11,9 @@ import java.util.List;
 @Setter
 @Builder
 public class AdminRatingsResponseDTO {
-    private List<RatingResponseDTO> allRatings;
-    private List<RatingResponseDTO> patientRatings; 
-    private List<RatingResponseDTO> doctorRatings;  
+    private List<RatingResponseDTO> items;
+    private String nextCursor;
+    private boolean hasMore;
     private RatingStatsDTO stats;
     
     @Getter
@@ -27,4 +27,4 @@ public class AdminRatingsResponseDTO {
         private double averagePatientRating;
         private double averageDoctorRating;
     }
-}
\ No newline at end of file
+}
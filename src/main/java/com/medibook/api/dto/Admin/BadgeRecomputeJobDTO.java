@@ -0,0 +1,24 @@
+package com.medibook.api.dto.Admin;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Getter
+@Setter
+@Builder
+public class BadgeRecomputeJobDTO {
+    private UUID id;
+    private String status;
+    private int totalUsers;
+    private int processedUsers;
+    private int failedUsers;
+    private double progressPercent;
+    private OffsetDateTime startedAt;
+    private OffsetDateTime updatedAt;
+    private OffsetDateTime finishedAt;
+    private String lastError;
+}
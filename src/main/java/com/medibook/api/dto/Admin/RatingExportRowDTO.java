@@ -0,0 +1,16 @@
+package com.medibook.api.dto.Admin;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record RatingExportRowDTO(
+        UUID id,
+        OffsetDateTime createdAt,
+        UUID turnId,
+        UUID raterId,
+        String raterRole,
+        UUID ratedId,
+        String ratedRole,
+        Integer score,
+        String subcategories) {
+}
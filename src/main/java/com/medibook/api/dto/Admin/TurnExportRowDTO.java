@@ -0,0 +1,16 @@
+package com.medibook.api.dto.Admin;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record TurnExportRowDTO(
+        UUID id,
+        OffsetDateTime scheduledAt,
+        String status,
+        UUID doctorId,
+        String doctorName,
+        String doctorSurname,
+        String specialty,
+        UUID patientId,
+        UUID familyMemberId) {
+}
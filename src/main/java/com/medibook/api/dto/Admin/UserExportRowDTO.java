@@ -0,0 +1,19 @@
+package com.medibook.api.dto.Admin;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record UserExportRowDTO(
+        UUID id,
+        String email,
+        String name,
+        String surname,
+        String role,
+        String status,
+        boolean emailVerified,
+        String gender,
+        LocalDate birthdate,
+        String specialty,
+        Double score,
+        long ratingCount) {
+}
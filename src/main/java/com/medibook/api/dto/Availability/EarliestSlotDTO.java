@@ -0,0 +1,20 @@
+package com.medibook.api.dto.Availability;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EarliestSlotDTO {
+
+    private UUID doctorId;
+    private String doctorName;
+    private String specialty;
+    private Integer slotDurationMin;
+    private OffsetDateTime scheduledAt;
+}
@@ -0,0 +1,17 @@
+package com.medibook.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.UUID;
+
+@Data
+@Builder
+public class DoctorLeaderboardEntryDTO {
+    private UUID doctorId;
+    private String name;
+    private String surname;
+    private String specialty;
+    private Double score;
+    private long ratingCount;
+    private long activeBadges;
+}
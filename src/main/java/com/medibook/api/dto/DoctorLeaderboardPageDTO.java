@@ -0,0 +1,14 @@
+package com.medibook.api.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class DoctorLeaderboardPageDTO {
+    private String specialty;
+    private List<DoctorLeaderboardEntryDTO> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -8,6 +8,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Data
@@ -21,6 +22,8 @@ public class DoctorMetricsDTO {
     private String specialty;
     private Double score;
     private List<SubcategoryCountDTO> ratingSubcategories;
+    private Long totalRatings;
+    private Map<Integer, Long> scoreDistribution;
     private Integer totalPatients;
     private Integer upcomingTurns;
     private Integer completedTurnsThisMonth;
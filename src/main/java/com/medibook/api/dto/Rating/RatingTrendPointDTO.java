@@ -0,0 +1,18 @@
+package com.medibook.api.dto.Rating;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class RatingTrendPointDTO {
+    private LocalDate periodStart;
+    private long ratingCount;
+    private Double averageScore;
+}
@@ -0,0 +1,18 @@
+package com.medibook.api.dto.Rating;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@Builder
+public class RatingWindowDTO {
+    private int days;
+    private LocalDate from;
+    private LocalDate to;
+    private long ratingCount;
+    private Double averageScore;
+    private List<SubcategoryCountDTO> subcategories;
+}
@@ -0,0 +1,17 @@
+package com.medibook.api.dto.Turn;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+public class SlotHoldRequestDTO {
+    @NotNull(message = "Doctor ID is required")
+    private UUID doctorId;
+
+    @NotNull(message = "Scheduled time is required")
+    @Future(message = "The appointment date must be in the future")
+    private OffsetDateTime scheduledAt;
+}
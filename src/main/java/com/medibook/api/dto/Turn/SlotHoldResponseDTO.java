@@ -0,0 +1,15 @@
+package com.medibook.api.dto.Turn;
+
+import lombok.Builder;
+import lombok.Data;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+public class SlotHoldResponseDTO {
+    private UUID holdToken;
+    private UUID doctorId;
+    private OffsetDateTime scheduledAt;
+    private OffsetDateTime expiresAt;
+}
@@ -23,4 +23,6 @@ public class TurnCreateRequestDTO {
     private String motive;
 
     private UUID familyMemberId;
+
+    private UUID holdToken;
 }
@@ -0,0 +1,13 @@
+package com.medibook.api.dto.Turn;
+
+import lombok.Builder;
+import lombok.Data;
+import java.util.List;
+
+@Data
+@Builder
+public class TurnPageDTO {
+    private List<TurnResponseDTO> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
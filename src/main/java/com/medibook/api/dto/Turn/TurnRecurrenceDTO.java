@@ -0,0 +1,34 @@
+package com.medibook.api.dto.Turn;
+
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.OffsetDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TurnRecurrenceDTO {
+    @NotNull(message = "First scheduled time is required")
+    @Future(message = "The appointment date must be in the future")
+    private OffsetDateTime firstScheduledAt;
+
+    @NotNull(message = "Frequency is required")
+    @Pattern(regexp = "DAILY|WEEKLY|MONTHLY", message = "Frequency must be DAILY, WEEKLY or MONTHLY")
+    private String frequency;
+
+    @NotNull(message = "Interval is required")
+    @Min(value = 1, message = "Interval must be at least 1")
+    @Max(value = 12, message = "Interval cannot exceed 12")
+    private Integer interval;
+
+    @NotNull(message = "Occurrences are required")
+    @Min(value = 1, message = "Occurrences must be at least 1")
+    @Max(value = 52, message = "Occurrences cannot exceed 52")
+    private Integer occurrences;
+}
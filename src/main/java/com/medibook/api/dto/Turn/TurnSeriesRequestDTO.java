@@ -0,0 +1,29 @@
+package com.medibook.api.dto.Turn;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class TurnSeriesRequestDTO {
+    @NotNull(message = "Doctor ID is required")
+    private UUID doctorId;
+
+    @NotNull(message = "Patient ID is required")
+    private UUID patientId;
+
+    private UUID familyMemberId;
+
+    @Size(max = 500, message = "Motive cannot exceed 500 characters")
+    private String motive;
+
+    @Size(max = 52, message = "A series cannot exceed 52 turns")
+    private List<@NotNull(message = "Scheduled time is required") OffsetDateTime> scheduledAt;
+
+    @Valid
+    private TurnRecurrenceDTO recurrence;
+}
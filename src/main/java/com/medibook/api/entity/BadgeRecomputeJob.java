@@ -0,0 +1,56 @@
+package com.medibook.api.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * Admin-triggered rebuild of every user's badge statistics, progress and badges. Users are
+ * processed in id order one page at a time and the cursor only moves past a page once it
+ * has been written, so an interrupted job resumes where it stopped.
+ */
+@Entity
+@Table(name = "badge_recompute_jobs")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BadgeRecomputeJob {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "status", nullable = false)
+    private String status;
+
+    @Column(name = "cursor_user_id")
+    private UUID cursorUserId;
+
+    @Column(name = "total_users", nullable = false)
+    private int totalUsers;
+
+    @Column(name = "processed_users", nullable = false)
+    private int processedUsers;
+
+    @Column(name = "failed_users", nullable = false)
+    private int failedUsers;
+
+    @Column(name = "started_at", nullable = false)
+    private OffsetDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+}
@@ -1,34 +1,115 @@
 package com.medibook.api.entity;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Type;
 import java.time.OffsetDateTime;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ToDoubleFunction;
 
+/**
+ * Badge statistics of one user. The counters badge rules read on every evaluation are typed
+ * columns; everything else stays in the {@code statistics} JSONB column. {@link #getStatistics()}
+ * returns both as one document and {@link #setStatistics(JsonNode)} merges a document back.
+ * Code that only reads counters should use {@link Counter#get} instead of the document.
+ */
 @Entity
 @Table(name = "badge_statistics")
 @Getter
 @Setter
 @NoArgsConstructor
-@AllArgsConstructor
-@Builder
 public class BadgeStatistics {
 
     @Id
     @Column(name = "user_id")
     private UUID userId;
 
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     @Type(JsonBinaryType.class)
     @Column(name = "statistics", columnDefinition = "jsonb", nullable = false)
-    private JsonNode statistics;
+    private JsonNode extras;
 
     @Type(JsonBinaryType.class)
     @Column(name = "progress", columnDefinition = "jsonb", nullable = false)
     private JsonNode progress;
 
+    @Column(name = "total_turns_completed", nullable = false)
+    private int totalTurnsCompleted;
+
+    @Column(name = "turns_with_same_doctor", nullable = false)
+    private int turnsWithSameDoctor;
+
+    @Column(name = "total_unique_patients", nullable = false)
+    private int totalUniquePatients;
+
+    @Column(name = "total_cancellations", nullable = false)
+    private int totalCancellations;
+
+    @Column(name = "total_turns_no_show", nullable = false)
+    private int totalTurnsNoShow;
+
+    @Column(name = "advance_bookings", nullable = false)
+    private int advanceBookings;
+
+    @Column(name = "files_uploaded", nullable = false)
+    private int filesUploaded;
+
+    @Column(name = "ratings_given", nullable = false)
+    private int ratingsGiven;
+
+    @Column(name = "avg_rating_given", nullable = false)
+    private double avgRatingGiven;
+
+    @Column(name = "ratings_received", nullable = false)
+    private int ratingsReceived;
+
+    @Column(name = "total_ratings_received", nullable = false)
+    private int totalRatingsReceived;
+
+    @Column(name = "total_avg_rating", nullable = false)
+    private double totalAvgRating;
+
+    @Column(name = "total_low_rating_count", nullable = false)
+    private int totalLowRatingCount;
+
+    @Column(name = "total_communication_count", nullable = false)
+    private int totalCommunicationCount;
+
+    @Column(name = "total_empathy_count", nullable = false)
+    private int totalEmpathyCount;
+
+    @Column(name = "total_punctuality_count", nullable = false)
+    private int totalPunctualityCount;
+
+    @Column(name = "doctor_collaboration_mentions", nullable = false)
+    private int doctorCollaborationMentions;
+
+    @Column(name = "doctor_punctuality_mentions", nullable = false)
+    private int doctorPunctualityMentions;
+
+    @Column(name = "documentation_count", nullable = false)
+    private int documentationCount;
+
+    @Column(name = "total_requests_handled", nullable = false)
+    private int totalRequestsHandled;
+
+    @Column(name = "rating_score_sum", nullable = false)
+    private int ratingScoreSum;
+
+    @Column(name = "ratings_given_score_sum", nullable = false)
+    private int ratingsGivenScoreSum;
+
+    @Column(name = "recent_patient_high_scores", nullable = false)
+    private int recentPatientHighScores;
+
     @Column(name = "last_updated_at", nullable = false)
     private OffsetDateTime lastUpdatedAt;
 
@@ -36,9 +117,128 @@ public class BadgeStatistics {
     @Column(name = "version", nullable = false)
     private Long version;
 
+    @Builder
+    public BadgeStatistics(UUID userId, JsonNode statistics, JsonNode progress, OffsetDateTime lastUpdatedAt, Long version) {
+        this.userId = userId;
+        this.progress = progress;
+        this.lastUpdatedAt = lastUpdatedAt;
+        this.version = version;
+        setStatistics(statistics);
+    }
+
+    /**
+     * Typed counters and the extra JSON keys as one document. The document is a copy; changes
+     * only take effect through {@link #setStatistics(JsonNode)}.
+     */
+    public JsonNode getStatistics() {
+        ObjectNode statistics = extras instanceof ObjectNode object
+                ? object.deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        for (Counter counter : Counter.values()) {
+            if (counter.isIntegral()) {
+                statistics.put(counter.getKey(), (int) counter.get(this));
+            } else {
+                statistics.put(counter.getKey(), counter.get(this));
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Merges the document into the statistics: its counters go to their columns and every other
+     * key to the JSON. Counters and keys the document does not mention keep their value.
+     */
+    public void setStatistics(JsonNode statistics) {
+        ObjectNode merged = extras instanceof ObjectNode object
+                ? object.deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        if (statistics != null) {
+            for (Map.Entry<String, JsonNode> field : statistics.properties()) {
+                Optional<Counter> counter = Counter.ofKey(field.getKey());
+                if (counter.isEmpty()) {
+                    merged.set(field.getKey(), field.getValue());
+                } else if (field.getValue().isNumber()) {
+                    counter.get().set(this, field.getValue().asDouble());
+                }
+            }
+        }
+        this.extras = merged;
+    }
+
     @PrePersist
     @PreUpdate
     protected void onUpdate() {
         lastUpdatedAt = OffsetDateTime.now();
     }
-}
\ No newline at end of file
+
+    /**
+     * Statistics stored in their own column. The key is both the JSON key callers use and
+     * the column name.
+     */
+    public enum Counter {
+        TOTAL_TURNS_COMPLETED("total_turns_completed", BadgeStatistics::getTotalTurnsCompleted, (s, v) -> s.setTotalTurnsCompleted((int) v)),
+        TURNS_WITH_SAME_DOCTOR("turns_with_same_doctor", BadgeStatistics::getTurnsWithSameDoctor, (s, v) -> s.setTurnsWithSameDoctor((int) v)),
+        TOTAL_UNIQUE_PATIENTS("total_unique_patients", BadgeStatistics::getTotalUniquePatients, (s, v) -> s.setTotalUniquePatients((int) v)),
+        TOTAL_CANCELLATIONS("total_cancellations", BadgeStatistics::getTotalCancellations, (s, v) -> s.setTotalCancellations((int) v)),
+        TOTAL_TURNS_NO_SHOW("total_turns_no_show", BadgeStatistics::getTotalTurnsNoShow, (s, v) -> s.setTotalTurnsNoShow((int) v)),
+        ADVANCE_BOOKINGS("advance_bookings", BadgeStatistics::getAdvanceBookings, (s, v) -> s.setAdvanceBookings((int) v)),
+        FILES_UPLOADED("files_uploaded", BadgeStatistics::getFilesUploaded, (s, v) -> s.setFilesUploaded((int) v)),
+        RATINGS_GIVEN("ratings_given", BadgeStatistics::getRatingsGiven, (s, v) -> s.setRatingsGiven((int) v)),
+        AVG_RATING_GIVEN("avg_rating_given", false, BadgeStatistics::getAvgRatingGiven, BadgeStatistics::setAvgRatingGiven),
+        RATINGS_RECEIVED("ratings_received", BadgeStatistics::getRatingsReceived, (s, v) -> s.setRatingsReceived((int) v)),
+        TOTAL_RATINGS_RECEIVED("total_ratings_received", BadgeStatistics::getTotalRatingsReceived, (s, v) -> s.setTotalRatingsReceived((int) v)),
+        TOTAL_AVG_RATING("total_avg_rating", false, BadgeStatistics::getTotalAvgRating, BadgeStatistics::setTotalAvgRating),
+        TOTAL_LOW_RATING_COUNT("total_low_rating_count", BadgeStatistics::getTotalLowRatingCount, (s, v) -> s.setTotalLowRatingCount((int) v)),
+        TOTAL_COMMUNICATION_COUNT("total_communication_count", BadgeStatistics::getTotalCommunicationCount, (s, v) -> s.setTotalCommunicationCount((int) v)),
+        TOTAL_EMPATHY_COUNT("total_empathy_count", BadgeStatistics::getTotalEmpathyCount, (s, v) -> s.setTotalEmpathyCount((int) v)),
+        TOTAL_PUNCTUALITY_COUNT("total_punctuality_count", BadgeStatistics::getTotalPunctualityCount, (s, v) -> s.setTotalPunctualityCount((int) v)),
+        DOCTOR_COLLABORATION_MENTIONS("doctor_collaboration_mentions", BadgeStatistics::getDoctorCollaborationMentions, (s, v) -> s.setDoctorCollaborationMentions((int) v)),
+        DOCTOR_PUNCTUALITY_MENTIONS("doctor_punctuality_mentions", BadgeStatistics::getDoctorPunctualityMentions, (s, v) -> s.setDoctorPunctualityMentions((int) v)),
+        DOCUMENTATION_COUNT("documentation_count", BadgeStatistics::getDocumentationCount, (s, v) -> s.setDocumentationCount((int) v)),
+        TOTAL_REQUESTS_HANDLED("total_requests_handled", BadgeStatistics::getTotalRequestsHandled, (s, v) -> s.setTotalRequestsHandled((int) v)),
+        RATING_SCORE_SUM("rating_score_sum", BadgeStatistics::getRatingScoreSum, (s, v) -> s.setRatingScoreSum((int) v)),
+        RATINGS_GIVEN_SCORE_SUM("ratings_given_score_sum", BadgeStatistics::getRatingsGivenScoreSum, (s, v) -> s.setRatingsGivenScoreSum((int) v)),
+        RECENT_PATIENT_HIGH_SCORES("recent_patient_high_scores", BadgeStatistics::getRecentPatientHighScores, (s, v) -> s.setRecentPatientHighScores((int) v));
+
+        private final String key;
+        private final boolean integral;
+        private final ToDoubleFunction<BadgeStatistics> getter;
+        private final ObjDoubleConsumer<BadgeStatistics> setter;
+
+        Counter(String key, ToDoubleFunction<BadgeStatistics> getter, ObjDoubleConsumer<BadgeStatistics> setter) {
+            this(key, true, getter, setter);
+        }
+
+        Counter(String key, boolean integral, ToDoubleFunction<BadgeStatistics> getter, ObjDoubleConsumer<BadgeStatistics> setter) {
+            this.key = key;
+            this.integral = integral;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public boolean isIntegral() {
+            return integral;
+        }
+
+        public double get(BadgeStatistics statistics) {
+            return getter.applyAsDouble(statistics);
+        }
+
+        public void set(BadgeStatistics statistics, double value) {
+            setter.accept(statistics, value);
+        }
+
+        public static Optional<Counter> ofKey(String key) {
+            for (Counter counter : values()) {
+                if (counter.key.equals(key)) {
+                    return Optional.of(counter);
+                }
+            }
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.medibook.api.entity;
+
+public enum OutboxEventType {
+    APPOINTMENT_CONFIRMATION_EMAIL_PATIENT,
+    APPOINTMENT_CONFIRMATION_EMAIL_DOCTOR,
+    APPOINTMENT_SERIES_EMAIL_PATIENT,
+    APPOINTMENT_CANCELLATION_EMAIL_PATIENT,
+    APPOINTMENT_CANCELLATION_EMAIL_DOCTOR,
+    MODIFICATION_APPROVED_EMAIL_PATIENT,
+    MODIFICATION_APPROVED_EMAIL_DOCTOR,
+    TURN_RESERVED_NOTIFICATION,
+    TURN_SERIES_RESERVED_NOTIFICATION,
+    TURN_CANCELLED_NOTIFICATION,
+    MODIFY_REQUEST_APPROVED_NOTIFICATION,
+    PATIENT_FILE_UPLOADED_NOTIFICATION,
+    BADGE_ADVANCE_BOOKING,
+    BADGE_TURN_CANCELLATION,
+    BADGE_TURN_COMPLETION,
+    BADGE_MODIFY_REQUEST_HANDLED,
+    BADGE_FILE_UPLOADED,
+    MEDICAL_CHECK_COMPLETION,
+    TURN_FILE_DELETION
+}
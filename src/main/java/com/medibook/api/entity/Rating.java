@@ -3,6 +3,8 @@ package com.medibook.api.entity;
 import jakarta.persistence.*;
 import lombok.*;
 import java.time.OffsetDateTime;
+import java.util.LinkedHashSet;
+import java.util.Set;
 import java.util.UUID;
 
 @Entity
@@ -36,6 +38,12 @@ public class Rating {
     @Column(name = "subcategory")
     private String subcategory; 
 
+    @ElementCollection
+    @CollectionTable(name = "rating_subcategories", joinColumns = @JoinColumn(name = "rating_id"))
+    @Column(name = "subcategory", nullable = false)
+    @Builder.Default
+    private Set<String> subcategories = new LinkedHashSet<>();
+
     @Column(name = "created_at", nullable = false)
     private OffsetDateTime createdAt;
 }
@@ -0,0 +1,126 @@
+package com.medibook.api.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Type;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Ratings one user received during a calendar day or month (Argentina time): count, score
+ * sum and subcategory mentions keyed by rater role, in the same layout as
+ * {@link RatingSummary}. New ratings go to the day bucket; old day buckets are compacted
+ * into month buckets so each user keeps a bounded number of rows.
+ */
+@Entity
+@Table(name = "rating_buckets")
+@IdClass(RatingBucket.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class RatingBucket {
+
+    public static final String DAY = "DAY";
+    public static final String MONTH = "MONTH";
+
+    @Id
+    @Column(name = "rated_id")
+    private UUID ratedId;
+
+    @Id
+    @Column(name = "granularity", length = 5)
+    private String granularity;
+
+    @Id
+    @Column(name = "bucket_start")
+    private LocalDate bucketStart;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "score_sum", nullable = false)
+    private long scoreSum;
+
+    @Type(JsonBinaryType.class)
+    @Column(name = "subcategory_counts", columnDefinition = "jsonb", nullable = false)
+    private JsonNode subcategoryCounts = JsonNodeFactory.instance.objectNode();
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    public RatingBucket(UUID ratedId, String granularity, LocalDate bucketStart) {
+        this.ratedId = ratedId;
+        this.granularity = granularity;
+        this.bucketStart = bucketStart;
+    }
+
+    public void add(int score, String raterRole, Collection<String> subcategories) {
+        ratingCount++;
+        scoreSum += score;
+        if (subcategories.isEmpty()) {
+            return;
+        }
+        ObjectNode counts = mutableCounts();
+        ObjectNode roleCounts = counts.get(raterRole) instanceof ObjectNode existing
+                ? existing
+                : counts.putObject(raterRole);
+        for (String subcategory : subcategories) {
+            roleCounts.put(subcategory, roleCounts.path(subcategory).asLong(0) + 1);
+        }
+        this.subcategoryCounts = counts;
+    }
+
+    /**
+     * Adds the ratings of another bucket, as when a day is rolled into its month.
+     */
+    public void merge(RatingBucket other) {
+        ratingCount += other.ratingCount;
+        scoreSum += other.scoreSum;
+        if (other.subcategoryCounts == null || other.subcategoryCounts.isEmpty()) {
+            return;
+        }
+        ObjectNode counts = mutableCounts();
+        for (Map.Entry<String, JsonNode> role : other.subcategoryCounts.properties()) {
+            ObjectNode roleCounts = counts.get(role.getKey()) instanceof ObjectNode existing
+                    ? existing
+                    : counts.putObject(role.getKey());
+            for (Map.Entry<String, JsonNode> subcategory : role.getValue().properties()) {
+                roleCounts.put(subcategory.getKey(),
+                        roleCounts.path(subcategory.getKey()).asLong(0) + subcategory.getValue().asLong());
+            }
+        }
+        this.subcategoryCounts = counts;
+    }
+
+    private ObjectNode mutableCounts() {
+        return subcategoryCounts instanceof ObjectNode object
+                ? object.deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = OffsetDateTime.now();
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private UUID ratedId;
+        private String granularity;
+        private LocalDate bucketStart;
+    }
+}
@@ -0,0 +1,115 @@
+package com.medibook.api.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vladmihalcea.hibernate.type.json.JsonBinaryType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.Type;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Rating aggregates of one rated user: a 1-5 score histogram and the number of ratings
+ * mentioning each subcategory, keyed by the role of the rater
+ * ({@code {"PATIENT": {"Explica claramente": 3}}}). Kept in step with every new rating so
+ * reads never scan the ratings table. The rating count and score sum live on the user row.
+ */
+@Entity
+@Table(name = "rating_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+public class RatingSummary {
+
+    public static final int MIN_SCORE = 1;
+    public static final int MAX_SCORE = 5;
+
+    @Id
+    @Column(name = "rated_id")
+    private UUID ratedId;
+
+    @Column(name = "score_1_count", nullable = false)
+    private long score1Count;
+
+    @Column(name = "score_2_count", nullable = false)
+    private long score2Count;
+
+    @Column(name = "score_3_count", nullable = false)
+    private long score3Count;
+
+    @Column(name = "score_4_count", nullable = false)
+    private long score4Count;
+
+    @Column(name = "score_5_count", nullable = false)
+    private long score5Count;
+
+    @Type(JsonBinaryType.class)
+    @Column(name = "subcategory_counts", columnDefinition = "jsonb", nullable = false)
+    private JsonNode subcategoryCounts = JsonNodeFactory.instance.objectNode();
+
+    @Column(name = "updated_at", nullable = false)
+    private OffsetDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
+    public RatingSummary(UUID ratedId) {
+        this.ratedId = ratedId;
+    }
+
+    public long getScoreCount(int score) {
+        return switch (score) {
+            case 1 -> score1Count;
+            case 2 -> score2Count;
+            case 3 -> score3Count;
+            case 4 -> score4Count;
+            case 5 -> score5Count;
+            default -> throw new IllegalArgumentException("Score must be between 1 and 5");
+        };
+    }
+
+    /**
+     * Adds {@code count} ratings with the same score, rater role and subcategories.
+     */
+    public void add(int score, long count, String raterRole, Collection<String> subcategories) {
+        switch (score) {
+            case 1 -> score1Count += count;
+            case 2 -> score2Count += count;
+            case 3 -> score3Count += count;
+            case 4 -> score4Count += count;
+            case 5 -> score5Count += count;
+            default -> throw new IllegalArgumentException("Score must be between 1 and 5");
+        }
+        addSubcategories(raterRole, subcategories, count);
+    }
+
+    /**
+     * Adds {@code count} mentions of each subcategory without touching the histogram, for
+     * rebuilds that aggregate scores and subcategories separately.
+     */
+    public void addSubcategories(String raterRole, Collection<String> subcategories, long count) {
+        if (subcategories.isEmpty()) {
+            return;
+        }
+        ObjectNode counts = subcategoryCounts instanceof ObjectNode object
+                ? object.deepCopy()
+                : JsonNodeFactory.instance.objectNode();
+        ObjectNode roleCounts = counts.get(raterRole) instanceof ObjectNode existing
+                ? existing
+                : counts.putObject(raterRole);
+        for (String subcategory : subcategories) {
+            roleCounts.put(subcategory, roleCounts.path(subcategory).asLong(0) + count);
+        }
+        this.subcategoryCounts = counts;
+    }
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = OffsetDateTime.now();
+    }
+}
@@ -7,6 +7,15 @@ import java.util.UUID;
 
 @Entity
 @Table(name = "turns_assigned")
+@NamedEntityGraph(
+        name = TurnAssigned.LISTING_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "doctor", subgraph = "user"),
+                @NamedAttributeNode(value = "patient", subgraph = "user"),
+                @NamedAttributeNode("familyMember")
+        },
+        subgraphs = @NamedSubgraph(name = "user", attributeNodes = @NamedAttributeNode("doctorProfile"))
+)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -14,6 +23,8 @@ import java.util.UUID;
 @Builder
 public class TurnAssigned {
 
+    public static final String LISTING_GRAPH = "TurnAssigned.listing";
+
     @Id
     @GeneratedValue
     private UUID id;
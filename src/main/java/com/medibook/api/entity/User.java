@@ -12,6 +12,7 @@ import java.util.ArrayList;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Getter
@@ -57,9 +58,17 @@ public class User {
     @Column(nullable = false)
     private String role = "PATIENT";
 
-    @Column(name = "score")
+    @Column(name = "score", insertable = false, updatable = false)
     private Double score;
 
+    @ColumnDefault("0")
+    @Column(name = "rating_sum", nullable = false, insertable = false, updatable = false)
+    private long ratingSum;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_count", nullable = false, insertable = false, updatable = false)
+    private long ratingCount;
+
     @OneToMany(mappedBy = "patient", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<MedicalHistory> medicalHistories = new ArrayList<>();
 
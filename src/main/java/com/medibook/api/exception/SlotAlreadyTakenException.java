@@ -0,0 +1,12 @@
+package com.medibook.api.exception;
+
+public class SlotAlreadyTakenException extends RuntimeException {
+
+    public SlotAlreadyTakenException(String message) {
+        super(message);
+    }
+
+    public SlotAlreadyTakenException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package com.medibook.api.exception;
+
+public class SlotHoldLimitExceededException extends RuntimeException {
+
+    public SlotHoldLimitExceededException(String message) {
+        super(message);
+    }
+}
@@ -10,7 +10,14 @@ import com.medibook.api.service.TurnFileService;
 import org.springframework.stereotype.Component;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 @Component
 @RequiredArgsConstructor
@@ -49,6 +56,57 @@ public class TurnAssignedMapper {
         
         Optional<TurnFile> turnFile = turnFileService.getTurnFileInfo(turn.getId());
         
+        return toDTO(turn, needsPatientRating, needsDoctorRating, turnFile);
+    }
+
+    /**
+     * Maps a list of turns with one query for the ratings of the completed turns and one
+     * for their files, instead of three queries per turn. Associations are expected to be
+     * fetched by the caller's query.
+     */
+    public List<TurnResponseDTO> toDTOs(List<TurnAssigned> turns) {
+        if (turns.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UUID> turnIds = new ArrayList<>(turns.size());
+        List<UUID> completedTurnIds = new ArrayList<>();
+        for (TurnAssigned turn : turns) {
+            turnIds.add(turn.getId());
+            if ("COMPLETED".equals(turn.getStatus())) {
+                completedTurnIds.add(turn.getId());
+            }
+        }
+
+        Map<UUID, Set<UUID>> ratersByTurn = new HashMap<>();
+        if (!completedTurnIds.isEmpty()) {
+            for (Object[] row : ratingRepository.findRaterIdsByTurnIds(completedTurnIds)) {
+                ratersByTurn.computeIfAbsent((UUID) row[0], id -> new HashSet<>()).add((UUID) row[1]);
+            }
+        }
+
+        Map<UUID, TurnFile> filesByTurn = new HashMap<>();
+        for (TurnFile file : turnFileService.getTurnFileInfos(turnIds)) {
+            filesByTurn.put(file.getTurnId(), file);
+        }
+
+        List<TurnResponseDTO> result = new ArrayList<>(turns.size());
+        for (TurnAssigned turn : turns) {
+            boolean needsPatientRating = false;
+            boolean needsDoctorRating = false;
+            if (turn.getPatient() != null && turn.getDoctor() != null && "COMPLETED".equals(turn.getStatus())) {
+                Set<UUID> raters = ratersByTurn.getOrDefault(turn.getId(), Set.of());
+                needsPatientRating = !raters.contains(turn.getPatient().getId());
+                needsDoctorRating = !raters.contains(turn.getDoctor().getId());
+            }
+            result.add(toDTO(turn, needsPatientRating, needsDoctorRating,
+                    Optional.ofNullable(filesByTurn.get(turn.getId()))));
+        }
+        return result;
+    }
+
+    private TurnResponseDTO toDTO(TurnAssigned turn, boolean needsPatientRating, boolean needsDoctorRating,
+                                  Optional<TurnFile> turnFile) {
         return TurnResponseDTO.builder()
                 .id(turn.getId())
                 .doctorId(turn.getDoctor().getId())
@@ -0,0 +1,58 @@
+package com.medibook.api.model;
+
+/**
+ * Values a badge rule can be defined over. Statistics metrics are read from the user's typed
+ * statistics columns, the others are loaded from their own tables or derived from the user's
+ * current badges.
+ */
+public enum BadgeMetric {
+
+    TURNS_COMPLETED(Source.STATISTICS, "total_turns_completed"),
+    TURNS_WITH_SAME_DOCTOR(Source.STATISTICS, "turns_with_same_doctor"),
+    CANCELLATIONS(Source.STATISTICS, "total_cancellations"),
+    ADVANCE_BOOKINGS(Source.STATISTICS, "advance_bookings"),
+    FILES_UPLOADED(Source.STATISTICS, "files_uploaded"),
+    RATINGS_GIVEN(Source.STATISTICS, "ratings_given"),
+    AVG_RATING_GIVEN(Source.STATISTICS, "avg_rating_given"),
+    DOCTOR_PUNCTUALITY_MENTIONS(Source.STATISTICS, "doctor_punctuality_mentions"),
+    DOCTOR_COLLABORATION_MENTIONS(Source.STATISTICS, "doctor_collaboration_mentions"),
+    COMMUNICATION_COUNT(Source.STATISTICS, "total_communication_count"),
+    EMPATHY_COUNT(Source.STATISTICS, "total_empathy_count"),
+    PUNCTUALITY_COUNT(Source.STATISTICS, "total_punctuality_count"),
+    DOCUMENTATION_COUNT(Source.STATISTICS, "documentation_count"),
+    REQUESTS_HANDLED(Source.STATISTICS, "total_requests_handled"),
+    RECENT_HIGH_SCORE_RATINGS(Source.STATISTICS, "recent_patient_high_scores"),
+
+    DISTINCT_PATIENTS(Source.TURNS, null),
+    AVAILABLE_DAYS(Source.DOCTOR_PROFILE, null),
+
+    ACTIVE_DEPENDENCIES(Source.BADGES, null),
+    OTHER_ACTIVE_BADGES(Source.BADGES, null);
+
+    public enum Source {
+        STATISTICS, TURNS, DOCTOR_PROFILE, BADGES
+    }
+
+    private final Source source;
+    private final String statisticsKey;
+
+    BadgeMetric(Source source, String statisticsKey) {
+        this.source = source;
+        this.statisticsKey = statisticsKey;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public String getStatisticsKey() {
+        return statisticsKey;
+    }
+
+    /**
+     * Whether the value has to be loaded once per evaluation from outside the statistics.
+     */
+    public boolean isLoaded() {
+        return source == Source.TURNS || source == Source.DOCTOR_PROFILE;
+    }
+}
@@ -0,0 +1,72 @@
+package com.medibook.api.model;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Declarative definition of a badge: which metric earns it, for which role and after which
+ * events it is evaluated.
+ * <p>
+ * A rule may have a gate: while {@code gateMetric} is under {@code gateThreshold} the
+ * badge is inactive and its progress is the progress towards the gate. Past the gate (or
+ * without one) the {@link Condition} decides the badge, and {@link ProgressMode} decides
+ * which progress is reported.
+ */
+@Getter
+@Builder
+public class BadgeRuleDefinition {
+
+    public enum Condition {
+        /** {@code metric >= threshold}; progress is the share of the threshold reached. */
+        AT_LEAST,
+        /** {@code threshold <= metric <= upperBound}. */
+        BETWEEN,
+        /** {@code metric / divisor < threshold}; progress is all or nothing. */
+        RATIO_BELOW
+    }
+
+    public enum ProgressMode {
+        CONDITION,
+        GATE,
+        AVERAGE_OF_GATE_AND_CONDITION
+    }
+
+    private final String badgeType;
+    private final String role;
+    @Singular
+    private final Set<BadgeTrigger> triggers;
+
+    private final BadgeMetric gateMetric;
+    private final double gateThreshold;
+
+    @Builder.Default
+    private final Condition condition = Condition.AT_LEAST;
+    private final BadgeMetric metric;
+    private final BadgeMetric divisor;
+    private final double threshold;
+    private final double upperBound;
+    @Builder.Default
+    private final ProgressMode progressMode = ProgressMode.CONDITION;
+
+    /** Badges that must be active; evaluated with {@link BadgeMetric#ACTIVE_DEPENDENCIES}. */
+    @Singular
+    private final List<String> dependencies;
+
+    /** Once earned the badge is kept even if the metric drops again. */
+    private final boolean awardOnly;
+
+    public static BadgeRuleDefinitionBuilder atLeast(String badgeType, String role, BadgeMetric metric, double threshold) {
+        return builder().badgeType(badgeType).role(role).metric(metric).threshold(threshold);
+    }
+
+    public static BadgeRuleDefinitionBuilder requiresBadges(String badgeType, String role, List<String> dependencies) {
+        return builder().badgeType(badgeType).role(role)
+                .metric(BadgeMetric.ACTIVE_DEPENDENCIES)
+                .threshold(dependencies.size())
+                .dependencies(dependencies);
+    }
+}
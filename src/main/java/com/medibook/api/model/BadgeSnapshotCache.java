@@ -0,0 +1,108 @@
+package com.medibook.api.model;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Serialized badge responses per user in an access-ordered LRU map bounded by the total size
+ * of the snapshots. Invalidating a user bumps the generation of the user's stripe; a snapshot
+ * built from data read before that bump is returned to its caller but not stored, so a slow
+ * reader racing a write never caches a response older than the write.
+ */
+public class BadgeSnapshotCache {
+
+    public enum Kind {
+        BADGES, PROGRESS
+    }
+
+    private record Key(UUID userId, Kind kind) {
+    }
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final LinkedHashMap<Key, byte[]> snapshots = new LinkedHashMap<>(64, 0.75f, true);
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final long maxBytes;
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public BadgeSnapshotCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    public byte[] get(UUID userId, Kind kind, Supplier<byte[]> loader) {
+        Key key = new Key(userId, kind);
+        byte[] cached;
+        synchronized (this) {
+            cached = snapshots.get(key);
+        }
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+
+        misses.increment();
+        int stripe = stripe(userId);
+        long generation = generations.get(stripe);
+        byte[] loaded = loader.get();
+        synchronized (this) {
+            if (generations.get(stripe) == generation && loaded.length <= maxBytes) {
+                byte[] previous = snapshots.put(key, loaded);
+                bytes += loaded.length - (previous == null ? 0 : previous.length);
+                evictOverflow();
+            }
+        }
+        return loaded;
+    }
+
+    public synchronized void invalidate(UUID userId) {
+        generations.incrementAndGet(stripe(userId));
+        for (Kind kind : Kind.values()) {
+            byte[] removed = snapshots.remove(new Key(userId, kind));
+            if (removed != null) {
+                bytes -= removed.length;
+            }
+        }
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public synchronized int size() {
+        return snapshots.size();
+    }
+
+    public synchronized long bytes() {
+        return bytes;
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<Key, byte[]>> eldest = snapshots.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static int stripe(UUID userId) {
+        return Math.floorMod(userId.hashCode(), GENERATION_STRIPES);
+    }
+}
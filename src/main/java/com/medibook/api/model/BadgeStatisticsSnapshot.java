@@ -0,0 +1,60 @@
+package com.medibook.api.model;
+
+import com.medibook.api.entity.BadgeStatistics;
+import com.medibook.api.entity.BadgeStatistics.Counter;
+
+import java.util.Arrays;
+
+/**
+ * Primitive view of one user's badge statistics, indexed by {@link BadgeMetric#ordinal()}.
+ * Statistics metrics are read from their typed columns when the snapshot is taken; loaded metrics
+ * start as missing until {@link #put} is called, so rules over a metric that failed to load
+ * can be skipped.
+ */
+public final class BadgeStatisticsSnapshot {
+
+    private static final BadgeMetric[] METRICS = BadgeMetric.values();
+    private static final Counter[] COUNTERS = new Counter[METRICS.length];
+
+    static {
+        for (BadgeMetric metric : METRICS) {
+            if (metric.getSource() == BadgeMetric.Source.STATISTICS) {
+                COUNTERS[metric.ordinal()] = Counter.ofKey(metric.getStatisticsKey())
+                        .orElseThrow(() -> new IllegalStateException("No statistics column for " + metric));
+            }
+        }
+    }
+
+    private final double[] values = new double[METRICS.length];
+
+    private BadgeStatisticsSnapshot() {
+        Arrays.fill(values, Double.NaN);
+    }
+
+    public static BadgeStatisticsSnapshot of(BadgeStatistics statistics, BadgeMetric... metrics) {
+        BadgeStatisticsSnapshot snapshot = new BadgeStatisticsSnapshot();
+        for (BadgeMetric metric : metrics) {
+            Counter counter = COUNTERS[metric.ordinal()];
+            if (counter != null) {
+                snapshot.values[metric.ordinal()] = counter.get(statistics);
+            }
+        }
+        return snapshot;
+    }
+
+    public void put(BadgeMetric metric, double value) {
+        values[metric.ordinal()] = value;
+    }
+
+    public double get(BadgeMetric metric) {
+        return values[metric.ordinal()];
+    }
+
+    public double get(int metricIndex) {
+        return values[metricIndex];
+    }
+
+    public boolean isMissing(int metricIndex) {
+        return Double.isNaN(values[metricIndex]);
+    }
+}
@@ -0,0 +1,16 @@
+package com.medibook.api.model;
+
+/**
+ * Events after which a subset of badges is evaluated again.
+ */
+public enum BadgeTrigger {
+    TURN,
+    TURN_COMPLETION,
+    RATING,
+    FILE,
+    BOOKING,
+    DOCUMENTATION,
+    CONSISTENCY,
+    RESPONSE,
+    AVAILABILITY
+}
@@ -0,0 +1,155 @@
+package com.medibook.api.model;
+
+import com.medibook.api.dto.Availability.AvailableSlotDTO;
+import com.medibook.api.dto.Availability.DayAvailabilityDTO;
+import com.medibook.api.dto.Availability.TimeRangeDTO;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Weekly availability of a doctor compiled from the stored JSON schedule into
+ * primitive minute-of-day ranges, with the slot starts of every weekday
+ * precomputed and sorted. Instances are immutable and safe to share.
+ */
+public final class CompiledSchedule {
+
+    private static final int[] NO_SLOTS = new int[0];
+    private static final EnumMap<DayOfWeek, String> DAY_NAMES = new EnumMap<>(DayOfWeek.class);
+
+    static {
+        for (DayOfWeek day : DayOfWeek.values()) {
+            DAY_NAMES.put(day, day.getDisplayName(TextStyle.FULL, Locale.ENGLISH));
+        }
+    }
+
+    private final int slotDurationMin;
+    private final EnumMap<DayOfWeek, int[]> minuteRanges;
+    private final EnumMap<DayOfWeek, int[]> slotStarts;
+    private final boolean empty;
+
+    private CompiledSchedule(int slotDurationMin, EnumMap<DayOfWeek, int[]> minuteRanges) {
+        this.slotDurationMin = slotDurationMin;
+        this.minuteRanges = minuteRanges;
+        this.slotStarts = new EnumMap<>(DayOfWeek.class);
+        int totalSlots = 0;
+        for (var entry : minuteRanges.entrySet()) {
+            int[] starts = computeSlotStarts(entry.getValue(), slotDurationMin);
+            slotStarts.put(entry.getKey(), starts);
+            totalSlots += starts.length;
+        }
+        this.empty = totalSlots == 0;
+    }
+
+    public static CompiledSchedule compile(List<DayAvailabilityDTO> weeklyAvailability, Integer slotDurationMin) {
+        int duration = slotDurationMin == null ? 0 : slotDurationMin;
+        EnumMap<DayOfWeek, List<int[]>> rangesByDay = new EnumMap<>(DayOfWeek.class);
+
+        if (weeklyAvailability != null && duration > 0) {
+            for (DayAvailabilityDTO day : weeklyAvailability) {
+                if (day == null || day.getDay() == null || !Boolean.TRUE.equals(day.getEnabled()) || day.getRanges() == null) {
+                    continue;
+                }
+                DayOfWeek dayOfWeek = parseDay(day.getDay());
+                if (dayOfWeek == null) {
+                    continue;
+                }
+                for (TimeRangeDTO range : day.getRanges()) {
+                    if (range == null || range.getStart() == null || range.getEnd() == null) {
+                        continue;
+                    }
+                    int start = toMinuteOfDay(LocalTime.parse(range.getStart()));
+                    int end = toMinuteOfDay(LocalTime.parse(range.getEnd()));
+                    if (end > start) {
+                        rangesByDay.computeIfAbsent(dayOfWeek, d -> new ArrayList<>()).add(new int[]{start, end});
+                    }
+                }
+            }
+        }
+
+        EnumMap<DayOfWeek, int[]> minuteRanges = new EnumMap<>(DayOfWeek.class);
+        for (var entry : rangesByDay.entrySet()) {
+            List<int[]> ranges = entry.getValue();
+            int[] flat = new int[ranges.size() * 2];
+            for (int i = 0; i < ranges.size(); i++) {
+                flat[i * 2] = ranges.get(i)[0];
+                flat[i * 2 + 1] = ranges.get(i)[1];
+            }
+            minuteRanges.put(entry.getKey(), flat);
+        }
+        return new CompiledSchedule(duration, minuteRanges);
+    }
+
+    public static int toMinuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    public int getSlotDurationMin() {
+        return slotDurationMin;
+    }
+
+    public boolean isEmpty() {
+        return empty;
+    }
+
+    /** Flattened {@code [start0, end0, start1, end1, ...]} minute-of-day ranges for the given day. */
+    public int[] minuteRanges(DayOfWeek day) {
+        return minuteRanges.getOrDefault(day, NO_SLOTS).clone();
+    }
+
+    /** Sorted, distinct minute-of-day slot starts for the given day. */
+    public int[] slotStarts(DayOfWeek day) {
+        return slotStarts.getOrDefault(day, NO_SLOTS);
+    }
+
+    public boolean isSlotStart(LocalDate date, LocalTime time) {
+        if (time.getSecond() != 0 || time.getNano() != 0) {
+            return false;
+        }
+        return Arrays.binarySearch(slotStarts(date.getDayOfWeek()), toMinuteOfDay(time)) >= 0;
+    }
+
+    public List<AvailableSlotDTO> toSlots(LocalDate fromDate, LocalDate toDate) {
+        List<AvailableSlotDTO> slots = new ArrayList<>();
+        for (LocalDate date = fromDate; !date.isAfter(toDate); date = date.plusDays(1)) {
+            DayOfWeek dayOfWeek = date.getDayOfWeek();
+            String dayName = DAY_NAMES.get(dayOfWeek);
+            for (int start : slotStarts(dayOfWeek)) {
+                LocalTime startTime = LocalTime.of(start / 60, start % 60);
+                slots.add(new AvailableSlotDTO(date, startTime, startTime.plusMinutes(slotDurationMin), dayName));
+            }
+        }
+        return slots;
+    }
+
+    private static int[] computeSlotStarts(int[] ranges, int slotDurationMin) {
+        int[] starts = new int[0];
+        int count = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            for (int start = ranges[i]; start + slotDurationMin <= ranges[i + 1]; start += slotDurationMin) {
+                if (count == starts.length) {
+                    starts = Arrays.copyOf(starts, Math.max(8, count * 2));
+                }
+                starts[count++] = start;
+            }
+        }
+        starts = Arrays.copyOf(starts, count);
+        Arrays.sort(starts);
+        return Arrays.stream(starts).distinct().toArray();
+    }
+
+    private static DayOfWeek parseDay(String day) {
+        try {
+            return DayOfWeek.valueOf(day.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.medibook.api.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.UnaryOperator;
+
+/**
+ * Doctors ranked per specialty by score, then rating count, then active badge count, with the
+ * doctor id breaking ties. Each specialty is a concurrent skip list ordered by that key, so an
+ * update is a remove and an insert in O(log n) and a page starting at a cursor costs
+ * O(log n + k). Updates of the same doctor are serialized; readers never block.
+ */
+public class DoctorLeaderboard {
+
+    public record Entry(UUID doctorId, String name, String surname, String specialty,
+                        Double score, long ratingCount, long activeBadges) {
+
+        public Entry withRating(Double newScore, long newRatingCount) {
+            return new Entry(doctorId, name, surname, specialty, newScore, newRatingCount, activeBadges);
+        }
+
+        public Entry withActiveBadges(long newActiveBadges) {
+            return new Entry(doctorId, name, surname, specialty, score, ratingCount, newActiveBadges);
+        }
+
+        public Position position() {
+            return new Position(score, ratingCount, activeBadges, doctorId);
+        }
+    }
+
+    /**
+     * Sort key of an entry, encoded as an opaque URL-safe cursor. A page continues strictly
+     * after the position, so entries that moved since the previous page are neither repeated
+     * nor skipped on account of the cursor itself.
+     */
+    public record Position(Double score, long ratingCount, long activeBadges, UUID doctorId) {
+
+        public String encode() {
+            String raw = (score == null ? "" : score.toString()) + "_" + ratingCount + "_" + activeBadges + "_" + doctorId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Position decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                String[] parts = raw.split("_", -1);
+                if (parts.length != 4) {
+                    throw new IllegalArgumentException("Invalid cursor");
+                }
+                Double score = parts[0].isEmpty() ? null : Double.valueOf(parts[0]);
+                return new Position(score, Long.parseLong(parts[1]), Long.parseLong(parts[2]), UUID.fromString(parts[3]));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        }
+
+        private Entry probe() {
+            return new Entry(doctorId, null, null, null, score, ratingCount, activeBadges);
+        }
+    }
+
+    public record Page(List<Entry> entries, Position next) {
+    }
+
+    static final Comparator<Entry> RANKING = Comparator
+            .comparing(Entry::score, Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(Entry::ratingCount, Comparator.reverseOrder())
+            .thenComparing(Entry::activeBadges, Comparator.reverseOrder())
+            .thenComparing(Entry::doctorId);
+
+    private final Map<String, NavigableSet<Entry>> bySpecialty = new ConcurrentHashMap<>();
+    private final Map<UUID, Entry> byDoctor = new ConcurrentHashMap<>();
+
+    /** Adds the doctor or replaces their entry, moving them to another specialty if it changed. */
+    public void put(Entry entry) {
+        byDoctor.compute(entry.doctorId(), (id, current) -> {
+            unlink(current);
+            ranking(entry.specialty()).add(entry);
+            return entry;
+        });
+    }
+
+    /**
+     * Like {@link #put}, but keeps the current score and rating count when they already include
+     * more ratings than the new entry, so a read that is applied late cannot roll a doctor back.
+     * The active badge count of an existing entry is always kept; only {@link #update} with
+     * {@link Entry#withActiveBadges} changes it.
+     */
+    public void putLatest(Entry entry) {
+        byDoctor.compute(entry.doctorId(), (id, current) -> {
+            Entry next = entry;
+            if (current != null) {
+                next = next.withActiveBadges(current.activeBadges());
+                if (current.ratingCount() > entry.ratingCount()) {
+                    next = next.withRating(current.score(), current.ratingCount());
+                }
+            }
+            unlink(current);
+            ranking(next.specialty()).add(next);
+            return next;
+        });
+    }
+
+    /** Applies the change to the doctor's entry; doctors not on the leaderboard are ignored. */
+    public boolean update(UUID doctorId, UnaryOperator<Entry> change) {
+        Entry updated = byDoctor.computeIfPresent(doctorId, (id, current) -> {
+            Entry next = change.apply(current);
+            unlink(current);
+            ranking(next.specialty()).add(next);
+            return next;
+        });
+        return updated != null;
+    }
+
+    public void remove(UUID doctorId) {
+        byDoctor.computeIfPresent(doctorId, (id, current) -> {
+            unlink(current);
+            return null;
+        });
+    }
+
+    public void replaceAll(Collection<Entry> entries) {
+        Set<UUID> current = new HashSet<>();
+        for (Entry entry : entries) {
+            put(entry);
+            current.add(entry.doctorId());
+        }
+        byDoctor.keySet().stream()
+                .filter(doctorId -> !current.contains(doctorId))
+                .toList()
+                .forEach(this::remove);
+    }
+
+    public Optional<Entry> get(UUID doctorId) {
+        return Optional.ofNullable(byDoctor.get(doctorId));
+    }
+
+    /** Up to {@code limit} entries of the specialty ranked after {@code after}, or from the top when it is null. */
+    public Page page(String specialty, Position after, int limit) {
+        NavigableSet<Entry> ranking = bySpecialty.get(specialty);
+        if (ranking == null) {
+            return new Page(List.of(), null);
+        }
+        Iterator<Entry> iterator = (after == null ? ranking : ranking.tailSet(after.probe(), false)).iterator();
+        List<Entry> entries = new ArrayList<>(limit);
+        while (entries.size() < limit && iterator.hasNext()) {
+            entries.add(iterator.next());
+        }
+        Position next = iterator.hasNext() && !entries.isEmpty() ? entries.get(entries.size() - 1).position() : null;
+        return new Page(entries, next);
+    }
+
+    private NavigableSet<Entry> ranking(String specialty) {
+        return bySpecialty.computeIfAbsent(specialty, key -> new ConcurrentSkipListSet<>(RANKING));
+    }
+
+    private void unlink(Entry entry) {
+        if (entry != null) {
+            NavigableSet<Entry> ranking = bySpecialty.get(entry.specialty());
+            if (ranking != null) {
+                ranking.remove(entry);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.medibook.api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes export rows to a response stream as they are read. Columns are the record
+ * components of the row type, in declaration order. Output is flushed every
+ * {@link #FLUSH_EVERY} rows so clients receive data while the query is still running.
+ */
+public class ExportWriter<T extends Record> {
+
+    /** JDBC fetch size of the export queries, so the driver holds one batch of rows at a time. */
+    public static final String FETCH_SIZE = "500";
+
+    static final int FLUSH_EVERY = 500;
+
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private final ExportFormat format;
+    private final RecordComponent[] columns;
+    private final ObjectWriter jsonWriter;
+    private final Writer out;
+    private long rows;
+
+    public ExportWriter(Class<T> rowType, ExportFormat format, ObjectMapper objectMapper, OutputStream out) {
+        this.format = format;
+        this.columns = rowType.getRecordComponents();
+        this.jsonWriter = objectMapper.writerFor(rowType);
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    public void writeHeader() throws IOException {
+        if (format != ExportFormat.CSV) {
+            return;
+        }
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.write(columns[i].getName());
+        }
+        out.write("\r\n");
+    }
+
+    /**
+     * Writes one row. Throws {@link InterruptedIOException} once the export thread has been
+     * interrupted, which happens when the request times out or the client goes away.
+     */
+    public void write(T row) throws IOException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new InterruptedIOException("Export cancelled after " + rows + " rows");
+        }
+        if (format == ExportFormat.CSV) {
+            writeCsv(row);
+        } else {
+            out.write(jsonWriter.writeValueAsString(row));
+            out.write('\n');
+        }
+        if (++rows % FLUSH_EVERY == 0) {
+            out.flush();
+        }
+    }
+
+    public long finish() throws IOException {
+        out.flush();
+        return rows;
+    }
+
+    private void writeCsv(T row) throws IOException {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = valueOf(columns[i], row);
+            if (value instanceof Number) {
+                out.write(value.toString());
+            } else if (value != null) {
+                out.write(escapeCsv(value.toString()));
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private static Object valueOf(RecordComponent column, Record row) {
+        try {
+            return column.getAccessor().invoke(row);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot read export column " + column.getName(), e);
+        }
+    }
+
+    /**
+     * Quotes the value when needed. Text starting with a formula character gets a leading
+     * apostrophe so spreadsheets show it as text instead of evaluating it (CSV injection).
+     */
+    static String escapeCsv(String value) {
+        if (!value.isEmpty() && FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0) {
+            value = "'" + value;
+        }
+        boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        return quote ? '"' + value.replace("\"", "\"\"") + '"' : value;
+    }
+}
@@ -0,0 +1,38 @@
+package com.medibook.api.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a rating listing ordered by (created_at, id), most recent first. Encoded as an
+ * opaque URL-safe token like {@link TurnCursor}.
+ */
+public record RatingCursor(OffsetDateTime createdAt, UUID id) {
+
+    /** Starts a listing before every stored rating. */
+    public static final RatingCursor FIRST = new RatingCursor(TurnCursor.FAR_FUTURE, TurnCursor.MIN_ID);
+
+    public String encode() {
+        String raw = createdAt.toInstant() + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RatingCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            OffsetDateTime createdAt = OffsetDateTime.ofInstant(Instant.parse(raw.substring(0, separator)), ZoneOffset.UTC);
+            return new RatingCursor(createdAt, UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
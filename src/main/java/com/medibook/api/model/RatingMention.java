@@ -0,0 +1,83 @@
+package com.medibook.api.model;
+
+import com.medibook.api.dto.Rating.RatingSubcategory;
+import com.medibook.api.dto.Rating.RatingSubcategoryPatient;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rating subcategories that count towards a badge statistic. A rating mentions a quality
+ * when it scores at least {@link #MIN_SCORE} and carries one of the quality's subcategories.
+ * Patients rate doctors with {@link RatingSubcategory} and doctors rate patients with
+ * {@link RatingSubcategoryPatient}, so the doctor-only mentions use the latter.
+ */
+public enum RatingMention {
+
+    COMMUNICATION("total_communication_count",
+            RatingSubcategory.EXPLICA_CLARAMENTE, RatingSubcategory.ESCUCHA_AL_PACIENTE),
+    EMPATHY("total_empathy_count",
+            RatingSubcategory.DEMUESTRA_EMPATIA, RatingSubcategory.GENERA_CONFIANZA, RatingSubcategory.EXCELENTE_ATENCION),
+    PUNCTUALITY("total_punctuality_count",
+            RatingSubcategory.RESPETA_HORARIOS, RatingSubcategory.TIEMPO_DE_ESPERA_ACEPTABLE),
+    DOCTOR_COLLABORATION("doctor_collaboration_mentions",
+            RatingSubcategoryPatient.COLABORA_EN_CONSULTA, RatingSubcategoryPatient.SIGUE_INDICACIONES),
+    DOCTOR_PUNCTUALITY("doctor_punctuality_mentions",
+            RatingSubcategoryPatient.LLEGA_PUNTUAL);
+
+    public static final int MIN_SCORE = 4;
+
+    private static final Map<RatingSubcategory, RatingMention> BY_SUBCATEGORY = new EnumMap<>(RatingSubcategory.class);
+    private static final Map<RatingSubcategoryPatient, RatingMention> BY_PATIENT_SUBCATEGORY = new EnumMap<>(RatingSubcategoryPatient.class);
+    private static final Map<String, RatingMention> BY_LABEL = new HashMap<>();
+
+    static {
+        for (RatingMention mention : values()) {
+            for (RatingSubcategory subcategory : mention.subcategories) {
+                BY_SUBCATEGORY.put(subcategory, mention);
+                BY_LABEL.put(subcategory.getLabel().toLowerCase(Locale.ROOT), mention);
+            }
+            for (RatingSubcategoryPatient subcategory : mention.patientSubcategories) {
+                BY_PATIENT_SUBCATEGORY.put(subcategory, mention);
+                BY_LABEL.put(subcategory.getLabel().toLowerCase(Locale.ROOT), mention);
+            }
+        }
+    }
+
+    private final String statisticsKey;
+    private final RatingSubcategory[] subcategories;
+    private final RatingSubcategoryPatient[] patientSubcategories;
+
+    RatingMention(String statisticsKey, RatingSubcategory... subcategories) {
+        this.statisticsKey = statisticsKey;
+        this.subcategories = subcategories;
+        this.patientSubcategories = new RatingSubcategoryPatient[0];
+    }
+
+    RatingMention(String statisticsKey, RatingSubcategoryPatient... patientSubcategories) {
+        this.statisticsKey = statisticsKey;
+        this.subcategories = new RatingSubcategory[0];
+        this.patientSubcategories = patientSubcategories;
+    }
+
+    public String getStatisticsKey() {
+        return statisticsKey;
+    }
+
+    /** The mention a doctor's subcategory counts towards, or {@code null}. */
+    public static RatingMention of(RatingSubcategory subcategory) {
+        return BY_SUBCATEGORY.get(subcategory);
+    }
+
+    /** The mention a patient's subcategory counts towards, or {@code null}. */
+    public static RatingMention of(RatingSubcategoryPatient subcategory) {
+        return BY_PATIENT_SUBCATEGORY.get(subcategory);
+    }
+
+    /** The mention a stored subcategory label counts towards, or {@code null}. */
+    public static RatingMention ofLabel(String label) {
+        return label == null ? null : BY_LABEL.get(label.trim().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,51 @@
+package com.medibook.api.model;
+
+import com.medibook.api.dto.Rating.RatingSubcategory;
+import com.medibook.api.dto.Rating.RatingSubcategoryPatient;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Score, resolved subcategories and rater role of one new rating, handed to the badge
+ * statistics so the running aggregates can be updated without reading the user's rating
+ * history. Patients pick {@link RatingSubcategory} values and doctors pick
+ * {@link RatingSubcategoryPatient} values, so only one of the two sets is filled.
+ */
+public record RatingSample(int score, Set<RatingSubcategory> subcategories,
+                           Set<RatingSubcategoryPatient> patientSubcategories, String raterRole) {
+
+    public RatingSample {
+        subcategories = subcategories == null ? Set.of() : Set.copyOf(subcategories);
+        patientSubcategories = patientSubcategories == null ? Set.of() : Set.copyOf(patientSubcategories);
+    }
+
+    public boolean isLow() {
+        return score < RatingMention.MIN_SCORE;
+    }
+
+    public boolean isFromPatient() {
+        return "PATIENT".equals(raterRole);
+    }
+
+    /** The qualities this rating counts towards; none when the score is low. */
+    public Set<RatingMention> mentions() {
+        Set<RatingMention> mentions = EnumSet.noneOf(RatingMention.class);
+        if (isLow()) {
+            return mentions;
+        }
+        for (RatingSubcategory subcategory : subcategories) {
+            RatingMention mention = RatingMention.of(subcategory);
+            if (mention != null) {
+                mentions.add(mention);
+            }
+        }
+        for (RatingSubcategoryPatient subcategory : patientSubcategories) {
+            RatingMention mention = RatingMention.of(subcategory);
+            if (mention != null) {
+                mentions.add(mention);
+            }
+        }
+        return mentions;
+    }
+}
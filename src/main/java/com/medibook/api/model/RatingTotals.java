@@ -0,0 +1,8 @@
+package com.medibook.api.model;
+
+/**
+ * Running rating sum, rating count and derived score of a user as stored in the users table,
+ * including ratings committed concurrently by other transactions.
+ */
+public record RatingTotals(long ratingSum, long ratingCount, Double score) {
+}
@@ -0,0 +1,90 @@
+package com.medibook.api.model;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.List;
+
+/**
+ * The last {@link #SIZE} scores a doctor received from patients, kept as a ring buffer in the
+ * badge statistics. Once the window is full a new score overwrites the oldest one, so the
+ * number of high scores in the window is maintained in O(1) per rating.
+ */
+public final class RatingWindow {
+
+    public static final int SIZE = 35;
+
+    private final int[] scores = new int[SIZE];
+    private int size;
+    private int next;
+    private int highScores;
+
+    public static RatingWindow empty() {
+        return new RatingWindow();
+    }
+
+    /** Window holding the given scores, oldest first; only the last {@link #SIZE} are kept. */
+    public static RatingWindow of(List<Integer> scoresOldestFirst) {
+        RatingWindow window = new RatingWindow();
+        for (Integer score : scoresOldestFirst) {
+            if (score != null) {
+                window.add(score);
+            }
+        }
+        return window;
+    }
+
+    /** Reads a window written by {@link #toJson()}; anything else is treated as an empty window. */
+    public static RatingWindow fromJson(JsonNode json) {
+        RatingWindow window = new RatingWindow();
+        if (json == null || !json.path("scores").isArray()) {
+            return window;
+        }
+        JsonNode scores = json.get("scores");
+        int next = json.path("next").asInt(0);
+        if (scores.size() > SIZE || next < 0 || next >= SIZE || (scores.size() < SIZE && next != scores.size() % SIZE)) {
+            return window;
+        }
+        for (int i = 0; i < scores.size(); i++) {
+            window.scores[i] = scores.get(i).asInt();
+            if (window.scores[i] >= RatingMention.MIN_SCORE) {
+                window.highScores++;
+            }
+        }
+        window.size = scores.size();
+        window.next = next;
+        return window;
+    }
+
+    public void add(int score) {
+        if (size == SIZE && scores[next] >= RatingMention.MIN_SCORE) {
+            highScores--;
+        }
+        scores[next] = score;
+        if (score >= RatingMention.MIN_SCORE) {
+            highScores++;
+        }
+        next = (next + 1) % SIZE;
+        size = Math.min(size + 1, SIZE);
+    }
+
+    public int getHighScores() {
+        return highScores;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public ObjectNode toJson() {
+        ObjectNode json = JsonNodeFactory.instance.objectNode();
+        ArrayNode array = json.putArray("scores");
+        for (int i = 0; i < size; i++) {
+            array.add(scores[i]);
+        }
+        json.put("next", next);
+        return json;
+    }
+}
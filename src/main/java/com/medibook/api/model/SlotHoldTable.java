@@ -0,0 +1,224 @@
+package com.medibook.api.model;
+
+import com.medibook.api.exception.SlotHoldLimitExceededException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory leases on (doctor, start time) slots. Holds are spread over stripes keyed
+ * by doctor so per-doctor lookups only touch one stripe; placing, consuming and reading
+ * holds are non-blocking. Lookups always check the expiry themselves, the hashed timer
+ * wheel only reclaims expired entries and is advanced by a single ticker thread. A patient
+ * can hold a limited number of slots at a time, so one client cannot lock a whole agenda.
+ */
+public class SlotHoldTable {
+
+    public record SlotHold(UUID token, UUID doctorId, UUID patientId, Instant scheduledAt, long expiresAtMillis) {
+
+        public boolean isExpired(long nowMillis) {
+            return nowMillis >= expiresAtMillis;
+        }
+    }
+
+    private record SlotKey(UUID doctorId, Instant scheduledAt) {
+    }
+
+    private final List<ConcurrentHashMap<SlotKey, SlotHold>> stripes;
+    private final Map<UUID, SlotHold> byToken = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<UUID, List<SlotHold>> byPatient = new ConcurrentHashMap<>();
+    private final int maxHoldsPerPatient;
+    private final List<Queue<SlotHold>> wheel;
+    private final long tickMillis;
+    private final LongSupplier clock;
+    private long lastTick;
+
+    public SlotHoldTable(int stripeCount, int wheelSize, long tickMillis, int maxHoldsPerPatient, LongSupplier clock) {
+        this.stripes = new ArrayList<>(stripeCount);
+        for (int i = 0; i < stripeCount; i++) {
+            stripes.add(new ConcurrentHashMap<>());
+        }
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ConcurrentLinkedQueue<>());
+        }
+        this.tickMillis = tickMillis;
+        this.maxHoldsPerPatient = maxHoldsPerPatient;
+        this.clock = clock;
+        this.lastTick = clock.getAsLong() / tickMillis;
+    }
+
+    /**
+     * Places a hold for the patient, replacing an expired hold or a previous hold of the
+     * same patient. Returns {@code null} when another patient holds the slot and throws
+     * {@link SlotHoldLimitExceededException} when the patient already holds the maximum
+     * number of other live slots.
+     */
+    public SlotHold place(UUID doctorId, UUID patientId, Instant scheduledAt, long ttlMillis) {
+        long now = clock.getAsLong();
+        SlotHold fresh = new SlotHold(UUID.randomUUID(), doctorId, patientId, scheduledAt, now + ttlMillis);
+        SlotKey key = new SlotKey(doctorId, scheduledAt);
+
+        SlotHold[] replaced = new SlotHold[1];
+        boolean[] placed = new boolean[1];
+        boolean[] limited = new boolean[1];
+        byPatient.compute(patientId, (id, held) -> {
+            List<SlotHold> live = new ArrayList<>();
+            if (held != null) {
+                for (SlotHold hold : held) {
+                    if (!hold.isExpired(now) && !(hold.doctorId().equals(doctorId) && hold.scheduledAt().equals(scheduledAt))) {
+                        live.add(hold);
+                    }
+                }
+            }
+            if (live.size() >= maxHoldsPerPatient) {
+                limited[0] = true;
+                return held;
+            }
+            SlotHold current = stripe(doctorId).compute(key, (k, existing) -> {
+                if (existing == null || existing.isExpired(now) || existing.patientId().equals(patientId)) {
+                    replaced[0] = existing;
+                    return fresh;
+                }
+                return existing;
+            });
+            if (current != fresh) {
+                return held;
+            }
+            placed[0] = true;
+            live.add(fresh);
+            return live;
+        });
+        if (limited[0]) {
+            throw new SlotHoldLimitExceededException("You can hold up to " + maxHoldsPerPatient + " time slots at a time");
+        }
+        if (!placed[0]) {
+            return null;
+        }
+
+        if (replaced[0] != null) {
+            byToken.remove(replaced[0].token(), replaced[0]);
+            if (!replaced[0].patientId().equals(patientId)) {
+                forget(replaced[0]);
+            }
+        }
+        byToken.put(fresh.token(), fresh);
+        wheel.get((int) (tickOf(fresh.expiresAtMillis()) % wheel.size())).add(fresh);
+        return fresh;
+    }
+
+    /**
+     * Returns the live hold for the token when it was placed by the patient for the same doctor
+     * and start time, or {@code null} if it is unknown, expired or does not match. The hold is
+     * left in place.
+     */
+    public SlotHold match(UUID token, UUID doctorId, UUID patientId, Instant scheduledAt) {
+        SlotHold hold = byToken.get(token);
+        if (hold == null || !hold.doctorId().equals(doctorId) || !hold.patientId().equals(patientId)
+                || !hold.scheduledAt().equals(scheduledAt) || hold.isExpired(clock.getAsLong())) {
+            return null;
+        }
+        return hold;
+    }
+
+    /**
+     * Removes and returns the live hold for the token when it was placed by the patient for
+     * the same doctor and start time, or {@code null} if it is unknown, expired or does not match.
+     */
+    public SlotHold consume(UUID token, UUID doctorId, UUID patientId, Instant scheduledAt) {
+        SlotHold hold = byToken.get(token);
+        if (hold == null || !hold.doctorId().equals(doctorId) || !hold.patientId().equals(patientId)
+                || !hold.scheduledAt().equals(scheduledAt)) {
+            return null;
+        }
+        if (!byToken.remove(token, hold)) {
+            return null;
+        }
+        boolean removed = stripe(doctorId).remove(new SlotKey(doctorId, scheduledAt), hold);
+        forget(hold);
+        return removed && !hold.isExpired(clock.getAsLong()) ? hold : null;
+    }
+
+    public boolean release(UUID token, UUID patientId) {
+        SlotHold hold = byToken.get(token);
+        if (hold == null || !hold.patientId().equals(patientId) || !byToken.remove(token, hold)) {
+            return false;
+        }
+        stripe(hold.doctorId()).remove(new SlotKey(hold.doctorId(), hold.scheduledAt()), hold);
+        forget(hold);
+        return true;
+    }
+
+    public SlotHold find(UUID doctorId, Instant scheduledAt) {
+        SlotHold hold = stripe(doctorId).get(new SlotKey(doctorId, scheduledAt));
+        return hold == null || hold.isExpired(clock.getAsLong()) ? null : hold;
+    }
+
+    public List<SlotHold> activeHolds(UUID doctorId, Instant from, Instant to) {
+        long now = clock.getAsLong();
+        List<SlotHold> holds = new ArrayList<>();
+        for (SlotHold hold : stripe(doctorId).values()) {
+            if (hold.doctorId().equals(doctorId) && !hold.isExpired(now)
+                    && !hold.scheduledAt().isBefore(from) && hold.scheduledAt().isBefore(to)) {
+                holds.add(hold);
+            }
+        }
+        return holds;
+    }
+
+    public int size() {
+        return byToken.size();
+    }
+
+    /** Advances the wheel up to the current tick and drops the holds that expired. Returns how many were dropped. */
+    public synchronized int expireDue() {
+        long now = clock.getAsLong();
+        long currentTick = now / tickMillis;
+        int expired = 0;
+
+        long fromTick = Math.max(lastTick, currentTick - wheel.size() + 1);
+        for (long tick = fromTick; tick <= currentTick; tick++) {
+            Queue<SlotHold> bucket = wheel.get((int) (tick % wheel.size()));
+            List<SlotHold> later = new ArrayList<>();
+            SlotHold hold;
+            while ((hold = bucket.poll()) != null) {
+                if (!hold.isExpired(now)) {
+                    later.add(hold);
+                    continue;
+                }
+                if (stripe(hold.doctorId()).remove(new SlotKey(hold.doctorId(), hold.scheduledAt()), hold)) {
+                    expired++;
+                }
+                byToken.remove(hold.token(), hold);
+                forget(hold);
+            }
+            bucket.addAll(later);
+        }
+        lastTick = currentTick;
+        return expired;
+    }
+
+    private void forget(SlotHold hold) {
+        byPatient.computeIfPresent(hold.patientId(), (id, held) -> {
+            List<SlotHold> rest = new ArrayList<>(held);
+            rest.remove(hold);
+            return rest.isEmpty() ? null : rest;
+        });
+    }
+
+    private long tickOf(long millis) {
+        return (millis + tickMillis - 1) / tickMillis;
+    }
+
+    private ConcurrentHashMap<SlotKey, SlotHold> stripe(UUID doctorId) {
+        int hash = doctorId.hashCode();
+        return stripes.get(((hash ^ (hash >>> 16)) & Integer.MAX_VALUE) % stripes.size());
+    }
+}
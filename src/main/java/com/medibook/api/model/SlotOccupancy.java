@@ -0,0 +1,63 @@
+package com.medibook.api.model;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-day occupancy bitmap for a single doctor. Each day is a {@link BitSet}
+ * indexed by the slot start expressed as minute of day, so free/taken lookups
+ * are answered in memory once the turns for the range have been loaded.
+ */
+public class SlotOccupancy {
+
+    private final ZoneId zone;
+    private final Map<LocalDate, BitSet> days = new HashMap<>();
+
+    public SlotOccupancy(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public static SlotOccupancy of(Collection<OffsetDateTime> occupied, ZoneId zone) {
+        SlotOccupancy occupancy = new SlotOccupancy(zone);
+        for (OffsetDateTime scheduledAt : occupied) {
+            occupancy.markTaken(scheduledAt);
+        }
+        return occupancy;
+    }
+
+    public static int slotIndex(LocalTime startTime) {
+        return startTime.getHour() * 60 + startTime.getMinute();
+    }
+
+    public void markTaken(OffsetDateTime scheduledAt) {
+        ZonedDateTime local = scheduledAt.atZoneSameInstant(zone);
+        days.computeIfAbsent(local.toLocalDate(), d -> new BitSet(24 * 60))
+                .set(slotIndex(local.toLocalTime()));
+    }
+
+    public void markTaken(LocalDate date, LocalTime startTime) {
+        days.computeIfAbsent(date, d -> new BitSet(24 * 60)).set(slotIndex(startTime));
+    }
+
+    public boolean isTaken(OffsetDateTime scheduledAt) {
+        ZonedDateTime local = scheduledAt.atZoneSameInstant(zone);
+        return isTaken(local.toLocalDate(), local.toLocalTime());
+    }
+
+    public boolean isTaken(LocalDate date, LocalTime startTime) {
+        BitSet day = days.get(date);
+        return day != null && day.get(slotIndex(startTime));
+    }
+
+    public int takenCount(LocalDate date) {
+        BitSet day = days.get(date);
+        return day == null ? 0 : day.cardinality();
+    }
+}
@@ -0,0 +1,47 @@
+package com.medibook.api.model;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a turn listing ordered by (scheduled_at, id). The id breaks ties between
+ * turns at the same instant so every row is returned exactly once across pages.
+ * Encoded as an opaque URL-safe token.
+ */
+public record TurnCursor(OffsetDateTime scheduledAt, UUID id) {
+
+    /** Smallest uuid value, so "id greater than" matches every row at the cursor instant and "id less than" none. */
+    public static final UUID MIN_ID = new UUID(0L, 0L);
+
+    /** Upper bound for descending listings that start from the most recent turn. */
+    public static final OffsetDateTime FAR_FUTURE = OffsetDateTime.of(9999, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    public static TurnCursor startingAt(OffsetDateTime scheduledAt) {
+        return new TurnCursor(scheduledAt, MIN_ID);
+    }
+
+    public String encode() {
+        String raw = scheduledAt.toInstant() + "_" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TurnCursor decode(String token, ZoneId zone) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('_');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            OffsetDateTime scheduledAt = OffsetDateTime.ofInstant(Instant.parse(raw.substring(0, separator)), zone);
+            return new TurnCursor(scheduledAt, UUID.fromString(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.medibook.api.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Pending events merged per user. The first event of a user opens a window and every event
+ * arriving before it closes joins the same entry, so a drain hands out one batch per user.
+ * Memory is bounded: at most {@code maxUsers} open entries holding at most
+ * {@code maxEventsPerUser} events each. A full entry is due at the next drain, and an event
+ * that does not fit is rejected so the caller can process it on its own.
+ */
+public class UserEventCoalescer<E> {
+
+    public enum Outcome {
+        OPENED,
+        MERGED,
+        REJECTED
+    }
+
+    public record Batch<E>(UUID userId, List<E> events) {
+    }
+
+    private static final class Pending<E> {
+
+        private final List<E> events = new ArrayList<>();
+        private volatile long dueAtMillis;
+
+        private Pending(long dueAtMillis) {
+            this.dueAtMillis = dueAtMillis;
+        }
+    }
+
+    private final Map<UUID, Pending<E>> pending = new ConcurrentHashMap<>();
+    private final AtomicInteger users = new AtomicInteger();
+    private final long windowMillis;
+    private final int maxUsers;
+    private final int maxEventsPerUser;
+    private final LongSupplier clock;
+
+    public UserEventCoalescer(long windowMillis, int maxUsers, int maxEventsPerUser, LongSupplier clock) {
+        if (windowMillis < 0 || maxUsers <= 0 || maxEventsPerUser <= 0) {
+            throw new IllegalArgumentException("Coalescer window must not be negative and its bounds must be positive");
+        }
+        this.windowMillis = windowMillis;
+        this.maxUsers = maxUsers;
+        this.maxEventsPerUser = maxEventsPerUser;
+        this.clock = clock;
+    }
+
+    public Outcome offer(UUID userId, E event) {
+        long now = clock.getAsLong();
+        Outcome[] outcome = {Outcome.REJECTED};
+        pending.compute(userId, (id, current) -> {
+            if (current == null) {
+                if (!reserveUser()) {
+                    return null;
+                }
+                current = new Pending<>(now + windowMillis);
+                outcome[0] = Outcome.OPENED;
+            } else if (current.events.size() >= maxEventsPerUser) {
+                return current;
+            } else {
+                outcome[0] = Outcome.MERGED;
+            }
+            current.events.add(event);
+            if (current.events.size() >= maxEventsPerUser) {
+                current.dueAtMillis = now;
+            }
+            return current;
+        });
+        return outcome[0];
+    }
+
+    /**
+     * Removes and returns the entries whose window has closed.
+     */
+    public List<Batch<E>> drainDue() {
+        return drain(clock.getAsLong());
+    }
+
+    public List<Batch<E>> drainAll() {
+        return drain(Long.MAX_VALUE);
+    }
+
+    public int pendingUsers() {
+        return users.get();
+    }
+
+    private List<Batch<E>> drain(long now) {
+        List<Batch<E>> due = new ArrayList<>();
+        for (Map.Entry<UUID, Pending<E>> entry : pending.entrySet()) {
+            Pending<E> candidate = entry.getValue();
+            if (candidate.dueAtMillis <= now && pending.remove(entry.getKey(), candidate)) {
+                users.decrementAndGet();
+                due.add(new Batch<>(entry.getKey(), List.copyOf(candidate.events)));
+            }
+        }
+        return due;
+    }
+
+    private boolean reserveUser() {
+        while (true) {
+            int current = users.get();
+            if (current >= maxUsers) {
+                return false;
+            }
+            if (users.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.medibook.api.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed set of single-threaded lanes; a task runs on the lane its user id hashes to. Tasks
+ * of one user therefore run strictly in submission order and never overlap, while
+ * different users spread over the lanes and run in parallel. Each lane has a bounded queue
+ * and a full lane blocks the submitter instead of running the task on the caller's thread,
+ * which would break the per-user order.
+ */
+public class UserStripedExecutor {
+
+    private final List<ThreadPoolExecutor> lanes;
+
+    public UserStripedExecutor(int laneCount, int queueCapacity, String threadNamePrefix) {
+        if (laneCount <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("Lane count and queue capacity must be positive");
+        }
+        this.lanes = new ArrayList<>(laneCount);
+        for (int i = 0; i < laneCount; i++) {
+            String threadName = threadNamePrefix + i;
+            lanes.add(new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    UserStripedExecutor::waitForRoom));
+        }
+    }
+
+    public void execute(UUID userId, Runnable task) {
+        lanes.get(laneOf(userId)).execute(task);
+    }
+
+    public int laneOf(UUID userId) {
+        int hash = userId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.size());
+    }
+
+    public int queuedTasks() {
+        int queued = 0;
+        for (ThreadPoolExecutor lane : lanes) {
+            queued += lane.getQueue().size();
+        }
+        return queued;
+    }
+
+    public void shutdown() {
+        lanes.forEach(ThreadPoolExecutor::shutdown);
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        for (ThreadPoolExecutor lane : lanes) {
+            if (!lane.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void waitForRoom(Runnable task, ThreadPoolExecutor lane) {
+        if (lane.isShutdown()) {
+            throw new RejectedExecutionException("Lane is shut down");
+        }
+        BlockingQueue<Runnable> queue = lane.getQueue();
+        try {
+            queue.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for a lane", e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.medibook.api.repository;
+
+import com.medibook.api.entity.BadgeRecomputeJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BadgeRecomputeJobRepository extends JpaRepository<BadgeRecomputeJob, UUID> {
+
+    Optional<BadgeRecomputeJob> findFirstByOrderByStartedAtDesc();
+}
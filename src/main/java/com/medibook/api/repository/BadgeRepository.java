@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -12,6 +13,10 @@ import java.util.UUID;
 @Repository
 public interface BadgeRepository extends JpaRepository<Badge, UUID> {
 
+    List<Badge> findByUser_Id(UUID userId);
+
+    List<Badge> findByUser_IdIn(Collection<UUID> userIds);
+
     List<Badge> findByUser_IdAndIsActiveTrue(UUID userId);
 
     List<Badge> findByUser_IdOrderByEarnedAtDesc(UUID userId);
@@ -28,5 +33,8 @@ public interface BadgeRepository extends JpaRepository<Badge, UUID> {
     @Query("SELECT COUNT(b) FROM Badge b WHERE b.user.id = :userId AND b.isActive = true AND b.badgeType != :excludeType")
     long countActiveBadgesByUserIdExcludingType(@Param("userId") UUID userId, @Param("excludeType") String excludeType);
 
+    @Query("SELECT b.user.id, COUNT(b) FROM Badge b WHERE b.isActive = true AND b.user.role = 'DOCTOR' GROUP BY b.user.id")
+    List<Object[]> countActiveBadgesOfDoctors();
+
     List<Badge> findByBadgeTypeAndIsActiveTrue(String badgeType);
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.medibook.api.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Single-statement writes to the statistics document of a user. Both operations create the
+ * row when it does not exist yet and bump its version, so a stale managed copy of the row
+ * fails its optimistic lock instead of overwriting the counters.
+ */
+public interface BadgeStatisticsCounterRepository {
+
+    /**
+     * Adds each delta to its counter, treating missing counters as zero.
+     *
+     * @return the statistics document after the increment
+     */
+    JsonNode incrementCounters(UUID userId, Map<String, Integer> deltas);
+
+    /**
+     * Overwrites the given keys and leaves every other key untouched.
+     */
+    void mergeStatistics(UUID userId, Map<String, ?> values);
+}
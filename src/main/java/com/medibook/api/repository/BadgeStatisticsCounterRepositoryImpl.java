@@ -0,0 +1,143 @@
+package com.medibook.api.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.medibook.api.entity.BadgeStatistics;
+import com.medibook.api.entity.BadgeStatistics.Counter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * On PostgreSQL every write is one upsert: typed counters are updated in their columns and
+ * only the extra keys touch the JSONB document. See {@link CounterUpsertSupport} for other
+ * databases.
+ */
+class BadgeStatisticsCounterRepositoryImpl implements BadgeStatisticsCounterRepository {
+
+    private static final String RETURNING = Arrays.stream(Counter.values())
+            .map(counter -> "bs." + counter.getKey())
+            .collect(Collectors.joining(", ", "RETURNING CAST(bs.statistics AS text), ", ""));
+
+    private final EntityManager entityManager;
+    private final CounterUpsertSupport support;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    BadgeStatisticsCounterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.support = new CounterUpsertSupport(entityManager);
+    }
+
+    @Override
+    public JsonNode incrementCounters(UUID userId, Map<String, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            throw new IllegalArgumentException("No counters to increment");
+        }
+        if (support.isPostgres()) {
+            return upsert(userId, deltas, true);
+        }
+
+        BadgeStatistics stats = lockedStatistics(userId);
+        ObjectNode statistics = (ObjectNode) stats.getStatistics();
+        deltas.forEach((key, delta) -> statistics.put(key, statistics.path(key).asInt(0) + delta));
+        stats.setStatistics(statistics);
+        return statistics;
+    }
+
+    @Override
+    public void mergeStatistics(UUID userId, Map<String, ?> values) {
+        if (values.isEmpty()) {
+            return;
+        }
+        if (support.isPostgres()) {
+            upsert(userId, values, false);
+            return;
+        }
+
+        lockedStatistics(userId).setStatistics(objectMapper.valueToTree(values));
+    }
+
+    private JsonNode upsert(UUID userId, Map<String, ?> values, boolean increment) {
+        Map<Counter, Object> columns = new EnumMap<>(Counter.class);
+        Map<String, Object> extras = new LinkedHashMap<>();
+        values.forEach((key, value) -> Counter.ofKey(key).ifPresentOrElse(
+                counter -> columns.put(counter, value),
+                () -> extras.put(key, value)));
+
+        StringBuilder insertColumns = new StringBuilder("user_id, statistics, progress, last_updated_at, version");
+        StringBuilder insertValues = new StringBuilder(":userId, CAST(:extras AS jsonb), jsonb_build_object(), now(), 0");
+        StringBuilder updates = new StringBuilder();
+        for (Counter counter : columns.keySet()) {
+            String column = counter.getKey();
+            insertColumns.append(", ").append(column);
+            insertValues.append(", :").append(column);
+            updates.append(column).append(increment ? " = bs." + column + " + EXCLUDED." + column : " = EXCLUDED." + column)
+                    .append(", ");
+        }
+        if (!extras.isEmpty()) {
+            updates.append(increment
+                    ? "statistics = bs.statistics || (SELECT jsonb_object_agg(d.key,"
+                      + " COALESCE(CAST(bs.statistics ->> d.key AS numeric), 0) + CAST(d.value AS numeric))"
+                      + " FROM jsonb_each_text(CAST(:extras AS jsonb)) AS d(key, value)), "
+                    : "statistics = bs.statistics || CAST(:extras AS jsonb), ");
+        }
+
+        String sql = "INSERT INTO badge_statistics AS bs (" + insertColumns + ") VALUES (" + insertValues + ")"
+                + " ON CONFLICT (user_id) DO UPDATE SET " + updates
+                + "last_updated_at = now(), version = bs.version + 1 " + RETURNING;
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("userId", userId)
+                .setParameter("extras", support.toJson(extras));
+        columns.forEach((counter, value) -> {
+            if (counter.isIntegral()) {
+                query.setParameter(counter.getKey(), ((Number) value).intValue());
+            } else {
+                query.setParameter(counter.getKey(), ((Number) value).doubleValue());
+            }
+        });
+
+        Object[] row = (Object[]) query.getSingleResult();
+        ObjectNode statistics = copyOf(readJson((String) row[0]));
+        Counter[] counters = Counter.values();
+        for (int i = 0; i < counters.length; i++) {
+            Number value = (Number) row[i + 1];
+            if (counters[i].isIntegral()) {
+                statistics.put(counters[i].getKey(), value.intValue());
+            } else {
+                statistics.put(counters[i].getKey(), value.doubleValue());
+            }
+        }
+        return statistics;
+    }
+
+    private BadgeStatistics lockedStatistics(UUID userId) {
+        return support.lockedOrNew(BadgeStatistics.class, userId,
+                "SELECT user_id FROM badge_statistics WHERE user_id = :userId FOR UPDATE",
+                Map.of("userId", userId),
+                () -> BadgeStatistics.builder()
+                        .userId(userId)
+                        .statistics(objectMapper.createObjectNode())
+                        .progress(objectMapper.createObjectNode())
+                        .build());
+    }
+
+    private ObjectNode copyOf(JsonNode statistics) {
+        return statistics instanceof ObjectNode object ? object.deepCopy() : objectMapper.createObjectNode();
+    }
+
+    private JsonNode readJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored statistics are not valid JSON", e);
+        }
+    }
+}
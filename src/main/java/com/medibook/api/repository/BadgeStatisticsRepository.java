@@ -10,19 +10,11 @@ import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface BadgeStatisticsRepository extends JpaRepository<BadgeStatistics, UUID> {
+public interface BadgeStatisticsRepository extends JpaRepository<BadgeStatistics, UUID>, BadgeStatisticsCounterRepository {
 
     Optional<BadgeStatistics> findByUserId(UUID userId);
 
-    @Modifying
-    @Query("UPDATE BadgeStatistics bs SET bs.statistics = :statistics, bs.lastUpdatedAt = CURRENT_TIMESTAMP WHERE bs.userId = :userId")
-    void updateStatistics(@Param("userId") UUID userId, @Param("statistics") String statistics);
-
     @Modifying
     @Query("UPDATE BadgeStatistics bs SET bs.progress = :progress, bs.lastUpdatedAt = CURRENT_TIMESTAMP WHERE bs.userId = :userId")
     void updateProgress(@Param("userId") UUID userId, @Param("progress") String progress);
-
-    @Modifying
-    @Query("UPDATE BadgeStatistics bs SET bs.statistics = :statistics, bs.progress = :progress, bs.lastUpdatedAt = CURRENT_TIMESTAMP WHERE bs.userId = :userId")
-    void updateStatisticsAndProgress(@Param("userId") UUID userId, @Param("statistics") String statistics, @Param("progress") String progress);
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.medibook.api.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.Session;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Shared plumbing of the counter repositories. On PostgreSQL they write with one native
+ * upsert; other databases (H2 in tests) have no JSONB functions, so they lock the row and
+ * update it through the entity instead. The database is detected from the connection, not the
+ * configured dialect, because the tests run H2 with the PostgreSQL dialect.
+ */
+class CounterUpsertSupport {
+
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private volatile Boolean postgres;
+
+    CounterUpsertSupport(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * SQL that adds the {@code :mentions} JSON object of subcategory counts to the
+     * {@code :raterRole} entry of the {@code subcategory_counts} column of the row aliased
+     * {@code alias}, followed by a comma.
+     */
+    static String mergeMentions(String alias) {
+        return "subcategory_counts = " + alias + ".subcategory_counts"
+                + " || jsonb_build_object(CAST(:raterRole AS text),"
+                + " COALESCE(" + alias + ".subcategory_counts -> CAST(:raterRole AS text), CAST('{}' AS jsonb))"
+                + " || (SELECT jsonb_object_agg(d.key,"
+                + " COALESCE(CAST(" + alias + ".subcategory_counts -> CAST(:raterRole AS text) ->> d.key AS bigint), 0)"
+                + " + CAST(d.value AS bigint))"
+                + " FROM jsonb_each_text(CAST(:mentions AS jsonb)) AS d(key, value))), ";
+    }
+
+    boolean isPostgres() {
+        if (postgres == null) {
+            postgres = entityManager.unwrap(Session.class).doReturningWork(connection ->
+                    "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+        }
+        return postgres;
+    }
+
+    /**
+     * Locks the row selected by {@code lockSql}, a native {@code SELECT ... FOR UPDATE}, and
+     * returns its entity refreshed from the database, or persists {@code create} if there is no
+     * row yet. The lock is a plain {@code FOR UPDATE}, which every database understands, rather
+     * than the configured dialect's lock clause.
+     */
+    <T> T lockedOrNew(Class<T> type, Object id, String lockSql, Map<String, ?> parameters, Supplier<T> create) {
+        Query lock = entityManager.createNativeQuery(lockSql);
+        parameters.forEach(lock::setParameter);
+        T entity = lock.getResultList().isEmpty() ? null : entityManager.find(type, id);
+        if (entity != null) {
+            entityManager.refresh(entity);
+            return entity;
+        }
+        entity = create.get();
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    String toJson(Map<String, ?> values) {
+        try {
+            return objectMapper.writeValueAsString(values);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Counter values are not serializable", e);
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -53,4 +54,10 @@ public interface MedicalHistoryRepository extends JpaRepository<MedicalHistory,
      */
     @Query("SELECT mh.patient.id, mh.content FROM MedicalHistory mh WHERE mh.patient.id IN :patientIds AND mh.createdAt = (SELECT MAX(mh2.createdAt) FROM MedicalHistory mh2 WHERE mh2.patient.id = mh.patient.id)")
     List<Object[]> findLatestContentsByPatientIds(@Param("patientIds") List<UUID> patientIds);
+
+    /**
+     * Count the medical history entries written by each of the given doctors
+     */
+    @Query("SELECT mh.doctor.id, COUNT(mh) FROM MedicalHistory mh WHERE mh.doctor.id IN :doctorIds GROUP BY mh.doctor.id")
+    List<Object[]> countByDoctorIds(@Param("doctorIds") Collection<UUID> doctorIds);
 }
\ No newline at end of file
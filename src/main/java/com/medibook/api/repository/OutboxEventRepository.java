@@ -0,0 +1,50 @@
+package com.medibook.api.repository;
+
+import com.medibook.api.entity.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Due events whose aggregate has no earlier pending event that is leased or waiting for a
+     * retry, so an aggregate's events are never delivered out of order. Rows locked by another
+     * dispatcher are skipped.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.status = 'PENDING' AND e.availableAt <= :now AND NOT EXISTS (SELECT p.id FROM OutboxEvent p WHERE p.aggregateId = e.aggregateId AND p.status = 'PENDING' AND p.id < e.id AND p.availableAt > :now) ORDER BY e.id")
+    List<OutboxEvent> findDueForUpdate(@Param("now") OffsetDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.availableAt = :availableAt WHERE e.id IN :ids")
+    int updateAvailableAt(@Param("ids") Collection<Long> ids, @Param("availableAt") OffsetDateTime availableAt);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = 'DONE', e.processedAt = :now, e.lastError = NULL WHERE e.id = :id")
+    int markDone(@Param("id") Long id, @Param("now") OffsetDateTime now);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.status = :status, e.attempts = :attempts, e.availableAt = :availableAt, e.lastError = :error WHERE e.id = :id")
+    int markFailedAttempt(@Param("id") Long id, @Param("status") String status, @Param("attempts") int attempts,
+                          @Param("availableAt") OffsetDateTime availableAt, @Param("error") String error);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.status = 'DONE' AND e.processedAt < :before")
+    int deleteDoneBefore(@Param("before") OffsetDateTime before);
+
+    long countByStatus(String status);
+}
@@ -0,0 +1,14 @@
+package com.medibook.api.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Single-statement write of a new rating into the rated user's bucket for the given day,
+ * creating the bucket when it does not exist yet.
+ */
+public interface RatingBucketCounterRepository {
+
+    void recordRating(UUID ratedId, LocalDate day, int score, String raterRole, Collection<String> subcategories);
+}
@@ -0,0 +1,58 @@
+package com.medibook.api.repository;
+
+import com.medibook.api.entity.RatingBucket;
+import jakarta.persistence.EntityManager;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * On PostgreSQL a new rating is one upsert into the day bucket, merging the subcategory
+ * mentions into the rater role's JSONB object; see {@link CounterUpsertSupport} for other
+ * databases.
+ */
+class RatingBucketCounterRepositoryImpl implements RatingBucketCounterRepository {
+
+    private static final String INSERT = "INSERT INTO rating_buckets AS rb (rated_id, granularity, bucket_start,"
+            + " rating_count, score_sum, subcategory_counts, updated_at)"
+            + " VALUES (:ratedId, 'DAY', :day, 1, :score,"
+            + " jsonb_build_object(CAST(:raterRole AS text), CAST(:mentions AS jsonb)), now())"
+            + " ON CONFLICT (rated_id, granularity, bucket_start) DO UPDATE SET rating_count = rb.rating_count + 1,"
+            + " score_sum = rb.score_sum + EXCLUDED.score_sum, ";
+
+    private final EntityManager entityManager;
+    private final CounterUpsertSupport support;
+
+    RatingBucketCounterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.support = new CounterUpsertSupport(entityManager);
+    }
+
+    @Override
+    public void recordRating(UUID ratedId, LocalDate day, int score, String raterRole, Collection<String> subcategories) {
+        if (!support.isPostgres()) {
+            support.lockedOrNew(RatingBucket.class, new RatingBucket.Key(ratedId, RatingBucket.DAY, day),
+                    "SELECT rated_id FROM rating_buckets WHERE rated_id = :ratedId AND granularity = 'DAY'"
+                            + " AND bucket_start = :day FOR UPDATE",
+                    Map.of("ratedId", ratedId, "day", day), () -> new RatingBucket(ratedId, RatingBucket.DAY, day))
+                    .add(score, raterRole, subcategories);
+            return;
+        }
+
+        Map<String, Integer> mentions = new LinkedHashMap<>();
+        subcategories.forEach(subcategory -> mentions.put(subcategory, 1));
+        String sql = INSERT + (mentions.isEmpty() ? "" : CounterUpsertSupport.mergeMentions("rb"))
+                + "updated_at = now()";
+
+        entityManager.createNativeQuery(sql)
+                .setParameter("ratedId", ratedId)
+                .setParameter("day", day)
+                .setParameter("score", score)
+                .setParameter("raterRole", raterRole)
+                .setParameter("mentions", support.toJson(mentions))
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,38 @@
+package com.medibook.api.repository;
+
+import com.medibook.api.entity.RatingBucket;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface RatingBucketRepository extends JpaRepository<RatingBucket, RatingBucket.Key>, RatingBucketCounterRepository {
+
+    @Query("SELECT b FROM RatingBucket b WHERE b.ratedId = :ratedId AND b.granularity = :granularity AND b.bucketStart >= :from AND b.bucketStart <= :to ORDER BY b.bucketStart")
+    List<RatingBucket> findRange(@Param("ratedId") UUID ratedId, @Param("granularity") String granularity,
+                                 @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Day buckets that are due for compaction. Rows locked by another compaction run are
+     * skipped, so two instances never roll the same day into a month twice.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT b FROM RatingBucket b WHERE b.granularity = 'DAY' AND b.bucketStart < :before ORDER BY b.ratedId, b.bucketStart")
+    List<RatingBucket> findDaysBeforeForUpdate(@Param("before") LocalDate before, Pageable pageable);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM RatingBucket b WHERE b.ratedId = :ratedId AND b.granularity = 'MONTH' AND b.bucketStart = :month")
+    Optional<RatingBucket> findMonthForUpdate(@Param("ratedId") UUID ratedId, @Param("month") LocalDate month);
+}
@@ -1,39 +1,55 @@
 package com.medibook.api.repository;
 
+import com.medibook.api.dto.Admin.RatingExportRowDTO;
 import com.medibook.api.entity.Rating;
+import com.medibook.api.model.ExportWriter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface RatingRepository extends JpaRepository<Rating, UUID> {
     boolean existsByTurnAssigned_IdAndRater_Id(UUID turnId, UUID raterId);
     Optional<Rating> findByTurnAssigned_IdAndRater_Id(UUID turnId, UUID raterId);
 
-    @org.springframework.data.jpa.repository.Query("SELECT AVG(r.score) FROM Rating r WHERE r.rated.id = :ratedId")
-    Double findAverageScoreByRatedId(java.util.UUID ratedId);
-    
-    @Query("SELECT r FROM Rating r ORDER BY r.createdAt DESC")
-    List<Rating> findAllOrderByCreatedAtDesc();
-    
-    @Query("SELECT r FROM Rating r WHERE r.rater.role = :raterRole ORDER BY r.createdAt DESC")
-    List<Rating> findAllByRaterRoleOrderByCreatedAtDesc(String raterRole);
-    
-    @Query("SELECT r FROM Rating r WHERE r.rated.role = :ratedRole ORDER BY r.createdAt DESC")
-    List<Rating> findAllByRatedRoleOrderByCreatedAtDesc(String ratedRole);
-
-    @org.springframework.data.jpa.repository.Query("SELECT r.subcategory AS subcategory, COUNT(r) AS count FROM Rating r WHERE r.rated.id = :ratedId AND (:raterRole IS NULL OR r.rater.role = :raterRole) GROUP BY r.subcategory")
-    java.util.List<SubcategoryCount> countSubcategoriesByRatedId(@org.springframework.data.repository.query.Param("ratedId") java.util.UUID ratedId, @org.springframework.data.repository.query.Param("raterRole") String raterRole);
+    @Query("SELECT r.turnAssigned.id, r.rater.id FROM Rating r WHERE r.turnAssigned.id IN :turnIds")
+    List<Object[]> findRaterIdsByTurnIds(@Param("turnIds") Collection<UUID> turnIds);
+
+    @Query("SELECT r FROM Rating r JOIN FETCH r.rater rt LEFT JOIN FETCH rt.doctorProfile JOIN FETCH r.rated rd LEFT JOIN FETCH rd.doctorProfile " +
+           "WHERE (:raterRole IS NULL OR rt.role = :raterRole) AND (:ratedRole IS NULL OR rd.role = :ratedRole) " +
+           "AND (r.createdAt < :cursorAt OR (r.createdAt = :cursorAt AND r.id < :cursorId)) ORDER BY r.createdAt DESC, r.id DESC")
+    List<Rating> findPageBefore(@Param("raterRole") String raterRole, @Param("ratedRole") String ratedRole,
+                                @Param("cursorAt") OffsetDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
+
+    @Query("SELECT r.rater.role, COUNT(r), SUM(r.score) FROM Rating r GROUP BY r.rater.role")
+    List<Object[]> summarizeByRaterRole();
 
     @Query("SELECT r FROM Rating r WHERE r.rated.id = :ratedId ORDER BY r.createdAt DESC")
     List<Rating> findTop100ByRatedIdOrderByCreatedAtDesc(@org.springframework.data.repository.query.Param("ratedId") UUID ratedId);
 
-    List<Rating> findTop35ByRated_IdAndRater_RoleOrderByCreatedAtDesc(UUID ratedId, String role);
+    /**
+     * The last {@code limit} scores each rated user received from raters of the role, as
+     * (rated id, score) rows ordered oldest first within each rated user.
+     */
+    @Query("SELECT w.ratedId, w.score FROM (" +
+           "SELECT r.rated.id AS ratedId, r.score AS score, r.createdAt AS createdAt, r.id AS id, " +
+           "ROW_NUMBER() OVER (PARTITION BY r.rated.id ORDER BY r.createdAt DESC, r.id DESC) AS rowNumber " +
+           "FROM Rating r WHERE r.rated.id IN :ratedIds AND r.rater.role = :raterRole) w " +
+           "WHERE w.rowNumber <= :limit ORDER BY w.ratedId, w.createdAt, w.id")
+    List<Object[]> findRecentScoresByRatedIds(@Param("ratedIds") Collection<UUID> ratedIds,
+                                              @Param("raterRole") String raterRole, @Param("limit") int limit);
 
     @Query("SELECT r FROM Rating r WHERE r.rater.id = :raterId ORDER BY r.createdAt DESC")
     List<Rating> findByRaterId(@org.springframework.data.repository.query.Param("raterId") UUID raterId);
@@ -41,11 +57,27 @@ public interface RatingRepository extends JpaRepository<Rating, UUID> {
     @Query("SELECT r FROM Rating r WHERE r.rated.id = :ratedId ORDER BY r.createdAt DESC")
     List<Rating> findByRatedId(@org.springframework.data.repository.query.Param("ratedId") UUID ratedId);
 
-    @Query("SELECT r.rated.id, r.subcategory, COUNT(r) FROM Rating r WHERE r.rated.id IN :ratedIds AND r.rater.role = :raterRole GROUP BY r.rated.id, r.subcategory")
-    List<Object[]> countSubcategoriesByRatedIds(@Param("ratedIds") List<UUID> ratedIds, @Param("raterRole") String raterRole);
+    @Query("SELECT r.rated.id, r.score, COUNT(r) FROM Rating r GROUP BY r.rated.id, r.score")
+    List<Object[]> countScoresByRatedId();
+
+    @Query("SELECT r.rated.id, r.rater.role, s, COUNT(r) FROM Rating r JOIN r.subcategories s GROUP BY r.rated.id, r.rater.role, s")
+    List<Object[]> countSubcategoriesByRatedIdAndRaterRole();
+
+    @Query("SELECT r.rated.id, r.score, COUNT(r) FROM Rating r WHERE r.rated.id IN :ratedIds GROUP BY r.rated.id, r.score")
+    List<Object[]> countReceivedByRatedIds(@Param("ratedIds") Collection<UUID> ratedIds);
+
+    @Query("SELECT r.rated.id, s, COUNT(r) FROM Rating r JOIN r.subcategories s " +
+           "WHERE r.rated.id IN :ratedIds AND r.score >= :minScore GROUP BY r.rated.id, s")
+    List<Object[]> countSubcategoriesByRatedIds(@Param("ratedIds") Collection<UUID> ratedIds, @Param("minScore") int minScore);
+
+    @Query("SELECT r.rater.id, COUNT(r), AVG(r.score), SUM(r.score) FROM Rating r WHERE r.rater.id IN :raterIds GROUP BY r.rater.id")
+    List<Object[]> summarizeGivenByRaterIds(@Param("raterIds") Collection<UUID> raterIds);
 
-    interface SubcategoryCount {
-        String getSubcategory();
-        Long getCount();
-    }
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportWriter.FETCH_SIZE))
+    @Query("SELECT new com.medibook.api.dto.Admin.RatingExportRowDTO(r.id, r.createdAt, r.turnAssigned.id, rt.id, rt.role, rd.id, rd.role, r.score, r.subcategory) " +
+           "FROM Rating r JOIN r.rater rt JOIN r.rated rd " +
+           "WHERE r.createdAt >= :from AND r.createdAt < :to AND (:raterRole IS NULL OR rt.role = :raterRole) AND (:ratedRole IS NULL OR rd.role = :ratedRole) " +
+           "ORDER BY r.createdAt, r.id")
+    Stream<RatingExportRowDTO> streamForExport(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to,
+                                               @Param("raterRole") String raterRole, @Param("ratedRole") String ratedRole);
 }
@@ -0,0 +1,21 @@
+package com.medibook.api.repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Single-statement write of a new rating into the rated user's summary. The summary row is
+ * created when it does not exist yet and its version is bumped, so a stale managed copy fails
+ * its optimistic lock instead of overwriting the counts.
+ */
+public interface RatingSummaryCounterRepository {
+
+    void recordRating(UUID ratedId, int score, String raterRole, Collection<String> subcategories);
+
+    /**
+     * Blocks new ratings from being recorded until the current transaction ends, while still
+     * letting summaries be read. Taken before a rebuild reads the ratings table, so no rating
+     * can commit between that read and the rebuilt summaries being written.
+     */
+    void lockForRebuild();
+}
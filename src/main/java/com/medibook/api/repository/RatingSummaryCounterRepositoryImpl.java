@@ -0,0 +1,79 @@
+package com.medibook.api.repository;
+
+import com.medibook.api.entity.RatingSummary;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * On PostgreSQL a new rating is one upsert that bumps the score histogram and merges the
+ * subcategory mentions into the rater role's JSONB object; see {@link CounterUpsertSupport}
+ * for other databases.
+ */
+class RatingSummaryCounterRepositoryImpl implements RatingSummaryCounterRepository {
+
+    private static final String INSERT = "INSERT INTO rating_summary AS rs (rated_id,"
+            + " score_1_count, score_2_count, score_3_count, score_4_count, score_5_count,"
+            + " subcategory_counts, updated_at, version)"
+            + " VALUES (:ratedId, :score1, :score2, :score3, :score4, :score5,"
+            + " jsonb_build_object(CAST(:raterRole AS text), CAST(:mentions AS jsonb)), now(), 0)"
+            + " ON CONFLICT (rated_id) DO UPDATE SET"
+            + " score_1_count = rs.score_1_count + EXCLUDED.score_1_count,"
+            + " score_2_count = rs.score_2_count + EXCLUDED.score_2_count,"
+            + " score_3_count = rs.score_3_count + EXCLUDED.score_3_count,"
+            + " score_4_count = rs.score_4_count + EXCLUDED.score_4_count,"
+            + " score_5_count = rs.score_5_count + EXCLUDED.score_5_count, ";
+
+    private final EntityManager entityManager;
+    private final CounterUpsertSupport support;
+
+    RatingSummaryCounterRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+        this.support = new CounterUpsertSupport(entityManager);
+    }
+
+    @Override
+    public void recordRating(UUID ratedId, int score, String raterRole, Collection<String> subcategories) {
+        if (score < RatingSummary.MIN_SCORE || score > RatingSummary.MAX_SCORE) {
+            throw new IllegalArgumentException("Score must be between 1 and 5");
+        }
+        if (!support.isPostgres()) {
+            support.lockedOrNew(RatingSummary.class, ratedId,
+                    "SELECT rated_id FROM rating_summary WHERE rated_id = :ratedId FOR UPDATE",
+                    Map.of("ratedId", ratedId), () -> new RatingSummary(ratedId))
+                    .add(score, 1, raterRole, subcategories);
+            return;
+        }
+
+        Map<String, Integer> mentions = new LinkedHashMap<>();
+        subcategories.forEach(subcategory -> mentions.put(subcategory, 1));
+        String sql = INSERT + (mentions.isEmpty() ? "" : CounterUpsertSupport.mergeMentions("rs"))
+                + "updated_at = now(), version = rs.version + 1";
+
+        Query query = entityManager.createNativeQuery(sql)
+                .setParameter("ratedId", ratedId)
+                .setParameter("raterRole", raterRole)
+                .setParameter("mentions", support.toJson(mentions));
+        for (int value = RatingSummary.MIN_SCORE; value <= RatingSummary.MAX_SCORE; value++) {
+            query.setParameter("score" + value, value == score ? 1 : 0);
+        }
+        query.executeUpdate();
+    }
+
+    /**
+     * PostgreSQL takes an EXCLUSIVE table lock, which conflicts with the upsert's row locks but
+     * not with reads. Other databases can only lock the summaries that already exist.
+     */
+    @Override
+    public void lockForRebuild() {
+        if (support.isPostgres()) {
+            entityManager.createNativeQuery("LOCK TABLE rating_summary IN EXCLUSIVE MODE").executeUpdate();
+        } else {
+            entityManager.createNativeQuery("SELECT rated_id FROM rating_summary FOR UPDATE").getResultList();
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.medibook.api.repository;
+
+import com.medibook.api.entity.RatingSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface RatingSummaryRepository extends JpaRepository<RatingSummary, UUID>, RatingSummaryCounterRepository {
+}
@@ -1,13 +1,23 @@
 package com.medibook.api.repository;
 
+import com.medibook.api.dto.Admin.TurnExportRowDTO;
 import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.User;
+import com.medibook.api.model.ExportWriter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+
 import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface TurnAssignedRepository extends JpaRepository<TurnAssigned, UUID> {
     List<TurnAssigned> findByDoctor_IdAndScheduledAtBetween(UUID doctorId, OffsetDateTime start, OffsetDateTime end);
@@ -15,15 +25,41 @@ public interface TurnAssignedRepository extends JpaRepository<TurnAssigned, UUID
     
     @Query("SELECT COUNT(t) > 0 FROM TurnAssigned t WHERE t.doctor.id = :doctorId AND t.scheduledAt = :scheduledAt AND t.status NOT IN ('CANCELED', 'NO_SHOW')")
     boolean existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(@Param("doctorId") UUID doctorId, @Param("scheduledAt") OffsetDateTime scheduledAt);
-    
+
+    @Query("SELECT t.scheduledAt FROM TurnAssigned t WHERE t.doctor.id = :doctorId AND t.scheduledAt >= :from AND t.scheduledAt < :to AND t.status NOT IN ('CANCELED', 'NO_SHOW')")
+    List<OffsetDateTime> findOccupiedScheduledAtByDoctorIdBetween(@Param("doctorId") UUID doctorId, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    @Query("SELECT t.doctor.id, t.scheduledAt FROM TurnAssigned t WHERE t.doctor.id IN :doctorIds AND t.scheduledAt >= :from AND t.scheduledAt < :to AND t.status NOT IN ('CANCELED', 'NO_SHOW')")
+    List<Object[]> findOccupiedScheduledAtByDoctorIdsBetween(@Param("doctorIds") Collection<UUID> doctorIds, @Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
+
+    @EntityGraph(TurnAssigned.LISTING_GRAPH)
     List<TurnAssigned> findByDoctor_IdOrderByScheduledAtDesc(UUID doctorId);
     
+    @EntityGraph(TurnAssigned.LISTING_GRAPH)
     List<TurnAssigned> findByPatient_IdOrderByScheduledAtDesc(UUID patientId);
     
+    @EntityGraph(TurnAssigned.LISTING_GRAPH)
     List<TurnAssigned> findByDoctor_IdAndStatusOrderByScheduledAtDesc(UUID doctorId, String status);
     
+    @EntityGraph(TurnAssigned.LISTING_GRAPH)
     List<TurnAssigned> findByPatient_IdAndStatusOrderByScheduledAtDesc(UUID patientId, String status);
-    
+
+    @EntityGraph(TurnAssigned.LISTING_GRAPH)
+    @Query("SELECT t FROM TurnAssigned t WHERE t.doctor.id = :doctorId AND (:status IS NULL OR t.status = :status) AND (t.scheduledAt < :cursorAt OR (t.scheduledAt = :cursorAt AND t.id < :cursorId)) ORDER BY t.scheduledAt DESC, t.id DESC")
+    List<TurnAssigned> findDoctorTurnsBefore(@Param("doctorId") UUID doctorId, @Param("status") String status, @Param("cursorAt") OffsetDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
+
+    @EntityGraph(TurnAssigned.LISTING_GRAPH)
+    @Query("SELECT t FROM TurnAssigned t WHERE t.doctor.id = :doctorId AND (:status IS NULL OR t.status = :status) AND (t.scheduledAt > :cursorAt OR (t.scheduledAt = :cursorAt AND t.id > :cursorId)) ORDER BY t.scheduledAt ASC, t.id ASC")
+    List<TurnAssigned> findDoctorTurnsAfter(@Param("doctorId") UUID doctorId, @Param("status") String status, @Param("cursorAt") OffsetDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
+
+    @EntityGraph(TurnAssigned.LISTING_GRAPH)
+    @Query("SELECT t FROM TurnAssigned t WHERE t.patient.id = :patientId AND (:status IS NULL OR t.status = :status) AND (t.scheduledAt < :cursorAt OR (t.scheduledAt = :cursorAt AND t.id < :cursorId)) ORDER BY t.scheduledAt DESC, t.id DESC")
+    List<TurnAssigned> findPatientTurnsBefore(@Param("patientId") UUID patientId, @Param("status") String status, @Param("cursorAt") OffsetDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
+
+    @EntityGraph(TurnAssigned.LISTING_GRAPH)
+    @Query("SELECT t FROM TurnAssigned t WHERE t.patient.id = :patientId AND (:status IS NULL OR t.status = :status) AND (t.scheduledAt > :cursorAt OR (t.scheduledAt = :cursorAt AND t.id > :cursorId)) ORDER BY t.scheduledAt ASC, t.id ASC")
+    List<TurnAssigned> findPatientTurnsAfter(@Param("patientId") UUID patientId, @Param("status") String status, @Param("cursorAt") OffsetDateTime cursorAt, @Param("cursorId") UUID cursorId, Pageable pageable);
+
     @Query("SELECT DISTINCT t.patient FROM TurnAssigned t WHERE t.doctor.id = :doctorId AND t.patient IS NOT NULL ORDER BY t.patient.name, t.patient.surname")
     List<User> findDistinctPatientsByDoctorId(@Param("doctorId") UUID doctorId);
     
@@ -38,4 +74,13 @@ public interface TurnAssignedRepository extends JpaRepository<TurnAssigned, UUID
     
     @Query("SELECT COALESCE(MAX(sub.count), 0) FROM (SELECT COUNT(t) AS count FROM TurnAssigned t WHERE t.patient.id = :patientId AND t.status = 'COMPLETED' GROUP BY t.doctor.id) sub")
     Long findMaxCompletedTurnsWithSameDoctor(@Param("patientId") UUID patientId);
+
+    @Query("SELECT t.patient.id, t.doctor.id, t.status, COUNT(t) FROM TurnAssigned t WHERE t.patient.id IN :userIds OR t.doctor.id IN :userIds GROUP BY t.patient.id, t.doctor.id, t.status")
+    List<Object[]> countTurnsByParticipantsAndStatus(@Param("userIds") Collection<UUID> userIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportWriter.FETCH_SIZE))
+    @Query("SELECT new com.medibook.api.dto.Admin.TurnExportRowDTO(t.id, t.scheduledAt, t.status, d.id, d.name, d.surname, dp.specialty, p.id, fm.id) " +
+           "FROM TurnAssigned t JOIN t.doctor d LEFT JOIN d.doctorProfile dp LEFT JOIN t.patient p LEFT JOIN t.familyMember fm " +
+           "WHERE t.scheduledAt >= :from AND t.scheduledAt < :to ORDER BY t.scheduledAt, t.id")
+    Stream<TurnExportRowDTO> streamForExport(@Param("from") OffsetDateTime from, @Param("to") OffsetDateTime to);
 }
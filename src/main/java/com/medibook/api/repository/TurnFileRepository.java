@@ -3,9 +3,13 @@ package com.medibook.api.repository;
 import com.medibook.api.entity.TurnFile;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,6 +19,11 @@ public interface TurnFileRepository extends JpaRepository<TurnFile, UUID> {
     Optional<TurnFile> findByTurnId(UUID turnId);
     
     boolean existsByTurnId(UUID turnId);
+
+    List<TurnFile> findByTurnIdIn(Collection<UUID> turnIds);
+
+    @Query("SELECT f.turn.patient.id, COUNT(f) FROM TurnFile f WHERE f.turn.patient.id IN :patientIds GROUP BY f.turn.patient.id")
+    List<Object[]> countByPatientIds(@Param("patientIds") Collection<UUID> patientIds);
     
     @Modifying
     @Transactional
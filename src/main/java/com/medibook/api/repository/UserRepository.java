@@ -1,13 +1,22 @@
 package com.medibook.api.repository;
 
+import com.medibook.api.dto.Admin.UserExportRowDTO;
 import com.medibook.api.entity.User;
+import com.medibook.api.model.ExportWriter;
+import com.medibook.api.model.RatingTotals;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, UUID> {
 
@@ -34,10 +43,30 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     long countByRoleAndStatus(String role, String status);
     long countByRoleAndEmailVerified(String role, boolean emailVerified);
     long countByRoleAndStatusAndEmailVerified(String role, String status, boolean emailVerified);
+
+    @Query("SELECT u FROM User u WHERE u.role IN ('PATIENT', 'DOCTOR') AND u.id > :afterId ORDER BY u.id")
+    List<User> findBadgeHoldersAfter(@Param("afterId") UUID afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.role IN ('PATIENT', 'DOCTOR') AND u.id > :afterId")
+    long countBadgeHoldersAfter(@Param("afterId") UUID afterId);
     
+    @Modifying
+    @Query("UPDATE User u SET u.ratingSum = u.ratingSum + :score, u.ratingCount = u.ratingCount + 1, " +
+           "u.score = ROUND((u.ratingSum + :score) * 1.0 / (u.ratingCount + 1), 2) WHERE u.id = :userId")
+    int recordRating(@Param("userId") UUID userId, @Param("score") int score);
+
+    @Query("SELECT new com.medibook.api.model.RatingTotals(u.ratingSum, u.ratingCount, u.score) FROM User u WHERE u.id = :userId")
+    Optional<RatingTotals> findRatingTotals(@Param("userId") UUID userId);
+
     @Query("SELECT u FROM User u JOIN FETCH u.doctorProfile WHERE u.role = 'DOCTOR' AND u.status = 'ACTIVE'")
     List<User> findAllDoctors();
     
     @Query("SELECT u FROM User u JOIN FETCH u.doctorProfile dp WHERE u.role = 'DOCTOR' AND u.status = 'ACTIVE' AND dp.specialty = :specialty")
     List<User> findDoctorsBySpecialty(@Param("specialty") String specialty);
-}
\ No newline at end of file
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = ExportWriter.FETCH_SIZE))
+    @Query("SELECT new com.medibook.api.dto.Admin.UserExportRowDTO(u.id, u.email, u.name, u.surname, u.role, u.status, u.emailVerified, u.gender, u.birthdate, dp.specialty, u.score, u.ratingCount) " +
+           "FROM User u LEFT JOIN u.doctorProfile dp " +
+           "WHERE (:role IS NULL OR u.role = :role) AND (:status IS NULL OR u.status = :status) ORDER BY u.id")
+    Stream<UserExportRowDTO> streamForExport(@Param("role") String role, @Param("status") String status);
+}
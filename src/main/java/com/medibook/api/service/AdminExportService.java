@@ -0,0 +1,131 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.dto.Admin.RatingExportRowDTO;
+import com.medibook.api.dto.Admin.TurnExportRowDTO;
+import com.medibook.api.dto.Admin.UserExportRowDTO;
+import com.medibook.api.model.ExportFormat;
+import com.medibook.api.model.ExportWriter;
+import com.medibook.api.repository.RatingRepository;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.UserRepository;
+import com.medibook.api.util.DateTimeUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Bulk exports for analysts. Rows are projected straight into export records and written
+ * while the JDBC cursor is read, so memory use does not grow with the size of the table.
+ * The write methods are meant to run inside a {@code StreamingResponseBody}; they open
+ * their own read-only transaction on the streaming thread.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminExportService {
+
+    private static final List<String> RATING_ROLES = List.of("PATIENT", "DOCTOR");
+    private static final List<String> USER_ROLES = List.of("PATIENT", "DOCTOR", "ADMIN");
+
+    static final OffsetDateTime EXPORT_START = OffsetDateTime.of(1970, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    static final OffsetDateTime EXPORT_END = OffsetDateTime.of(9999, 12, 31, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    private final TurnAssignedRepository turnAssignedRepository;
+    private final RatingRepository ratingRepository;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Rejects invalid filters before the response is committed, so they still produce a 400.
+     */
+    public void validateTurnFilters(LocalDate fromDate, LocalDate toDate) {
+        validateRange(fromDate, toDate);
+    }
+
+    public void validateRatingFilters(LocalDate fromDate, LocalDate toDate, String raterRole, String ratedRole) {
+        validateRange(fromDate, toDate);
+        validateRole("raterRole", raterRole, RATING_ROLES);
+        validateRole("ratedRole", ratedRole, RATING_ROLES);
+    }
+
+    public void validateUserFilters(String role) {
+        validateRole("role", role, USER_ROLES);
+    }
+
+    /**
+     * Turns scheduled between the given dates (inclusive, Argentina time), ordered by schedule.
+     */
+    @Transactional(readOnly = true)
+    public long writeTurns(LocalDate fromDate, LocalDate toDate, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<TurnExportRowDTO> rows = turnAssignedRepository.streamForExport(startOf(fromDate), endOf(toDate))) {
+            return write("turns", rows, TurnExportRowDTO.class, format, out);
+        }
+    }
+
+    /**
+     * Ratings created between the given dates (inclusive, Argentina time), oldest first.
+     */
+    @Transactional(readOnly = true)
+    public long writeRatings(LocalDate fromDate, LocalDate toDate, String raterRole, String ratedRole,
+                             ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<RatingExportRowDTO> rows = ratingRepository.streamForExport(startOf(fromDate), endOf(toDate), raterRole, ratedRole)) {
+            return write("ratings", rows, RatingExportRowDTO.class, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public long writeUsers(String role, String status, ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<UserExportRowDTO> rows = userRepository.streamForExport(role, status)) {
+            return write("users", rows, UserExportRowDTO.class, format, out);
+        }
+    }
+
+    private <T extends Record> long write(String name, Stream<T> rows, Class<T> rowType, ExportFormat format,
+                                          OutputStream out) throws IOException {
+        ExportWriter<T> writer = new ExportWriter<>(rowType, format, objectMapper, out);
+        try {
+            writer.writeHeader();
+            Iterator<T> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+            long written = writer.finish();
+            log.info("Exported {} {} rows as {}", written, name, format);
+            return written;
+        } catch (IOException e) {
+            log.info("Export of {} aborted: {}", name, e.getMessage());
+            throw e;
+        }
+    }
+
+    private static void validateRange(LocalDate fromDate, LocalDate toDate) {
+        if (fromDate != null && toDate != null && toDate.isBefore(fromDate)) {
+            throw new IllegalArgumentException("toDate must not be before fromDate");
+        }
+    }
+
+    private static void validateRole(String name, String role, List<String> allowed) {
+        if (role != null && !allowed.contains(role)) {
+            throw new IllegalArgumentException(name + " must be one of " + String.join(", ", allowed));
+        }
+    }
+
+    private static OffsetDateTime startOf(LocalDate date) {
+        return date == null ? EXPORT_START : date.atStartOfDay(DateTimeUtils.ARGENTINA_ZONE).toOffsetDateTime();
+    }
+
+    private static OffsetDateTime endOf(LocalDate date) {
+        return date == null ? EXPORT_END : date.plusDays(1).atStartOfDay(DateTimeUtils.ARGENTINA_ZONE).toOffsetDateTime();
+    }
+}
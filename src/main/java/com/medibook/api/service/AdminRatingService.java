@@ -0,0 +1,106 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Admin.AdminRatingsResponseDTO;
+import com.medibook.api.dto.Admin.AdminRatingsResponseDTO.RatingStatsDTO;
+import com.medibook.api.entity.Rating;
+import com.medibook.api.mapper.RatingMapper;
+import com.medibook.api.model.RatingCursor;
+import com.medibook.api.repository.RatingRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AdminRatingService {
+
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 200;
+
+    private static final Set<String> RATING_ROLES = Set.of("PATIENT", "DOCTOR");
+
+    private final RatingRepository ratingRepository;
+    private final RatingMapper ratingMapper;
+
+    /**
+     * One page of ratings, most recent first, optionally restricted to a rater and/or rated
+     * role. The stats block covers every rating and is only computed for the first page.
+     */
+    public AdminRatingsResponseDTO getRatingsPage(String raterRole, String ratedRole, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        validateRole("raterRole", raterRole);
+        validateRole("ratedRole", ratedRole);
+
+        boolean firstPage = cursor == null || cursor.isBlank();
+        RatingCursor position = firstPage ? RatingCursor.FIRST : RatingCursor.decode(cursor);
+
+        List<Rating> ratings = ratingRepository.findPageBefore(raterRole, ratedRole,
+                position.createdAt(), position.id(), PageRequest.of(0, pageSize + 1));
+        boolean hasMore = ratings.size() > pageSize;
+        if (hasMore) {
+            ratings = ratings.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            Rating last = ratings.get(ratings.size() - 1);
+            nextCursor = new RatingCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return AdminRatingsResponseDTO.builder()
+                .items(ratings.stream().map(ratingMapper::toDTO).toList())
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .stats(firstPage ? getStats() : null)
+                .build();
+    }
+
+    public RatingStatsDTO getStats() {
+        long total = 0;
+        long scoreSum = 0;
+        long patientCount = 0;
+        long patientSum = 0;
+        long doctorCount = 0;
+        long doctorSum = 0;
+        for (Object[] row : ratingRepository.summarizeByRaterRole()) {
+            long count = ((Number) row[1]).longValue();
+            long sum = row[2] == null ? 0 : ((Number) row[2]).longValue();
+            total += count;
+            scoreSum += sum;
+            if ("PATIENT".equals(row[0])) {
+                patientCount = count;
+                patientSum = sum;
+            } else if ("DOCTOR".equals(row[0])) {
+                doctorCount = count;
+                doctorSum = sum;
+            }
+        }
+
+        return RatingStatsDTO.builder()
+                .totalRatings(total)
+                .patientRatingsCount(patientCount)
+                .doctorRatingsCount(doctorCount)
+                .averageScore(average(scoreSum, total))
+                .averagePatientRating(average(patientSum, patientCount))
+                .averageDoctorRating(average(doctorSum, doctorCount))
+                .build();
+    }
+
+    private static void validateRole(String name, String role) {
+        if (role != null && !RATING_ROLES.contains(role)) {
+            throw new IllegalArgumentException(name + " must be PATIENT or DOCTOR");
+        }
+    }
+
+    private static double average(long sum, long count) {
+        return count == 0 ? 0.0 : Math.round(sum * 100.0 / count) / 100.0;
+    }
+}
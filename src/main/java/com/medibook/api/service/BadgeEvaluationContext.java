@@ -0,0 +1,125 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.medibook.api.entity.Badge;
+import com.medibook.api.entity.BadgeStatistics;
+import com.medibook.api.entity.User;
+import com.medibook.api.model.BadgeMetric;
+import lombok.Getter;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Statistics, progress and badges of one user, loaded once per evaluation. Rules read and
+ * change this state in memory and {@link BadgeService} writes back only what changed.
+ */
+@Getter
+class BadgeEvaluationContext {
+
+    private final User user;
+    private final BadgeStatistics stats;
+    private final Map<String, Badge> badges = new HashMap<>();
+    private final Set<Badge> changedBadges = new LinkedHashSet<>();
+    private final Map<BadgeMetric, Double> loadedMetrics = new EnumMap<>(BadgeMetric.class);
+    private final OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
+    private boolean statisticsChanged;
+
+    BadgeEvaluationContext(User user, BadgeStatistics stats, boolean statisticsChanged, List<Badge> badges) {
+        this.user = user;
+        this.stats = stats;
+        this.statisticsChanged = statisticsChanged;
+
+        if (!(stats.getProgress() instanceof ObjectNode)) {
+            stats.setProgress(JsonNodeFactory.instance.objectNode());
+            this.statisticsChanged = true;
+        }
+        for (Badge badge : badges) {
+            this.badges.put(badge.getBadgeType(), badge);
+        }
+    }
+
+    UUID getUserId() {
+        return user.getId();
+    }
+
+    /**
+     * Supplies a loaded metric that was already computed for a whole page of users, so the
+     * rule engine does not query it again for this user.
+     */
+    void preload(BadgeMetric metric, double value) {
+        loadedMetrics.put(metric, value);
+    }
+
+    void setProgress(String badgeType, double progress) {
+        ObjectNode progressJson = (ObjectNode) stats.getProgress();
+        JsonNode current = progressJson.get(badgeType);
+        if (current != null && current.isNumber() && current.asDouble() == progress) {
+            return;
+        }
+        progressJson.put(badgeType, progress);
+        statisticsChanged = true;
+    }
+
+    boolean isActive(String badgeType) {
+        Badge badge = badges.get(badgeType);
+        return badge != null && Boolean.TRUE.equals(badge.getIsActive());
+    }
+
+    long countActiveBadges() {
+        return badges.values().stream()
+                .filter(badge -> Boolean.TRUE.equals(badge.getIsActive()))
+                .count();
+    }
+
+    long countActiveBadgesExcluding(String badgeType) {
+        return badges.values().stream()
+                .filter(badge -> Boolean.TRUE.equals(badge.getIsActive()) && !badgeType.equals(badge.getBadgeType()))
+                .count();
+    }
+
+    void createBadge(String badgeType) {
+        if (badges.containsKey(badgeType)) {
+            return;
+        }
+        Badge badge = Badge.builder()
+                .userId(user.getId())
+                .badgeType(badgeType)
+                .earnedAt(now)
+                .isActive(true)
+                .lastEvaluatedAt(now)
+                .build();
+        badges.put(badgeType, badge);
+        changedBadges.add(badge);
+    }
+
+    void activateBadge(String badgeType) {
+        Badge badge = badges.get(badgeType);
+        if (badge == null) {
+            createBadge(badgeType);
+            return;
+        }
+        if (Boolean.TRUE.equals(badge.getIsActive())) {
+            return;
+        }
+        badge.setIsActive(true);
+        if (badge.getEarnedAt() == null) {
+            badge.setEarnedAt(now);
+        }
+        badge.setLastEvaluatedAt(now);
+        changedBadges.add(badge);
+    }
+
+    void deactivateBadge(String badgeType) {
+        Badge badge = badges.get(badgeType);
+        if (badge == null || !Boolean.TRUE.equals(badge.getIsActive())) {
+            return;
+        }
+        badge.setIsActive(false);
+        badge.setLastEvaluatedAt(now);
+        changedBadges.add(badge);
+    }
+}
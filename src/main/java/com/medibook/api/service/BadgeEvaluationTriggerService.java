@@ -1,285 +1,243 @@
 package com.medibook.api.service;
 
 import com.medibook.api.entity.User;
+import com.medibook.api.model.BadgeTrigger;
+import com.medibook.api.model.RatingSample;
+import com.medibook.api.model.UserEventCoalescer;
+import com.medibook.api.model.UserEventCoalescer.Batch;
+import com.medibook.api.model.UserStripedExecutor;
 import com.medibook.api.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
+/**
+ * Entry point for badge side effects. Events are queued per user: each one still updates
+ * the statistics it counts, but every event of a user that arrives within the coalescing
+ * window is followed by a single badge evaluation covering the union of their triggers. The
+ * evaluation is the only place badge progress is written. Batches run on the user's lane of the badge executor, so the statistics
+ * row of a user is never written by two threads at once.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class BadgeEvaluationTriggerService {
 
+    private static final Set<BadgeTrigger> ALL_TRIGGERS = EnumSet.allOf(BadgeTrigger.class);
+    private static final int MAX_EVENTS_PER_USER = 64;
+    private static final int MAX_RETRIES = 3;
+
+    private record BadgeEvent(String description, String requiredRole, Set<BadgeTrigger> triggers, Runnable statisticsUpdate) {
+    }
+
     private final BadgeService badgeService;
     private final BadgeStatisticsUpdateService statisticsUpdateService;
+    private final BadgeSnapshotService badgeSnapshotService;
     private final UserRepository userRepository;
+    private final UserStripedExecutor executor;
+    private final UserEventCoalescer<BadgeEvent> pending;
+    private final boolean coalescing;
+
+    private final Counter eventsReceived;
+    private final Counter eventsOverflowed;
+    private final Counter evaluationsExecuted;
+
+    @Autowired
+    public BadgeEvaluationTriggerService(BadgeService badgeService,
+                                         BadgeStatisticsUpdateService statisticsUpdateService,
+                                         BadgeSnapshotService badgeSnapshotService,
+                                         UserRepository userRepository,
+                                         UserStripedExecutor executor,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${badge.evaluation.coalescing-window-ms:2000}") long windowMillis,
+                                         @Value("${badge.evaluation.max-pending-users:10000}") int maxPendingUsers) {
+        this.badgeService = badgeService;
+        this.statisticsUpdateService = statisticsUpdateService;
+        this.badgeSnapshotService = badgeSnapshotService;
+        this.userRepository = userRepository;
+        this.executor = executor;
+        this.pending = new UserEventCoalescer<>(windowMillis, maxPendingUsers, MAX_EVENTS_PER_USER, System::currentTimeMillis);
+        this.coalescing = windowMillis > 0;
+
+        this.eventsReceived = Counter.builder("badge.evaluation.events.received")
+                .description("Badge events queued for evaluation")
+                .register(meterRegistry);
+        this.eventsOverflowed = Counter.builder("badge.evaluation.events.overflowed")
+                .description("Badge events evaluated on their own because the pending queue was full")
+                .register(meterRegistry);
+        this.evaluationsExecuted = Counter.builder("badge.evaluation.executed")
+                .description("Badge evaluations executed after coalescing")
+                .register(meterRegistry);
+        Gauge.builder("badge.evaluation.pending.users", pending, UserEventCoalescer::pendingUsers)
+                .description("Users with badge events waiting for their window to close")
+                .register(meterRegistry);
+        Gauge.builder("badge.evaluation.queued.tasks", executor, UserStripedExecutor::queuedTasks)
+                .description("Coalesced badge evaluations waiting for their user's lane")
+                .register(meterRegistry);
+    }
 
-    @Async("badgeEvaluationTaskExecutor")
-    public void evaluateAfterRating(UUID userId, Integer communicationScore, Integer empathyScore, Integer punctualityScore) {
-        try {
-            User user = userRepository.findById(userId).orElse(null);
-            
-            if (user == null) {
-                log.warn("Attempted badge evaluation for non-existent user: {}", userId);
-                return;
-            }
-            
-            if (!"DOCTOR".equals(user.getRole())) {
-                log.warn("Attempted badge evaluation for non-doctor user: {} (role: {})", userId, user.getRole());
-                return;
-            }
-            
-            statisticsUpdateService.updateAfterRatingAddedSync(userId, communicationScore, empathyScore, punctualityScore);
-            statisticsUpdateService.updateProgressAfterRatingSync(userId);
-            
-            badgeService.evaluateRatingRelatedBadges(userId);
-
-        } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating rating-related badges for user {} after rating: {}", userId, e.getMessage(), e);
-        }
+    public void evaluateAfterRating(UUID userId, RatingSample rating, Integer communicationScore, Integer empathyScore, Integer punctualityScore) {
+        submit(userId, new BadgeEvent("rating", "DOCTOR", EnumSet.of(BadgeTrigger.RATING),
+                () -> statisticsUpdateService.updateAfterRatingAddedSync(userId, rating, communicationScore, empathyScore, punctualityScore)));
     }
 
-    @Async("badgeEvaluationTaskExecutor")
     public void evaluateAfterTurnCompletion(UUID userId, UUID otherUserId) {
-        try {
-            userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-            
-            statisticsUpdateService.updateAfterTurnCompletedSync(userId, otherUserId);
-            statisticsUpdateService.updateProgressAfterTurnCompletionSync(userId);
-            
-            badgeService.evaluateTurnCompletionRelatedBadges(userId);
-
-        } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating turn completion badges for user {} after turn completion: {}", userId, e.getMessage(), e);
-        }
+        submit(userId, new BadgeEvent("turn completion", null, EnumSet.of(BadgeTrigger.TURN_COMPLETION),
+                () -> statisticsUpdateService.updateAfterTurnCompletedSync(userId, otherUserId)));
     }
 
-    @Async("badgeEvaluationTaskExecutor")
     public void evaluateAfterMedicalHistoryDocumented(UUID userId, String content) {
-        try {
-            User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-            
-            if (!"DOCTOR".equals(user.getRole())) {
-                log.warn("Attempted badge evaluation for non-doctor user: {} (role: {})", userId, user.getRole());
-                return;
-            }
-            
-            statisticsUpdateService.updateAfterMedicalHistoryDocumentedSync(userId, content);
-            statisticsUpdateService.updateProgressAfterMedicalHistorySync(userId);
-            
-            badgeService.evaluateDocumentationRelatedBadges(userId);
-
-        } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating documentation badges for user {} after medical history: {}", userId, e.getMessage(), e);
-        }
+        submit(userId, new BadgeEvent("medical history", "DOCTOR", EnumSet.of(BadgeTrigger.DOCUMENTATION),
+                () -> statisticsUpdateService.updateAfterMedicalHistoryDocumentedSync(userId, content)));
     }
 
-    @Async("badgeEvaluationTaskExecutor")
     public void evaluateAfterModifyRequestHandled(UUID userId) {
-        try {
-            User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-            
-            if (!"DOCTOR".equals(user.getRole())) {
-                log.warn("Attempted badge evaluation for non-doctor user: {} (role: {})", userId, user.getRole());
-                return;
-            }
-            
-            statisticsUpdateService.updateAfterModifyRequestHandledSync(userId);
-            statisticsUpdateService.updateProgressAfterModifyRequestSync(userId);
-            
-            badgeService.evaluateResponseRelatedBadges(userId);
-
-        } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating response badges for user {} after modify request: {}", userId, e.getMessage(), e);
-        }
+        submit(userId, new BadgeEvent("modify request", "DOCTOR", EnumSet.of(BadgeTrigger.RESPONSE),
+                () -> statisticsUpdateService.updateAfterModifyRequestHandledSync(userId)));
     }
 
-    @Async("badgeEvaluationTaskExecutor")
     public void evaluateAfterTurnCancellation(UUID userId) {
-        try {
-            User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-            
-            if (!"DOCTOR".equals(user.getRole())) {
-                log.warn("Attempted badge evaluation for non-doctor user: {} (role: {})", userId, user.getRole());
-                return;
-            }
-            
-            statisticsUpdateService.updateAfterTurnCancelledSync(userId);
-            statisticsUpdateService.updateProgressAfterCancellationSync(userId);
-            
-            badgeService.evaluateConsistencyRelatedBadges(userId);
-
-        } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating consistency badges for user {} after cancellation: {}", userId, e.getMessage(), e);
-        }
+        submit(userId, new BadgeEvent("cancellation", "DOCTOR", EnumSet.of(BadgeTrigger.CONSISTENCY),
+                () -> statisticsUpdateService.updateAfterTurnCancelledSync(userId)));
     }
 
-    @Async("badgeEvaluationTaskExecutor")
     public void evaluateAfterTurnNoShow(UUID userId) {
-        try {
-            User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-            
-            if (!"DOCTOR".equals(user.getRole())) {
-                log.warn("Attempted badge evaluation for non-doctor user: {} (role: {})", userId, user.getRole());
-                return;
-            }
-            
-            statisticsUpdateService.updateAfterTurnNoShowSync(userId);
-            statisticsUpdateService.updateProgressAfterCancellationSync(userId);
-            
-            badgeService.evaluateConsistencyRelatedBadges(userId);
-
-        } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating consistency badges for user {} after no-show: {}", userId, e.getMessage(), e);
-        }
+        submit(userId, new BadgeEvent("no-show", "DOCTOR", EnumSet.of(BadgeTrigger.CONSISTENCY),
+                () -> statisticsUpdateService.updateAfterTurnNoShowSync(userId)));
     }
 
-    @Async("badgeEvaluationTaskExecutor")
     public void evaluateAfterAdvanceBooking(UUID userId) {
-        try {
-            User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-            
-            if (!"PATIENT".equals(user.getRole())) {
-                log.warn("Attempted badge evaluation for non-patient user: {} (role: {})", userId, user.getRole());
-                return;
-            }
-            
-            statisticsUpdateService.updateAfterAdvanceBookingSync(userId);
-            statisticsUpdateService.updateProgressAfterBookingSync(userId);
-            badgeService.evaluateBookingRelatedBadges(userId);
-
-        } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating advance booking badges for user {} after booking: {}", userId, e.getMessage(), e);
-        }
+        submit(userId, new BadgeEvent("advance booking", "PATIENT", EnumSet.of(BadgeTrigger.BOOKING),
+                () -> statisticsUpdateService.updateAfterAdvanceBookingSync(userId)));
     }
 
-    @Async("badgeEvaluationTaskExecutor")
-    public void evaluateAfterRatingGiven(UUID userId) {
-        int maxRetries = 3;
-        int attempt = 0;
-        while (attempt < maxRetries) {
-            try {
-                User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-                
-                if (!"PATIENT".equals(user.getRole())) {
-                    log.warn("Attempted badge evaluation for non-patient user: {} (role: {})", userId, user.getRole());
-                    return;
-                }
-                
-                statisticsUpdateService.updateAfterRatingGivenSync(userId);
-                statisticsUpdateService.updateProgressAfterRatingSync(userId);
-                badgeService.evaluateRatingRelatedBadges(userId);
-                return; // Success, exit
-            } catch (ObjectOptimisticLockingFailureException e) {
-                attempt++;
-                if (attempt >= maxRetries) {
-                    log.error("[TRIGGER] Failed to evaluate rating given badges for user {} after {} attempts due to optimistic locking: {}", userId, maxRetries, e.getMessage());
-                } else {
-                    log.warn("[TRIGGER] Optimistic locking failure for user {} on attempt {}, retrying...", userId, attempt);
-                    try {
-                        Thread.sleep(100 * attempt); // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        log.error("[TRIGGER] Interrupted while retrying for user {}", userId);
-                        return;
-                    }
-                }
-            } catch (Exception e) {
-                log.error("[TRIGGER] Unexpected error evaluating rating given badges for user {} after rating given: {}", userId, e.getMessage(), e);
-                return;
-            }
-        }
+    public void evaluateAfterRatingGiven(UUID userId, int score) {
+        submit(userId, new BadgeEvent("rating given", "PATIENT", EnumSet.of(BadgeTrigger.RATING),
+                () -> statisticsUpdateService.updateAfterRatingGivenSync(userId, score)));
     }
 
-    @Async("badgeEvaluationTaskExecutor")
-    public void evaluateAfterRatingReceived(UUID userId) {
-        int maxRetries = 3;
-        int attempt = 0;
-        while (attempt < maxRetries) {
-            try {
-                userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-                
-                statisticsUpdateService.updateAfterRatingReceivedSync(userId);
-                statisticsUpdateService.updateProgressAfterRatingSync(userId);
-                badgeService.evaluateRatingRelatedBadges(userId);
-                return; // Success, exit
-            } catch (ObjectOptimisticLockingFailureException e) {
-                attempt++;
-                if (attempt >= maxRetries) {
-                    log.error("[TRIGGER] Failed to evaluate rating received badges for user {} after {} attempts due to optimistic locking: {}", userId, maxRetries, e.getMessage());
-                } else {
-                    log.warn("[TRIGGER] Optimistic locking failure for user {} on attempt {}, retrying...", userId, attempt);
-                    try {
-                        Thread.sleep(100 * attempt); // Exponential backoff
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        log.error("[TRIGGER] Interrupted while retrying for user {}", userId);
-                        return;
-                    }
-                }
-            } catch (Exception e) {
-                log.error("[TRIGGER] Unexpected error evaluating rating received badges for user {} after rating received: {}", userId, e.getMessage(), e);
-                return;
-            }
-        }
+    public void evaluateAfterRatingReceived(UUID userId, RatingSample rating) {
+        submit(userId, new BadgeEvent("rating received", null, EnumSet.of(BadgeTrigger.RATING),
+                () -> statisticsUpdateService.updateAfterRatingReceivedSync(userId, rating)));
     }
 
-    @Async("badgeEvaluationTaskExecutor")
     public void evaluateAfterFileUploaded(UUID userId) {
-        try {
-            User user = userRepository.findById(userId).orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
-            
-            if (!"PATIENT".equals(user.getRole())) {
-                log.warn("Attempted badge evaluation for non-patient user: {} (role: {})", userId, user.getRole());
-                return;
-            }
-            
-            statisticsUpdateService.updateAfterFileUploadedSync(userId);
-            statisticsUpdateService.updateProgressAfterFileUploadSync(userId);
-            badgeService.evaluateFileRelatedBadges(userId);
+        submit(userId, new BadgeEvent("file upload", "PATIENT", EnumSet.of(BadgeTrigger.FILE),
+                () -> statisticsUpdateService.updateAfterFileUploadedSync(userId)));
+    }
 
-        } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating file upload badges for user {} after file upload: {}", userId, e.getMessage(), e);
+    public void evaluateAfterAvailabilityConfigured(UUID doctorId) {
+        submit(doctorId, new BadgeEvent("availability configuration", "DOCTOR", EnumSet.of(BadgeTrigger.AVAILABILITY), null));
+    }
+
+    public void evaluateAllBadges(UUID userId) {
+        submit(userId, new BadgeEvent("full evaluation", null, ALL_TRIGGERS, null));
+    }
+
+    @Scheduled(fixedDelayString = "${badge.evaluation.flush-interval-ms:250}")
+    public void flushDue() {
+        dispatch(pending.drainDue());
+    }
+
+    @PreDestroy
+    void flushAll() {
+        for (Batch<BadgeEvent> batch : pending.drainAll()) {
+            process(batch);
         }
     }
 
-    @Async("badgeEvaluationTaskExecutor")
-    public void evaluateAfterAvailabilityConfigured(UUID doctorId) {
-        try {
-            User user = userRepository.findById(doctorId).orElseThrow(() -> new IllegalArgumentException("User not found: " + doctorId));
-            
-            if (!"DOCTOR".equals(user.getRole())) {
-                log.warn("Attempted badge evaluation for non-doctor user: {} (role: {})", doctorId, user.getRole());
-                return;
-            }
-            
-            badgeService.evaluateAlwaysAvailable(user);
+    private void submit(UUID userId, BadgeEvent event) {
+        eventsReceived.increment();
+        if (pending.offer(userId, event) == UserEventCoalescer.Outcome.REJECTED) {
+            eventsOverflowed.increment();
+            log.warn("[TRIGGER] Badge event queue full, evaluating {} for user {} on its own", event.description(), userId);
+            dispatch(List.of(new Batch<>(userId, List.of(event))));
+        } else if (!coalescing) {
+            flushDue();
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating ALWAYS_AVAILABLE badge for doctor {} after availability configuration: {}", doctorId, e.getMessage(), e);
+    private void dispatch(List<Batch<BadgeEvent>> batches) {
+        for (Batch<BadgeEvent> batch : batches) {
+            executor.execute(batch.userId(), () -> process(batch));
         }
     }
 
-    @Async("badgeEvaluationTaskExecutor")
-    public void evaluateAllBadges(UUID userId) {
+    private void process(Batch<BadgeEvent> batch) {
+        UUID userId = batch.userId();
+        EnumSet<BadgeTrigger> triggers = EnumSet.noneOf(BadgeTrigger.class);
         try {
             User user = userRepository.findById(userId).orElse(null);
-            
             if (user == null) {
                 log.warn("Attempted badge evaluation for non-existent user: {}", userId);
                 return;
             }
-            
-            statisticsUpdateService.updateAllBadgeProgress(userId);
-            badgeService.evaluateAllBadges(userId);
-            
+
+            for (BadgeEvent event : batch.events()) {
+                if (event.requiredRole() != null && !event.requiredRole().equals(user.getRole())) {
+                    log.warn("Attempted {} badge evaluation for user: {} (role: {})", event.description(), userId, user.getRole());
+                } else if (updateStatistics(userId, event)) {
+                    triggers.addAll(event.triggers());
+                }
+            }
+            if (triggers.isEmpty()) {
+                return;
+            }
+
+            if (triggers.containsAll(ALL_TRIGGERS)) {
+                badgeService.evaluateAllBadges(userId);
+            } else {
+                badgeService.evaluateBadges(user, triggers);
+            }
+            evaluationsExecuted.increment();
+
         } catch (Exception e) {
-            log.error("[TRIGGER] Unexpected error evaluating all badges for user {}: {}", userId, e.getMessage(), e);
+            log.error("[TRIGGER] Unexpected error evaluating {} badges for user {}: {}", triggers, userId, e.getMessage(), e);
+        } finally {
+            if (!triggers.isEmpty()) {
+                badgeSnapshotService.invalidate(userId);
+            }
+        }
+    }
+
+    private boolean updateStatistics(UUID userId, BadgeEvent event) {
+        if (event.statisticsUpdate() == null) {
+            return true;
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                event.statisticsUpdate().run();
+                return true;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= MAX_RETRIES) {
+                    log.error("[TRIGGER] Failed to update statistics for user {} after {} after {} attempts due to optimistic locking: {}",
+                            userId, event.description(), MAX_RETRIES, e.getMessage());
+                    return false;
+                }
+                log.warn("[TRIGGER] Optimistic locking failure for user {} on attempt {}, retrying...", userId, attempt);
+                try {
+                    Thread.sleep(100L * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    log.error("[TRIGGER] Interrupted while retrying for user {}", userId);
+                    return false;
+                }
+            } catch (Exception e) {
+                log.error("[TRIGGER] Unexpected error updating statistics for user {} after {}: {}",
+                        userId, event.description(), e.getMessage(), e);
+                return false;
+            }
         }
     }
 }
@@ -0,0 +1,480 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.medibook.api.dto.Admin.BadgeRecomputeJobDTO;
+import com.medibook.api.entity.Badge;
+import com.medibook.api.entity.BadgeRecomputeJob;
+import com.medibook.api.entity.BadgeStatistics;
+import com.medibook.api.entity.DoctorProfile;
+import com.medibook.api.entity.User;
+import com.medibook.api.model.BadgeMetric;
+import com.medibook.api.model.RatingMention;
+import com.medibook.api.model.RatingWindow;
+import com.medibook.api.repository.BadgeRecomputeJobRepository;
+import com.medibook.api.repository.BadgeRepository;
+import com.medibook.api.repository.BadgeStatisticsRepository;
+import com.medibook.api.repository.DoctorProfileRepository;
+import com.medibook.api.repository.MedicalHistoryRepository;
+import com.medibook.api.repository.RatingRepository;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.TurnFileRepository;
+import com.medibook.api.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Rebuilds badge statistics from the source tables instead of the incrementally maintained
+ * counters. Users are read in id order one page at a time; the statistics of a page come from
+ * a handful of grouped queries, its users are evaluated in parallel on a fork-join pool and
+ * the changed statistics and badges are written in one transaction before the job cursor
+ * moves past the page.
+ */
+@Service
+@Slf4j
+public class BadgeRecomputationService {
+
+    private static final UUID FIRST_USER_ID = new UUID(0L, 0L);
+    private static final int MAX_PAGE_ATTEMPTS = 3;
+
+    private static final List<String> RECOMPUTED_COUNTERS = List.of(
+            "total_turns_completed", "turns_with_same_doctor", "total_unique_patients",
+            "total_cancellations", "total_turns_no_show", "files_uploaded",
+            "ratings_given", "ratings_received", "total_ratings_received", "total_low_rating_count",
+            "rating_score_sum", "ratings_given_score_sum", "recent_patient_high_scores", "documentation_count");
+
+    private final UserRepository userRepository;
+    private final BadgeStatisticsRepository statisticsRepository;
+    private final BadgeRepository badgeRepository;
+    private final TurnAssignedRepository turnAssignedRepository;
+    private final RatingRepository ratingRepository;
+    private final TurnFileRepository turnFileRepository;
+    private final MedicalHistoryRepository medicalHistoryRepository;
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final BadgeRecomputeJobRepository jobRepository;
+    private final BadgeRuleEngine ruleEngine;
+    private final DoctorLeaderboardService doctorLeaderboardService;
+    private final BadgeSnapshotService badgeSnapshotService;
+    private final TransactionTemplate transactionTemplate;
+    private final ForkJoinPool evaluationPool;
+    private final ExecutorService driver;
+    private final int pageSize;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    @Autowired
+    public BadgeRecomputationService(UserRepository userRepository,
+                                     BadgeStatisticsRepository statisticsRepository,
+                                     BadgeRepository badgeRepository,
+                                     TurnAssignedRepository turnAssignedRepository,
+                                     RatingRepository ratingRepository,
+                                     TurnFileRepository turnFileRepository,
+                                     MedicalHistoryRepository medicalHistoryRepository,
+                                     DoctorProfileRepository doctorProfileRepository,
+                                     BadgeRecomputeJobRepository jobRepository,
+                                     BadgeRuleEngine ruleEngine,
+                                     DoctorLeaderboardService doctorLeaderboardService,
+                                     BadgeSnapshotService badgeSnapshotService,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${badge.recompute.parallelism:4}") int parallelism,
+                                     @Value("${badge.recompute.page-size:500}") int pageSize) {
+        this.userRepository = userRepository;
+        this.statisticsRepository = statisticsRepository;
+        this.badgeRepository = badgeRepository;
+        this.turnAssignedRepository = turnAssignedRepository;
+        this.ratingRepository = ratingRepository;
+        this.turnFileRepository = turnFileRepository;
+        this.medicalHistoryRepository = medicalHistoryRepository;
+        this.doctorProfileRepository = doctorProfileRepository;
+        this.jobRepository = jobRepository;
+        this.ruleEngine = ruleEngine;
+        this.doctorLeaderboardService = doctorLeaderboardService;
+        this.badgeSnapshotService = badgeSnapshotService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.evaluationPool = new ForkJoinPool(parallelism);
+        this.driver = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BadgeRecompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Starts a recomputation in the background. Unless {@code restart} is set, a job that did
+     * not complete is resumed after the last page it wrote.
+     */
+    public BadgeRecomputeJobDTO start(boolean restart) {
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("A badge recomputation is already running");
+        }
+        try {
+            BadgeRecomputeJob job = jobRepository.findFirstByOrderByStartedAtDesc()
+                    .filter(last -> !restart && !BadgeRecomputeJob.COMPLETED.equals(last.getStatus()))
+                    .map(this::resume)
+                    .orElseGet(this::newJob);
+            UUID jobId = job.getId();
+            driver.execute(() -> run(jobId));
+            return toDTO(job);
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public Optional<BadgeRecomputeJobDTO> getLatestJob() {
+        return jobRepository.findFirstByOrderByStartedAtDesc().map(this::toDTO);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        driver.shutdownNow();
+        evaluationPool.shutdownNow();
+    }
+
+    private BadgeRecomputeJob newJob() {
+        OffsetDateTime now = OffsetDateTime.now();
+        return jobRepository.save(BadgeRecomputeJob.builder()
+                .status(BadgeRecomputeJob.RUNNING)
+                .totalUsers((int) userRepository.countBadgeHoldersAfter(FIRST_USER_ID))
+                .startedAt(now)
+                .updatedAt(now)
+                .build());
+    }
+
+    private BadgeRecomputeJob resume(BadgeRecomputeJob job) {
+        UUID cursor = job.getCursorUserId() == null ? FIRST_USER_ID : job.getCursorUserId();
+        job.setStatus(BadgeRecomputeJob.RUNNING);
+        job.setTotalUsers(job.getProcessedUsers() + (int) userRepository.countBadgeHoldersAfter(cursor));
+        job.setUpdatedAt(OffsetDateTime.now());
+        job.setFinishedAt(null);
+        job.setLastError(null);
+        log.info("[RECOMPUTE] Resuming badge recomputation {} after {} users", job.getId(), job.getProcessedUsers());
+        return jobRepository.save(job);
+    }
+
+    private void run(UUID jobId) {
+        BadgeRecomputeJob job = null;
+        try {
+            job = jobRepository.findById(jobId).orElseThrow();
+            UUID cursor = job.getCursorUserId() == null ? FIRST_USER_ID : job.getCursorUserId();
+            while (!Thread.currentThread().isInterrupted()) {
+                List<User> page = userRepository.findBadgeHoldersAfter(cursor, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+                int failed = recomputeWithRetry(page);
+                cursor = page.get(page.size() - 1).getId();
+
+                job.setCursorUserId(cursor);
+                job.setProcessedUsers(job.getProcessedUsers() + page.size());
+                job.setFailedUsers(job.getFailedUsers() + failed);
+                job.setUpdatedAt(OffsetDateTime.now());
+                job = jobRepository.save(job);
+                log.info("[RECOMPUTE] Badge recomputation {}: {}/{} users, {} failed",
+                        jobId, job.getProcessedUsers(), job.getTotalUsers(), job.getFailedUsers());
+            }
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedException("Badge recomputation interrupted");
+            }
+            job.setStatus(BadgeRecomputeJob.COMPLETED);
+            job.setFinishedAt(OffsetDateTime.now());
+            job.setUpdatedAt(job.getFinishedAt());
+            jobRepository.save(job);
+            log.info("[RECOMPUTE] Badge recomputation {} completed for {} users", jobId, job.getProcessedUsers());
+        } catch (Exception e) {
+            log.error("[RECOMPUTE] Badge recomputation {} failed: {}", jobId, e.getMessage(), e);
+            if (job != null) {
+                job.setStatus(BadgeRecomputeJob.FAILED);
+                job.setLastError(e.getMessage());
+                job.setUpdatedAt(OffsetDateTime.now());
+                try {
+                    jobRepository.save(job);
+                } catch (Exception saveError) {
+                    log.error("[RECOMPUTE] Could not record failure of badge recomputation {}", jobId, saveError);
+                }
+            }
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * A user whose statistics change while their page is being evaluated makes the page write
+     * fail on the version check; the page is then loaded and evaluated again.
+     */
+    private int recomputeWithRetry(List<User> page) throws InterruptedException, ExecutionException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return recomputePage(page);
+            } catch (ObjectOptimisticLockingFailureException | DataIntegrityViolationException e) {
+                if (attempt >= MAX_PAGE_ATTEMPTS) {
+                    throw e;
+                }
+                log.warn("[RECOMPUTE] Statistics changed while recomputing a page, retrying (attempt {})", attempt);
+            }
+        }
+    }
+
+    private int recomputePage(List<User> page) throws InterruptedException, ExecutionException {
+        List<UUID> userIds = page.stream().map(User::getId).toList();
+        PageStatistics statistics = aggregateStatistics(page);
+        Map<UUID, BadgeStatistics> existingStats = statisticsRepository.findAllById(userIds).stream()
+                .collect(Collectors.toMap(BadgeStatistics::getUserId, stats -> stats));
+        Map<UUID, List<Badge>> badges = badgeRepository.findByUser_IdIn(userIds).stream()
+                .collect(Collectors.groupingBy(Badge::getUserId));
+
+        AtomicInteger failed = new AtomicInteger();
+        List<BadgeEvaluationContext> contexts = evaluationPool.submit(() -> page.parallelStream()
+                .map(user -> evaluate(user, statistics.counters().get(user.getId()),
+                        statistics.loadedMetrics().getOrDefault(user.getId(), Map.of()),
+                        existingStats.get(user.getId()), badges.getOrDefault(user.getId(), List.of()), failed))
+                .filter(Objects::nonNull)
+                .toList()).get();
+
+        List<BadgeStatistics> changedStats = new ArrayList<>();
+        List<Badge> changedBadges = new ArrayList<>();
+        for (BadgeEvaluationContext context : contexts) {
+            if (context.isStatisticsChanged()) {
+                changedStats.add(context.getStats());
+            }
+            changedBadges.addAll(context.getChangedBadges());
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            statisticsRepository.saveAll(changedStats);
+            badgeRepository.saveAll(changedBadges);
+            for (BadgeEvaluationContext context : contexts) {
+                if (!context.getChangedBadges().isEmpty() && "DOCTOR".equals(context.getUser().getRole())) {
+                    doctorLeaderboardService.recordActiveBadges(context.getUserId(), context.countActiveBadges());
+                }
+                if (context.isStatisticsChanged() || !context.getChangedBadges().isEmpty()) {
+                    badgeSnapshotService.invalidate(context.getUserId());
+                }
+            }
+        });
+        return failed.get();
+    }
+
+    private BadgeEvaluationContext evaluate(User user, Map<String, Object> recomputed, Map<BadgeMetric, Double> loadedMetrics,
+                                            BadgeStatistics existing, List<Badge> badges, AtomicInteger failed) {
+        try {
+            BadgeStatistics stats = existing != null ? existing : BadgeStatistics.builder()
+                    .userId(user.getId())
+                    .progress(JsonNodeFactory.instance.objectNode())
+                    .build();
+            ObjectNode current = (ObjectNode) stats.getStatistics();
+            ObjectNode merged = current.deepCopy();
+            recomputed.forEach((key, value) -> {
+                if (value instanceof JsonNode node) {
+                    merged.set(key, node);
+                } else if (value instanceof Double doubleValue) {
+                    merged.put(key, doubleValue);
+                } else {
+                    merged.put(key, ((Number) value).intValue());
+                }
+            });
+            boolean changed = existing == null || !merged.equals(current);
+            stats.setStatistics(merged);
+
+            BadgeEvaluationContext context = new BadgeEvaluationContext(user, stats, changed, badges);
+            loadedMetrics.forEach(context::preload);
+            ruleEngine.evaluateAll(context);
+            return context;
+        } catch (Exception e) {
+            log.error("[RECOMPUTE] Error recomputing badges for user {}: {}", user.getId(), e.getMessage(), e);
+            failed.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Recomputes the counters of a page of users from turns, ratings, turn files and medical
+     * history with one grouped query per table. The metrics the rule engine would otherwise
+     * load per doctor, distinct patients and available days, are computed for the page too.
+     */
+    PageStatistics aggregateStatistics(List<User> users) {
+        Map<UUID, String> roles = new HashMap<>();
+        Map<UUID, Map<String, Object>> statistics = new HashMap<>();
+        for (User user : users) {
+            roles.put(user.getId(), user.getRole());
+            Map<String, Object> counters = new HashMap<>();
+            RECOMPUTED_COUNTERS.forEach(key -> counters.put(key, 0));
+            for (RatingMention mention : RatingMention.values()) {
+                counters.put(mention.getStatisticsKey(), 0);
+            }
+            statistics.put(user.getId(), counters);
+        }
+        Set<UUID> userIds = roles.keySet();
+        Map<UUID, Set<UUID>> patientsByDoctor = new HashMap<>();
+
+        for (Object[] row : turnAssignedRepository.countTurnsByParticipantsAndStatus(userIds)) {
+            UUID patientId = (UUID) row[0];
+            UUID doctorId = (UUID) row[1];
+            String status = (String) row[2];
+            int count = ((Number) row[3]).intValue();
+
+            if (patientId != null && "PATIENT".equals(roles.get(patientId)) && "COMPLETED".equals(status)) {
+                Map<String, Object> patient = statistics.get(patientId);
+                add(patient, "total_turns_completed", count);
+                patient.merge("turns_with_same_doctor", count, (a, b) -> Math.max(((Number) a).intValue(), ((Number) b).intValue()));
+            }
+            if ("DOCTOR".equals(roles.get(doctorId))) {
+                if (patientId != null) {
+                    patientsByDoctor.computeIfAbsent(doctorId, id -> new HashSet<>()).add(patientId);
+                }
+                Map<String, Object> doctor = statistics.get(doctorId);
+                switch (status) {
+                    case "COMPLETED" -> {
+                        add(doctor, "total_turns_completed", count);
+                        if (patientId != null) {
+                            add(doctor, "total_unique_patients", 1);
+                        }
+                    }
+                    case "CANCELED" -> add(doctor, "total_cancellations", count);
+                    case "NO_SHOW" -> add(doctor, "total_turns_no_show", count);
+                    default -> {
+                    }
+                }
+            }
+        }
+
+        Map<UUID, long[]> scoreTotals = new HashMap<>();
+        for (Object[] row : ratingRepository.countReceivedByRatedIds(userIds)) {
+            UUID ratedId = (UUID) row[0];
+            Integer score = (Integer) row[1];
+            int count = ((Number) row[2]).intValue();
+
+            Map<String, Object> rated = statistics.get(ratedId);
+            add(rated, "ratings_received", count);
+            add(rated, "total_ratings_received", count);
+            if (score != null && score < RatingMention.MIN_SCORE) {
+                add(rated, "total_low_rating_count", count);
+            }
+            long[] totals = scoreTotals.computeIfAbsent(ratedId, id -> new long[2]);
+            totals[0] += (long) (score == null ? 0 : score) * count;
+            totals[1] += count;
+        }
+        for (Object[] row : ratingRepository.countSubcategoriesByRatedIds(userIds, RatingMention.MIN_SCORE)) {
+            RatingMention mention = RatingMention.ofLabel((String) row[1]);
+            if (mention != null) {
+                add(statistics.get((UUID) row[0]), mention.getStatisticsKey(), ((Number) row[2]).intValue());
+            }
+        }
+        scoreTotals.forEach((ratedId, totals) -> {
+            double average = (double) totals[0] / totals[1];
+            statistics.get(ratedId).put("rating_score_sum", (int) totals[0]);
+            statistics.get(ratedId).put("total_avg_rating", average);
+            if ("PATIENT".equals(roles.get(ratedId))) {
+                statistics.get(ratedId).put("avg_rating_received", average);
+            }
+        });
+
+        for (Object[] row : ratingRepository.summarizeGivenByRaterIds(userIds)) {
+            UUID raterId = (UUID) row[0];
+            statistics.get(raterId).put("ratings_given", ((Number) row[1]).intValue());
+            statistics.get(raterId).put("ratings_given_score_sum", row[3] == null ? 0 : ((Number) row[3]).intValue());
+            if ("PATIENT".equals(roles.get(raterId)) && row[2] != null) {
+                statistics.get(raterId).put("avg_rating_given", ((Number) row[2]).doubleValue());
+            }
+        }
+
+        List<UUID> ratedDoctorIds = scoreTotals.keySet().stream()
+                .filter(id -> "DOCTOR".equals(roles.get(id)))
+                .toList();
+        recentPatientScores(ratedDoctorIds).forEach((doctorId, window) -> {
+            statistics.get(doctorId).put("recent_patient_scores", window.toJson());
+            statistics.get(doctorId).put("recent_patient_high_scores", window.getHighScores());
+        });
+
+        for (Object[] row : turnFileRepository.countByPatientIds(userIds)) {
+            int files = ((Number) row[1]).intValue();
+            Map<String, Object> patient = statistics.get((UUID) row[0]);
+            patient.put("files_uploaded", files);
+            patient.put("last_10_turns_files_uploaded_count", Math.min(files, 10));
+        }
+
+        for (Object[] row : medicalHistoryRepository.countByDoctorIds(userIds)) {
+            statistics.get((UUID) row[0]).put("documentation_count", ((Number) row[1]).intValue());
+        }
+        return new PageStatistics(statistics, loadDoctorMetrics(roles, patientsByDoctor));
+    }
+
+    private Map<UUID, Map<BadgeMetric, Double>> loadDoctorMetrics(Map<UUID, String> roles, Map<UUID, Set<UUID>> patientsByDoctor) {
+        List<UUID> doctorIds = roles.entrySet().stream()
+                .filter(entry -> "DOCTOR".equals(entry.getValue()))
+                .map(Map.Entry::getKey)
+                .toList();
+        if (doctorIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, DoctorProfile> profiles = doctorProfileRepository.findAllById(doctorIds).stream()
+                .collect(Collectors.toMap(DoctorProfile::getId, profile -> profile));
+
+        Map<UUID, Map<BadgeMetric, Double>> loadedMetrics = new HashMap<>();
+        for (UUID doctorId : doctorIds) {
+            Map<BadgeMetric, Double> metrics = new EnumMap<>(BadgeMetric.class);
+            metrics.put(BadgeMetric.DISTINCT_PATIENTS, (double) patientsByDoctor.getOrDefault(doctorId, Set.of()).size());
+            metrics.put(BadgeMetric.AVAILABLE_DAYS, (double) ruleEngine.countAvailableDays(profiles.get(doctorId)));
+            loadedMetrics.put(doctorId, metrics);
+        }
+        return loadedMetrics;
+    }
+
+    private Map<UUID, RatingWindow> recentPatientScores(List<UUID> doctorIds) {
+        if (doctorIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<UUID, List<Integer>> scores = new HashMap<>();
+        for (Object[] row : ratingRepository.findRecentScoresByRatedIds(doctorIds, "PATIENT", RatingWindow.SIZE)) {
+            scores.computeIfAbsent((UUID) row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+        }
+        Map<UUID, RatingWindow> windows = new HashMap<>();
+        for (UUID doctorId : doctorIds) {
+            windows.put(doctorId, RatingWindow.of(scores.getOrDefault(doctorId, List.of())));
+        }
+        return windows;
+    }
+
+    record PageStatistics(Map<UUID, Map<String, Object>> counters, Map<UUID, Map<BadgeMetric, Double>> loadedMetrics) {
+    }
+
+    private static void add(Map<String, Object> counters, String key, int delta) {
+        counters.merge(key, delta, (a, b) -> ((Number) a).intValue() + ((Number) b).intValue());
+    }
+
+    private BadgeRecomputeJobDTO toDTO(BadgeRecomputeJob job) {
+        double progress = job.getTotalUsers() == 0
+                ? (BadgeRecomputeJob.COMPLETED.equals(job.getStatus()) ? 100.0 : 0.0)
+                : Math.min(job.getProcessedUsers() * 100.0 / job.getTotalUsers(), 100.0);
+        return BadgeRecomputeJobDTO.builder()
+                .id(job.getId())
+                .status(job.getStatus())
+                .totalUsers(job.getTotalUsers())
+                .processedUsers(job.getProcessedUsers())
+                .failedUsers(job.getFailedUsers())
+                .progressPercent(progress)
+                .startedAt(job.getStartedAt())
+                .updatedAt(job.getUpdatedAt())
+                .finishedAt(job.getFinishedAt())
+                .lastError(job.getLastError())
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.medibook.api.service;
+
+import com.medibook.api.model.BadgeMetric;
+import com.medibook.api.model.BadgeRuleDefinition;
+import com.medibook.api.model.BadgeRuleDefinition.Condition;
+import com.medibook.api.model.BadgeRuleDefinition.ProgressMode;
+
+import java.util.List;
+
+import static com.medibook.api.model.BadgeRuleDefinition.atLeast;
+import static com.medibook.api.model.BadgeRuleDefinition.requiresBadges;
+import static com.medibook.api.model.BadgeTrigger.*;
+
+/**
+ * Every badge rule of the platform. Adding a badge means adding a definition here; the
+ * {@link BadgeRuleEngine} compiles these at startup.
+ */
+final class BadgeRuleCatalog {
+
+    static final String PATIENT = "PATIENT";
+    static final String DOCTOR = "DOCTOR";
+
+    static final List<String> MEDICAL_LEGEND_REQUIRED_BADGES = List.of(
+            "DOCTOR_EXCEPTIONAL_COMMUNICATOR",
+            "DOCTOR_EMPATHETIC_DOCTOR",
+            "DOCTOR_PUNCTUALITY_PROFESSIONAL"
+    );
+
+    private BadgeRuleCatalog() {
+    }
+
+    static List<BadgeRuleDefinition> definitions() {
+        return List.of(
+                atLeast("PATIENT_MEDIBOOK_WELCOME", PATIENT, BadgeMetric.TURNS_COMPLETED, 1)
+                        .trigger(TURN).trigger(TURN_COMPLETION).build(),
+                atLeast("PATIENT_COMMITTED_PATIENT", PATIENT, BadgeMetric.TURNS_COMPLETED, 5)
+                        .trigger(TURN).trigger(TURN_COMPLETION).build(),
+                atLeast("PATIENT_CONTINUOUS_FOLLOWUP", PATIENT, BadgeMetric.TURNS_WITH_SAME_DOCTOR, 3)
+                        .trigger(TURN).trigger(TURN_COMPLETION).awardOnly(true).build(),
+                atLeast("PATIENT_CONSTANT_PATIENT", PATIENT, BadgeMetric.TURNS_COMPLETED, 15)
+                        .trigger(TURN).trigger(TURN_COMPLETION).build(),
+                atLeast("PATIENT_EXEMPLARY_PUNCTUALITY", PATIENT, BadgeMetric.DOCTOR_PUNCTUALITY_MENTIONS, 10)
+                        .trigger(RATING).build(),
+                BadgeRuleDefinition.builder()
+                        .badgeType("PATIENT_RESPONSIBLE_EVALUATOR").role(PATIENT).trigger(RATING)
+                        .gateMetric(BadgeMetric.RATINGS_GIVEN).gateThreshold(10)
+                        .condition(Condition.BETWEEN).metric(BadgeMetric.AVG_RATING_GIVEN).threshold(3.0).upperBound(5.0)
+                        .progressMode(ProgressMode.GATE)
+                        .build(),
+                atLeast("PATIENT_EXCELLENT_COLLABORATOR", PATIENT, BadgeMetric.DOCTOR_COLLABORATION_MENTIONS, 10)
+                        .trigger(RATING).build(),
+                atLeast("PATIENT_EXCELLENCE_MODEL", PATIENT, BadgeMetric.OTHER_ACTIVE_BADGES, 4)
+                        .trigger(RATING)
+                        .gateMetric(BadgeMetric.TURNS_COMPLETED).gateThreshold(25)
+                        .progressMode(ProgressMode.AVERAGE_OF_GATE_AND_CONDITION)
+                        .build(),
+                atLeast("PATIENT_ALWAYS_PREPARED", PATIENT, BadgeMetric.FILES_UPLOADED, 10)
+                        .trigger(FILE).build(),
+                atLeast("PATIENT_SMART_PLANNER", PATIENT, BadgeMetric.ADVANCE_BOOKINGS, 10)
+                        .trigger(BOOKING).build(),
+
+                atLeast("DOCTOR_RELATIONSHIP_BUILDER", DOCTOR, BadgeMetric.DISTINCT_PATIENTS, 25)
+                        .trigger(TURN).trigger(TURN_COMPLETION).build(),
+                atLeast("DOCTOR_TOP_SPECIALIST", DOCTOR, BadgeMetric.RECENT_HIGH_SCORE_RATINGS, 35)
+                        .trigger(TURN).trigger(TURN_COMPLETION).trigger(RATING).build(),
+                atLeast("DOCTOR_EXCEPTIONAL_COMMUNICATOR", DOCTOR, BadgeMetric.COMMUNICATION_COUNT, 25)
+                        .trigger(RATING).build(),
+                atLeast("DOCTOR_EMPATHETIC_DOCTOR", DOCTOR, BadgeMetric.EMPATHY_COUNT, 25)
+                        .trigger(RATING).build(),
+                atLeast("DOCTOR_PUNCTUALITY_PROFESSIONAL", DOCTOR, BadgeMetric.PUNCTUALITY_COUNT, 20)
+                        .trigger(RATING).build(),
+                atLeast("DOCTOR_COMPLETE_DOCUMENTER", DOCTOR, BadgeMetric.DOCUMENTATION_COUNT, 35)
+                        .trigger(DOCUMENTATION)
+                        .gateMetric(BadgeMetric.TURNS_COMPLETED).gateThreshold(50)
+                        .build(),
+                atLeast("DOCTOR_DETAILED_DIAGNOSTICIAN", DOCTOR, BadgeMetric.DOCUMENTATION_COUNT, 60)
+                        .trigger(DOCUMENTATION).build(),
+                BadgeRuleDefinition.builder()
+                        .badgeType("DOCTOR_CONSISTENT_PROFESSIONAL").role(DOCTOR).trigger(CONSISTENCY).trigger(TURN_COMPLETION)
+                        .gateMetric(BadgeMetric.TURNS_COMPLETED).gateThreshold(80)
+                        .condition(Condition.RATIO_BELOW).metric(BadgeMetric.CANCELLATIONS).divisor(BadgeMetric.TURNS_COMPLETED)
+                        .threshold(0.15)
+                        .build(),
+                atLeast("DOCTOR_ALWAYS_AVAILABLE", DOCTOR, BadgeMetric.AVAILABLE_DAYS, 4)
+                        .trigger(CONSISTENCY).trigger(AVAILABILITY).build(),
+                atLeast("DOCTOR_AGILE_RESPONDER", DOCTOR, BadgeMetric.REQUESTS_HANDLED, 8)
+                        .trigger(RESPONSE).build(),
+                requiresBadges("DOCTOR_MEDICAL_LEGEND", DOCTOR, MEDICAL_LEGEND_REQUIRED_BADGES)
+                        .trigger(TURN).trigger(TURN_COMPLETION).build()
+        );
+    }
+}
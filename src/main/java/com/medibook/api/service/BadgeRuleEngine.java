@@ -0,0 +1,367 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.entity.DoctorProfile;
+import com.medibook.api.model.BadgeMetric;
+import com.medibook.api.model.BadgeRuleDefinition;
+import com.medibook.api.model.BadgeRuleDefinition.Condition;
+import com.medibook.api.model.BadgeRuleDefinition.ProgressMode;
+import com.medibook.api.model.BadgeStatisticsSnapshot;
+import com.medibook.api.model.BadgeTrigger;
+import com.medibook.api.repository.DoctorProfileRepository;
+import com.medibook.api.repository.TurnAssignedRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles the {@link BadgeRuleCatalog} once into flat evaluation plans per role and trigger.
+ * Evaluating a plan takes one primitive snapshot of the statistics it reads, loads the
+ * non-statistics metrics it needs once, and then applies every rule in a single loop.
+ */
+@Component
+@Slf4j
+public class BadgeRuleEngine {
+
+    private static final RulePlan EMPTY_PLAN = new RulePlan(new CompiledRule[0], new BadgeMetric[0], new BadgeMetric[0]);
+
+    private final TurnAssignedRepository turnAssignedRepository;
+    private final DoctorProfileRepository doctorProfileRepository;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, RulePlan> allByRole = new HashMap<>();
+    private final Map<String, EnumMap<BadgeTrigger, RulePlan>> byRoleAndTrigger = new HashMap<>();
+    private final Map<String, RulePlan> byBadgeType = new HashMap<>();
+    private final Map<String, List<CompiledRule>> rulesByRole = new LinkedHashMap<>();
+    private final Map<String, Map<Set<BadgeTrigger>, RulePlan>> byRoleAndTriggers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BadgeRuleEngine(TurnAssignedRepository turnAssignedRepository,
+                           DoctorProfileRepository doctorProfileRepository) {
+        this(turnAssignedRepository, doctorProfileRepository, BadgeRuleCatalog.definitions());
+    }
+
+    BadgeRuleEngine(TurnAssignedRepository turnAssignedRepository,
+                    DoctorProfileRepository doctorProfileRepository,
+                    List<BadgeRuleDefinition> definitions) {
+        this.turnAssignedRepository = turnAssignedRepository;
+        this.doctorProfileRepository = doctorProfileRepository;
+        compile(definitions);
+    }
+
+    void evaluate(BadgeEvaluationContext context, BadgeTrigger trigger) {
+        EnumMap<BadgeTrigger, RulePlan> plans = byRoleAndTrigger.get(context.getUser().getRole());
+        run(context, plans == null ? EMPTY_PLAN : plans.getOrDefault(trigger, EMPTY_PLAN));
+    }
+
+    /**
+     * Evaluates every rule reached by any of the triggers once, in the same order as
+     * {@link #evaluateAll}. Plans for trigger combinations are built on first use.
+     */
+    void evaluate(BadgeEvaluationContext context, Set<BadgeTrigger> triggers) {
+        if (triggers.size() == 1) {
+            evaluate(context, triggers.iterator().next());
+            return;
+        }
+        String role = context.getUser().getRole();
+        List<CompiledRule> rules = rulesByRole.get(role);
+        if (rules == null || triggers.isEmpty()) {
+            return;
+        }
+        RulePlan plan = byRoleAndTriggers.computeIfAbsent(role, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(EnumSet.copyOf(triggers), key -> RulePlan.of(rules.stream()
+                        .filter(rule -> !Collections.disjoint(rule.triggers, key))
+                        .toList()));
+        run(context, plan);
+    }
+
+    void evaluateAll(BadgeEvaluationContext context) {
+        run(context, allByRole.getOrDefault(context.getUser().getRole(), EMPTY_PLAN));
+    }
+
+    void evaluateBadge(BadgeEvaluationContext context, String badgeType) {
+        RulePlan plan = byBadgeType.get(badgeType);
+        if (plan == null) {
+            throw new IllegalArgumentException("Unknown badge type: " + badgeType);
+        }
+        run(context, plan);
+    }
+
+    private void run(BadgeEvaluationContext context, RulePlan plan) {
+        if (plan.rules().length == 0) {
+            return;
+        }
+        BadgeStatisticsSnapshot snapshot = BadgeStatisticsSnapshot.of(context.getStats(), plan.statisticsMetrics());
+        for (BadgeMetric metric : plan.loadedMetrics()) {
+            load(context, snapshot, metric);
+        }
+        for (CompiledRule rule : plan.rules()) {
+            rule.apply(context, snapshot);
+        }
+    }
+
+    private void load(BadgeEvaluationContext context, BadgeStatisticsSnapshot snapshot, BadgeMetric metric) {
+        Double preloaded = context.getLoadedMetrics().get(metric);
+        if (preloaded != null) {
+            snapshot.put(metric, preloaded);
+            return;
+        }
+        UUID userId = context.getUserId();
+        try {
+            double value = switch (metric) {
+                case DISTINCT_PATIENTS -> turnAssignedRepository.findDistinctPatientsByDoctorId(userId).size();
+                case AVAILABLE_DAYS -> countAvailableDays(doctorProfileRepository.findByUserId(userId).orElse(null));
+                default -> throw new IllegalArgumentException("Metric is not loadable: " + metric);
+            };
+            snapshot.put(metric, value);
+        } catch (Exception e) {
+            log.error("Error loading {} for badge evaluation of user {}", metric, userId, e);
+        }
+    }
+
+    int countAvailableDays(DoctorProfile profile) {
+        if (profile == null || profile.getAvailabilitySchedule() == null
+                || profile.getAvailabilitySchedule().isEmpty()) {
+            return 0;
+        }
+
+        int availableDays = 0;
+        JsonNode schedule = parseJson(profile.getAvailabilitySchedule());
+        if (schedule.isArray()) {
+            for (JsonNode dayEntry : schedule) {
+                if (dayEntry.has("enabled") && dayEntry.get("enabled").asBoolean()) {
+                    availableDays++;
+                }
+            }
+        }
+        return availableDays;
+    }
+
+    JsonNode parseJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            return objectMapper.createObjectNode();
+        }
+    }
+
+    private void compile(List<BadgeRuleDefinition> definitions) {
+        Map<String, BadgeRuleDefinition> byType = new LinkedHashMap<>();
+        for (BadgeRuleDefinition definition : definitions) {
+            validate(definition);
+            if (byType.put(definition.getBadgeType(), definition) != null) {
+                throw new IllegalStateException("Duplicated badge rule: " + definition.getBadgeType());
+            }
+        }
+
+        List<CompiledRule> ordered = new ArrayList<>();
+        for (BadgeRuleDefinition definition : byType.values()) {
+            if (!readsBadges(definition)) {
+                ordered.add(compileRule(definition, byType));
+            }
+        }
+        for (BadgeRuleDefinition definition : byType.values()) {
+            if (readsBadges(definition)) {
+                ordered.add(compileRule(definition, byType));
+            }
+        }
+
+        for (CompiledRule rule : ordered) {
+            rulesByRole.computeIfAbsent(rule.role, role -> new ArrayList<>()).add(rule);
+            byBadgeType.put(rule.badgeType, RulePlan.of(List.of(rule)));
+        }
+
+        rulesByRole.forEach((role, rules) -> {
+            allByRole.put(role, RulePlan.of(rules));
+            EnumMap<BadgeTrigger, RulePlan> plans = new EnumMap<>(BadgeTrigger.class);
+            for (BadgeTrigger trigger : BadgeTrigger.values()) {
+                List<CompiledRule> triggered = rules.stream().filter(rule -> rule.triggers.contains(trigger)).toList();
+                if (!triggered.isEmpty()) {
+                    plans.put(trigger, RulePlan.of(triggered));
+                }
+            }
+            byRoleAndTrigger.put(role, plans);
+        });
+
+        log.info("Compiled {} badge rules for roles {}", ordered.size(), rulesByRole.keySet());
+    }
+
+    private static void validate(BadgeRuleDefinition definition) {
+        String badgeType = definition.getBadgeType();
+        if (badgeType == null || definition.getRole() == null || definition.getMetric() == null) {
+            throw new IllegalStateException("Badge rule needs a badge type, a role and a metric: " + badgeType);
+        }
+        if (definition.getTriggers().isEmpty()) {
+            throw new IllegalStateException("Badge rule has no triggers: " + badgeType);
+        }
+        if (definition.getGateMetric() != null && definition.getGateThreshold() <= 0) {
+            throw new IllegalStateException("Badge rule gate threshold must be positive: " + badgeType);
+        }
+        if (definition.getCondition() == Condition.AT_LEAST && definition.getThreshold() <= 0) {
+            throw new IllegalStateException("Badge rule threshold must be positive: " + badgeType);
+        }
+        if (definition.getCondition() == Condition.RATIO_BELOW && definition.getDivisor() == null) {
+            throw new IllegalStateException("Badge rule ratio needs a divisor: " + badgeType);
+        }
+        if ((definition.getMetric() == BadgeMetric.ACTIVE_DEPENDENCIES) == definition.getDependencies().isEmpty()) {
+            throw new IllegalStateException("Badge rule dependencies and metric do not match: " + badgeType);
+        }
+    }
+
+    private static boolean readsBadges(BadgeRuleDefinition definition) {
+        return definition.getMetric().getSource() == BadgeMetric.Source.BADGES;
+    }
+
+    private static CompiledRule compileRule(BadgeRuleDefinition definition, Map<String, BadgeRuleDefinition> byType) {
+        EnumSet<BadgeTrigger> triggers = EnumSet.copyOf(definition.getTriggers());
+        for (String dependency : definition.getDependencies()) {
+            BadgeRuleDefinition required = byType.get(dependency);
+            if (required == null || !required.getRole().equals(definition.getRole())) {
+                throw new IllegalStateException("Badge rule " + definition.getBadgeType()
+                        + " depends on unknown badge " + dependency);
+            }
+            triggers.addAll(required.getTriggers());
+        }
+        return new CompiledRule(definition, triggers);
+    }
+
+    private record RulePlan(CompiledRule[] rules, BadgeMetric[] statisticsMetrics, BadgeMetric[] loadedMetrics) {
+
+        static RulePlan of(List<CompiledRule> rules) {
+            EnumSet<BadgeMetric> metrics = EnumSet.noneOf(BadgeMetric.class);
+            for (CompiledRule rule : rules) {
+                metrics.addAll(rule.metrics);
+            }
+            return new RulePlan(
+                    rules.toArray(new CompiledRule[0]),
+                    metrics.stream().filter(metric -> metric.getSource() == BadgeMetric.Source.STATISTICS).toArray(BadgeMetric[]::new),
+                    metrics.stream().filter(BadgeMetric::isLoaded).toArray(BadgeMetric[]::new));
+        }
+    }
+
+    private static final class CompiledRule {
+
+        private final String badgeType;
+        private final String role;
+        private final EnumSet<BadgeTrigger> triggers;
+        private final EnumSet<BadgeMetric> metrics = EnumSet.noneOf(BadgeMetric.class);
+
+        private final int gateIndex;
+        private final double gateThreshold;
+        private final Condition condition;
+        private final BadgeMetric metric;
+        private final int metricIndex;
+        private final int divisorIndex;
+        private final double threshold;
+        private final double upperBound;
+        private final ProgressMode progressMode;
+        private final String[] dependencies;
+        private final boolean awardOnly;
+        private final int[] loadedIndexes;
+
+        private CompiledRule(BadgeRuleDefinition definition, EnumSet<BadgeTrigger> triggers) {
+            this.badgeType = definition.getBadgeType();
+            this.role = definition.getRole();
+            this.triggers = triggers;
+            this.gateIndex = definition.getGateMetric() == null ? -1 : definition.getGateMetric().ordinal();
+            this.gateThreshold = definition.getGateThreshold();
+            this.condition = definition.getCondition();
+            this.metric = definition.getMetric();
+            this.metricIndex = metric.ordinal();
+            this.divisorIndex = definition.getDivisor() == null ? -1 : definition.getDivisor().ordinal();
+            this.threshold = definition.getThreshold();
+            this.upperBound = definition.getUpperBound();
+            this.progressMode = definition.getProgressMode();
+            this.dependencies = definition.getDependencies().toArray(new String[0]);
+            this.awardOnly = definition.isAwardOnly();
+
+            metrics.add(metric);
+            if (definition.getGateMetric() != null) {
+                metrics.add(definition.getGateMetric());
+            }
+            if (definition.getDivisor() != null) {
+                metrics.add(definition.getDivisor());
+            }
+            this.loadedIndexes = metrics.stream().filter(BadgeMetric::isLoaded).mapToInt(BadgeMetric::ordinal).toArray();
+        }
+
+        void apply(BadgeEvaluationContext context, BadgeStatisticsSnapshot snapshot) {
+            for (int index : loadedIndexes) {
+                if (snapshot.isMissing(index)) {
+                    return;
+                }
+            }
+
+            double gateProgress = 100.0;
+            if (gateIndex >= 0) {
+                double gate = snapshot.get(gateIndex);
+                if (gate < gateThreshold) {
+                    context.setProgress(badgeType, gate / gateThreshold * 100);
+                    if (!awardOnly) {
+                        context.deactivateBadge(badgeType);
+                    }
+                    return;
+                }
+                gateProgress = Math.min(gate / gateThreshold * 100, 100.0);
+            }
+
+            double value = value(context, snapshot);
+            boolean met;
+            double progress;
+            switch (condition) {
+                case AT_LEAST -> {
+                    met = value >= threshold;
+                    progress = Math.min(value / threshold * 100, 100.0);
+                }
+                case BETWEEN -> {
+                    met = value >= threshold && value <= upperBound;
+                    progress = met ? 100.0 : 0.0;
+                }
+                case RATIO_BELOW -> {
+                    double divisor = snapshot.get(divisorIndex);
+                    double ratio = divisor > 0 ? value / divisor : 0.0;
+                    met = ratio < threshold;
+                    progress = met ? 100.0 : 0.0;
+                }
+                default -> throw new IllegalStateException("Unsupported condition: " + condition);
+            }
+
+            context.setProgress(badgeType, switch (progressMode) {
+                case CONDITION -> progress;
+                case GATE -> gateProgress;
+                case AVERAGE_OF_GATE_AND_CONDITION -> Math.min((gateProgress + progress) / 2, 100.0);
+            });
+
+            if (met) {
+                if (awardOnly) {
+                    context.createBadge(badgeType);
+                } else {
+                    context.activateBadge(badgeType);
+                }
+            } else if (!awardOnly) {
+                context.deactivateBadge(badgeType);
+            }
+        }
+
+        private double value(BadgeEvaluationContext context, BadgeStatisticsSnapshot snapshot) {
+            if (metric == BadgeMetric.ACTIVE_DEPENDENCIES) {
+                int active = 0;
+                for (String dependency : dependencies) {
+                    if (context.isActive(dependency)) {
+                        active++;
+                    }
+                }
+                return active;
+            }
+            if (metric == BadgeMetric.OTHER_ACTIVE_BADGES) {
+                return context.countActiveBadgesExcluding(badgeType);
+            }
+            return snapshot.get(metricIndex);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.model.BadgeSnapshotCache;
+import com.medibook.api.model.BadgeSnapshotCache.Kind;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Serves the badges and badge progress responses of a user from pre-serialized JSON. A
+ * snapshot is built on the first request and kept until the badge pipeline writes for the
+ * user, so repeated dashboard loads do not touch the database.
+ */
+@Service
+@Slf4j
+public class BadgeSnapshotService {
+
+    private final BadgeSnapshotCache cache;
+    private final ObjectMapper objectMapper;
+
+    @Autowired
+    public BadgeSnapshotService(ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry,
+                                @Value("${badge.snapshot.max-bytes:33554432}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.cache = new BadgeSnapshotCache(maxBytes);
+
+        FunctionCounter.builder("badge.snapshot.cache.hits", cache, BadgeSnapshotCache::hits)
+                .description("Badge responses served from a cached snapshot")
+                .register(meterRegistry);
+        FunctionCounter.builder("badge.snapshot.cache.misses", cache, BadgeSnapshotCache::misses)
+                .description("Badge responses built from the database")
+                .register(meterRegistry);
+        FunctionCounter.builder("badge.snapshot.cache.evictions", cache, BadgeSnapshotCache::evictions)
+                .description("Badge snapshots evicted to stay within the size limit")
+                .register(meterRegistry);
+        Gauge.builder("badge.snapshot.cache.hit.ratio", cache, BadgeSnapshotService::hitRatio)
+                .description("Share of badge responses served from a cached snapshot")
+                .register(meterRegistry);
+        Gauge.builder("badge.snapshot.cache.entries", cache, BadgeSnapshotCache::size)
+                .description("Cached badge snapshots")
+                .register(meterRegistry);
+        Gauge.builder("badge.snapshot.cache.bytes", cache, BadgeSnapshotCache::bytes)
+                .description("Size of the cached badge snapshots")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    public byte[] get(UUID userId, Kind kind, Supplier<?> loader) {
+        return cache.get(userId, kind, () -> serialize(loader.get()));
+    }
+
+    /**
+     * Drops the user's snapshots once the current transaction commits, or right away when
+     * there is none, so the next request reads the committed state.
+     */
+    public void invalidate(UUID userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        } else {
+            cache.invalidate(userId);
+        }
+    }
+
+    private byte[] serialize(Object response) {
+        try {
+            return objectMapper.writeValueAsBytes(response);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Error serializing badge snapshot", e);
+        }
+    }
+
+    private static double hitRatio(BadgeSnapshotCache cache) {
+        long hits = cache.hits();
+        long total = hits + cache.misses();
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+}
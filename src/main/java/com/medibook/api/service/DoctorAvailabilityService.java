@@ -5,30 +5,48 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.medibook.api.dto.Availability.*;
 import com.medibook.api.entity.DoctorProfile;
 import com.medibook.api.entity.User;
+import com.medibook.api.model.CompiledSchedule;
 import com.medibook.api.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
-import java.time.LocalTime;
-import java.time.format.TextStyle;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.medibook.api.util.DateTimeUtils.ARGENTINA_ZONE;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DoctorAvailabilityService {
 
+    static final int SCHEDULE_CACHE_MAX_ENTRIES = 1024;
+    static final long SCHEDULE_CACHE_TTL_NANOS = TimeUnit.MINUTES.toNanos(5);
+
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
     private final BadgeEvaluationTriggerService badgeEvaluationTriggerService;
 
+    private final Map<UUID, CachedSchedule> compiledSchedules = Collections.synchronizedMap(
+            new LinkedHashMap<UUID, CachedSchedule>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, CachedSchedule> eldest) {
+                    return size() > SCHEDULE_CACHE_MAX_ENTRIES;
+                }
+            });
+
     @Transactional
     public void saveAvailability(UUID doctorId, DoctorAvailabilityRequestDTO request) {
         User doctor = userRepository.findById(doctorId)
@@ -39,8 +57,8 @@ public class DoctorAvailabilityService {
         }
 
         DoctorProfile profile = doctor.getDoctorProfile();
-        
-        
+
+
         try {
             String scheduleJson = objectMapper.writeValueAsString(request.getWeeklyAvailability());
             profile.setAvailabilitySchedule(scheduleJson);
@@ -49,7 +67,8 @@ public class DoctorAvailabilityService {
         }
 
         userRepository.save(doctor);
-        
+        evictCompiledSchedule(doctorId);
+
         badgeEvaluationTriggerService.evaluateAfterAvailabilityConfigured(doctorId);
     }
 
@@ -62,12 +81,14 @@ public class DoctorAvailabilityService {
             throw new RuntimeException("Doctor profile not found");
         }
 
-        DoctorProfile profile = doctor.getDoctorProfile();
-        
+        return getAvailability(doctor.getDoctorProfile());
+    }
+
+    public DoctorAvailabilityResponseDTO getAvailability(DoctorProfile profile) {
         DoctorAvailabilityResponseDTO response = new DoctorAvailabilityResponseDTO();
         response.setSlotDurationMin(profile.getSlotDurationMin());
 
-        
+
         if (profile.getAvailabilitySchedule() != null) {
             try {
                 List<DayAvailabilityDTO> weeklyAvailability = objectMapper.readValue(
@@ -76,7 +97,7 @@ public class DoctorAvailabilityService {
                 );
                 response.setWeeklyAvailability(weeklyAvailability);
             } catch (JsonProcessingException e) {
-                log.error("Error deserializing availability schedule for doctor: {}", doctorId, e);
+                log.error("Error deserializing availability schedule for doctor: {}", profile.getId(), e);
                 response.setWeeklyAvailability(new ArrayList<>());
             }
         } else {
@@ -88,60 +109,75 @@ public class DoctorAvailabilityService {
 
     @Transactional(readOnly = true)
     public List<AvailableSlotDTO> getAvailableSlots(UUID doctorId, LocalDate fromDate, LocalDate toDate) {
+        return getCompiledSchedule(doctorId).toSlots(fromDate, toDate);
+    }
+
+    @Transactional(readOnly = true)
+    public CompiledSchedule getCompiledSchedule(UUID doctorId) {
+        CompiledSchedule cached = getCachedSchedule(doctorId);
+        if (cached != null) {
+            return cached;
+        }
+
         DoctorAvailabilityResponseDTO availability = getAvailability(doctorId);
-        
-        List<AvailableSlotDTO> slots = new ArrayList<>();
+        return cacheSchedule(doctorId, availability);
+    }
+
+    public CompiledSchedule getCompiledSchedule(DoctorProfile profile) {
+        CompiledSchedule cached = getCachedSchedule(profile.getId());
+        if (cached != null) {
+            return cached;
+        }
+
+        return cacheSchedule(profile.getId(), getAvailability(profile));
+    }
 
-        if (availability.getWeeklyAvailability() == null || availability.getWeeklyAvailability().isEmpty()) {
-            return slots; 
+    public void validateSlotWithinSchedule(User doctor, OffsetDateTime scheduledAt) {
+        if (doctor.getDoctorProfile() == null || scheduledAt == null) {
+            return;
         }
 
-        
-        for (LocalDate currentDate = fromDate; !currentDate.isAfter(toDate); currentDate = currentDate.plusDays(1)) {
-            final LocalDate finalCurrentDate = currentDate;
-            DayOfWeek dayOfWeek = currentDate.getDayOfWeek();
-            String dayName = dayOfWeek.getDisplayName(TextStyle.FULL, Locale.ENGLISH).toUpperCase();
-
-            
-            availability.getWeeklyAvailability().stream()
-                    .filter(day -> day.getDay().equals(dayName) && day.getEnabled())
-                    .forEach(day -> {
-                        if (day.getRanges() != null) {
-                            day.getRanges().forEach(range -> {
-                                List<AvailableSlotDTO> dailySlots = generateSlotsForRange(
-                                        finalCurrentDate, range, availability.getSlotDurationMin()
-                                );
-                                slots.addAll(dailySlots);
-                            });
-                        }
-                    });
+        CompiledSchedule schedule = getCompiledSchedule(doctor.getDoctorProfile());
+        if (schedule.isEmpty()) {
+            return;
         }
 
-        return slots;
+        LocalDateTime local = scheduledAt.atZoneSameInstant(ARGENTINA_ZONE).toLocalDateTime();
+        if (!schedule.isSlotStart(local.toLocalDate(), local.toLocalTime())) {
+            throw new RuntimeException("Selected time is outside the doctor's availability");
+        }
     }
 
-    private List<AvailableSlotDTO> generateSlotsForRange(LocalDate date, TimeRangeDTO range, int slotDurationMin) {
-        List<AvailableSlotDTO> slots = new ArrayList<>();
-        
-        LocalTime startTime = LocalTime.parse(range.getStart());
-        LocalTime endTime = LocalTime.parse(range.getEnd());
-        
-        LocalTime currentSlotStart = startTime;
-        while (currentSlotStart.plusMinutes(slotDurationMin).isBefore(endTime) || 
-               currentSlotStart.plusMinutes(slotDurationMin).equals(endTime)) {
-            
-            LocalTime currentSlotEnd = currentSlotStart.plusMinutes(slotDurationMin);
-            
-            AvailableSlotDTO slot = new AvailableSlotDTO();
-            slot.setDate(date);
-            slot.setStartTime(currentSlotStart);
-            slot.setEndTime(currentSlotEnd);
-            slot.setDayOfWeek(date.getDayOfWeek().getDisplayName(TextStyle.FULL, Locale.ENGLISH));
-            
-            slots.add(slot);
-            currentSlotStart = currentSlotEnd;
+    public void evictCompiledSchedule(UUID doctorId) {
+        compiledSchedules.remove(doctorId);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    compiledSchedules.remove(doctorId);
+                }
+            });
         }
-        
-        return slots;
     }
-}
\ No newline at end of file
+
+    private CompiledSchedule getCachedSchedule(UUID doctorId) {
+        CachedSchedule cached = compiledSchedules.get(doctorId);
+        if (cached == null || System.nanoTime() - cached.loadedAt() > SCHEDULE_CACHE_TTL_NANOS) {
+            return null;
+        }
+        return cached.schedule();
+    }
+
+    private CompiledSchedule cacheSchedule(UUID doctorId, DoctorAvailabilityResponseDTO availability) {
+        CompiledSchedule schedule = CompiledSchedule.compile(
+                availability.getWeeklyAvailability(), availability.getSlotDurationMin());
+        if (doctorId != null) {
+            compiledSchedules.put(doctorId, new CachedSchedule(schedule, System.nanoTime()));
+        }
+        return schedule;
+    }
+
+    private record CachedSchedule(CompiledSchedule schedule, long loadedAt) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.DoctorLeaderboardEntryDTO;
+import com.medibook.api.dto.DoctorLeaderboardPageDTO;
+import com.medibook.api.entity.User;
+import com.medibook.api.model.DoctorLeaderboard;
+import com.medibook.api.model.DoctorLeaderboard.Entry;
+import com.medibook.api.model.DoctorLeaderboard.Page;
+import com.medibook.api.model.DoctorLeaderboard.Position;
+import com.medibook.api.repository.BadgeRepository;
+import com.medibook.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Keeps the per-specialty doctor ranking in memory. It is loaded from the database on
+ * startup and afterwards updated by rating, badge, status and profile changes once their
+ * transaction commits, so listing a page never touches the ratings or badges tables.
+ */
+@Service
+@Slf4j
+public class DoctorLeaderboardService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
+    private final UserRepository userRepository;
+    private final BadgeRepository badgeRepository;
+    private final TransactionTemplate readTransaction;
+    private final DoctorLeaderboard leaderboard = new DoctorLeaderboard();
+
+    public DoctorLeaderboardService(UserRepository userRepository, BadgeRepository badgeRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.badgeRepository = badgeRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.readTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        Map<UUID, Long> badgeCounts = toCounts(badgeRepository.countActiveBadgesOfDoctors());
+
+        List<Entry> entries = new ArrayList<>();
+        for (User doctor : userRepository.findDoctorsByStatus("ACTIVE")) {
+            String specialty = specialtyOf(doctor);
+            if (specialty != null) {
+                entries.add(new Entry(doctor.getId(), doctor.getName(), doctor.getSurname(), specialty, doctor.getScore(),
+                        doctor.getRatingCount(), badgeCounts.getOrDefault(doctor.getId(), 0L)));
+            }
+        }
+        leaderboard.replaceAll(entries);
+        log.info("Doctor leaderboard loaded with {} doctors", entries.size());
+    }
+
+    public DoctorLeaderboardPageDTO getLeaderboard(String specialty, String cursor, Integer limit) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        Position after = cursor == null || cursor.isBlank() ? null : Position.decode(cursor);
+
+        Page page = leaderboard.page(specialty, after, pageSize);
+        return DoctorLeaderboardPageDTO.builder()
+                .specialty(specialty)
+                .items(page.entries().stream().map(this::toDTO).toList())
+                .nextCursor(page.next() == null ? null : page.next().encode())
+                .hasMore(page.next() != null)
+                .build();
+    }
+
+    /**
+     * Re-reads the doctor once the current transaction commits and adds, moves or removes their
+     * entry to match: only active doctors with a specialty are ranked. The read runs in a new
+     * transaction, so it sees the committed score and rating count rather than the entity the
+     * caller holds.
+     */
+    public void refresh(UUID doctorId) {
+        afterCommit(() -> reload(doctorId));
+    }
+
+    public void recordActiveBadges(UUID doctorId, long activeBadges) {
+        afterCommit(() -> leaderboard.update(doctorId, entry -> entry.withActiveBadges(activeBadges)));
+    }
+
+    private void reload(UUID doctorId) {
+        try {
+            readTransaction.executeWithoutResult(status -> {
+                User doctor = userRepository.findById(doctorId).orElse(null);
+                String specialty = doctor == null ? null : specialtyOf(doctor);
+                if (specialty == null || !"DOCTOR".equals(doctor.getRole()) || !"ACTIVE".equals(doctor.getStatus())) {
+                    leaderboard.remove(doctorId);
+                    return;
+                }
+                // putLatest keeps the badge count of an entry that is already listed
+                long activeBadges = leaderboard.get(doctorId).isPresent()
+                        ? 0L
+                        : badgeRepository.countActiveBadgesByUserId(doctorId);
+                leaderboard.putLatest(new Entry(doctorId, doctor.getName(), doctor.getSurname(), specialty,
+                        doctor.getScore(), doctor.getRatingCount(), activeBadges));
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not refresh doctor {} on the leaderboard: {}", doctorId, e.getMessage());
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    private String specialtyOf(User doctor) {
+        return doctor.getDoctorProfile() == null ? null : doctor.getDoctorProfile().getSpecialty();
+    }
+
+    private Map<UUID, Long> toCounts(List<Object[]> rows) {
+        Map<UUID, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((UUID) row[0], ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private DoctorLeaderboardEntryDTO toDTO(Entry entry) {
+        return DoctorLeaderboardEntryDTO.builder()
+                .doctorId(entry.doctorId())
+                .name(entry.name())
+                .surname(entry.surname())
+                .specialty(entry.specialty())
+                .score(entry.score())
+                .ratingCount(entry.ratingCount())
+                .activeBadges(entry.activeBadges())
+                .build();
+    }
+}
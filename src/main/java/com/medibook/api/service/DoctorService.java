@@ -12,7 +12,6 @@ import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.User;
 import com.medibook.api.mapper.DoctorMapper;
 import com.medibook.api.repository.BadgeRepository;
-import com.medibook.api.repository.RatingRepository;
 import com.medibook.api.repository.TurnAssignedRepository;
 import com.medibook.api.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -36,7 +35,7 @@ public class DoctorService {
     private final DoctorMapper doctorMapper;
     private final MedicalHistoryService medicalHistoryService;
     private final FamilyService familyService;
-    private final RatingRepository ratingRepository;
+    private final RatingSummaryService ratingSummaryService;
     private final BadgeRepository badgeRepository;
     private final BadgeService badgeService;
 
@@ -79,7 +78,7 @@ public class DoctorService {
         
         Map<UUID, String> latestHistories = medicalHistoryService.getLatestMedicalHistoryContents(patientIds);
         
-        Map<UUID, Map<String, Long>> ratingsMap = getRatingsMap(patientIds);
+        Map<UUID, List<SubcategoryCountDTO>> ratingsMap = ratingSummaryService.getSubcategoryCounts(patientIds, "DOCTOR");
 
         Map<UUID, List<FamilyMemberDTO>> familyMembersMap = familyService.getFamilyMembersByHolder(patientIds);
         
@@ -93,26 +92,6 @@ public class DoctorService {
                 .collect(Collectors.toList());
     }
 
-    private Map<UUID, Map<String, Long>> getRatingsMap(List<UUID> patientIds) {
-        List<Object[]> results = ratingRepository.countSubcategoriesByRatedIds(patientIds, "DOCTOR");
-        Map<UUID, Map<String, Long>> ratingsMap = new java.util.HashMap<>();
-        for (Object[] row : results) {
-            UUID patientId = (UUID) row[0];
-            String subcategoriesString = (String) row[1];
-            Long count = (Long) row[2];
-            if (subcategoriesString != null && !subcategoriesString.trim().isEmpty()) {
-                String[] subcategories = subcategoriesString.split(",");
-                for (String subcategory : subcategories) {
-                    String trimmed = subcategory.trim();
-                    if (!trimmed.isEmpty()) {
-                        ratingsMap.computeIfAbsent(patientId, k -> new java.util.HashMap<>()).merge(trimmed, count, Long::sum);
-                    }
-                }
-            }
-        }
-        return ratingsMap;
-    }
-
     @Transactional
     public void updatePatientMedicalHistory(UUID doctorId, UUID patientId, UUID turnId, String medicalHistory) {
         TurnAssigned turn = turnAssignedRepository.findById(turnId)
@@ -129,14 +108,12 @@ public class DoctorService {
         medicalHistoryService.addMedicalHistory(doctorId, turnId, medicalHistory);
     }
 
-    private PatientDTO mapPatientToDTO(User patient, String latestMedicalHistory, Map<String, Long> ratings, List<FamilyMemberDTO> familyMembers) {
+    private PatientDTO mapPatientToDTO(User patient, String latestMedicalHistory, List<SubcategoryCountDTO> ratings, List<FamilyMemberDTO> familyMembers) {
         List<MedicalHistoryDTO> medicalHistories = medicalHistoryService.getPatientMedicalHistory(patient.getId());
         
         // latestMedicalHistory is now passed as parameter
         
-        List<SubcategoryCountDTO> ratingSubcategories = (ratings != null ? ratings : new java.util.HashMap<String, Long>()).entrySet().stream()
-                .map(entry -> new SubcategoryCountDTO(entry.getKey(), entry.getValue()))
-                .sorted((a, b) -> Long.compare(b.getCount(), a.getCount()))
+        List<SubcategoryCountDTO> ratingSubcategories = (ratings != null ? ratings : List.<SubcategoryCountDTO>of()).stream()
                 .limit(3)
                 .collect(Collectors.toList());
         
@@ -188,27 +165,8 @@ public class DoctorService {
         List<User> patients = turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId);
         int totalPatients = patients.size();
         
-        List<RatingRepository.SubcategoryCount> subcategoryCounts = 
-                ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT");
-        
-        java.util.Map<String, Long> subcategoryMap = new java.util.HashMap<>();
-        for (RatingRepository.SubcategoryCount sc : subcategoryCounts) {
-            String subcategoriesString = sc.getSubcategory();
-            if (subcategoriesString != null && !subcategoriesString.trim().isEmpty()) {
-                String[] subcategories = subcategoriesString.split(",");
-                for (String subcategory : subcategories) {
-                    String trimmed = subcategory.trim();
-                    if (!trimmed.isEmpty()) {
-                        subcategoryMap.merge(trimmed, sc.getCount(), Long::sum);
-                    }
-                }
-            }
-        }
-        
-        List<SubcategoryCountDTO> ratingSubcategories = subcategoryMap.entrySet().stream()
-                .map(entry -> new SubcategoryCountDTO(entry.getKey(), entry.getValue()))
-                .sorted((a, b) -> Long.compare(b.getCount(), a.getCount()))
-                .collect(Collectors.toList());
+        List<SubcategoryCountDTO> ratingSubcategories = ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT");
+        Map<Integer, Long> scoreDistribution = ratingSummaryService.getScoreDistribution(doctorId);
         
         List<Badge> activeBadges = badgeRepository.findByUser_IdAndIsActiveTrue(doctorId);
         
@@ -223,6 +181,8 @@ public class DoctorService {
                 .specialty(doctor.getDoctorProfile() != null ? doctor.getDoctorProfile().getSpecialty() : null)
                 .score(doctor.getScore())
                 .ratingSubcategories(ratingSubcategories)
+                .totalRatings(scoreDistribution.values().stream().mapToLong(Long::longValue).sum())
+                .scoreDistribution(scoreDistribution)
                 .totalPatients(totalPatients)
                 .upcomingTurns(upcomingTurns)
                 .completedTurnsThisMonth(completedTurnsThisMonth)
@@ -3,6 +3,7 @@ package com.medibook.api.service;
 import com.medibook.api.dto.email.EmailRequestDto;
 import com.medibook.api.dto.email.EmailResponseDto;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface EmailService {
@@ -25,6 +26,9 @@ public interface EmailService {
                                                                                String patientName, String appointmentDate, String appointmentTime,
                                                                                String turnId);
     
+    CompletableFuture<EmailResponseDto> sendAppointmentSeriesConfirmationToPatientAsync(String patientEmail, String patientName,
+                                                                                      String doctorName, List<String> appointments);
+    
     CompletableFuture<EmailResponseDto> sendAppointmentCancellationToPatientAsync(String patientEmail, String patientName, 
                                                                                 String doctorName, String appointmentDate, String appointmentTime);
     
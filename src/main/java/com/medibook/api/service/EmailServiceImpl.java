@@ -12,6 +12,7 @@ import org.springframework.retry.annotation.Retryable;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 @Service
@@ -197,6 +198,25 @@ public class EmailServiceImpl implements EmailService {
         return sendEmailAsync(emailRequest);
     }
 
+    @Async("emailTaskExecutor")
+    @Override
+    public CompletableFuture<EmailResponseDto> sendAppointmentSeriesConfirmationToPatientAsync(
+            String patientEmail, String patientName, String doctorName, List<String> appointments) {
+        String subject = "Confirmación de serie de citas médicas";
+        String htmlContent = buildAppointmentSeriesConfirmationPatientHtml(patientName, doctorName, appointments);
+        String textContent = buildAppointmentSeriesConfirmationPatientText(patientName, doctorName, appointments);
+
+        EmailRequestDto emailRequest = EmailRequestDto.builder()
+                .to(patientEmail)
+                .toName(patientName)
+                .subject(subject)
+                .htmlContent(htmlContent)
+                .textContent(textContent)
+                .build();
+
+        return sendEmailAsync(emailRequest);
+    }
+
     @Async("emailTaskExecutor")
     @Override
     public CompletableFuture<EmailResponseDto> sendAppointmentCancellationToPatientAsync(
@@ -621,6 +641,71 @@ public class EmailServiceImpl implements EmailService {
                 """.formatted(doctorName, patientName, appointmentDate, appointmentTime, frontendUrl, turnId);
     }
 
+    private String buildAppointmentSeriesConfirmationPatientHtml(String patientName, String doctorName, List<String> appointments) {
+        StringBuilder items = new StringBuilder();
+        for (String appointment : appointments) {
+            items.append("<li>").append(appointment).append("</li>");
+        }
+        return """
+                <!DOCTYPE html>
+                <html>
+                <head>
+                    <meta charset="UTF-8">
+                    <title>Confirmación de Citas Médicas</title>
+                </head>
+                <body>
+                    <div style="font-family: Arial, sans-serif; max-width: 600px; margin: 0 auto; padding: 20px;">
+                        <div style="background-color: #2563eb; color: white; padding: 20px; text-align: center; border-radius: 8px;">
+                            <h1>Confirmación de Citas Médicas</h1>
+                        </div>
+                        
+                        <div style="padding: 30px 20px;">
+                            <h2>Estimado/a %s,</h2>
+                            
+                            <p>Se confirmaron %d citas con el Dr. %s.</p>
+                            
+                            <div style="background-color: #f3f4f6; padding: 20px; border-radius: 8px; margin: 20px 0;">
+                                <h3>Fechas y horarios:</h3>
+                                <ul>%s</ul>
+                            </div>
+                            
+                            <div style="text-align: center; margin-top: 10px;">
+                                <a href="%s/patient/view-turns" style="display:inline-block;padding:12px 20px;background-color:#2563eb;color:white;border-radius:6px;text-decoration:none;font-weight:600;">Ver mis turnos</a>
+                            </div>
+                            
+                            <p>Le recomendamos presentarse 15 minutos antes de cada horario programado.</p>
+                            
+                            <p>Atentamente,<br>Equipo de MediBook</p>
+                        </div>
+                    </div>
+                </body>
+                </html>
+                """.formatted(patientName, appointments.size(), doctorName, items, frontendUrl);
+    }
+
+    private String buildAppointmentSeriesConfirmationPatientText(String patientName, String doctorName, List<String> appointments) {
+        StringBuilder items = new StringBuilder();
+        for (String appointment : appointments) {
+            items.append("- ").append(appointment).append("\n");
+        }
+        return """
+                Confirmación de Citas Médicas
+                
+                Estimado/a %s,
+                
+                Se confirmaron %d citas con el Dr. %s.
+                
+                Fechas y horarios:
+                %s
+                Para ver o cancelar sus turnos, visite: %s/patient/view-turns
+
+                Le recomendamos presentarse 15 minutos antes de cada horario programado.
+                
+                Atentamente,
+                Equipo de MediBook
+                """.formatted(patientName, appointments.size(), doctorName, items, frontendUrl);
+    }
+
     private String buildAppointmentCancellationPatientHtml(String patientName, String doctorName, String appointmentDate, String appointmentTime) {
         return """
                 <!DOCTYPE html>
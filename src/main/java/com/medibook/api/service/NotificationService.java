@@ -115,4 +115,13 @@ public class NotificationService {
         );
         createNotification(doctorId, NotificationType.TURN_RESERVED, turnId, message);
     }
-}
\ No newline at end of file
+
+    public void createTurnSeriesReservedNotification(UUID doctorId, UUID firstTurnId, String patientName,
+                                                    int turnCount, String firstDate, String firstTime) {
+        String message = String.format(
+            "El paciente %s ha agendado una serie de %d turnos a partir del %s a las %s",
+            patientName, turnCount, firstDate, firstTime
+        );
+        createNotification(doctorId, NotificationType.TURN_RESERVED, firstTurnId, message);
+    }
+}
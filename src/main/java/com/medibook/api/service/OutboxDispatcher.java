@@ -0,0 +1,96 @@
+package com.medibook.api.service;
+
+import com.medibook.api.entity.OutboxEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Drains the outbox in batches. Each event runs in its own transaction together with
+ * marking it done, so a failure only retries that event. Once an event fails, the rest of
+ * its aggregate's events wait for it, which keeps per-turn side effects in order.
+ */
+@Component
+@ConditionalOnProperty(name = "outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class OutboxDispatcher {
+
+    private static final int MAX_BATCHES_PER_RUN = 20;
+
+    private final OutboxService outboxService;
+    private final OutboxEventHandler handler;
+    private final TransactionTemplate eventTransaction;
+
+    @Value("${outbox.dispatcher.batch-size:50}")
+    private int batchSize = 50;
+
+    public OutboxDispatcher(OutboxService outboxService, OutboxEventHandler handler,
+                            PlatformTransactionManager transactionManager) {
+        this.outboxService = outboxService;
+        this.handler = handler;
+        this.eventTransaction = new TransactionTemplate(transactionManager);
+        this.eventTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.dispatcher.poll-interval-ms:1000}")
+    public void dispatch() {
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                if (dispatchBatch() < batchSize) {
+                    return;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Outbox dispatch failed: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${outbox.cleanup.cron:0 30 4 * * *}", zone = "America/Argentina/Buenos_Aires")
+    public void purgeProcessed() {
+        int deleted = outboxService.purgeProcessed();
+        if (deleted > 0) {
+            log.info("Purged {} processed outbox events", deleted);
+        }
+    }
+
+    /**
+     * Claims and processes one batch.
+     *
+     * @return how many events were claimed
+     */
+    int dispatchBatch() {
+        List<OutboxEvent> batch = outboxService.claimBatch(batchSize);
+        Set<UUID> blockedAggregates = new HashSet<>();
+        List<Long> skipped = new ArrayList<>();
+
+        for (OutboxEvent event : batch) {
+            if (blockedAggregates.contains(event.getAggregateId())) {
+                skipped.add(event.getId());
+                continue;
+            }
+            try {
+                eventTransaction.executeWithoutResult(status -> {
+                    handler.handle(event);
+                    outboxService.markDone(event.getId());
+                });
+            } catch (RuntimeException e) {
+                blockedAggregates.add(event.getAggregateId());
+                outboxService.markFailed(event, e);
+            }
+        }
+
+        outboxService.release(skipped);
+        return batch.size();
+    }
+}
@@ -0,0 +1,118 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medibook.api.dto.email.EmailResponseDto;
+import com.medibook.api.entity.OutboxEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Performs the side effect recorded by an outbox event. Throwing makes the dispatcher retry
+ * the event later, so every branch must be safe to run more than once.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxEventHandler {
+
+    private static final long EMAIL_TIMEOUT_SECONDS = 30;
+    private static final Duration FILE_DELETE_TIMEOUT = Duration.ofSeconds(30);
+
+    private final EmailService emailService;
+    private final NotificationService notificationService;
+    private final BadgeEvaluationTriggerService badgeEvaluationTrigger;
+    private final MedicalCheckApiService medicalCheckApiService;
+    private final TurnFileService turnFileService;
+
+    public void handle(OutboxEvent event) {
+        JsonNode p = event.getPayload();
+        UUID turnId = event.getAggregateId();
+
+        switch (event.getEventType()) {
+            case APPOINTMENT_CONFIRMATION_EMAIL_PATIENT -> awaitEmail(emailService.sendAppointmentConfirmationToPatientAsync(
+                    text(p, "to"), text(p, "name"), text(p, "otherName"), text(p, "date"), text(p, "time"), turnId.toString()));
+            case APPOINTMENT_CONFIRMATION_EMAIL_DOCTOR -> awaitEmail(emailService.sendAppointmentConfirmationToDoctorAsync(
+                    text(p, "to"), text(p, "name"), text(p, "otherName"), text(p, "date"), text(p, "time"), turnId.toString()));
+            case APPOINTMENT_SERIES_EMAIL_PATIENT -> awaitEmail(emailService.sendAppointmentSeriesConfirmationToPatientAsync(
+                    text(p, "to"), text(p, "name"), text(p, "otherName"), textList(p, "appointments")));
+            case APPOINTMENT_CANCELLATION_EMAIL_PATIENT -> awaitEmail(emailService.sendAppointmentCancellationToPatientAsync(
+                    text(p, "to"), text(p, "name"), text(p, "otherName"), text(p, "date"), text(p, "time")));
+            case APPOINTMENT_CANCELLATION_EMAIL_DOCTOR -> awaitEmail(emailService.sendAppointmentCancellationToDoctorAsync(
+                    text(p, "to"), text(p, "name"), text(p, "otherName"), text(p, "date"), text(p, "time")));
+            case MODIFICATION_APPROVED_EMAIL_PATIENT -> awaitEmail(emailService.sendAppointmentModificationApprovedToPatientAsync(
+                    text(p, "to"), text(p, "name"), text(p, "otherName"),
+                    text(p, "oldDate"), text(p, "oldTime"), text(p, "newDate"), text(p, "newTime")));
+            case MODIFICATION_APPROVED_EMAIL_DOCTOR -> awaitEmail(emailService.sendAppointmentModificationApprovedToDoctorAsync(
+                    text(p, "to"), text(p, "name"), text(p, "otherName"),
+                    text(p, "oldDate"), text(p, "oldTime"), text(p, "newDate"), text(p, "newTime")));
+            case TURN_RESERVED_NOTIFICATION -> notificationService.createTurnReservedNotification(
+                    uuid(p, "userId"), turnId, text(p, "patientName"), text(p, "date"), text(p, "time"));
+            case TURN_SERIES_RESERVED_NOTIFICATION -> notificationService.createTurnSeriesReservedNotification(
+                    uuid(p, "userId"), turnId, text(p, "patientName"), p.path("turnCount").asInt(), text(p, "date"), text(p, "time"));
+            case TURN_CANCELLED_NOTIFICATION -> notificationService.createTurnCancellationNotification(
+                    uuid(p, "userId"), turnId, text(p, "cancelledBy"), text(p, "doctorName"), text(p, "patientName"),
+                    text(p, "date"), text(p, "time"));
+            case MODIFY_REQUEST_APPROVED_NOTIFICATION -> notificationService.createModifyRequestApprovedNotification(
+                    uuid(p, "userId"), uuid(p, "requestId"), text(p, "doctorName"),
+                    text(p, "oldDate"), text(p, "oldTime"), text(p, "newDate"), text(p, "newTime"));
+            case PATIENT_FILE_UPLOADED_NOTIFICATION -> notificationService.createPatientFileUploadedNotification(
+                    uuid(p, "userId"), turnId, text(p, "patientName"), text(p, "date"), text(p, "time"), text(p, "fileName"));
+            case BADGE_ADVANCE_BOOKING -> badgeEvaluationTrigger.evaluateAfterAdvanceBooking(uuid(p, "userId"));
+            case BADGE_TURN_CANCELLATION -> badgeEvaluationTrigger.evaluateAfterTurnCancellation(uuid(p, "userId"));
+            case BADGE_TURN_COMPLETION -> badgeEvaluationTrigger.evaluateAfterTurnCompletion(uuid(p, "userId"), uuid(p, "otherUserId"));
+            case BADGE_MODIFY_REQUEST_HANDLED -> badgeEvaluationTrigger.evaluateAfterModifyRequestHandled(uuid(p, "userId"));
+            case BADGE_FILE_UPLOADED -> badgeEvaluationTrigger.evaluateAfterFileUploaded(uuid(p, "userId"));
+            case MEDICAL_CHECK_COMPLETION -> medicalCheckApiService.processMedicalCheckCompletion(text(p, "email"));
+            case TURN_FILE_DELETION -> {
+                if (turnFileService.fileExistsForTurn(turnId)) {
+                    turnFileService.deleteTurnFile(turnId).block(FILE_DELETE_TIMEOUT);
+                    log.info("Deleted file of cancelled turn {}", turnId);
+                }
+            }
+        }
+    }
+
+    private void awaitEmail(CompletableFuture<EmailResponseDto> future) {
+        EmailResponseDto response;
+        try {
+            response = future.get(EMAIL_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while sending email", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Email sending failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (TimeoutException e) {
+            throw new RuntimeException("Email sending timed out", e);
+        }
+
+        if (response == null || !response.isSuccess()) {
+            throw new RuntimeException("Email sending failed: " + (response != null ? response.getMessage() : "no response"));
+        }
+    }
+
+    private static String text(JsonNode payload, String key) {
+        JsonNode value = payload.get(key);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static UUID uuid(JsonNode payload, String key) {
+        String value = text(payload, key);
+        return value != null ? UUID.fromString(value) : null;
+    }
+
+    private static List<String> textList(JsonNode payload, String key) {
+        List<String> values = new ArrayList<>();
+        payload.path(key).forEach(value -> values.add(value.asText()));
+        return values;
+    }
+}
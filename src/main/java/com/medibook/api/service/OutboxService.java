@@ -0,0 +1,136 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.entity.OutboxEvent;
+import com.medibook.api.entity.OutboxEventType;
+import com.medibook.api.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.medibook.api.util.DateTimeUtils.ARGENTINA_ZONE;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxService {
+
+    private static final Duration BASE_BACKOFF = Duration.ofSeconds(2);
+    private static final Duration MAX_BACKOFF = Duration.ofMinutes(10);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final OutboxEventRepository outboxRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${outbox.dispatcher.lease-seconds:120}")
+    private long leaseSeconds = 120;
+
+    @Value("${outbox.dispatcher.max-attempts:10}")
+    private int maxAttempts = 10;
+
+    @Value("${outbox.retention-days:7}")
+    private int retentionDays = 7;
+
+    /**
+     * Records a side effect of the caller's transaction. It is only visible to the dispatcher
+     * once that transaction commits, and disappears with it on rollback.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(OutboxEventType type, UUID aggregateId, Map<String, Object> payload) {
+        OffsetDateTime now = OffsetDateTime.now(ARGENTINA_ZONE);
+        outboxRepository.save(OutboxEvent.builder()
+                .aggregateId(aggregateId)
+                .eventType(type)
+                .payload(objectMapper.valueToTree(payload))
+                .availableAt(now)
+                .createdAt(now)
+                .build());
+    }
+
+    /**
+     * Builds an event payload from alternating keys and values. Unlike {@link Map#of} it
+     * accepts null values, which the handler reads back as null.
+     */
+    public static Map<String, Object> payload(Object... keyValues) {
+        if (keyValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Payload needs an even number of arguments");
+        }
+        Map<String, Object> payload = new LinkedHashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            payload.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return payload;
+    }
+
+    /**
+     * Locks a batch of due events and leases them by pushing their availability past the
+     * lease, so that an event whose dispatcher dies mid-batch is picked up again later.
+     */
+    @Transactional
+    public List<OutboxEvent> claimBatch(int batchSize) {
+        OffsetDateTime now = OffsetDateTime.now(ARGENTINA_ZONE);
+        List<OutboxEvent> batch = outboxRepository.findDueForUpdate(now, PageRequest.of(0, batchSize));
+        OffsetDateTime leaseUntil = now.plusSeconds(leaseSeconds);
+        batch.forEach(event -> event.setAvailableAt(leaseUntil));
+        return batch;
+    }
+
+    @Transactional
+    public void markDone(Long eventId) {
+        outboxRepository.markDone(eventId, OffsetDateTime.now(ARGENTINA_ZONE));
+    }
+
+    @Transactional
+    public void markFailed(OutboxEvent event, Exception error) {
+        int attempts = event.getAttempts() + 1;
+        String message = error.getClass().getSimpleName() + ": " + error.getMessage();
+        if (message.length() > MAX_ERROR_LENGTH) {
+            message = message.substring(0, MAX_ERROR_LENGTH);
+        }
+
+        if (attempts >= maxAttempts) {
+            log.error("Outbox event {} ({}) for aggregate {} failed permanently after {} attempts: {}",
+                    event.getId(), event.getEventType(), event.getAggregateId(), attempts, message);
+            outboxRepository.markFailedAttempt(event.getId(), OutboxEvent.FAILED, attempts, event.getAvailableAt(), message);
+            return;
+        }
+
+        OffsetDateTime retryAt = OffsetDateTime.now(ARGENTINA_ZONE).plus(backoff(attempts));
+        log.warn("Outbox event {} ({}) failed on attempt {}, retrying at {}: {}",
+                event.getId(), event.getEventType(), attempts, retryAt, message);
+        outboxRepository.markFailedAttempt(event.getId(), OutboxEvent.PENDING, attempts, retryAt, message);
+    }
+
+    /**
+     * Hands back claimed events that were not attempted, e.g. because an earlier event of
+     * the same aggregate failed in this batch.
+     */
+    @Transactional
+    public void release(Collection<Long> eventIds) {
+        if (!eventIds.isEmpty()) {
+            outboxRepository.updateAvailableAt(eventIds, OffsetDateTime.now(ARGENTINA_ZONE));
+        }
+    }
+
+    @Transactional
+    public int purgeProcessed() {
+        return outboxRepository.deleteDoneBefore(OffsetDateTime.now(ARGENTINA_ZONE).minusDays(retentionDays));
+    }
+
+    static Duration backoff(int attempts) {
+        Duration delay = BASE_BACKOFF.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : delay;
+    }
+}
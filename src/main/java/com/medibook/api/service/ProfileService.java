@@ -22,6 +22,8 @@ public class ProfileService {
     private final UserRepository userRepository;
     private final ProfileMapper profileMapper;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final DoctorAvailabilityService doctorAvailabilityService;
+    private final DoctorLeaderboardService doctorLeaderboardService;
     private static final ZoneId ARGENTINA_ZONE = ZoneId.of("America/Argentina/Buenos_Aires");
 
     public ProfileResponseDTO getProfile(UUID userId) {
@@ -43,6 +45,10 @@ public class ProfileService {
 
         profileMapper.updateUserFromRequest(user, updateRequest);
         user = userRepository.save(user);
+        doctorAvailabilityService.evictCompiledSchedule(userId);
+        if ("DOCTOR".equals(user.getRole())) {
+            doctorLeaderboardService.refresh(userId);
+        }
         
         return profileMapper.toProfileResponse(user);
     }
@@ -56,5 +62,8 @@ public class ProfileService {
         userRepository.save(user);
         
         refreshTokenRepository.revokeAllTokensByUserId(userId, ZonedDateTime.now(ARGENTINA_ZONE));
+        if ("DOCTOR".equals(user.getRole())) {
+            doctorLeaderboardService.refresh(userId);
+        }
     }
 }
@@ -0,0 +1,48 @@
+package com.medibook.api.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Nightly roll-up of day rating buckets older than the retention period into month
+ * buckets. Each batch commits on its own, so an interrupted run resumes where it stopped.
+ */
+@Component
+@Slf4j
+public class RatingBucketCompactor {
+
+    private static final int MAX_BATCHES_PER_RUN = 200;
+
+    private final RatingBucketService ratingBucketService;
+
+    @Value("${rating.buckets.compaction-batch-size:500}")
+    private int batchSize = 500;
+
+    public RatingBucketCompactor(RatingBucketService ratingBucketService) {
+        this.ratingBucketService = ratingBucketService;
+    }
+
+    @Scheduled(cron = "${rating.buckets.compaction-cron:0 45 4 * * *}", zone = "America/Argentina/Buenos_Aires")
+    public void compact() {
+        LocalDate cutoff = ratingBucketService.compactionCutoff();
+        int compacted = 0;
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_RUN; i++) {
+                int batch = ratingBucketService.compactDaysBefore(cutoff, batchSize);
+                compacted += batch;
+                if (batch < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Rating bucket compaction failed: {}", e.getMessage(), e);
+        }
+        if (compacted > 0) {
+            log.info("Compacted {} daily rating buckets before {}", compacted, cutoff);
+        }
+    }
+}
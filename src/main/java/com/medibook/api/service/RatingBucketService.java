@@ -0,0 +1,205 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medibook.api.dto.Rating.RatingTrendPointDTO;
+import com.medibook.api.dto.Rating.RatingWindowDTO;
+import com.medibook.api.dto.Rating.SubcategoryCountDTO;
+import com.medibook.api.entity.RatingBucket;
+import com.medibook.api.repository.RatingBucketRepository;
+import com.medibook.api.util.DateTimeUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Rolling-window rating metrics from per-user day and month buckets. Day buckets are kept
+ * for at least {@code rating.buckets.daily-retention-days}, so every supported window sums
+ * at most that many rows; older days are compacted into month buckets.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingBucketService {
+
+    static final int MAX_TREND_MONTHS = 24;
+
+    private final RatingBucketRepository ratingBucketRepository;
+
+    @Value("${rating.buckets.daily-retention-days:120}")
+    private int dailyRetentionDays = 120;
+
+    /**
+     * Adds a new rating to today's bucket of the rated user. Runs in the caller's
+     * transaction, so the bucket commits or rolls back together with the rating.
+     */
+    public void recordRating(UUID ratedId, int score, String raterRole, Collection<String> subcategories) {
+        ratingBucketRepository.recordRating(ratedId, today(), score, raterRole, subcategories);
+    }
+
+    /**
+     * Ratings received during the last {@code days} days, today included. A null rater role
+     * sums the subcategory mentions of every role.
+     */
+    @Transactional(readOnly = true)
+    public RatingWindowDTO getWindow(UUID ratedId, int days, String raterRole) {
+        return getWindow(ratedId, days, raterRole, today());
+    }
+
+    RatingWindowDTO getWindow(UUID ratedId, int days, String raterRole, LocalDate today) {
+        if (days < 1 || days > dailyRetentionDays) {
+            throw new IllegalArgumentException("days must be between 1 and " + dailyRetentionDays);
+        }
+        LocalDate from = today.minusDays(days - 1L);
+        long count = 0;
+        long sum = 0;
+        Map<String, Long> mentions = new HashMap<>();
+        for (RatingBucket bucket : ratingBucketRepository.findRange(ratedId, RatingBucket.DAY, from, today)) {
+            count += bucket.getRatingCount();
+            sum += bucket.getScoreSum();
+            addMentions(mentions, bucket.getSubcategoryCounts(), raterRole);
+        }
+
+        return RatingWindowDTO.builder()
+                .days(days)
+                .from(from)
+                .to(today)
+                .ratingCount(count)
+                .averageScore(average(sum, count))
+                .subcategories(mentions.entrySet().stream()
+                        .map(entry -> new SubcategoryCountDTO(entry.getKey(), entry.getValue()))
+                        .sorted(Comparator.comparing(SubcategoryCountDTO::getCount).reversed())
+                        .toList())
+                .build();
+    }
+
+    /**
+     * One point per day or per month, oldest first and ending with the current period.
+     * Periods without ratings are included with a count of zero.
+     */
+    @Transactional(readOnly = true)
+    public List<RatingTrendPointDTO> getTrend(UUID ratedId, String granularity, int periods) {
+        return getTrend(ratedId, granularity, periods, today());
+    }
+
+    List<RatingTrendPointDTO> getTrend(UUID ratedId, String granularity, int periods, LocalDate today) {
+        String normalized = granularity == null ? RatingBucket.DAY : granularity.toUpperCase(Locale.ROOT);
+        if (RatingBucket.DAY.equals(normalized)) {
+            if (periods < 1 || periods > dailyRetentionDays) {
+                throw new IllegalArgumentException("periods must be between 1 and " + dailyRetentionDays + " for daily trends");
+            }
+            LocalDate from = today.minusDays(periods - 1L);
+            Map<LocalDate, long[]> totals = emptyPeriods(from, periods, false);
+            for (RatingBucket bucket : ratingBucketRepository.findRange(ratedId, RatingBucket.DAY, from, today)) {
+                accumulate(totals, bucket.getBucketStart(), bucket);
+            }
+            return toPoints(totals);
+        }
+        if (RatingBucket.MONTH.equals(normalized)) {
+            if (periods < 1 || periods > MAX_TREND_MONTHS) {
+                throw new IllegalArgumentException("periods must be between 1 and " + MAX_TREND_MONTHS + " for monthly trends");
+            }
+            LocalDate from = today.withDayOfMonth(1).minusMonths(periods - 1L);
+            Map<LocalDate, long[]> totals = emptyPeriods(from, periods, true);
+            for (RatingBucket bucket : ratingBucketRepository.findRange(ratedId, RatingBucket.MONTH, from, today)) {
+                accumulate(totals, bucket.getBucketStart(), bucket);
+            }
+            for (RatingBucket bucket : ratingBucketRepository.findRange(ratedId, RatingBucket.DAY, from, today)) {
+                accumulate(totals, bucket.getBucketStart().withDayOfMonth(1), bucket);
+            }
+            return toPoints(totals);
+        }
+        throw new IllegalArgumentException("granularity must be day or month");
+    }
+
+    /**
+     * First day whose bucket must stay daily. Everything before it lies in whole months that
+     * are older than the retention period.
+     */
+    public LocalDate compactionCutoff() {
+        return today().minusDays(dailyRetentionDays).withDayOfMonth(1);
+    }
+
+    /**
+     * Rolls up to {@code batchSize} day buckets older than {@code before} into their month
+     * buckets and deletes them.
+     *
+     * @return the number of day buckets compacted
+     */
+    @Transactional
+    public int compactDaysBefore(LocalDate before, int batchSize) {
+        List<RatingBucket> days = ratingBucketRepository.findDaysBeforeForUpdate(before, PageRequest.of(0, batchSize));
+        if (days.isEmpty()) {
+            return 0;
+        }
+        Map<RatingBucket.Key, RatingBucket> months = new LinkedHashMap<>();
+        for (RatingBucket day : days) {
+            LocalDate month = day.getBucketStart().withDayOfMonth(1);
+            months.computeIfAbsent(new RatingBucket.Key(day.getRatedId(), RatingBucket.MONTH, month),
+                    key -> ratingBucketRepository.findMonthForUpdate(key.getRatedId(), month)
+                            .orElseGet(() -> new RatingBucket(key.getRatedId(), RatingBucket.MONTH, month)))
+                    .merge(day);
+        }
+        ratingBucketRepository.saveAll(new ArrayList<>(months.values()));
+        ratingBucketRepository.deleteAll(days);
+        return days.size();
+    }
+
+    private static Map<LocalDate, long[]> emptyPeriods(LocalDate from, int periods, boolean monthly) {
+        Map<LocalDate, long[]> totals = new LinkedHashMap<>();
+        for (int i = 0; i < periods; i++) {
+            totals.put(monthly ? from.plusMonths(i) : from.plusDays(i), new long[2]);
+        }
+        return totals;
+    }
+
+    private static void accumulate(Map<LocalDate, long[]> totals, LocalDate period, RatingBucket bucket) {
+        long[] total = totals.get(period);
+        if (total != null) {
+            total[0] += bucket.getRatingCount();
+            total[1] += bucket.getScoreSum();
+        }
+    }
+
+    private static List<RatingTrendPointDTO> toPoints(Map<LocalDate, long[]> totals) {
+        return totals.entrySet().stream()
+                .map(entry -> new RatingTrendPointDTO(entry.getKey(), entry.getValue()[0],
+                        average(entry.getValue()[1], entry.getValue()[0])))
+                .toList();
+    }
+
+    private static void addMentions(Map<String, Long> mentions, JsonNode byRole, String raterRole) {
+        if (byRole == null) {
+            return;
+        }
+        for (Map.Entry<String, JsonNode> role : byRole.properties()) {
+            if (raterRole != null && !raterRole.equals(role.getKey())) {
+                continue;
+            }
+            for (Map.Entry<String, JsonNode> subcategory : role.getValue().properties()) {
+                mentions.merge(subcategory.getKey(), subcategory.getValue().asLong(), Long::sum);
+            }
+        }
+    }
+
+    private static Double average(long sum, long count) {
+        return count == 0 ? null : Math.round(sum * 100.0 / count) / 100.0;
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(DateTimeUtils.ARGENTINA_ZONE);
+    }
+}
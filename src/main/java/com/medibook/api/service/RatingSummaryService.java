@@ -0,0 +1,127 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medibook.api.dto.Rating.SubcategoryCountDTO;
+import com.medibook.api.entity.RatingSummary;
+import com.medibook.api.repository.RatingRepository;
+import com.medibook.api.repository.RatingSummaryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads and maintains the per-user rating summaries, so score histograms and subcategory
+ * counts are served without aggregating the ratings table. The rating count and score sum
+ * are kept on the user row.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RatingSummaryService {
+
+    private final RatingSummaryRepository ratingSummaryRepository;
+    private final RatingRepository ratingRepository;
+
+    /**
+     * Adds a new rating to the rated user's summary. Runs in the caller's transaction, so the
+     * summary commits or rolls back together with the rating.
+     */
+    public void recordRating(UUID ratedId, int score, String raterRole, Collection<String> subcategories) {
+        ratingSummaryRepository.recordRating(ratedId, score, raterRole, subcategories);
+    }
+
+    /**
+     * Number of ratings per score from 1 to 5, in score order.
+     */
+    @Transactional(readOnly = true)
+    public Map<Integer, Long> getScoreDistribution(UUID ratedId) {
+        Optional<RatingSummary> summary = ratingSummaryRepository.findById(ratedId);
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        for (int score = RatingSummary.MIN_SCORE; score <= RatingSummary.MAX_SCORE; score++) {
+            int value = score;
+            distribution.put(score, summary.map(s -> s.getScoreCount(value)).orElse(0L));
+        }
+        return distribution;
+    }
+
+    /**
+     * Subcategory counts of the user, most mentioned first. A null rater role sums the
+     * mentions of every role.
+     */
+    @Transactional(readOnly = true)
+    public List<SubcategoryCountDTO> getSubcategoryCounts(UUID ratedId, String raterRole) {
+        return ratingSummaryRepository.findById(ratedId)
+                .map(summary -> subcategoryCounts(summary, raterRole))
+                .orElseGet(List::of);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<UUID, List<SubcategoryCountDTO>> getSubcategoryCounts(Collection<UUID> ratedIds, String raterRole) {
+        Map<UUID, List<SubcategoryCountDTO>> counts = new HashMap<>();
+        if (ratedIds.isEmpty()) {
+            return counts;
+        }
+        for (RatingSummary summary : ratingSummaryRepository.findAllById(ratedIds)) {
+            counts.put(summary.getRatedId(), subcategoryCounts(summary, raterRole));
+        }
+        return counts;
+    }
+
+    /**
+     * Replaces every summary with one aggregated from the ratings table. New ratings wait for
+     * the rebuild to commit, so none is lost between the aggregation and the write.
+     *
+     * @return the number of summaries written
+     */
+    @Transactional
+    public int rebuild() {
+        ratingSummaryRepository.lockForRebuild();
+        Map<UUID, RatingSummary> summaries = new LinkedHashMap<>();
+        for (Object[] row : ratingRepository.countScoresByRatedId()) {
+            UUID ratedId = (UUID) row[0];
+            summaries.computeIfAbsent(ratedId, RatingSummary::new)
+                    .add((Integer) row[1], ((Number) row[2]).longValue(), null, List.of());
+        }
+        for (Object[] row : ratingRepository.countSubcategoriesByRatedIdAndRaterRole()) {
+            UUID ratedId = (UUID) row[0];
+            summaries.computeIfAbsent(ratedId, RatingSummary::new)
+                    .addSubcategories((String) row[1], List.of((String) row[2]), ((Number) row[3]).longValue());
+        }
+
+        ratingSummaryRepository.deleteAllInBatch();
+        ratingSummaryRepository.flush();
+        ratingSummaryRepository.saveAll(new ArrayList<>(summaries.values()));
+        log.info("Rebuilt rating summaries of {} users", summaries.size());
+        return summaries.size();
+    }
+
+    private List<SubcategoryCountDTO> subcategoryCounts(RatingSummary summary, String raterRole) {
+        Map<String, Long> counts = new HashMap<>();
+        JsonNode byRole = summary.getSubcategoryCounts();
+        if (byRole != null) {
+            for (Map.Entry<String, JsonNode> role : byRole.properties()) {
+                if (raterRole != null && !raterRole.equals(role.getKey())) {
+                    continue;
+                }
+                for (Map.Entry<String, JsonNode> subcategory : role.getValue().properties()) {
+                    counts.merge(subcategory.getKey(), subcategory.getValue().asLong(), Long::sum);
+                }
+            }
+        }
+        return counts.entrySet().stream()
+                .map(entry -> new SubcategoryCountDTO(entry.getKey(), entry.getValue()))
+                .sorted(Comparator.comparing(SubcategoryCountDTO::getCount).reversed())
+                .toList();
+    }
+}
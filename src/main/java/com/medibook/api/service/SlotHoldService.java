@@ -0,0 +1,151 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Turn.SlotHoldResponseDTO;
+import com.medibook.api.entity.User;
+import com.medibook.api.exception.SlotAlreadyTakenException;
+import com.medibook.api.model.SlotHoldTable;
+import com.medibook.api.model.SlotHoldTable.SlotHold;
+import com.medibook.api.model.SlotOccupancy;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.medibook.api.util.DateTimeUtils.ARGENTINA_ZONE;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotHoldService {
+
+    static final Duration HOLD_TTL = Duration.ofMinutes(5);
+    private static final int STRIPES = 16;
+    private static final int WHEEL_SIZE = 512;
+    private static final long TICK_MILLIS = 1000;
+    static final int MAX_HOLDS_PER_PATIENT = 3;
+
+    private final UserRepository userRepo;
+    private final TurnAssignedRepository turnRepo;
+    private final DoctorAvailabilityService doctorAvailabilityService;
+
+    private final SlotHoldTable holds = new SlotHoldTable(STRIPES, WHEEL_SIZE, TICK_MILLIS, MAX_HOLDS_PER_PATIENT,
+            System::currentTimeMillis);
+    private ScheduledExecutorService ticker;
+
+    @PostConstruct
+    void startTicker() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "SlotHoldWheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireHolds, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopTicker() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public SlotHoldResponseDTO placeHold(UUID doctorId, UUID patientId, OffsetDateTime scheduledAt) {
+        User doctor = userRepo.findById(doctorId)
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+
+        if (!"DOCTOR".equals(doctor.getRole())) {
+            throw new RuntimeException("User is not a doctor");
+        }
+
+        if (!"ACTIVE".equals(doctor.getStatus())) {
+            throw new RuntimeException("Doctor is not active");
+        }
+
+        doctorAvailabilityService.validateSlotWithinSchedule(doctor, scheduledAt);
+
+        if (turnRepo.existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(doctorId, scheduledAt)) {
+            throw new SlotAlreadyTakenException("Time slot is already taken");
+        }
+
+        SlotHold hold = holds.place(doctorId, patientId, scheduledAt.toInstant(), HOLD_TTL.toMillis());
+        if (hold == null) {
+            throw new SlotAlreadyTakenException("Time slot is held by another patient");
+        }
+
+        return SlotHoldResponseDTO.builder()
+                .holdToken(hold.token())
+                .doctorId(doctorId)
+                .scheduledAt(scheduledAt)
+                .expiresAt(OffsetDateTime.ofInstant(Instant.ofEpochMilli(hold.expiresAtMillis()), ARGENTINA_ZONE))
+                .build();
+    }
+
+    public boolean releaseHold(UUID holdToken, UUID patientId) {
+        return holds.release(holdToken, patientId);
+    }
+
+    /**
+     * Lets a booking through only if it carries its own live hold, or if nobody else holds the
+     * slot when no token is given. The hold is consumed once the booking commits; if the turn
+     * insert fails it stays with the patient, who can retry with the same token.
+     */
+    public void claimForBooking(UUID holdToken, UUID doctorId, UUID patientId, OffsetDateTime scheduledAt) {
+        if (holdToken != null) {
+            if (holds.match(holdToken, doctorId, patientId, scheduledAt.toInstant()) == null) {
+                throw new SlotAlreadyTakenException("Slot hold expired or does not match the requested turn");
+            }
+            afterCommit(() -> holds.consume(holdToken, doctorId, patientId, scheduledAt.toInstant()));
+            return;
+        }
+
+        SlotHold hold = holds.find(doctorId, scheduledAt.toInstant());
+        if (hold != null && !hold.patientId().equals(patientId)) {
+            throw new SlotAlreadyTakenException("Time slot is held by another patient");
+        }
+    }
+
+    public void markHeld(UUID doctorId, SlotOccupancy occupancy, OffsetDateTime from, OffsetDateTime to) {
+        for (SlotHold hold : holds.activeHolds(doctorId, from.toInstant(), to.toInstant())) {
+            occupancy.markTaken(OffsetDateTime.ofInstant(hold.scheduledAt(), ARGENTINA_ZONE));
+        }
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    void expireHolds() {
+        try {
+            int expired = holds.expireDue();
+            if (expired > 0) {
+                log.debug("Expired {} slot holds, {} active", expired, holds.size());
+            }
+        } catch (RuntimeException e) {
+            log.error("Error expiring slot holds", e);
+        }
+    }
+}
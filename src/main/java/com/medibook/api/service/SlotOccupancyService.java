@@ -0,0 +1,79 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Availability.AvailableSlotDTO;
+import com.medibook.api.model.SlotOccupancy;
+import com.medibook.api.repository.TurnAssignedRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.medibook.api.util.DateTimeUtils.ARGENTINA_ZONE;
+
+@Service
+@RequiredArgsConstructor
+public class SlotOccupancyService {
+
+    private final TurnAssignedRepository turnRepo;
+    private final DoctorAvailabilityService doctorAvailabilityService;
+    private final SlotHoldService slotHoldService;
+
+    @Transactional(readOnly = true)
+    public SlotOccupancy loadOccupancy(UUID doctorId, LocalDate fromDate, LocalDate toDate) {
+        OffsetDateTime from = fromDate.atStartOfDay(ARGENTINA_ZONE).toOffsetDateTime();
+        OffsetDateTime to = toDate.plusDays(1).atStartOfDay(ARGENTINA_ZONE).toOffsetDateTime();
+
+        List<OffsetDateTime> occupied = turnRepo.findOccupiedScheduledAtByDoctorIdBetween(doctorId, from, to);
+        SlotOccupancy occupancy = SlotOccupancy.of(occupied, ARGENTINA_ZONE);
+        slotHoldService.markHeld(doctorId, occupancy, from, to);
+        return occupancy;
+    }
+
+    @Transactional(readOnly = true)
+    public Map<UUID, SlotOccupancy> loadOccupancy(Collection<UUID> doctorIds, LocalDate fromDate, LocalDate toDate) {
+        Map<UUID, SlotOccupancy> occupancyByDoctor = new HashMap<>();
+        if (doctorIds.isEmpty()) {
+            return occupancyByDoctor;
+        }
+        for (UUID doctorId : doctorIds) {
+            occupancyByDoctor.put(doctorId, new SlotOccupancy(ARGENTINA_ZONE));
+        }
+
+        OffsetDateTime from = fromDate.atStartOfDay(ARGENTINA_ZONE).toOffsetDateTime();
+        OffsetDateTime to = toDate.plusDays(1).atStartOfDay(ARGENTINA_ZONE).toOffsetDateTime();
+
+        for (Object[] row : turnRepo.findOccupiedScheduledAtByDoctorIdsBetween(doctorIds, from, to)) {
+            occupancyByDoctor.get((UUID) row[0]).markTaken((OffsetDateTime) row[1]);
+        }
+        for (Map.Entry<UUID, SlotOccupancy> entry : occupancyByDoctor.entrySet()) {
+            slotHoldService.markHeld(entry.getKey(), entry.getValue(), from, to);
+        }
+        return occupancyByDoctor;
+    }
+
+    @Transactional(readOnly = true)
+    public List<OffsetDateTime> getFreeSlotTimes(UUID doctorId, LocalDate fromDate, LocalDate toDate) {
+        List<AvailableSlotDTO> slots = doctorAvailabilityService.getAvailableSlots(doctorId, fromDate, toDate);
+        if (slots.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        SlotOccupancy occupancy = loadOccupancy(doctorId, fromDate, toDate);
+
+        List<OffsetDateTime> freeTimes = new ArrayList<>(slots.size());
+        for (AvailableSlotDTO slot : slots) {
+            if (!occupancy.isTaken(slot.getDate(), slot.getStartTime())) {
+                freeTimes.add(slot.getDate().atTime(slot.getStartTime()).atZone(ARGENTINA_ZONE).toOffsetDateTime());
+            }
+        }
+        return freeTimes;
+    }
+}
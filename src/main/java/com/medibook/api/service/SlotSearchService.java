@@ -0,0 +1,151 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Availability.EarliestSlotDTO;
+import com.medibook.api.entity.User;
+import com.medibook.api.model.CompiledSchedule;
+import com.medibook.api.model.SlotOccupancy;
+import com.medibook.api.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+
+import static com.medibook.api.util.DateTimeUtils.ARGENTINA_ZONE;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SlotSearchService {
+
+    static final int MAX_LIMIT = 50;
+    static final int MAX_WINDOW_DAYS = 31;
+
+    private static final Comparator<EarliestSlotDTO> EARLIEST_FIRST = Comparator
+            .comparing(EarliestSlotDTO::getScheduledAt)
+            .thenComparing(EarliestSlotDTO::getDoctorName)
+            .thenComparing(EarliestSlotDTO::getDoctorId);
+
+    private final UserRepository userRepository;
+    private final DoctorAvailabilityService doctorAvailabilityService;
+    private final SlotOccupancyService slotOccupancyService;
+
+    @Transactional(readOnly = true)
+    public List<EarliestSlotDTO> findEarliestSlots(String specialty, LocalDate fromDate, LocalDate toDate, int limit) {
+        if (specialty == null || specialty.isBlank()) {
+            throw new IllegalArgumentException("Specialty is required");
+        }
+        if (fromDate.isAfter(toDate)) {
+            throw new IllegalArgumentException("fromDate must be before or equal to toDate");
+        }
+        if (ChronoUnit.DAYS.between(fromDate, toDate) >= MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Date window cannot exceed " + MAX_WINDOW_DAYS + " days");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LIMIT);
+        }
+
+        List<User> doctors = userRepository.findDoctorsBySpecialty(specialty);
+        if (doctors.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<UUID> doctorIds = doctors.stream().map(User::getId).toList();
+        Map<UUID, SlotOccupancy> occupancyByDoctor = slotOccupancyService.loadOccupancy(doctorIds, fromDate, toDate);
+
+        OffsetDateTime now = OffsetDateTime.now(ARGENTINA_ZONE);
+        EarliestSlotCollector collector = new EarliestSlotCollector(limit);
+
+        doctors.parallelStream().forEach(doctor -> searchDoctor(
+                doctor, occupancyByDoctor.get(doctor.getId()), fromDate, toDate, now, limit, collector));
+
+        List<EarliestSlotDTO> result = collector.toSortedList();
+        log.debug("Earliest slot search for specialty {} between {} and {} returned {} slots across {} doctors",
+                specialty, fromDate, toDate, result.size(), doctors.size());
+        return result;
+    }
+
+    private void searchDoctor(User doctor, SlotOccupancy occupancy, LocalDate fromDate, LocalDate toDate,
+                              OffsetDateTime now, int limit, EarliestSlotCollector collector) {
+        CompiledSchedule schedule = doctorAvailabilityService.getCompiledSchedule(doctor.getDoctorProfile());
+        if (schedule.isEmpty()) {
+            return;
+        }
+
+        String doctorName = doctor.getName() + " " + doctor.getSurname();
+        int found = 0;
+
+        for (LocalDate day = fromDate; !day.isAfter(toDate); day = day.plusDays(1)) {
+            if (collector.isFullBefore(day.atStartOfDay(ARGENTINA_ZONE).toOffsetDateTime())) {
+                return;
+            }
+
+            for (int start : schedule.slotStarts(day.getDayOfWeek())) {
+                LocalTime startTime = LocalTime.of(start / 60, start % 60);
+                OffsetDateTime scheduledAt = day.atTime(startTime).atZone(ARGENTINA_ZONE).toOffsetDateTime();
+                if (scheduledAt.isBefore(now) || occupancy.isTaken(day, startTime)) {
+                    continue;
+                }
+
+                EarliestSlotDTO candidate = new EarliestSlotDTO(
+                        doctor.getId(),
+                        doctorName,
+                        doctor.getDoctorProfile().getSpecialty(),
+                        schedule.getSlotDurationMin(),
+                        scheduledAt);
+
+                if (!collector.offer(candidate) || ++found >= limit) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Bounded max-heap shared by the per-doctor workers. Once it holds {@code limit}
+     * slots, any candidate later than the current worst one is rejected, which lets
+     * each worker stop scanning as soon as it cannot improve the result.
+     */
+    private static final class EarliestSlotCollector {
+
+        private final int limit;
+        private final PriorityQueue<EarliestSlotDTO> latestFirst = new PriorityQueue<>(EARLIEST_FIRST.reversed());
+
+        EarliestSlotCollector(int limit) {
+            this.limit = limit;
+        }
+
+        synchronized boolean offer(EarliestSlotDTO candidate) {
+            if (latestFirst.size() < limit) {
+                latestFirst.add(candidate);
+                return true;
+            }
+            if (EARLIEST_FIRST.compare(candidate, latestFirst.peek()) < 0) {
+                latestFirst.poll();
+                latestFirst.add(candidate);
+                return true;
+            }
+            return false;
+        }
+
+        synchronized boolean isFullBefore(OffsetDateTime instant) {
+            return latestFirst.size() == limit && instant.isAfter(latestFirst.peek().getScheduledAt());
+        }
+
+        synchronized List<EarliestSlotDTO> toSortedList() {
+            List<EarliestSlotDTO> sorted = new ArrayList<>(latestFirst);
+            sorted.sort(EARLIEST_FIRST);
+            return sorted;
+        }
+    }
+}
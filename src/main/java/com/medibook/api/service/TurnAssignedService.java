@@ -1,11 +1,18 @@
 package com.medibook.api.service;
 
+import com.medibook.api.dto.Rating.RatingSubcategory;
+import com.medibook.api.dto.Rating.RatingSubcategoryPatient;
 import com.medibook.api.dto.Turn.TurnCreateRequestDTO;
+import com.medibook.api.dto.Turn.TurnPageDTO;
 import com.medibook.api.dto.Turn.TurnResponseDTO;
 import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.User;
 import com.medibook.api.entity.FamilyMember;
+import com.medibook.api.entity.OutboxEventType;
+import com.medibook.api.exception.SlotAlreadyTakenException;
 import com.medibook.api.mapper.TurnAssignedMapper;
+import com.medibook.api.model.RatingSample;
+import com.medibook.api.model.TurnCursor;
 import com.medibook.api.entity.Rating;
 import com.medibook.api.repository.RatingRepository;
 import com.medibook.api.repository.TurnAssignedRepository;
@@ -15,6 +22,10 @@ import com.medibook.api.util.DateTimeUtils;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.EntityNotFoundException;
@@ -22,9 +33,14 @@ import jakarta.persistence.EntityNotFoundException;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
+
+import static com.medibook.api.service.OutboxService.payload;
 
 @Service
 @RequiredArgsConstructor
@@ -36,13 +52,19 @@ public class TurnAssignedService {
     private final UserRepository userRepo;
     private final TurnAssignedMapper mapper;
     private final RatingRepository ratingRepo;
-    private final NotificationService notificationService;
-    private final EmailService emailService;
     private final TurnFileService turnFileService;
     private final BadgeEvaluationTriggerService badgeEvaluationTrigger;
-    private final MedicalCheckApiService medicalCheckApiService;
+    private final OutboxService outboxService;
     private final FamilyMemberRepository familyMemberRepository;
+    private final DoctorAvailabilityService doctorAvailabilityService;
+    private final SlotHoldService slotHoldService;
+    private final DoctorLeaderboardService doctorLeaderboardService;
+    private final RatingSummaryService ratingSummaryService;
+    private final RatingBucketService ratingBucketService;
     private static final ZoneId ARGENTINA_ZONE = ZoneId.of("America/Argentina/Buenos_Aires");
+    static final String SLOT_UNIQUE_INDEX = "ux_turns_assigned_doctor_slot";
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
 
     public TurnResponseDTO createTurn(TurnCreateRequestDTO dto) {
         User doctor = userRepo.findById(dto.getDoctorId())
@@ -67,12 +89,8 @@ public class TurnAssignedService {
             throw new RuntimeException("Patient is not active");
         }
 
-        boolean slotTaken = turnRepo.existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(
-                dto.getDoctorId(), dto.getScheduledAt());
-        
-        if (slotTaken) {
-            throw new RuntimeException("Time slot is already taken");
-        }
+        doctorAvailabilityService.validateSlotWithinSchedule(doctor, dto.getScheduledAt());
+        slotHoldService.claimForBooking(dto.getHoldToken(), dto.getDoctorId(), dto.getPatientId(), dto.getScheduledAt());
 
         FamilyMember familyMember = null;
         if (dto.getFamilyMemberId() != null) {
@@ -93,111 +111,138 @@ public class TurnAssignedService {
                 .status("SCHEDULED")
                 .build();
 
-        TurnAssigned saved = turnRepo.save(turn);
+        TurnAssigned saved = claimSlot(turn);
         
         OffsetDateTime now = OffsetDateTime.now(ZoneOffset.UTC);
         long daysDifference = java.time.Duration.between(now, turn.getScheduledAt()).toDays();
         if (daysDifference >= 1) {
-            badgeEvaluationTrigger.evaluateAfterAdvanceBooking(dto.getPatientId());
+            outboxService.enqueue(OutboxEventType.BADGE_ADVANCE_BOOKING, saved.getId(),
+                    payload("userId", dto.getPatientId()));
         }
-        
+
+        String date = DateTimeUtils.formatDate(saved.getScheduledAt());
+        String time = DateTimeUtils.formatTime(saved.getScheduledAt());
+
+        outboxService.enqueue(OutboxEventType.APPOINTMENT_CONFIRMATION_EMAIL_PATIENT, saved.getId(), payload(
+                "to", patient.getEmail(), "name", patient.getName(), "otherName", doctor.getName(), "date", date, "time", time));
+        outboxService.enqueue(OutboxEventType.APPOINTMENT_CONFIRMATION_EMAIL_DOCTOR, saved.getId(), payload(
+                "to", doctor.getEmail(), "name", doctor.getName(), "otherName", patient.getName(), "date", date, "time", time));
+        outboxService.enqueue(OutboxEventType.TURN_RESERVED_NOTIFICATION, saved.getId(), payload(
+                "userId", doctor.getId(), "patientName", patient.getName() + " " + patient.getSurname(), "date", date, "time", time));
+
+        return mapper.toDTO(saved);
+    }
+    
+    private TurnAssigned claimSlot(TurnAssigned turn) {
         try {
-            String date = DateTimeUtils.formatDate(saved.getScheduledAt());
-            String time = DateTimeUtils.formatTime(saved.getScheduledAt());
-            
-            
-            final String patientEmail = patient.getEmail();
-            final String patientName = patient.getName();
-            final String doctorEmail = doctor.getEmail();
-            final String doctorName = doctor.getName();
-
-            emailService.sendAppointmentConfirmationToPatientAsync(
-                patientEmail,
-                patientName,
-                doctorName,
-                date,
-                time,
-                saved.getId().toString()
-            ).thenAccept(response -> {
-                if (response.isSuccess()) {
-                    log.info("Confirmación enviada al paciente: {}", patientEmail);
-                } else {
-                    log.warn("Falló confirmación al paciente {}: {}", patientEmail, response.getMessage());
-                }
-            });
-            
-            emailService.sendAppointmentConfirmationToDoctorAsync(
-                doctorEmail,
-                doctorName,
-                patientName,
-                date,
-                time,
-                saved.getId().toString()
-            ).thenAccept(response -> {
-                if (response.isSuccess()) {
-                    log.info("Confirmación enviada al doctor: {}", doctorEmail);
-                } else {
-                    log.warn("Falló confirmación al doctor {}: {}", doctorEmail, response.getMessage());
-                }
-            });
-            
-            log.info("Emails de confirmación de cita encolados para paciente {} y doctor {}", 
-                    patientEmail, doctorEmail);
-            
-        } catch (Exception e) {
-            log.warn("Error encolando emails de confirmación de cita: {}", e.getMessage());
+            return turnRepo.saveAndFlush(turn);
+        } catch (DataIntegrityViolationException e) {
+            if (isSlotUniqueViolation(e)) {
+                throw new SlotAlreadyTakenException("Time slot is already taken", e);
+            }
+            throw e;
         }
+    }
 
-        try {
-            String dateFormatted = DateTimeUtils.formatDate(saved.getScheduledAt());
-            String timeFormatted = DateTimeUtils.formatTime(saved.getScheduledAt());
-            String patientFullName = patient.getName() + " " + patient.getSurname();
-
-            notificationService.createTurnReservedNotification(
-                    saved.getDoctor().getId(),
-                    saved.getId(),
-                    patientFullName,
-                    dateFormatted,
-                    timeFormatted
-            );
-
-            log.info("Notification created for doctor {} about turn creation by patient {}", 
-                    saved.getDoctor().getId(), patient.getId());
-        } catch (Exception e) {
-            log.error("Error creating notification for turn creation: {}", e.getMessage());
+    static boolean isSlotUniqueViolation(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            String name = cause instanceof ConstraintViolationException violation
+                    ? violation.getConstraintName()
+                    : cause.getMessage();
+            if (name != null && name.toLowerCase(Locale.ROOT).contains(SLOT_UNIQUE_INDEX)) {
+                return true;
+            }
         }
-        
-        return mapper.toDTO(saved);
+        return false;
     }
-    
+
     public List<TurnResponseDTO> getTurnsByDoctor(UUID doctorId) {
         List<TurnAssigned> turns = turnRepo.findByDoctor_IdOrderByScheduledAtDesc(doctorId);
-        return turns.stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+        return mapper.toDTOs(turns);
     }
     
     public List<TurnResponseDTO> getTurnsByPatient(UUID patientId) {
         List<TurnAssigned> turns = turnRepo.findByPatient_IdOrderByScheduledAtDesc(patientId);
-        return turns.stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+        return mapper.toDTOs(turns);
     }
     
     public List<TurnResponseDTO> getTurnsByDoctorAndStatus(UUID doctorId, String status) {
         List<TurnAssigned> turns = turnRepo.findByDoctor_IdAndStatusOrderByScheduledAtDesc(doctorId, status);
-        return turns.stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+        return mapper.toDTOs(turns);
     }
     
     public List<TurnResponseDTO> getTurnsByPatientAndStatus(UUID patientId, String status) {
         List<TurnAssigned> turns = turnRepo.findByPatient_IdAndStatusOrderByScheduledAtDesc(patientId, status);
-        return turns.stream()
-                .map(mapper::toDTO)
-                .collect(Collectors.toList());
+        return mapper.toDTOs(turns);
     }
-    
+
+    @Transactional(readOnly = true)
+    public TurnPageDTO getTurnsPageByDoctor(UUID doctorId, String status, String when, String cursor, Integer limit) {
+        return getTurnsPage(status, when, cursor, limit,
+                (at, id, page) -> turnRepo.findDoctorTurnsAfter(doctorId, status, at, id, page),
+                (at, id, page) -> turnRepo.findDoctorTurnsBefore(doctorId, status, at, id, page));
+    }
+
+    @Transactional(readOnly = true)
+    public TurnPageDTO getTurnsPageByPatient(UUID patientId, String status, String when, String cursor, Integer limit) {
+        return getTurnsPage(status, when, cursor, limit,
+                (at, id, page) -> turnRepo.findPatientTurnsAfter(patientId, status, at, id, page),
+                (at, id, page) -> turnRepo.findPatientTurnsBefore(patientId, status, at, id, page));
+    }
+
+    @FunctionalInterface
+    private interface KeysetQuery {
+        List<TurnAssigned> fetch(OffsetDateTime cursorAt, UUID cursorId, Pageable page);
+    }
+
+    /**
+     * Upcoming turns are listed soonest first, past and unfiltered listings most recent first.
+     * Without a cursor the listing starts at "now" (or at the latest turn when unfiltered).
+     */
+    private TurnPageDTO getTurnsPage(String status, String when, String cursor, Integer limit,
+                                     KeysetQuery after, KeysetQuery before) {
+        int pageSize = limit == null ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        boolean upcoming = "upcoming".equalsIgnoreCase(when);
+        if (when != null && !upcoming && !"past".equalsIgnoreCase(when)) {
+            throw new IllegalArgumentException("when must be 'upcoming' or 'past'");
+        }
+
+        TurnCursor position;
+        if (cursor != null && !cursor.isBlank()) {
+            position = TurnCursor.decode(cursor, ARGENTINA_ZONE);
+        } else if (when != null) {
+            position = TurnCursor.startingAt(OffsetDateTime.now(ARGENTINA_ZONE));
+        } else {
+            position = TurnCursor.startingAt(TurnCursor.FAR_FUTURE);
+        }
+
+        Pageable page = PageRequest.of(0, pageSize + 1);
+        List<TurnAssigned> turns = upcoming
+                ? after.fetch(position.scheduledAt(), position.id(), page)
+                : before.fetch(position.scheduledAt(), position.id(), page);
+
+        boolean hasMore = turns.size() > pageSize;
+        if (hasMore) {
+            turns = turns.subList(0, pageSize);
+        }
+
+        String nextCursor = null;
+        if (hasMore) {
+            TurnAssigned last = turns.get(turns.size() - 1);
+            nextCursor = new TurnCursor(last.getScheduledAt(), last.getId()).encode();
+        }
+
+        return TurnPageDTO.builder()
+                .items(mapper.toDTOs(turns))
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
     private final com.medibook.api.repository.TurnModifyRequestRepository turnModifyRequestRepository;
 
     public TurnResponseDTO cancelTurn(UUID turnId, UUID userId, String userRole) {
@@ -229,90 +274,34 @@ public class TurnAssignedService {
         TurnAssigned saved = turnRepo.save(turn);
 
         if (turn.getDoctor() != null) {
-            badgeEvaluationTrigger.evaluateAfterTurnCancellation(turn.getDoctor().getId());
+            outboxService.enqueue(OutboxEventType.BADGE_TURN_CANCELLATION, turnId, payload("userId", turn.getDoctor().getId()));
         }
         if (turn.getPatient() != null) {
-            badgeEvaluationTrigger.evaluateAfterTurnCancellation(turn.getPatient().getId());
-        }
-        
-        try {
-            if (turnFileService.fileExistsForTurn(turnId)) {
-                log.info("Deleting file associated with canceled turn: {}", turnId);
-                turnFileService.deleteTurnFile(turnId).block(); 
-                log.info("File successfully deleted for canceled turn: {}", turnId);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to delete file for canceled turn {}: {}", turnId, e.getMessage());
+            outboxService.enqueue(OutboxEventType.BADGE_TURN_CANCELLATION, turnId, payload("userId", turn.getPatient().getId()));
         }
 
-        try {
-            String date = DateTimeUtils.formatDate(saved.getScheduledAt());
-            String time = DateTimeUtils.formatTime(saved.getScheduledAt());
-            
-            
-            final String patientEmail = turn.getPatient().getEmail();
-            final String patientName = turn.getPatient().getName();
-            final String doctorEmail = turn.getDoctor().getEmail();
-            final String doctorName = turn.getDoctor().getName();
-            
-            
-            emailService.sendAppointmentCancellationToPatientAsync(
-                patientEmail,
-                patientName,
-                doctorName,
-                date,
-                time
-            ).thenAccept(response -> {
-                if (response.isSuccess()) {
-                    log.info("Email de cancelación enviado al paciente: {}", patientEmail);
-                } else {
-                    log.warn("Falló email de cancelación al paciente {}: {}", patientEmail, response.getMessage());
-                }
-            });
-            
-            emailService.sendAppointmentCancellationToDoctorAsync(
-                doctorEmail,
-                doctorName,
-                patientName,
-                date,
-                time
-            ).thenAccept(response -> {
-                if (response.isSuccess()) {
-                    log.info("Email de cancelación enviado al doctor: {}", doctorEmail);
-                } else {
-                    log.warn("Falló email de cancelación al doctor {}: {}", doctorEmail, response.getMessage());
-                }
-            });
-            
-            log.info("Emails de cancelación encolados para paciente {} y doctor {}", 
-                    patientEmail, doctorEmail);
-            
-        } catch (Exception e) {
-            log.warn("Error encolando emails de cancelación: {}", e.getMessage());
+        if (turnFileService.fileExistsForTurn(turnId)) {
+            outboxService.enqueue(OutboxEventType.TURN_FILE_DELETION, turnId, payload());
         }
 
-        UUID notificationUserId;
-        String cancelledBy;
-        if ("PATIENT".equals(userRole)) {
-            notificationUserId = turn.getDoctor().getId();
-            cancelledBy = "patient";
-        } else {
-            notificationUserId = turn.getPatient().getId();
-            cancelledBy = "doctor";
-        }
-        
-        String dateForNotification = DateTimeUtils.formatDate(saved.getScheduledAt());
-        String timeForNotification = DateTimeUtils.formatTime(saved.getScheduledAt());
-        
-        notificationService.createTurnCancellationNotification(
-            notificationUserId, 
-            turnId, 
-            cancelledBy,
-            turn.getDoctor().getName() + " " + turn.getDoctor().getSurname(),
-            turn.getPatient().getName() + " " + turn.getPatient().getSurname(),
-            dateForNotification,
-            timeForNotification
-        );
+        String date = DateTimeUtils.formatDate(saved.getScheduledAt());
+        String time = DateTimeUtils.formatTime(saved.getScheduledAt());
+        User doctor = turn.getDoctor();
+        User patient = turn.getPatient();
+
+        outboxService.enqueue(OutboxEventType.APPOINTMENT_CANCELLATION_EMAIL_PATIENT, turnId, payload(
+                "to", patient.getEmail(), "name", patient.getName(), "otherName", doctor.getName(), "date", date, "time", time));
+        outboxService.enqueue(OutboxEventType.APPOINTMENT_CANCELLATION_EMAIL_DOCTOR, turnId, payload(
+                "to", doctor.getEmail(), "name", doctor.getName(), "otherName", patient.getName(), "date", date, "time", time));
+
+        boolean cancelledByPatient = "PATIENT".equals(userRole);
+        outboxService.enqueue(OutboxEventType.TURN_CANCELLED_NOTIFICATION, turnId, payload(
+                "userId", cancelledByPatient ? doctor.getId() : patient.getId(),
+                "cancelledBy", cancelledByPatient ? "patient" : "doctor",
+                "doctorName", doctor.getName() + " " + doctor.getSurname(),
+                "patientName", patient.getName() + " " + patient.getSurname(),
+                "date", date,
+                "time", time));
 
         boolean hasPendingRequest = turnModifyRequestRepository.findByTurnAssigned_IdAndStatus(turnId, "PENDING").isPresent();
         if (hasPendingRequest) {
@@ -337,27 +326,16 @@ public class TurnAssignedService {
         turn.setStatus("COMPLETED");
         TurnAssigned saved = turnRepo.save(turn);
 
-        // Check if this is a health certificate turn and process external API call
         if ("HEALTH CERTIFICATE".equalsIgnoreCase(turn.getMotive()) && turn.getPatient() != null) {
-            try {
-                String patientEmail = turn.getPatient().getEmail();
-                log.info("Processing health certificate completion for patient: {}", patientEmail);
-                medicalCheckApiService.processMedicalCheckCompletion(patientEmail);
-            } catch (Exception e) {
-                log.error("Error processing medical check API call for turn: {}", turnId, e);
-                // Don't fail the turn completion if external API fails
-            }
+            outboxService.enqueue(OutboxEventType.MEDICAL_CHECK_COMPLETION, turnId,
+                    payload("email", turn.getPatient().getEmail()));
         }
 
         if (turn.getDoctor() != null && turn.getPatient() != null) {
-            badgeEvaluationTrigger.evaluateAfterTurnCompletion(
-                turn.getDoctor().getId(), 
-                turn.getPatient().getId()
-            );
-            badgeEvaluationTrigger.evaluateAfterTurnCompletion(
-                turn.getPatient().getId(),
-                turn.getDoctor().getId()
-            );
+            outboxService.enqueue(OutboxEventType.BADGE_TURN_COMPLETION, turnId,
+                    payload("userId", turn.getDoctor().getId(), "otherUserId", turn.getPatient().getId()));
+            outboxService.enqueue(OutboxEventType.BADGE_TURN_COMPLETION, turnId,
+                    payload("userId", turn.getPatient().getId(), "otherUserId", turn.getDoctor().getId()));
         }
 
         return mapper.toDTO(saved);
@@ -435,13 +413,15 @@ public class TurnAssignedService {
         }
 
         String normalizedSubcategory = null;
+        Set<String> labels = new LinkedHashSet<>();
+        Set<RatingSubcategory> doctorQualities = EnumSet.noneOf(RatingSubcategory.class);
+        Set<RatingSubcategoryPatient> patientQualities = EnumSet.noneOf(RatingSubcategoryPatient.class);
         if (subcategories != null && !subcategories.isEmpty()) {
             if (subcategories.size() > 3) {
                 throw new RuntimeException("You can select up to 3 subcategories");
             }
 
             String role = rater.getRole() == null ? "" : rater.getRole().trim();
-            java.util.List<String> normalized = new java.util.ArrayList<>();
 
             for (String s : subcategories) {
                 if (s == null || s.trim().isEmpty()) continue;
@@ -453,7 +433,8 @@ public class TurnAssignedService {
                         log.warn("Invalid subcategory '{}' for rater role '{}'. Patient allowed: {}. Doctor allowed: {}", s, role, patientAllowed, doctorAllowed);
                         throw new RuntimeException("Invalid subcategory. Allowed for patients: " + patientAllowed + "; Allowed for doctors: " + doctorAllowed);
                     }
-                    normalized.add(cat.getLabel());
+                    doctorQualities.add(cat);
+                    labels.add(cat.getLabel());
                 } else if ("DOCTOR".equalsIgnoreCase(role)) {
                     com.medibook.api.dto.Rating.RatingSubcategoryPatient cat = com.medibook.api.dto.Rating.RatingSubcategoryPatient.fromString(s);
                     if (cat == null) {
@@ -461,7 +442,8 @@ public class TurnAssignedService {
                         log.warn("Invalid subcategory '{}' for rater role '{}'. Doctor allowed: {}", s, role, doctorAllowed);
                         throw new RuntimeException("Invalid subcategory. Allowed for doctors: " + doctorAllowed);
                     }
-                    normalized.add(cat.getLabel());
+                    patientQualities.add(cat);
+                    labels.add(cat.getLabel());
                 } else {
                     com.medibook.api.dto.Rating.RatingSubcategory cat = com.medibook.api.dto.Rating.RatingSubcategory.fromString(s);
                     if (cat == null) {
@@ -469,15 +451,12 @@ public class TurnAssignedService {
                         String doctorAllowed = com.medibook.api.dto.Rating.RatingSubcategoryPatient.allowedValues();
                         throw new RuntimeException("Invalid subcategory. Allowed for patients: " + patientAllowed + "; Allowed for doctors: " + doctorAllowed);
                     }
-                    normalized.add(cat.getLabel());
+                    doctorQualities.add(cat);
+                    labels.add(cat.getLabel());
                 }
             }
 
-     
-            java.util.List<String> unique = new java.util.ArrayList<>();
-            for (String v : normalized) if (!unique.contains(v)) unique.add(v);
-
-            normalizedSubcategory = String.join(", ", unique);
+            normalizedSubcategory = String.join(", ", labels);
         }
 
         Rating rating = Rating.builder()
@@ -486,60 +465,57 @@ public class TurnAssignedService {
                 .rated(ratedUser)
                 .score(score)
                 .subcategory(normalizedSubcategory)
+                .subcategories(labels)
                 .createdAt(OffsetDateTime.now())
                 .build();
 
         Rating saved = ratingRepo.save(rating);
 
-        
-        try {
-            Double avg = ratingRepo.findAverageScoreByRatedId(ratedUser.getId());
-           
-            ratedUser.setScore(avg == null ? null : Math.round(avg * 100.0) / 100.0);
-            userRepo.save(ratedUser);
-        } catch (Exception e) {
-            log.warn("Failed to update average score for user {}: {}", ratedUser.getId(), e.getMessage());
-        }
+        userRepo.recordRating(ratedUser.getId(), score);
+        ratingSummaryService.recordRating(ratedUser.getId(), score, rater.getRole(), labels);
+        ratingBucketService.recordRating(ratedUser.getId(), score, rater.getRole(), labels);
+        userRepo.findRatingTotals(ratedUser.getId()).ifPresent(totals -> {
+            ratedUser.setRatingSum(totals.ratingSum());
+            ratedUser.setRatingCount(totals.ratingCount());
+            ratedUser.setScore(totals.score());
+        });
 
+        RatingSample sample = new RatingSample(score, doctorQualities, patientQualities, rater.getRole());
         if ("DOCTOR".equals(ratedUser.getRole())) {
-            Integer communicationScore = extractCommunicationScore(score, normalizedSubcategory);
-            Integer empathyScore = extractEmpathyScore(score, normalizedSubcategory);
-            Integer punctualityScore = extractPunctualityScore(score, normalizedSubcategory);
+            doctorLeaderboardService.refresh(ratedUser.getId());
+
+            Integer communicationScore = extractCommunicationScore(score, doctorQualities);
+            Integer empathyScore = extractEmpathyScore(score, doctorQualities);
+            Integer punctualityScore = extractPunctualityScore(score, doctorQualities);
             
-            badgeEvaluationTrigger.evaluateAfterRating(ratedUser.getId(), communicationScore, empathyScore, punctualityScore);
+            badgeEvaluationTrigger.evaluateAfterRating(ratedUser.getId(), sample, communicationScore, empathyScore, punctualityScore);
         } else if ("PATIENT".equals(ratedUser.getRole())) {
-            badgeEvaluationTrigger.evaluateAfterRatingReceived(ratedUser.getId());
+            badgeEvaluationTrigger.evaluateAfterRatingReceived(ratedUser.getId(), sample);
         }
 
         if ("PATIENT".equals(rater.getRole())) {
-            badgeEvaluationTrigger.evaluateAfterRatingGiven(rater.getId());
+            badgeEvaluationTrigger.evaluateAfterRatingGiven(rater.getId(), score);
         }
 
         return saved;
     }
     
-    private Integer extractCommunicationScore(Integer score, String subcategories) {
-        if (subcategories == null || score == null) return null;
-        // Labels exactas de RatingSubcategory relacionadas con comunicación
-        if (subcategories.contains("Explica claramente") || subcategories.contains("Escucha al paciente")) {
+    private Integer extractCommunicationScore(Integer score, Set<RatingSubcategory> qualities) {
+        if (qualities.contains(RatingSubcategory.EXPLICA_CLARAMENTE) || qualities.contains(RatingSubcategory.ESCUCHA_AL_PACIENTE)) {
             return score;
         }
         return null;
     }
     
-    private Integer extractEmpathyScore(Integer score, String subcategories) {
-        if (subcategories == null || score == null) return null;
-        // Labels exactas de RatingSubcategory relacionadas con empatía
-        if (subcategories.contains("Demuestra empatía") || subcategories.contains("Genera confianza") || subcategories.contains("Excelente atención")) {
+    private Integer extractEmpathyScore(Integer score, Set<RatingSubcategory> qualities) {
+        if (qualities.contains(RatingSubcategory.DEMUESTRA_EMPATIA) || qualities.contains(RatingSubcategory.GENERA_CONFIANZA) || qualities.contains(RatingSubcategory.EXCELENTE_ATENCION)) {
             return score;
         }
         return null;
     }
     
-    private Integer extractPunctualityScore(Integer score, String subcategories) {
-        if (subcategories == null || score == null) return null;
-        // Labels exactas de RatingSubcategory relacionadas con puntualidad
-        if (subcategories.contains("Respeta horarios") || subcategories.contains("Tiempo de espera aceptable")) {
+    private Integer extractPunctualityScore(Integer score, Set<RatingSubcategory> qualities) {
+        if (qualities.contains(RatingSubcategory.RESPETA_HORARIOS) || qualities.contains(RatingSubcategory.TIEMPO_DE_ESPERA_ACEPTABLE)) {
             return score;
         }
         return null;
@@ -4,6 +4,8 @@ import com.medibook.api.entity.TurnFile;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,6 +16,8 @@ public interface TurnFileService {
     Mono<Void> deleteTurnFile(UUID turnId);
     
     Optional<TurnFile> getTurnFileInfo(UUID turnId);
+
+    List<TurnFile> getTurnFileInfos(Collection<UUID> turnIds);
     
     boolean fileExistsForTurn(UUID turnId);
 }
@@ -1,5 +1,6 @@
 package com.medibook.api.service;
 
+import com.medibook.api.entity.OutboxEventType;
 import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.TurnFile;
 import com.medibook.api.repository.TurnAssignedRepository;
@@ -8,12 +9,17 @@ import com.medibook.api.util.DateTimeUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
+import static com.medibook.api.service.OutboxService.payload;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -22,8 +28,8 @@ public class TurnFileServiceImpl implements TurnFileService {
     private final TurnFileRepository turnFileRepository;
     private final SupabaseStorageService supabaseStorageService;
     private final TurnAssignedRepository turnAssignedRepository;
-    private final NotificationService notificationService;
-    private final BadgeEvaluationTriggerService badgeEvaluationTrigger;
+    private final OutboxService outboxService;
+    private final TransactionTemplate transactionTemplate;
     
     private static final String BUCKET_NAME = "archivosTurnos";
 
@@ -47,42 +53,33 @@ public class TurnFileServiceImpl implements TurnFileService {
                             .fileName(customFileName)
                             .build();
                     
-                    turnFileRepository.save(turnFile);
+                    transactionTemplate.executeWithoutResult(status -> {
+                        turnFileRepository.save(turnFile);
+                        enqueueFileUploadedEvents(turnId, file.getOriginalFilename());
+                    });
                     log.info("File upload completed successfully for turnId: {}", turnId);
                     
-                    try {
-                        Optional<TurnAssigned> turnOpt = turnAssignedRepository.findById(turnId);
-                        if (turnOpt.isPresent()) {
-                            TurnAssigned turn = turnOpt.get();
-                            if (turn.getDoctor() != null && turn.getPatient() != null) {
-                                String appointmentDate = DateTimeUtils.formatDate(turn.getScheduledAt());
-                                String appointmentTime = DateTimeUtils.formatTime(turn.getScheduledAt());
-                                String patientName = turn.getPatient().getName() + " " + turn.getPatient().getSurname();
-                                
-                                notificationService.createPatientFileUploadedNotification(
-                                    turn.getDoctor().getId(),
-                                    turnId,
-                                    patientName,
-                                    appointmentDate,
-                                    appointmentTime,
-                                    file.getOriginalFilename()
-                                );
-                                
-                                log.info("Notification created for doctor {} about file upload by patient {}", 
-                                        turn.getDoctor().getId(), turn.getPatient().getId());
-
-                                badgeEvaluationTrigger.evaluateAfterFileUploaded(turn.getPatient().getId());
-                            }
-                        }
-                    } catch (Exception e) {
-                        log.error("Error creating notification for file upload: {}", e.getMessage());
-                    }
-                    
                     return "{\"url\":\"" + publicUrl + "\", \"fileName\":\"" + customFileName + "\"}";
                 })
                 .doOnError(error -> log.error("Error uploading turn file for turnId {}: {}", turnId, error.getMessage()));
     }
 
+    private void enqueueFileUploadedEvents(UUID turnId, String originalFileName) {
+        Optional<TurnAssigned> turnOpt = turnAssignedRepository.findById(turnId);
+        if (turnOpt.isEmpty() || turnOpt.get().getDoctor() == null || turnOpt.get().getPatient() == null) {
+            return;
+        }
+
+        TurnAssigned turn = turnOpt.get();
+        outboxService.enqueue(OutboxEventType.PATIENT_FILE_UPLOADED_NOTIFICATION, turnId, payload(
+                "userId", turn.getDoctor().getId(),
+                "patientName", turn.getPatient().getName() + " " + turn.getPatient().getSurname(),
+                "date", DateTimeUtils.formatDate(turn.getScheduledAt()),
+                "time", DateTimeUtils.formatTime(turn.getScheduledAt()),
+                "fileName", originalFileName));
+        outboxService.enqueue(OutboxEventType.BADGE_FILE_UPLOADED, turnId, payload("userId", turn.getPatient().getId()));
+    }
+
     @Override
     public Mono<Void> deleteTurnFile(UUID turnId) {
         log.info("Starting delete process for turnId: {}", turnId);
@@ -124,6 +121,11 @@ public class TurnFileServiceImpl implements TurnFileService {
         return turnFileRepository.findByTurnId(turnId);
     }
 
+    @Override
+    public List<TurnFile> getTurnFileInfos(Collection<UUID> turnIds) {
+        return turnFileRepository.findByTurnIdIn(turnIds);
+    }
+
     @Override
     public boolean fileExistsForTurn(UUID turnId) {
         return turnFileRepository.existsByTurnId(turnId);
@@ -2,6 +2,7 @@ package com.medibook.api.service;
 
 import com.medibook.api.dto.Turn.TurnModifyRequestDTO;
 import com.medibook.api.dto.Turn.TurnModifyRequestResponseDTO;
+import com.medibook.api.entity.OutboxEventType;
 import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.TurnModifyRequest;
 import com.medibook.api.entity.User;
@@ -22,6 +23,8 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import static com.medibook.api.service.OutboxService.payload;
+
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -32,7 +35,7 @@ public class TurnModifyRequestService {
     private final TurnAssignedRepository turnAssignedRepository;
     private final TurnModifyRequestMapper mapper;
     private final NotificationService notificationService;
-    private final EmailService emailService;
+    private final OutboxService outboxService;
     private final BadgeEvaluationTriggerService badgeEvaluationTrigger;
     
     @Transactional
@@ -124,64 +127,24 @@ public class TurnModifyRequestService {
         request.setStatus("APPROVED");
         TurnModifyRequest savedRequest = turnModifyRequestRepository.save(request);
 
-        try {
-            
-            final String patientEmail = request.getPatient().getEmail();
-            final String patientName = request.getPatient().getName();
-            final String doctorEmail = request.getDoctor().getEmail();
-            final String doctorName = request.getDoctor().getName();
-            
-            
-            emailService.sendAppointmentModificationApprovedToPatientAsync(
-                patientEmail,
-                patientName,
-                doctorName,
-                oldDate,
-                oldTime,
-                newDate,
-                newTime
-            ).thenAccept(response -> {
-                if (response.isSuccess()) {
-                    log.info("Email de modificación aprobada enviado al paciente: {}", patientEmail);
-                } else {
-                    log.warn("Falló email de modificación al paciente {}: {}", patientEmail, response.getMessage());
-                }
-            });
-            
-            emailService.sendAppointmentModificationApprovedToDoctorAsync(
-                doctorEmail,
-                doctorName,
-                patientName,
-                oldDate,
-                oldTime,
-                newDate,
-                newTime
-            ).thenAccept(response -> {
-                if (response.isSuccess()) {
-                    log.info("Email de modificación aprobada enviado al doctor: {}", doctorEmail);
-                } else {
-                    log.warn("Falló email de modificación al doctor {}: {}", doctorEmail, response.getMessage());
-                }
-            });
-            
-            log.info("Emails de modificación aprobada encolados para paciente {} y doctor {}", 
-                    patientEmail, doctorEmail);
-            
-        } catch (Exception e) {
-            log.warn("Error encolando emails de modificación aprobada: {}", e.getMessage());
-        }
-
-        notificationService.createModifyRequestApprovedNotification(
-                request.getPatient().getId(), 
-                requestId,
-                request.getDoctor().getName() + " " + request.getDoctor().getSurname(),
-                oldDate,
-                oldTime,
-                newDate,
-                newTime
-        );
-
-        badgeEvaluationTrigger.evaluateAfterModifyRequestHandled(doctor.getId());
+        User patient = request.getPatient();
+        User requestDoctor = request.getDoctor();
+
+        outboxService.enqueue(OutboxEventType.MODIFICATION_APPROVED_EMAIL_PATIENT, turn.getId(), payload(
+                "to", patient.getEmail(), "name", patient.getName(), "otherName", requestDoctor.getName(),
+                "oldDate", oldDate, "oldTime", oldTime, "newDate", newDate, "newTime", newTime));
+        outboxService.enqueue(OutboxEventType.MODIFICATION_APPROVED_EMAIL_DOCTOR, turn.getId(), payload(
+                "to", requestDoctor.getEmail(), "name", requestDoctor.getName(), "otherName", patient.getName(),
+                "oldDate", oldDate, "oldTime", oldTime, "newDate", newDate, "newTime", newTime));
+        outboxService.enqueue(OutboxEventType.MODIFY_REQUEST_APPROVED_NOTIFICATION, turn.getId(), payload(
+                "userId", patient.getId(),
+                "requestId", requestId,
+                "doctorName", requestDoctor.getName() + " " + requestDoctor.getSurname(),
+                "oldDate", oldDate,
+                "oldTime", oldTime,
+                "newDate", newDate,
+                "newTime", newTime));
+        outboxService.enqueue(OutboxEventType.BADGE_MODIFY_REQUEST_HANDLED, turn.getId(), payload("userId", doctor.getId()));
 
         return mapper.toResponseDTO(savedRequest);
     }
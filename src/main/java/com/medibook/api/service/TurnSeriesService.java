@@ -0,0 +1,193 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Turn.TurnRecurrenceDTO;
+import com.medibook.api.dto.Turn.TurnResponseDTO;
+import com.medibook.api.dto.Turn.TurnSeriesRequestDTO;
+import com.medibook.api.entity.FamilyMember;
+import com.medibook.api.entity.OutboxEventType;
+import com.medibook.api.entity.TurnAssigned;
+import com.medibook.api.entity.User;
+import com.medibook.api.exception.SlotAlreadyTakenException;
+import com.medibook.api.mapper.TurnAssignedMapper;
+import com.medibook.api.model.SlotOccupancy;
+import com.medibook.api.repository.FamilyMemberRepository;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.UserRepository;
+import com.medibook.api.util.DateTimeUtils;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.medibook.api.service.OutboxService.payload;
+import static com.medibook.api.util.DateTimeUtils.ARGENTINA_ZONE;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TurnSeriesService {
+
+    static final int MAX_SERIES_SIZE = 52;
+
+    private final TurnAssignedRepository turnRepo;
+    private final UserRepository userRepo;
+    private final FamilyMemberRepository familyMemberRepository;
+    private final TurnAssignedMapper mapper;
+    private final DoctorAvailabilityService doctorAvailabilityService;
+    private final SlotOccupancyService slotOccupancyService;
+    private final OutboxService outboxService;
+
+    @Transactional
+    public List<TurnResponseDTO> createTurnSeries(TurnSeriesRequestDTO dto) {
+        List<OffsetDateTime> times = resolveTimes(dto);
+
+        User doctor = userRepo.findById(dto.getDoctorId())
+                .orElseThrow(() -> new RuntimeException("Doctor not found"));
+
+        if (!"DOCTOR".equals(doctor.getRole())) {
+            throw new RuntimeException("User is not a doctor");
+        }
+
+        if (!"ACTIVE".equals(doctor.getStatus())) {
+            throw new RuntimeException("Doctor is not active");
+        }
+
+        User patient = userRepo.findById(dto.getPatientId())
+                .orElseThrow(() -> new RuntimeException("Patient not found"));
+
+        if (!"PATIENT".equals(patient.getRole())) {
+            throw new RuntimeException("User is not a patient");
+        }
+
+        if (!"ACTIVE".equals(patient.getStatus())) {
+            throw new RuntimeException("Patient is not active");
+        }
+
+        FamilyMember familyMember = null;
+        if (dto.getFamilyMemberId() != null) {
+            familyMember = familyMemberRepository.findById(dto.getFamilyMemberId())
+                .orElseThrow(() -> new EntityNotFoundException("Familiar no encontrado con ID: " + dto.getFamilyMemberId()));
+
+            if (!familyMember.getHolder().getId().equals(dto.getPatientId())) {
+                throw new IllegalArgumentException("El familiar indicado no pertenece al paciente");
+            }
+        }
+
+        for (OffsetDateTime scheduledAt : times) {
+            doctorAvailabilityService.validateSlotWithinSchedule(doctor, scheduledAt);
+        }
+
+        SlotOccupancy occupancy = slotOccupancyService.loadOccupancy(
+                dto.getDoctorId(),
+                times.get(0).atZoneSameInstant(ARGENTINA_ZONE).toLocalDate(),
+                times.get(times.size() - 1).atZoneSameInstant(ARGENTINA_ZONE).toLocalDate());
+
+        List<OffsetDateTime> taken = times.stream().filter(occupancy::isTaken).toList();
+        if (!taken.isEmpty()) {
+            throw new SlotAlreadyTakenException("Time slots already taken: " + taken.stream()
+                    .map(t -> DateTimeUtils.formatDate(t) + " " + DateTimeUtils.formatTime(t))
+                    .collect(Collectors.joining(", ")));
+        }
+
+        List<TurnAssigned> turns = new ArrayList<>(times.size());
+        for (OffsetDateTime scheduledAt : times) {
+            turns.add(TurnAssigned.builder()
+                    .doctor(doctor)
+                    .patient(patient)
+                    .familyMember(familyMember)
+                    .scheduledAt(scheduledAt)
+                    .motive(dto.getMotive())
+                    .status("SCHEDULED")
+                    .build());
+        }
+
+        List<TurnAssigned> saved;
+        try {
+            saved = turnRepo.saveAllAndFlush(turns);
+        } catch (DataIntegrityViolationException e) {
+            if (TurnAssignedService.isSlotUniqueViolation(e)) {
+                throw new SlotAlreadyTakenException("One of the time slots was taken while booking the series", e);
+            }
+            throw e;
+        }
+
+        if (Duration.between(OffsetDateTime.now(ARGENTINA_ZONE), times.get(0)).toDays() >= 1) {
+            outboxService.enqueue(OutboxEventType.BADGE_ADVANCE_BOOKING, saved.get(0).getId(),
+                    payload("userId", dto.getPatientId()));
+        }
+
+        notifySeries(doctor, patient, saved);
+
+        return mapper.toDTOs(saved);
+    }
+
+    List<OffsetDateTime> resolveTimes(TurnSeriesRequestDTO dto) {
+        boolean hasList = dto.getScheduledAt() != null && !dto.getScheduledAt().isEmpty();
+        if (hasList == (dto.getRecurrence() != null)) {
+            throw new IllegalArgumentException("Provide either a list of scheduled times or a recurrence rule");
+        }
+
+        List<OffsetDateTime> times = hasList ? new ArrayList<>(dto.getScheduledAt()) : expand(dto.getRecurrence());
+        if (times.size() > MAX_SERIES_SIZE) {
+            throw new IllegalArgumentException("A series cannot exceed " + MAX_SERIES_SIZE + " turns");
+        }
+
+        times.sort(null);
+        OffsetDateTime now = OffsetDateTime.now(ARGENTINA_ZONE);
+        Set<Instant> seen = new HashSet<>();
+        for (OffsetDateTime scheduledAt : times) {
+            if (scheduledAt.isBefore(now)) {
+                throw new IllegalArgumentException("Cannot schedule turns in the past");
+            }
+            if (!seen.add(scheduledAt.toInstant())) {
+                throw new IllegalArgumentException("Duplicated scheduled time in series: " + scheduledAt);
+            }
+        }
+        return times;
+    }
+
+    private List<OffsetDateTime> expand(TurnRecurrenceDTO recurrence) {
+        ChronoUnit unit = switch (recurrence.getFrequency()) {
+            case "DAILY" -> ChronoUnit.DAYS;
+            case "WEEKLY" -> ChronoUnit.WEEKS;
+            case "MONTHLY" -> ChronoUnit.MONTHS;
+            default -> throw new IllegalArgumentException("Unsupported frequency: " + recurrence.getFrequency());
+        };
+
+        ZonedDateTime first = recurrence.getFirstScheduledAt().atZoneSameInstant(ARGENTINA_ZONE);
+        List<OffsetDateTime> times = new ArrayList<>(recurrence.getOccurrences());
+        for (int i = 0; i < recurrence.getOccurrences(); i++) {
+            times.add(first.plus((long) i * recurrence.getInterval(), unit).toOffsetDateTime());
+        }
+        return times;
+    }
+
+    private void notifySeries(User doctor, User patient, List<TurnAssigned> saved) {
+        TurnAssigned first = saved.get(0);
+        List<String> appointments = saved.stream()
+                .map(turn -> DateTimeUtils.formatDate(turn.getScheduledAt()) + " " + DateTimeUtils.formatTime(turn.getScheduledAt()))
+                .toList();
+
+        outboxService.enqueue(OutboxEventType.APPOINTMENT_SERIES_EMAIL_PATIENT, first.getId(), payload(
+                "to", patient.getEmail(), "name", patient.getName(), "otherName", doctor.getName(), "appointments", appointments));
+        outboxService.enqueue(OutboxEventType.TURN_SERIES_RESERVED_NOTIFICATION, first.getId(), payload(
+                "userId", doctor.getId(),
+                "patientName", patient.getName() + " " + patient.getSurname(),
+                "turnCount", saved.size(),
+                "date", DateTimeUtils.formatDate(first.getScheduledAt()),
+                "time", DateTimeUtils.formatTime(first.getScheduledAt())));
+    }
+}
@@ -0,0 +1,117 @@
+package com.medibook.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.entity.User;
+import com.medibook.api.model.ExportFormat;
+import com.medibook.api.repository.UserRepository;
+import com.medibook.api.service.AdminExportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(properties = "admin.export.timeout-ms=120000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Transactional
+class AdminExportControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoBean
+    private AdminExportService adminExportService;
+
+    private String adminToken;
+    private String patientToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        adminToken = signIn(createUser("admin@example.com", 11223344L, "ADMIN"));
+        patientToken = signIn(createUser("patient@example.com", 12345678L, "PATIENT"));
+    }
+
+    @Test
+    void exportUsers_StreamsOnExportPoolWithExportTimeout() throws Exception {
+        when(adminExportService.writeUsers(isNull(), isNull(), eq(ExportFormat.CSV), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(3);
+            out.write(Thread.currentThread().getName().getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/admin/export/users")
+                .header("Authorization", "Bearer " + adminToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(120000, result.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string(startsWith("Export-")));
+    }
+
+    @Test
+    void exportUsers_NotAdmin_ReturnsForbidden() throws Exception {
+        mockMvc.perform(get("/api/admin/export/users")
+                .header("Authorization", "Bearer " + patientToken))
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.error").value("ACCESS_DENIED"));
+    }
+
+    private User createUser(String email, long dni, String role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setDni(dni);
+        user.setPasswordHash(passwordEncoder.encode("password123"));
+        user.setName("Ada");
+        user.setSurname("Lovelace");
+        user.setPhone("1122334455");
+        user.setBirthdate(LocalDate.of(1980, 1, 1));
+        user.setGender("FEMALE");
+        user.setRole(role);
+        user.setStatus("ACTIVE");
+        user.setEmailVerified(true);
+        return userRepository.save(user);
+    }
+
+    private String signIn(User user) throws Exception {
+        String response = mockMvc.perform(post("/api/auth/signin")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"" + user.getEmail() + "\",\"password\":\"password123\"}"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(response).get("accessToken").asText();
+    }
+}
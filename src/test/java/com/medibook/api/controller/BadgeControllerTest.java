@@ -1,5 +1,8 @@
 package com.medibook.api.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.medibook.api.dto.Badge.BadgeProgressSummaryDTO;
 import com.medibook.api.dto.Badge.BadgesResponseDTO;
 import com.medibook.api.dto.Badge.BadgeDTO;
@@ -12,6 +15,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 
@@ -37,6 +41,8 @@ class BadgeControllerTest {
     @InjectMocks
     private BadgeController badgeController;
 
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
     private UUID userId;
     private User user;
     private BadgesResponseDTO badgesResponse;
@@ -88,66 +94,62 @@ class BadgeControllerTest {
     }
 
     @Test
-    void getUserBadges_ReturnsBadgesResponse() {
-        when(badgeService.getUserBadges(userId)).thenReturn(badgesResponse);
+    void getUserBadges_ReturnsSerializedBadges() throws Exception {
+        when(badgeService.getUserBadgesJson(userId)).thenReturn(objectMapper.writeValueAsBytes(badgesResponse));
 
-        ResponseEntity<BadgesResponseDTO> response = badgeController.getUserBadges(userId);
+        ResponseEntity<byte[]> response = badgeController.getUserBadges(userId);
 
         assertEquals(200, response.getStatusCode().value());
-        BadgesResponseDTO body = response.getBody();
-        assertNotNull(body);
-        assertEquals(userId, body.getUserId());
-        assertEquals("Test User", body.getUserName());
-        assertEquals(2, body.getTotalActiveBadges());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertEquals(userId.toString(), body.path("userId").asText());
+        assertEquals("Test User", body.path("userName").asText());
+        assertEquals(2, body.path("totalActiveBadges").asInt());
 
-        verify(badgeService).getUserBadges(userId);
+        verify(badgeService).getUserBadgesJson(userId);
     }
 
     @Test
-    void getMyBadges_ReturnsBadgesResponse() {
+    void getMyBadges_ReturnsSerializedBadges() throws Exception {
         when(authentication.getPrincipal()).thenReturn(user);
-        when(badgeService.getUserBadges(userId)).thenReturn(badgesResponse);
+        when(badgeService.getUserBadgesJson(userId)).thenReturn(objectMapper.writeValueAsBytes(badgesResponse));
 
-        ResponseEntity<BadgesResponseDTO> response = badgeController.getMyBadges(authentication);
+        ResponseEntity<byte[]> response = badgeController.getMyBadges(authentication);
 
         assertEquals(200, response.getStatusCode().value());
-        BadgesResponseDTO body2 = response.getBody();
-        assertNotNull(body2);
-        assertEquals(userId, body2.getUserId());
+        assertEquals(userId.toString(), objectMapper.readTree(response.getBody()).path("userId").asText());
 
         verify(authentication).getPrincipal();
-        verify(badgeService).getUserBadges(userId);
+        verify(badgeService).getUserBadgesJson(userId);
     }
 
     @Test
-    void getUserBadgeProgress_ReturnsProgressList() {
-        when(badgeService.getUserBadgeProgress(userId)).thenReturn(progressList);
+    void getUserBadgeProgress_ReturnsSerializedProgress() throws Exception {
+        when(badgeService.getUserBadgeProgressJson(userId)).thenReturn(objectMapper.writeValueAsBytes(progressList));
 
-        ResponseEntity<List<BadgeProgressSummaryDTO>> response = badgeController.getUserBadgeProgress(userId);
+        ResponseEntity<byte[]> response = badgeController.getUserBadgeProgress(userId);
 
         assertEquals(200, response.getStatusCode().value());
-        List<BadgeProgressSummaryDTO> bodyList = response.getBody();
-        assertNotNull(bodyList);
-        assertFalse(bodyList.isEmpty());
-        assertEquals("PATIENT_MEDIBOOK_WELCOME", bodyList.get(0).getBadgeType());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        JsonNode body = objectMapper.readTree(response.getBody());
+        assertTrue(body.isArray());
+        assertEquals("PATIENT_MEDIBOOK_WELCOME", body.get(0).path("badgeType").asText());
 
-        verify(badgeService).getUserBadgeProgress(userId);
+        verify(badgeService).getUserBadgeProgressJson(userId);
     }
 
     @Test
-    void getMyBadgeProgress_ReturnsProgressList() {
+    void getMyBadgeProgress_ReturnsSerializedProgress() throws Exception {
         when(authentication.getPrincipal()).thenReturn(user);
-        when(badgeService.getUserBadgeProgress(userId)).thenReturn(progressList);
+        when(badgeService.getUserBadgeProgressJson(userId)).thenReturn(objectMapper.writeValueAsBytes(progressList));
 
-        ResponseEntity<List<BadgeProgressSummaryDTO>> response = badgeController.getMyBadgeProgress(authentication);
+        ResponseEntity<byte[]> response = badgeController.getMyBadgeProgress(authentication);
 
         assertEquals(200, response.getStatusCode().value());
-        List<BadgeProgressSummaryDTO> bodyList2 = response.getBody();
-        assertNotNull(bodyList2);
-        assertFalse(bodyList2.isEmpty());
+        assertFalse(objectMapper.readTree(response.getBody()).isEmpty());
 
         verify(authentication).getPrincipal();
-        verify(badgeService).getUserBadgeProgress(userId);
+        verify(badgeService).getUserBadgeProgressJson(userId);
     }
 
     @Test
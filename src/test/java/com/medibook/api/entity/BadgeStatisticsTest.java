@@ -0,0 +1,72 @@
+package com.medibook.api.entity;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BadgeStatisticsTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void whenBuiltFromDocument_thenCountersGoToColumns() throws Exception {
+        BadgeStatistics stats = BadgeStatistics.builder()
+                .userId(UUID.randomUUID())
+                .statistics(objectMapper.readTree(
+                        "{\"total_turns_completed\": 12, \"total_avg_rating\": 4.5, \"turns_last_12_months\": 3}"))
+                .progress(objectMapper.createObjectNode())
+                .build();
+
+        assertEquals(12, stats.getTotalTurnsCompleted());
+        assertEquals(4.5, stats.getTotalAvgRating());
+        assertEquals(0, stats.getTotalCancellations());
+    }
+
+    @Test
+    void whenReadingStatistics_thenColumnsAndExtrasAreMerged() throws Exception {
+        BadgeStatistics stats = new BadgeStatistics();
+        stats.setStatistics(objectMapper.readTree("{\"turns_last_12_months\": 3}"));
+        stats.setTotalCommunicationCount(25);
+
+        JsonNode statistics = stats.getStatistics();
+
+        assertEquals(25, statistics.path("total_communication_count").asInt());
+        assertEquals(3, statistics.path("turns_last_12_months").asInt());
+        assertEquals(0, statistics.path("ratings_given").asInt());
+        assertTrue(statistics.path("ratings_given").isInt());
+        assertTrue(statistics.path("avg_rating_given").isDouble());
+    }
+
+    @Test
+    void whenStatisticsViewIsModified_thenEntityIsUnchangedUntilSet() {
+        BadgeStatistics stats = new BadgeStatistics();
+        stats.setStatistics(objectMapper.createObjectNode());
+
+        ObjectNode statistics = (ObjectNode) stats.getStatistics();
+        statistics.put("total_turns_completed", 7);
+        assertEquals(0, stats.getTotalTurnsCompleted());
+
+        stats.setStatistics(statistics);
+        assertEquals(7, stats.getTotalTurnsCompleted());
+    }
+
+    @Test
+    void whenSettingPartialDocument_thenOtherCountersAndKeysAreKept() throws Exception {
+        BadgeStatistics stats = new BadgeStatistics();
+        stats.setStatistics(objectMapper.readTree(
+                "{\"total_turns_completed\": 12, \"total_cancellations\": 2, \"turns_last_12_months\": 3}"));
+
+        stats.setStatistics(objectMapper.readTree("{\"total_cancellations\": 5, \"last_specialty\": \"Cardiología\"}"));
+
+        assertEquals(12, stats.getTotalTurnsCompleted());
+        assertEquals(5, stats.getTotalCancellations());
+        JsonNode statistics = stats.getStatistics();
+        assertEquals(3, statistics.path("turns_last_12_months").asInt());
+        assertEquals("Cardiología", statistics.path("last_specialty").asText());
+    }
+}
@@ -17,12 +17,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -483,4 +486,56 @@ class TurnAssignedMapperTest {
         assertNull(result.getFileName());
         assertNull(result.getUploadedAt());
     }
-}
\ No newline at end of file
+
+    @Test
+    void toDTOs_MatchesSingleTurnMappingWithOneQueryPerKind() {
+        TurnAssigned ratedByPatient = TurnAssigned.builder()
+                .id(UUID.randomUUID())
+                .doctor(doctorUser)
+                .patient(patientUser)
+                .scheduledAt(scheduledDateTime.minusDays(10))
+                .status("COMPLETED")
+                .build();
+        TurnAssigned unrated = TurnAssigned.builder()
+                .id(UUID.randomUUID())
+                .doctor(doctorUser)
+                .patient(patientUser)
+                .scheduledAt(scheduledDateTime.minusDays(5))
+                .status("COMPLETED")
+                .build();
+        TurnFile turnFile = TurnFile.builder()
+                .turnId(turnId)
+                .fileUrl("https://storage.example.com/batch.pdf")
+                .fileName("batch.pdf")
+                .uploadedAt(Instant.now())
+                .build();
+
+        when(ratingRepository.findRaterIdsByTurnIds(List.of(ratedByPatient.getId(), unrated.getId())))
+                .thenReturn(List.<Object[]>of(new Object[]{ratedByPatient.getId(), patientId}));
+        when(turnFileService.getTurnFileInfos(List.of(turnId, ratedByPatient.getId(), unrated.getId())))
+                .thenReturn(List.of(turnFile));
+
+        List<TurnResponseDTO> result = turnAssignedMapper.toDTOs(List.of(turnAssigned, ratedByPatient, unrated));
+
+        assertEquals(3, result.size());
+        assertEquals("batch.pdf", result.get(0).getFileName());
+        assertFalse(result.get(0).getNeedsPatientRating());
+        assertFalse(result.get(1).getNeedsPatientRating());
+        assertTrue(result.get(1).getNeedsDoctorRating());
+        assertTrue(result.get(2).getNeedsPatientRating());
+        assertTrue(result.get(2).getNeedsDoctorRating());
+        assertNull(result.get(2).getFileName());
+        verify(ratingRepository, never()).existsByTurnAssigned_IdAndRater_Id(any(), any());
+        verify(turnFileService, never()).getTurnFileInfo(any());
+    }
+
+    @Test
+    void toDTOs_NoCompletedTurns_SkipsRatingQuery() {
+        when(turnFileService.getTurnFileInfos(List.of(turnId))).thenReturn(List.of());
+
+        List<TurnResponseDTO> result = turnAssignedMapper.toDTOs(List.of(turnAssigned));
+
+        assertEquals(1, result.size());
+        verify(ratingRepository, never()).findRaterIdsByTurnIds(any());
+    }
+}
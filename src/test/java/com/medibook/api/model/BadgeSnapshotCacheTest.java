@@ -0,0 +1,98 @@
+package com.medibook.api.model;
+
+import com.medibook.api.model.BadgeSnapshotCache.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BadgeSnapshotCacheTest {
+
+    @Test
+    void get_SecondRequestIsAHit() {
+        BadgeSnapshotCache cache = new BadgeSnapshotCache(1024);
+        UUID userId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        byte[] first = cache.get(userId, Kind.BADGES, () -> snapshot(10, loads));
+        byte[] second = cache.get(userId, Kind.BADGES, () -> snapshot(10, loads));
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals(1, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void invalidate_DropsEveryKindOfTheUser() {
+        BadgeSnapshotCache cache = new BadgeSnapshotCache(1024);
+        UUID userId = UUID.randomUUID();
+        UUID otherId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(userId, Kind.BADGES, () -> snapshot(10, loads));
+        cache.get(userId, Kind.PROGRESS, () -> snapshot(10, loads));
+        cache.get(otherId, Kind.BADGES, () -> snapshot(10, loads));
+
+        cache.invalidate(userId);
+
+        assertEquals(1, cache.size());
+        assertEquals(10, cache.bytes());
+        cache.get(otherId, Kind.BADGES, () -> snapshot(10, loads));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_InvalidatedWhileLoading_IsNotStored() {
+        BadgeSnapshotCache cache = new BadgeSnapshotCache(1024);
+        UUID userId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        byte[] stale = cache.get(userId, Kind.PROGRESS, () -> {
+            cache.invalidate(userId);
+            return snapshot(10, loads);
+        });
+
+        assertEquals(10, stale.length);
+        assertEquals(0, cache.size());
+        cache.get(userId, Kind.PROGRESS, () -> snapshot(10, loads));
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    void get_OverByteLimit_EvictsLeastRecentlyUsed() {
+        BadgeSnapshotCache cache = new BadgeSnapshotCache(25);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(first, Kind.BADGES, () -> snapshot(10, loads));
+        cache.get(second, Kind.BADGES, () -> snapshot(10, loads));
+        cache.get(first, Kind.BADGES, () -> snapshot(10, loads));
+
+        cache.get(third, Kind.BADGES, () -> snapshot(10, loads));
+
+        assertEquals(2, cache.size());
+        assertEquals(20, cache.bytes());
+        assertEquals(1, cache.evictions());
+        cache.get(first, Kind.BADGES, () -> snapshot(10, loads));
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void get_SnapshotLargerThanLimit_IsServedButNotStored() {
+        BadgeSnapshotCache cache = new BadgeSnapshotCache(5);
+
+        byte[] loaded = cache.get(UUID.randomUUID(), Kind.BADGES, () -> snapshot(10, new AtomicInteger()));
+
+        assertEquals(10, loaded.length);
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+    }
+
+    private byte[] snapshot(int size, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return new byte[size];
+    }
+}
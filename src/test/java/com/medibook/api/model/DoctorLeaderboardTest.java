@@ -0,0 +1,141 @@
+package com.medibook.api.model;
+
+import com.medibook.api.model.DoctorLeaderboard.Entry;
+import com.medibook.api.model.DoctorLeaderboard.Page;
+import com.medibook.api.model.DoctorLeaderboard.Position;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DoctorLeaderboardTest {
+
+    private static final String CARDIOLOGY = "Cardiología";
+
+    private DoctorLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new DoctorLeaderboard();
+    }
+
+    @Test
+    void page_RanksByScoreThenRatingCountThenBadges() {
+        Entry top = entry(CARDIOLOGY, 4.8, 10, 1);
+        Entry moreRatings = entry(CARDIOLOGY, 4.5, 30, 0);
+        Entry moreBadges = entry(CARDIOLOGY, 4.5, 20, 5);
+        Entry fewerBadges = entry(CARDIOLOGY, 4.5, 20, 2);
+        Entry unrated = entry(CARDIOLOGY, null, 0, 9);
+        leaderboard.replaceAll(List.of(unrated, fewerBadges, top, moreBadges, moreRatings));
+
+        Page page = leaderboard.page(CARDIOLOGY, null, 10);
+
+        assertEquals(List.of(top, moreRatings, moreBadges, fewerBadges, unrated), page.entries());
+        assertNull(page.next());
+    }
+
+    @Test
+    void page_CursorWalksEveryDoctorOnce() {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 7; i++) {
+            entries.add(entry(CARDIOLOGY, 4.0, i % 3, 0));
+        }
+        leaderboard.replaceAll(entries);
+
+        List<Entry> seen = new ArrayList<>();
+        Position after = null;
+        do {
+            Page page = leaderboard.page(CARDIOLOGY, after, 3);
+            seen.addAll(page.entries());
+            after = page.next() == null ? null : Position.decode(page.next().encode());
+        } while (after != null);
+
+        assertEquals(7, seen.size());
+        assertEquals(leaderboard.page(CARDIOLOGY, null, 10).entries(), seen);
+    }
+
+    @Test
+    void update_MovesDoctorWithinRanking() {
+        Entry first = entry(CARDIOLOGY, 4.0, 5, 0);
+        Entry second = entry(CARDIOLOGY, 3.5, 5, 0);
+        leaderboard.replaceAll(List.of(first, second));
+
+        assertTrue(leaderboard.update(second.doctorId(), entry -> entry.withRating(4.2, 6)));
+
+        List<Entry> ranking = leaderboard.page(CARDIOLOGY, null, 10).entries();
+        assertEquals(2, ranking.size());
+        assertEquals(second.doctorId(), ranking.get(0).doctorId());
+        assertEquals(6, ranking.get(0).ratingCount());
+    }
+
+    @Test
+    void putLatest_MovesSpecialtyButKeepsNewerRating() {
+        Entry current = entry(CARDIOLOGY, 4.6, 12, 2);
+        leaderboard.replaceAll(List.of(current));
+
+        leaderboard.putLatest(new Entry(current.doctorId(), "Renamed", "Test", "Dermatología", 4.5, 11, 2));
+
+        assertTrue(leaderboard.page(CARDIOLOGY, null, 10).entries().isEmpty());
+        Entry moved = leaderboard.page("Dermatología", null, 10).entries().get(0);
+        assertEquals("Renamed", moved.name());
+        assertEquals(4.6, moved.score());
+        assertEquals(12, moved.ratingCount());
+    }
+
+    @Test
+    void putLatest_KeepsActiveBadgesOfExistingEntry() {
+        Entry current = entry(CARDIOLOGY, 4.0, 5, 1);
+        leaderboard.replaceAll(List.of(current));
+        leaderboard.update(current.doctorId(), entry -> entry.withActiveBadges(3));
+
+        leaderboard.putLatest(new Entry(current.doctorId(), "Test", "Doctor", CARDIOLOGY, 4.2, 6, 1));
+
+        Entry refreshed = leaderboard.get(current.doctorId()).orElseThrow();
+        assertEquals(3, refreshed.activeBadges());
+        assertEquals(6, refreshed.ratingCount());
+    }
+
+    @Test
+    void remove_DropsDoctorFromRanking() {
+        Entry removed = entry(CARDIOLOGY, 4.0, 1, 0);
+        leaderboard.replaceAll(List.of(removed));
+
+        leaderboard.remove(removed.doctorId());
+
+        assertTrue(leaderboard.page(CARDIOLOGY, null, 10).entries().isEmpty());
+        assertTrue(leaderboard.get(removed.doctorId()).isEmpty());
+    }
+
+    @Test
+    void update_UnknownDoctorIsIgnored() {
+        assertFalse(leaderboard.update(UUID.randomUUID(), entry -> entry.withActiveBadges(3)));
+        assertTrue(leaderboard.page(CARDIOLOGY, null, 10).entries().isEmpty());
+    }
+
+    @Test
+    void replaceAll_DropsDoctorsNoLongerListedAndSeparatesSpecialties() {
+        Entry stale = entry(CARDIOLOGY, 5.0, 1, 0);
+        leaderboard.replaceAll(List.of(stale));
+
+        Entry cardiologist = entry(CARDIOLOGY, 4.0, 1, 0);
+        Entry dermatologist = entry("Dermatología", 4.5, 1, 0);
+        leaderboard.replaceAll(List.of(cardiologist, dermatologist));
+
+        assertEquals(List.of(cardiologist), leaderboard.page(CARDIOLOGY, null, 10).entries());
+        assertEquals(List.of(dermatologist), leaderboard.page("Dermatología", null, 10).entries());
+        assertTrue(leaderboard.get(stale.doctorId()).isEmpty());
+    }
+
+    @Test
+    void decode_RejectsMalformedCursor() {
+        assertThrows(IllegalArgumentException.class, () -> Position.decode("not-a-cursor"));
+    }
+
+    private Entry entry(String specialty, Double score, long ratingCount, long activeBadges) {
+        return new Entry(UUID.randomUUID(), "Doctor", "Test", specialty, score, ratingCount, activeBadges);
+    }
+}
@@ -0,0 +1,54 @@
+package com.medibook.api.model;
+
+import com.medibook.api.dto.Rating.RatingSubcategory;
+import com.medibook.api.dto.Rating.RatingSubcategoryPatient;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingSampleTest {
+
+    @Test
+    void mentions_MapsEachSubcategoryToItsQuality() {
+        RatingSample sample = new RatingSample(5,
+                Set.of(RatingSubcategory.EXPLICA_CLARAMENTE, RatingSubcategory.GENERA_CONFIANZA, RatingSubcategory.CONSULTORIO_LIMPIO),
+                Set.of(), "PATIENT");
+
+        assertEquals(EnumSet.of(RatingMention.COMMUNICATION, RatingMention.EMPATHY), sample.mentions());
+    }
+
+    @Test
+    void mentions_NegativeSubcategoriesDoNotCount() {
+        RatingSample sample = new RatingSample(4,
+                Set.of(RatingSubcategory.NO_EXPLICA_BIEN, RatingSubcategory.GENERA_DESCONFIANZA, RatingSubcategory.NO_RESPETA_HORARIOS),
+                Set.of(), "PATIENT");
+
+        assertTrue(sample.mentions().isEmpty());
+    }
+
+    @Test
+    void mentions_DoctorRaterSubcategories() {
+        RatingSample sample = new RatingSample(4, null,
+                Set.of(RatingSubcategoryPatient.LLEGA_PUNTUAL, RatingSubcategoryPatient.SIGUE_INDICACIONES), "DOCTOR");
+
+        assertEquals(EnumSet.of(RatingMention.DOCTOR_COLLABORATION, RatingMention.DOCTOR_PUNCTUALITY), sample.mentions());
+    }
+
+    @Test
+    void mentions_LowScore_CountsNothing() {
+        RatingSample sample = new RatingSample(3, Set.of(RatingSubcategory.EXPLICA_CLARAMENTE), Set.of(), "PATIENT");
+
+        assertTrue(sample.mentions().isEmpty());
+    }
+
+    @Test
+    void ofLabel_ResolvesStoredLabels() {
+        assertEquals(RatingMention.EMPATHY, RatingMention.ofLabel("Demuestra empatía"));
+        assertEquals(RatingMention.DOCTOR_PUNCTUALITY, RatingMention.ofLabel("llega puntual"));
+        assertNull(RatingMention.ofLabel("Falta de empatía"));
+        assertNull(RatingMention.ofLabel(null));
+    }
+}
@@ -0,0 +1,63 @@
+package com.medibook.api.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingWindowTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void add_FullWindow_ReplacesOldestScore() {
+        RatingWindow window = RatingWindow.of(Collections.nCopies(RatingWindow.SIZE, 5));
+        assertEquals(RatingWindow.SIZE, window.getHighScores());
+
+        window.add(2);
+        window.add(1);
+
+        assertEquals(RatingWindow.SIZE, window.size());
+        assertEquals(RatingWindow.SIZE - 2, window.getHighScores());
+    }
+
+    @Test
+    void add_MatchesCountOverLastScores() {
+        List<Integer> scores = new ArrayList<>();
+        RatingWindow window = RatingWindow.empty();
+        for (int i = 0; i < 100; i++) {
+            int score = i * 7 % 5 + 1;
+            scores.add(score);
+            window.add(score);
+
+            List<Integer> last = scores.subList(Math.max(0, scores.size() - RatingWindow.SIZE), scores.size());
+            assertEquals(last.stream().filter(s -> s >= RatingMention.MIN_SCORE).count(), window.getHighScores());
+        }
+    }
+
+    @Test
+    void toJson_RoundTripsWrappedWindow() {
+        RatingWindow window = RatingWindow.empty();
+        for (int i = 0; i < RatingWindow.SIZE + 10; i++) {
+            window.add(i % 2 == 0 ? 5 : 3);
+        }
+
+        RatingWindow restored = RatingWindow.fromJson(window.toJson());
+        restored.add(3);
+        window.add(3);
+
+        assertEquals(window.getHighScores(), restored.getHighScores());
+        assertEquals(window.toJson(), restored.toJson());
+    }
+
+    @Test
+    void fromJson_MalformedWindowIsEmpty() throws Exception {
+        assertEquals(0, RatingWindow.fromJson(null).size());
+        assertEquals(0, RatingWindow.fromJson(objectMapper.readTree("{\"scores\": [5, 5], \"next\": 0}")).size());
+        assertEquals(0, RatingWindow.fromJson(objectMapper.readTree("{\"scores\": 5}")).size());
+    }
+}
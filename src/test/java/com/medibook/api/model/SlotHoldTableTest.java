@@ -0,0 +1,189 @@
+package com.medibook.api.model;
+
+import com.medibook.api.exception.SlotHoldLimitExceededException;
+import com.medibook.api.model.SlotHoldTable.SlotHold;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlotHoldTableTest {
+
+    private static final long TTL = 60_000;
+    private static final int MAX_HOLDS = 3;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private SlotHoldTable table;
+    private UUID doctorId;
+    private Instant slot;
+
+    @BeforeEach
+    void setUp() {
+        table = new SlotHoldTable(4, 8, 1_000, MAX_HOLDS, clock::get);
+        doctorId = UUID.randomUUID();
+        slot = Instant.parse("2025-10-06T12:00:00Z");
+    }
+
+    @Test
+    void place_SecondPatientIsRejectedUntilExpiry() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        assertNotNull(table.place(doctorId, first, slot, TTL));
+        assertNull(table.place(doctorId, second, slot, TTL));
+
+        clock.addAndGet(TTL);
+
+        assertNull(table.find(doctorId, slot));
+        SlotHold takeover = table.place(doctorId, second, slot, TTL);
+        assertNotNull(takeover);
+        assertEquals(second, takeover.patientId());
+    }
+
+    @Test
+    void place_SamePatientRenewsHoldWithNewToken() {
+        UUID patient = UUID.randomUUID();
+        SlotHold original = table.place(doctorId, patient, slot, TTL);
+        SlotHold renewed = table.place(doctorId, patient, slot, TTL);
+
+        assertNotEquals(original.token(), renewed.token());
+        assertNull(table.consume(original.token(), doctorId, patient, slot));
+        assertEquals(renewed, table.consume(renewed.token(), doctorId, patient, slot));
+    }
+
+    @Test
+    void consume_RequiresMatchingSlotAndPatientAndIsSingleUse() {
+        UUID patient = UUID.randomUUID();
+        SlotHold hold = table.place(doctorId, patient, slot, TTL);
+
+        assertNull(table.consume(hold.token(), doctorId, UUID.randomUUID(), slot));
+        assertNull(table.consume(hold.token(), doctorId, patient, slot.plusSeconds(900)));
+        assertEquals(hold, table.consume(hold.token(), doctorId, patient, slot));
+        assertNull(table.consume(hold.token(), doctorId, patient, slot));
+        assertNull(table.find(doctorId, slot));
+    }
+
+    @Test
+    void match_LeavesHoldInPlaceAndRejectsExpired() {
+        UUID patient = UUID.randomUUID();
+        SlotHold hold = table.place(doctorId, patient, slot, TTL);
+
+        assertNull(table.match(hold.token(), doctorId, UUID.randomUUID(), slot));
+        assertEquals(hold, table.match(hold.token(), doctorId, patient, slot));
+        assertEquals(hold, table.find(doctorId, slot));
+
+        clock.addAndGet(TTL + 1);
+
+        assertNull(table.match(hold.token(), doctorId, patient, slot));
+    }
+
+    @Test
+    void consume_ExpiredHoldIsRejected() {
+        UUID patient = UUID.randomUUID();
+        SlotHold hold = table.place(doctorId, patient, slot, TTL);
+
+        clock.addAndGet(TTL + 1);
+
+        assertNull(table.consume(hold.token(), doctorId, patient, slot));
+    }
+
+    @Test
+    void release_OnlyByOwner() {
+        UUID patient = UUID.randomUUID();
+        SlotHold hold = table.place(doctorId, patient, slot, TTL);
+
+        assertFalse(table.release(hold.token(), UUID.randomUUID()));
+        assertTrue(table.release(hold.token(), patient));
+        assertNull(table.find(doctorId, slot));
+    }
+
+    @Test
+    void place_PatientAtLimit_IsRejectedUntilAHoldIsFreed() {
+        UUID patient = UUID.randomUUID();
+        SlotHold first = table.place(doctorId, patient, slot, TTL);
+        table.place(doctorId, patient, slot.plusSeconds(1800), TTL);
+        table.place(UUID.randomUUID(), patient, slot, TTL / 2);
+
+        assertThrows(SlotHoldLimitExceededException.class,
+                () -> table.place(doctorId, patient, slot.plusSeconds(3600), TTL));
+        assertNotNull(table.place(doctorId, patient, slot, TTL));
+
+        assertTrue(table.release(table.find(doctorId, slot).token(), patient));
+        assertNotEquals(first, table.place(doctorId, patient, slot.plusSeconds(3600), TTL));
+
+        clock.addAndGet(TTL / 2);
+        assertNotNull(table.place(doctorId, patient, slot.plusSeconds(5400), TTL));
+        assertThrows(SlotHoldLimitExceededException.class,
+                () -> table.place(doctorId, patient, slot.plusSeconds(7200), TTL));
+    }
+
+    @Test
+    void activeHolds_FiltersByDoctorRangeAndExpiry() {
+        UUID patient = UUID.randomUUID();
+        table.place(doctorId, patient, slot, TTL);
+        table.place(doctorId, patient, slot.plusSeconds(1800), TTL / 2);
+        table.place(doctorId, patient, slot.plusSeconds(86_400), TTL);
+        table.place(UUID.randomUUID(), UUID.randomUUID(), slot, TTL);
+
+        assertEquals(2, table.activeHolds(doctorId, slot, slot.plusSeconds(3600)).size());
+
+        clock.addAndGet(TTL / 2);
+
+        List<SlotHold> active = table.activeHolds(doctorId, slot, slot.plusSeconds(3600));
+        assertEquals(1, active.size());
+        assertEquals(slot, active.get(0).scheduledAt());
+    }
+
+    @Test
+    void expireDue_ReclaimsExpiredHoldsAcrossWheelRounds() {
+        UUID patient = UUID.randomUUID();
+        table.place(doctorId, patient, slot, TTL);
+        table.place(doctorId, patient, slot.plusSeconds(900), 3_000);
+
+        clock.addAndGet(3_000);
+        assertEquals(1, table.expireDue());
+        assertEquals(1, table.size());
+
+        clock.addAndGet(TTL);
+        assertEquals(1, table.expireDue());
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void place_ConcurrentPatientsOnlyOneWins() throws Exception {
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<SlotHold>> attempts = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            UUID patient = UUID.randomUUID();
+            attempts.add(pool.submit(() -> {
+                start.await();
+                return table.place(doctorId, patient, slot, TTL);
+            }));
+        }
+        start.countDown();
+
+        int winners = 0;
+        for (Future<SlotHold> attempt : attempts) {
+            if (attempt.get(10, TimeUnit.SECONDS) != null) {
+                winners++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(1, winners);
+        assertEquals(1, table.size());
+    }
+}
@@ -0,0 +1,140 @@
+package com.medibook.api.model;
+
+import com.medibook.api.model.UserEventCoalescer.Batch;
+import com.medibook.api.model.UserEventCoalescer.Outcome;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserEventCoalescerTest {
+
+    private static final long WINDOW = 1_000;
+
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private UserEventCoalescer<String> coalescer;
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        coalescer = new UserEventCoalescer<>(WINDOW, 2, 3, clock::get);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void offer_EventsWithinWindow_AreDrainedAsOneBatch() {
+        assertEquals(Outcome.OPENED, coalescer.offer(userId, "rating"));
+        clock.addAndGet(WINDOW - 1);
+        assertEquals(Outcome.MERGED, coalescer.offer(userId, "cancellation"));
+
+        assertTrue(coalescer.drainDue().isEmpty());
+
+        clock.addAndGet(1);
+        List<Batch<String>> batches = coalescer.drainDue();
+
+        assertEquals(1, batches.size());
+        assertEquals(userId, batches.get(0).userId());
+        assertEquals(List.of("rating", "cancellation"), batches.get(0).events());
+        assertEquals(0, coalescer.pendingUsers());
+    }
+
+    @Test
+    void offer_AfterDrain_OpensNewWindow() {
+        coalescer.offer(userId, "rating");
+        clock.addAndGet(WINDOW);
+        coalescer.drainDue();
+
+        assertEquals(Outcome.OPENED, coalescer.offer(userId, "upload"));
+        assertTrue(coalescer.drainDue().isEmpty());
+    }
+
+    @Test
+    void offer_TooManyUsers_RejectsNewUserButMergesExisting() {
+        UUID second = UUID.randomUUID();
+        coalescer.offer(userId, "a");
+        coalescer.offer(second, "b");
+
+        assertEquals(Outcome.REJECTED, coalescer.offer(UUID.randomUUID(), "c"));
+        assertEquals(Outcome.MERGED, coalescer.offer(second, "d"));
+        assertEquals(2, coalescer.pendingUsers());
+    }
+
+    @Test
+    void offer_FullEntry_IsDueImmediatelyAndRejectsMore() {
+        coalescer.offer(userId, "a");
+        coalescer.offer(userId, "b");
+        coalescer.offer(userId, "c");
+
+        assertEquals(Outcome.REJECTED, coalescer.offer(userId, "d"));
+        List<Batch<String>> batches = coalescer.drainDue();
+
+        assertEquals(1, batches.size());
+        assertEquals(List.of("a", "b", "c"), batches.get(0).events());
+    }
+
+    @Test
+    void drainAll_IgnoresOpenWindows() {
+        coalescer.offer(userId, "a");
+        coalescer.offer(UUID.randomUUID(), "b");
+
+        assertEquals(2, coalescer.drainAll().size());
+        assertEquals(0, coalescer.pendingUsers());
+    }
+
+    @Test
+    void offer_ConcurrentWithDrain_LosesNoEvents() throws Exception {
+        UserEventCoalescer<Integer> shared = new UserEventCoalescer<>(0, 16, 10_000, clock::get);
+        List<UUID> users = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        int threads = 6;
+        int eventsPerThread = 2_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> producers = new ArrayList<>();
+        try {
+            for (int t = 0; t < threads; t++) {
+                producers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        while (shared.offer(users.get(i % users.size()), i) == Outcome.REJECTED) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            Future<Integer> drainer = executor.submit(() -> {
+                start.await();
+                int drained = 0;
+                while (producers.stream().anyMatch(producer -> !producer.isDone())) {
+                    drained += count(shared.drainDue());
+                }
+                return drained;
+            });
+
+            start.countDown();
+            for (Future<?> producer : producers) {
+                producer.get(30, TimeUnit.SECONDS);
+            }
+            int drained = drainer.get(30, TimeUnit.SECONDS) + count(shared.drainAll());
+
+            assertEquals(threads * eventsPerThread, drained);
+            assertEquals(0, shared.pendingUsers());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static int count(List<? extends Batch<?>> batches) {
+        return batches.stream().mapToInt(batch -> batch.events().size()).sum();
+    }
+}
@@ -0,0 +1,114 @@
+package com.medibook.api.model;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserStripedExecutorTest {
+
+    private final UserStripedExecutor executor = new UserStripedExecutor(4, 8, "Test-");
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void execute_SameUser_RunsInSubmissionOrderWithoutOverlap() throws Exception {
+        UUID userId = UUID.randomUUID();
+        List<Integer> order = new ArrayList<>();
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        int tasks = 500;
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        for (int i = 0; i < tasks; i++) {
+            int index = i;
+            executor.execute(userId, () -> {
+                if (running.incrementAndGet() > 1) {
+                    overlaps.incrementAndGet();
+                }
+                order.add(index);
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(0, overlaps.get());
+        for (int i = 0; i < tasks; i++) {
+            assertEquals(i, order.get(i));
+        }
+    }
+
+    @Test
+    void execute_UsersOnDifferentLanes_RunInParallel() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        while (executor.laneOf(second) == executor.laneOf(first)) {
+            second = UUID.randomUUID();
+        }
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            bothRunning.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+
+        executor.execute(first, blocking);
+        executor.execute(second, blocking);
+
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+        release.countDown();
+    }
+
+    @Test
+    void execute_FullLane_BlocksSubmitterInsteadOfRunningOnIt() throws Exception {
+        UUID userId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        Map<String, Boolean> threads = new ConcurrentHashMap<>();
+        int tasks = 20;
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        executor.execute(userId, () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        Thread submitter = new Thread(() -> {
+            for (int i = 0; i < tasks; i++) {
+                executor.execute(userId, () -> {
+                    threads.put(Thread.currentThread().getName(), true);
+                    done.countDown();
+                });
+            }
+        });
+        submitter.start();
+
+        Thread.sleep(100);
+        assertTrue(submitter.isAlive());
+        release.countDown();
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        submitter.join(5_000);
+        assertEquals(1, threads.size());
+        assertTrue(threads.keySet().iterator().next().startsWith("Test-"));
+    }
+}
@@ -0,0 +1,133 @@
+package com.medibook.api.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.medibook.api.entity.BadgeStatistics;
+import com.medibook.api.entity.RatingBucket;
+import com.medibook.api.entity.RatingSummary;
+import com.medibook.api.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counter writes of the rating summary, rating bucket and badge statistics repositories. On
+ * H2 these go through the locked entity fallback; {@link CounterRepositoriesPostgresTest} runs
+ * the same tests against the native PostgreSQL upserts. The configured H2 database is kept
+ * because it declares the JSONB domain the counter columns use.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class CounterRepositoriesTest {
+
+    @Autowired
+    private RatingSummaryRepository ratingSummaryRepository;
+
+    @Autowired
+    private RatingBucketRepository ratingBucketRepository;
+
+    @Autowired
+    private BadgeStatisticsRepository badgeStatisticsRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User();
+        user.setEmail("counters@example.com");
+        user.setDni(34567890L);
+        user.setPasswordHash("hash");
+        user.setName("Counter");
+        user.setSurname("User");
+        user.setRole("DOCTOR");
+        user.setStatus("ACTIVE");
+        userId = entityManager.persistAndFlush(user).getId();
+    }
+
+    @Test
+    void recordRating_Summary_CountsScoresAndMergesMentionsPerRaterRole() {
+        ratingSummaryRepository.recordRating(userId, 5, "PATIENT", List.of("Puntual", "Explica claramente"));
+        ratingSummaryRepository.recordRating(userId, 3, "PATIENT", List.of("Puntual"));
+        ratingSummaryRepository.recordRating(userId, 4, "DOCTOR", List.of("Respetuoso"));
+        ratingSummaryRepository.recordRating(userId, 4, "PATIENT", List.of());
+        entityManager.flush();
+        entityManager.clear();
+
+        RatingSummary summary = ratingSummaryRepository.findById(userId).orElseThrow();
+        assertEquals(1, summary.getScoreCount(5));
+        assertEquals(1, summary.getScoreCount(3));
+        assertEquals(2, summary.getScoreCount(4));
+        assertEquals(2, summary.getSubcategoryCounts().path("PATIENT").path("Puntual").asLong());
+        assertEquals(1, summary.getSubcategoryCounts().path("PATIENT").path("Explica claramente").asLong());
+        assertEquals(1, summary.getSubcategoryCounts().path("DOCTOR").path("Respetuoso").asLong());
+    }
+
+    @Test
+    void lockForRebuild_StillLetsTheRebuildingTransactionWrite() {
+        ratingSummaryRepository.recordRating(userId, 5, "PATIENT", List.of("Puntual"));
+        entityManager.flush();
+        entityManager.clear();
+
+        ratingSummaryRepository.lockForRebuild();
+        ratingSummaryRepository.deleteAllInBatch();
+        ratingSummaryRepository.saveAndFlush(new RatingSummary(userId));
+        entityManager.clear();
+
+        assertEquals(0, ratingSummaryRepository.findById(userId).orElseThrow().getScoreCount(5));
+    }
+
+    @Test
+    void recordRating_Bucket_AddsToTheDayBucketOnly() {
+        LocalDate day = LocalDate.of(2025, 6, 15);
+        ratingBucketRepository.recordRating(userId, day, 5, "PATIENT", List.of("Puntual"));
+        ratingBucketRepository.recordRating(userId, day, 2, "PATIENT", List.of("Puntual", "Escucha al paciente"));
+        ratingBucketRepository.recordRating(userId, day.plusDays(1), 4, "PATIENT", List.of("Puntual"));
+        entityManager.flush();
+        entityManager.clear();
+
+        RatingBucket bucket = ratingBucketRepository.findById(new RatingBucket.Key(userId, RatingBucket.DAY, day)).orElseThrow();
+        assertEquals(2, bucket.getRatingCount());
+        assertEquals(7, bucket.getScoreSum());
+        assertEquals(2, bucket.getSubcategoryCounts().path("PATIENT").path("Puntual").asLong());
+        assertEquals(1, bucket.getSubcategoryCounts().path("PATIENT").path("Escucha al paciente").asLong());
+        assertEquals(1, ratingBucketRepository.findById(new RatingBucket.Key(userId, RatingBucket.DAY, day.plusDays(1)))
+                .orElseThrow().getRatingCount());
+    }
+
+    @Test
+    void incrementCounters_AddsToColumnsAndExtraKeys() {
+        badgeStatisticsRepository.incrementCounters(userId, Map.of("total_turns_completed", 1, "custom_count", 2));
+        JsonNode statistics = badgeStatisticsRepository.incrementCounters(userId,
+                Map.of("total_turns_completed", 1, "custom_count", 3));
+
+        assertEquals(2, statistics.path("total_turns_completed").asInt());
+        assertEquals(5, statistics.path("custom_count").asInt());
+    }
+
+    @Test
+    void mergeStatistics_OverwritesGivenKeysOnly() {
+        badgeStatisticsRepository.incrementCounters(userId, Map.of("total_turns_completed", 4, "custom_count", 2));
+        badgeStatisticsRepository.mergeStatistics(userId, Map.of("custom_count", 10, "last_specialty", "Cardiología"));
+        entityManager.flush();
+        entityManager.clear();
+
+        BadgeStatistics stats = badgeStatisticsRepository.findByUserId(userId).orElseThrow();
+        assertEquals(4, stats.getStatistics().path("total_turns_completed").asInt());
+        assertEquals(10, stats.getStatistics().path("custom_count").asInt());
+        assertEquals("Cardiología", stats.getStatistics().path("last_specialty").asText());
+    }
+}
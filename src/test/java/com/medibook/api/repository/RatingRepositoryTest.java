@@ -0,0 +1,134 @@
+package com.medibook.api.repository;
+
+import com.medibook.api.entity.Rating;
+import com.medibook.api.entity.TurnAssigned;
+import com.medibook.api.entity.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class RatingRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    private User doctorUser;
+    private User otherDoctorUser;
+    private User patientUser;
+    private User otherPatientUser;
+
+    @BeforeEach
+    void setUp() {
+        doctorUser = entityManager.persistAndFlush(createUser("doctor@test.com", 12345678L, "DOCTOR"));
+        otherDoctorUser = entityManager.persistAndFlush(createUser("other.doctor@test.com", 22222222L, "DOCTOR"));
+        patientUser = entityManager.persistAndFlush(createUser("patient@test.com", 87654321L, "PATIENT"));
+        otherPatientUser = entityManager.persistAndFlush(createUser("other.patient@test.com", 11111111L, "PATIENT"));
+    }
+
+    @Test
+    void countSubcategoriesByRatedIdAndRaterRole_GroupsByRatedUserRaterRoleAndSubcategory() {
+        createRating(patientUser, doctorUser, 5, "Puntual", "Explica claramente");
+        createRating(otherPatientUser, doctorUser, 4, "Puntual");
+        createRating(otherDoctorUser, doctorUser, 4, "Puntual");
+        createRating(doctorUser, patientUser, 3, "Respetuoso");
+        createRating(otherDoctorUser, patientUser, 2);
+        entityManager.clear();
+
+        List<Object[]> rows = ratingRepository.countSubcategoriesByRatedIdAndRaterRole();
+
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put(row[0] + "|" + row[1] + "|" + row[2], ((Number) row[3]).longValue());
+        }
+        assertEquals(4, rows.size());
+        assertEquals(2L, counts.get(doctorUser.getId() + "|PATIENT|Puntual"));
+        assertEquals(1L, counts.get(doctorUser.getId() + "|PATIENT|Explica claramente"));
+        assertEquals(1L, counts.get(doctorUser.getId() + "|DOCTOR|Puntual"));
+        assertEquals(1L, counts.get(patientUser.getId() + "|DOCTOR|Respetuoso"));
+    }
+
+    @Test
+    void countSubcategoriesByRatedIdAndRaterRole_NoSubcategories_ReturnsEmpty() {
+        createRating(patientUser, doctorUser, 5);
+        entityManager.clear();
+
+        assertTrue(ratingRepository.countSubcategoriesByRatedIdAndRaterRole().isEmpty());
+    }
+
+    @Test
+    void findRecentScoresByRatedIds_KeepsTheLatestScoresPerRatedUserOldestFirst() {
+        OffsetDateTime base = OffsetDateTime.now().minusDays(10);
+        createRating(patientUser, doctorUser, 1, base);
+        createRating(otherPatientUser, doctorUser, 4, base.plusDays(1));
+        createRating(patientUser, doctorUser, 5, base.plusDays(2));
+        createRating(otherDoctorUser, doctorUser, 2, base.plusDays(3));
+        createRating(patientUser, otherDoctorUser, 3, base.plusDays(4));
+        entityManager.clear();
+
+        List<Object[]> rows = ratingRepository.findRecentScoresByRatedIds(
+                List.of(doctorUser.getId(), otherDoctorUser.getId()), "PATIENT", 2);
+
+        Map<Object, List<Integer>> scores = new HashMap<>();
+        for (Object[] row : rows) {
+            scores.computeIfAbsent(row[0], id -> new ArrayList<>()).add((Integer) row[1]);
+        }
+        assertEquals(List.of(4, 5), scores.get(doctorUser.getId()));
+        assertEquals(List.of(3), scores.get(otherDoctorUser.getId()));
+    }
+
+    private User createUser(String email, Long dni, String role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setDni(dni);
+        user.setPasswordHash("hashedPassword");
+        user.setName("Test");
+        user.setSurname("User");
+        user.setPhone("1234567890");
+        user.setBirthdate(LocalDate.of(1990, 1, 1));
+        user.setGender("MALE");
+        user.setEmailVerified(true);
+        user.setStatus("ACTIVE");
+        user.setRole(role);
+        return user;
+    }
+
+    private void createRating(User rater, User rated, int score, String... subcategories) {
+        createRating(rater, rated, score, OffsetDateTime.now(), subcategories);
+    }
+
+    private void createRating(User rater, User rated, int score, OffsetDateTime createdAt, String... subcategories) {
+        TurnAssigned turn = new TurnAssigned();
+        turn.setDoctor("DOCTOR".equals(rated.getRole()) ? rated : rater);
+        turn.setPatient("DOCTOR".equals(rated.getRole()) ? rater : rated);
+        turn.setScheduledAt(OffsetDateTime.now().minusDays(1));
+        turn.setStatus("COMPLETED");
+        entityManager.persist(turn);
+
+        entityManager.persistAndFlush(Rating.builder()
+                .turnAssigned(turn)
+                .rater(rater)
+                .rated(rated)
+                .score(score)
+                .subcategories(new LinkedHashSet<>(List.of(subcategories)))
+                .createdAt(createdAt)
+                .build());
+    }
+}
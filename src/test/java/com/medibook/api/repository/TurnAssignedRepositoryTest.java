@@ -7,10 +7,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.ActiveProfiles;
 
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.UUID;
 
@@ -390,4 +393,51 @@ class TurnAssignedRepositoryTest {
         assertNotNull(found);
         assertEquals("Consulta por dolor de cabeza", found.getMotive());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findDoctorTurnsBefore_WalksAllTurnsIncludingTiesExactlyOnce() {
+        OffsetDateTime tie = OffsetDateTime.now().plusDays(2).withNano(0);
+        for (int i = 0; i < 3; i++) {
+            entityManager.persist(createTurnAssigned(doctorUser, patientUser, tie, "SCHEDULED"));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        List<TurnAssigned> walked = new ArrayList<>();
+        OffsetDateTime cursorAt = OffsetDateTime.now().plusYears(100);
+        UUID cursorId = new UUID(0L, 0L);
+        while (true) {
+            List<TurnAssigned> page = turnAssignedRepository.findDoctorTurnsBefore(
+                doctorUser.getId(), null, cursorAt, cursorId, PageRequest.of(0, 2));
+            if (page.isEmpty()) {
+                break;
+            }
+            walked.addAll(page);
+            TurnAssigned last = page.get(page.size() - 1);
+            cursorAt = last.getScheduledAt();
+            cursorId = last.getId();
+        }
+
+        assertEquals(6, walked.size());
+        assertEquals(6, new HashSet<>(walked.stream().map(TurnAssigned::getId).toList()).size());
+        for (int i = 1; i < walked.size(); i++) {
+            assertFalse(walked.get(i).getScheduledAt().isAfter(walked.get(i - 1).getScheduledAt()));
+        }
+    }
+
+    @Test
+    void findPatientTurnsAfter_FiltersByStatusInAscendingOrder() {
+        entityManager.persistAndFlush(createTurnAssigned(doctorUser, patientUser,
+            OffsetDateTime.now().plusDays(5), "SCHEDULED"));
+        entityManager.persistAndFlush(createTurnAssigned(doctorUser, patientUser,
+            OffsetDateTime.now().minusDays(5), "SCHEDULED"));
+        entityManager.clear();
+
+        List<TurnAssigned> result = turnAssignedRepository.findPatientTurnsAfter(
+            patientUser.getId(), "SCHEDULED", OffsetDateTime.now(), new UUID(0L, 0L), PageRequest.of(0, 10));
+
+        assertEquals(2, result.size());
+        assertTrue(result.get(0).getScheduledAt().isBefore(result.get(1).getScheduledAt()));
+        result.forEach(turn -> assertEquals("SCHEDULED", turn.getStatus()));
+    }
+}
@@ -1,6 +1,7 @@
 package com.medibook.api.repository;
 
 import com.medibook.api.entity.User;
+import com.medibook.api.model.RatingTotals;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
@@ -64,4 +65,24 @@ class UserRepositoryTest {
         
         assertFalse(exists);
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenRecordRating_thenFindRatingTotalsReturnsUpdatedAggregate() {
+        User user = new User();
+        user.setEmail("rated@example.com");
+        user.setDni(23456789L);
+        user.setPasswordHash("hash");
+        user.setName("Rated");
+        user.setSurname("User");
+
+        entityManager.persistAndFlush(user);
+
+        userRepository.recordRating(user.getId(), 5);
+        userRepository.recordRating(user.getId(), 4);
+        RatingTotals totals = userRepository.findRatingTotals(user.getId()).orElseThrow();
+
+        assertEquals(9, totals.ratingSum());
+        assertEquals(2, totals.ratingCount());
+        assertEquals(4.5, totals.score());
+    }
+}
@@ -0,0 +1,141 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.dto.Admin.RatingExportRowDTO;
+import com.medibook.api.dto.Admin.UserExportRowDTO;
+import com.medibook.api.model.ExportFormat;
+import com.medibook.api.repository.RatingRepository;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.UserRepository;
+import com.medibook.api.util.DateTimeUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminExportServiceTest {
+
+    @Mock
+    private TurnAssignedRepository turnAssignedRepository;
+
+    @Mock
+    private RatingRepository ratingRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private AdminExportService adminExportService;
+
+    @BeforeEach
+    void setUp() {
+        adminExportService = new AdminExportService(turnAssignedRepository, ratingRepository, userRepository, objectMapper);
+    }
+
+    @Test
+    void writeUsers_Csv_WritesHeaderAndEscapesValues() throws IOException {
+        UUID id = UUID.randomUUID();
+        UserExportRowDTO row = new UserExportRowDTO(id, "ana@test.com", "Ana, María", "O\"Brien", "DOCTOR", "ACTIVE",
+                true, null, LocalDate.of(1990, 5, 1), "Cardiología", 4.5, 12L);
+        when(userRepository.streamForExport("DOCTOR", null)).thenReturn(Stream.of(row));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = adminExportService.writeUsers("DOCTOR", null, ExportFormat.CSV, out);
+
+        assertEquals(1, written);
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,email,name,surname,role,status,emailVerified,gender,birthdate,specialty,score,ratingCount", lines[0]);
+        assertEquals(id + ",ana@test.com,\"Ana, María\",\"O\"\"Brien\",DOCTOR,ACTIVE,true,,1990-05-01,Cardiología,4.5,12", lines[1]);
+    }
+
+    @Test
+    void writeUsers_Csv_NeutralizesFormulaCells() throws IOException {
+        UUID id = UUID.randomUUID();
+        UserExportRowDTO row = new UserExportRowDTO(id, "@evil.com", "=HYPERLINK(\"http://x\",\"a\")", "+cmd", "PATIENT", "-1",
+                true, "\tMALE", null, null, 4.5, 3L);
+        when(userRepository.streamForExport(null, null)).thenReturn(Stream.of(row));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        adminExportService.writeUsers(null, null, ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(id + ",'@evil.com,\"'=HYPERLINK(\"\"http://x\"\",\"\"a\"\")\",'+cmd,PATIENT,'-1,true,'\tMALE,,,4.5,3", lines[1]);
+    }
+
+    @Test
+    void writeRatings_Ndjson_WritesOneObjectPerLineAndClosesStream() throws IOException {
+        AtomicBoolean closed = new AtomicBoolean();
+        OffsetDateTime createdAt = OffsetDateTime.of(2025, 3, 10, 15, 0, 0, 0, ZoneOffset.UTC);
+        Stream<RatingExportRowDTO> rows = Stream.of(
+                new RatingExportRowDTO(UUID.randomUUID(), createdAt, UUID.randomUUID(), UUID.randomUUID(), "PATIENT",
+                        UUID.randomUUID(), "DOCTOR", 5, "Puntual"),
+                new RatingExportRowDTO(UUID.randomUUID(), createdAt, UUID.randomUUID(), UUID.randomUUID(), "DOCTOR",
+                        UUID.randomUUID(), "PATIENT", 3, null))
+                .onClose(() -> closed.set(true));
+        LocalDate from = LocalDate.of(2025, 3, 1);
+        LocalDate to = LocalDate.of(2025, 3, 31);
+        when(ratingRepository.streamForExport(
+                from.atStartOfDay(DateTimeUtils.ARGENTINA_ZONE).toOffsetDateTime(),
+                LocalDate.of(2025, 4, 1).atStartOfDay(DateTimeUtils.ARGENTINA_ZONE).toOffsetDateTime(),
+                null, null)).thenReturn(rows);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long written = adminExportService.writeRatings(from, to, null, null, ExportFormat.NDJSON, out);
+
+        assertEquals(2, written);
+        assertTrue(closed.get());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals(5, first.get("score").asInt());
+        assertEquals("Puntual", first.get("subcategories").asText());
+        assertTrue(objectMapper.readTree(lines[1]).get("subcategories").isNull());
+    }
+
+    @Test
+    void writeUsers_Interrupted_StopsAndClosesStream() {
+        AtomicBoolean closed = new AtomicBoolean();
+        UserExportRowDTO row = new UserExportRowDTO(UUID.randomUUID(), "a@test.com", "A", "B", "PATIENT", "ACTIVE",
+                true, null, null, null, null, 0L);
+        when(userRepository.streamForExport(null, null)).thenReturn(Stream.of(row).onClose(() -> closed.set(true)));
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(InterruptedIOException.class,
+                    () -> adminExportService.writeUsers(null, null, ExportFormat.CSV, new ByteArrayOutputStream()));
+        } finally {
+            Thread.interrupted();
+        }
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void validateRatingFilters_RejectsInvalidRangeAndRole() {
+        assertThrows(IllegalArgumentException.class, () -> adminExportService.validateRatingFilters(
+                LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1), null, null));
+        assertThrows(IllegalArgumentException.class, () -> adminExportService.validateRatingFilters(
+                null, null, "ADMIN", null));
+        assertThrows(IllegalArgumentException.class, () -> ExportFormat.fromParam("xml"));
+        assertEquals(ExportFormat.NDJSON, ExportFormat.fromParam("ndjson"));
+        verifyNoInteractions(ratingRepository);
+    }
+}
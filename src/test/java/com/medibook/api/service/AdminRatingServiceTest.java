@@ -0,0 +1,106 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Admin.AdminRatingsResponseDTO;
+import com.medibook.api.dto.Rating.RatingResponseDTO;
+import com.medibook.api.entity.Rating;
+import com.medibook.api.mapper.RatingMapper;
+import com.medibook.api.model.RatingCursor;
+import com.medibook.api.repository.RatingRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AdminRatingServiceTest {
+
+    @Mock
+    private RatingRepository ratingRepository;
+
+    @Mock
+    private RatingMapper ratingMapper;
+
+    @InjectMocks
+    private AdminRatingService adminRatingService;
+
+    private final OffsetDateTime now = OffsetDateTime.of(2025, 6, 1, 12, 0, 0, 0, ZoneOffset.UTC);
+
+    @Test
+    void getRatingsPage_FirstPage_ReturnsCursorAndStats() {
+        Rating newest = rating(now);
+        Rating older = rating(now.minusHours(1));
+        Rating extra = rating(now.minusHours(2));
+        when(ratingRepository.findPageBefore("PATIENT", null, RatingCursor.FIRST.createdAt(), RatingCursor.FIRST.id(), PageRequest.of(0, 3)))
+                .thenReturn(List.of(newest, older, extra));
+        when(ratingMapper.toDTO(any(Rating.class))).thenReturn(RatingResponseDTO.builder().build());
+        when(ratingRepository.summarizeByRaterRole()).thenReturn(List.of(
+                new Object[]{"PATIENT", 3L, 12L},
+                new Object[]{"DOCTOR", 1L, 2L}));
+
+        AdminRatingsResponseDTO page = adminRatingService.getRatingsPage("PATIENT", null, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        assertEquals(new RatingCursor(older.getCreatedAt(), older.getId()), RatingCursor.decode(page.getNextCursor()));
+        assertEquals(4, page.getStats().getTotalRatings());
+        assertEquals(3, page.getStats().getPatientRatingsCount());
+        assertEquals(3.5, page.getStats().getAverageScore());
+        assertEquals(4.0, page.getStats().getAveragePatientRating());
+        assertEquals(2.0, page.getStats().getAverageDoctorRating());
+    }
+
+    @Test
+    void getRatingsPage_WithCursor_ContinuesAfterItAndSkipsStats() {
+        Rating last = rating(now);
+        String cursor = new RatingCursor(last.getCreatedAt(), last.getId()).encode();
+        when(ratingRepository.findPageBefore(isNull(), eq("DOCTOR"), eq(now), eq(last.getId()), any()))
+                .thenReturn(List.of());
+
+        AdminRatingsResponseDTO page = adminRatingService.getRatingsPage(null, "DOCTOR", cursor, null);
+
+        assertTrue(page.getItems().isEmpty());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        assertNull(page.getStats());
+        verify(ratingRepository, never()).summarizeByRaterRole();
+    }
+
+    @Test
+    void getRatingsPage_InvalidRole_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class,
+                () -> adminRatingService.getRatingsPage("ADMIN", null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> adminRatingService.getRatingsPage(null, null, null, 0));
+        verifyNoInteractions(ratingRepository);
+    }
+
+    @Test
+    void getStats_NoRatings_ReturnsZeros() {
+        when(ratingRepository.summarizeByRaterRole()).thenReturn(List.of());
+
+        AdminRatingsResponseDTO.RatingStatsDTO stats = adminRatingService.getStats();
+
+        assertEquals(0, stats.getTotalRatings());
+        assertEquals(0.0, stats.getAverageScore());
+    }
+
+    private Rating rating(OffsetDateTime createdAt) {
+        return Rating.builder()
+                .id(UUID.randomUUID())
+                .score(4)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -1,34 +1,49 @@
 package com.medibook.api.service;
 
+import com.medibook.api.dto.Rating.RatingSubcategory;
 import com.medibook.api.entity.User;
+import com.medibook.api.model.BadgeTrigger;
+import com.medibook.api.model.RatingSample;
+import com.medibook.api.model.UserStripedExecutor;
 import com.medibook.api.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.EnumSet;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BadgeEvaluationTriggerServiceTest {
 
+    private static final RatingSample SAMPLE = new RatingSample(5, Set.of(RatingSubcategory.EXPLICA_CLARAMENTE), Set.of(), "PATIENT");
+
     @Mock
     private BadgeService badgeService;
 
     @Mock
     private BadgeStatisticsUpdateService statisticsUpdateService;
 
+    @Mock
+    private BadgeSnapshotService badgeSnapshotService;
+
     @Mock
     private UserRepository userRepository;
 
-    @InjectMocks
+    @Mock
+    private UserStripedExecutor badgeExecutor;
+
     private BadgeEvaluationTriggerService triggerService;
 
     private UUID doctorId;
@@ -37,6 +52,12 @@ class BadgeEvaluationTriggerServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(1).run();
+            return null;
+        }).when(badgeExecutor).execute(any(), any());
+        triggerService = new BadgeEvaluationTriggerService(badgeService, statisticsUpdateService, badgeSnapshotService, userRepository,
+                badgeExecutor, new SimpleMeterRegistry(), 0, 100);
         doctorId = UUID.randomUUID();
         patientId = UUID.randomUUID();
         doctor = new User();
@@ -55,12 +76,12 @@ class BadgeEvaluationTriggerServiceTest {
 
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
 
-        triggerService.evaluateAfterRating(doctorId, communicationScore, empathyScore, punctualityScore);
+        triggerService.evaluateAfterRating(doctorId, SAMPLE, communicationScore, empathyScore, punctualityScore);
 
         verify(userRepository).findById(doctorId);
-        verify(statisticsUpdateService).updateAfterRatingAddedSync(doctorId, communicationScore, empathyScore, punctualityScore);
-        verify(statisticsUpdateService).updateProgressAfterRatingSync(doctorId);
-        verify(badgeService).evaluateRatingRelatedBadges(doctorId);
+        verify(statisticsUpdateService).updateAfterRatingAddedSync(doctorId, SAMPLE, communicationScore, empathyScore, punctualityScore);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(doctorId)), eq(EnumSet.of(BadgeTrigger.RATING)));
+        verify(badgeSnapshotService).invalidate(doctorId);
     }
 
     @Test
@@ -72,11 +93,12 @@ class BadgeEvaluationTriggerServiceTest {
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(patient));
 
         assertDoesNotThrow(() ->
-            triggerService.evaluateAfterRating(doctorId, 4, 5, 4));
+            triggerService.evaluateAfterRating(doctorId, SAMPLE, 4, 5, 4));
 
         verify(userRepository).findById(doctorId);
         verifyNoInteractions(statisticsUpdateService);
         verifyNoInteractions(badgeService);
+        verifyNoInteractions(badgeSnapshotService);
     }
 
     @Test
@@ -84,7 +106,7 @@ class BadgeEvaluationTriggerServiceTest {
         when(userRepository.findById(doctorId)).thenReturn(Optional.empty());
 
         assertDoesNotThrow(() ->
-            triggerService.evaluateAfterRating(doctorId, 4, 5, 4));
+            triggerService.evaluateAfterRating(doctorId, SAMPLE, 4, 5, 4));
 
         verify(userRepository).findById(doctorId);
         verifyNoInteractions(statisticsUpdateService);
@@ -95,15 +117,14 @@ class BadgeEvaluationTriggerServiceTest {
     void evaluateAfterRating_ExceptionInStatisticsUpdate_HandlesGracefully() {
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
         doThrow(new RuntimeException("Statistics update failed"))
-            .when(statisticsUpdateService).updateAfterRatingAddedSync(any(), any(), any(), any());
+            .when(statisticsUpdateService).updateAfterRatingAddedSync(any(), any(), any(), any(), any());
 
         assertDoesNotThrow(() ->
-            triggerService.evaluateAfterRating(doctorId, 4, 5, 4));
+            triggerService.evaluateAfterRating(doctorId, SAMPLE, 4, 5, 4));
 
         verify(userRepository).findById(doctorId);
-        verify(statisticsUpdateService).updateAfterRatingAddedSync(doctorId, 4, 5, 4);
-        verify(statisticsUpdateService, never()).updateProgressAfterRatingSync(any());
-        verify(badgeService, never()).evaluateRatingRelatedBadges(any());
+        verify(statisticsUpdateService).updateAfterRatingAddedSync(doctorId, SAMPLE, 4, 5, 4);
+        verify(badgeService, never()).evaluateBadges(any(), any());
     }
 
     @Test
@@ -114,8 +135,7 @@ class BadgeEvaluationTriggerServiceTest {
 
         verify(userRepository).findById(doctorId);
         verify(statisticsUpdateService).updateAfterTurnCompletedSync(doctorId, patientId);
-        verify(statisticsUpdateService).updateProgressAfterTurnCompletionSync(doctorId);
-        verify(badgeService).evaluateTurnCompletionRelatedBadges(doctorId);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(doctorId)), eq(EnumSet.of(BadgeTrigger.TURN_COMPLETION)));
     }
 
     @Test
@@ -131,8 +151,7 @@ class BadgeEvaluationTriggerServiceTest {
 
         verify(userRepository).findById(doctorId);
         verify(statisticsUpdateService).updateAfterTurnCompletedSync(doctorId, patientId);
-        verify(statisticsUpdateService).updateProgressAfterTurnCompletionSync(doctorId);
-        verify(badgeService).evaluateTurnCompletionRelatedBadges(doctorId);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(doctorId)), eq(EnumSet.of(BadgeTrigger.TURN_COMPLETION)));
     }
 
     @Test
@@ -145,8 +164,7 @@ class BadgeEvaluationTriggerServiceTest {
 
         verify(userRepository).findById(doctorId);
         verify(statisticsUpdateService).updateAfterMedicalHistoryDocumentedSync(doctorId, content);
-        verify(statisticsUpdateService).updateProgressAfterMedicalHistorySync(doctorId);
-        verify(badgeService).evaluateDocumentationRelatedBadges(doctorId);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(doctorId)), eq(EnumSet.of(BadgeTrigger.DOCUMENTATION)));
     }
 
     @Test
@@ -159,8 +177,7 @@ class BadgeEvaluationTriggerServiceTest {
 
         verify(userRepository).findById(doctorId);
         verify(statisticsUpdateService).updateAfterMedicalHistoryDocumentedSync(doctorId, content);
-        verify(statisticsUpdateService).updateProgressAfterMedicalHistorySync(doctorId);
-        verify(badgeService).evaluateDocumentationRelatedBadges(doctorId);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(doctorId)), eq(EnumSet.of(BadgeTrigger.DOCUMENTATION)));
     }
 
     @Test
@@ -171,8 +188,7 @@ class BadgeEvaluationTriggerServiceTest {
 
         verify(userRepository).findById(doctorId);
         verify(statisticsUpdateService).updateAfterModifyRequestHandledSync(doctorId);
-        verify(statisticsUpdateService).updateProgressAfterModifyRequestSync(doctorId);
-        verify(badgeService).evaluateResponseRelatedBadges(doctorId);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(doctorId)), eq(EnumSet.of(BadgeTrigger.RESPONSE)));
     }
 
     @Test
@@ -183,18 +199,16 @@ class BadgeEvaluationTriggerServiceTest {
 
         verify(userRepository).findById(doctorId);
         verify(statisticsUpdateService).updateAfterTurnCancelledSync(doctorId);
-        verify(statisticsUpdateService).updateProgressAfterCancellationSync(doctorId);
-        verify(badgeService).evaluateConsistencyRelatedBadges(doctorId);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(doctorId)), eq(EnumSet.of(BadgeTrigger.CONSISTENCY)));
     }
 
     @Test
-    void evaluateAllBadges_ValidDoctor_UpdatesAllProgressAndEvaluatesBadges() {
+    void evaluateAllBadges_ValidDoctor_EvaluatesAllBadges() {
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
 
         triggerService.evaluateAllBadges(doctorId);
 
         verify(userRepository).findById(doctorId);
-        verify(statisticsUpdateService).updateAllBadgeProgress(doctorId);
         verify(badgeService).evaluateAllBadges(doctorId);
     }
 
@@ -209,21 +223,19 @@ class BadgeEvaluationTriggerServiceTest {
         assertDoesNotThrow(() -> triggerService.evaluateAllBadges(doctorId));
 
         verify(userRepository).findById(doctorId);
-        verify(statisticsUpdateService).updateAllBadgeProgress(doctorId);
         verify(badgeService).evaluateAllBadges(doctorId);
     }
 
     @Test
-    void evaluateAllBadges_ExceptionInProgressUpdate_HandlesGracefully() {
+    void evaluateAllBadges_ExceptionInEvaluation_HandlesGracefully() {
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
-        doThrow(new RuntimeException("Progress update failed"))
-            .when(statisticsUpdateService).updateAllBadgeProgress(doctorId);
+        doThrow(new RuntimeException("Evaluation failed"))
+            .when(badgeService).evaluateAllBadges(doctorId);
 
         assertDoesNotThrow(() -> triggerService.evaluateAllBadges(doctorId));
 
         verify(userRepository).findById(doctorId);
-        verify(statisticsUpdateService).updateAllBadgeProgress(doctorId);
-        verify(badgeService, never()).evaluateAllBadges(any());
+        verify(badgeSnapshotService).invalidate(doctorId);
     }
 
     @Test
@@ -234,8 +246,7 @@ class BadgeEvaluationTriggerServiceTest {
 
         verify(userRepository).findById(doctorId);
         verify(statisticsUpdateService).updateAfterTurnNoShowSync(doctorId);
-        verify(statisticsUpdateService).updateProgressAfterCancellationSync(doctorId);
-        verify(badgeService).evaluateConsistencyRelatedBadges(doctorId);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(doctorId)), eq(EnumSet.of(BadgeTrigger.CONSISTENCY)));
     }
 
     @Test
@@ -265,8 +276,7 @@ class BadgeEvaluationTriggerServiceTest {
 
         verify(userRepository).findById(patientId);
         verify(statisticsUpdateService).updateAfterAdvanceBookingSync(patientId);
-        verify(statisticsUpdateService).updateProgressAfterBookingSync(patientId);
-        verify(badgeService).evaluateBookingRelatedBadges(patientId);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(patientId)), eq(EnumSet.of(BadgeTrigger.BOOKING)));
     }
 
     @Test
@@ -288,19 +298,18 @@ class BadgeEvaluationTriggerServiceTest {
 
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
 
-        triggerService.evaluateAfterRatingGiven(patientId);
+        triggerService.evaluateAfterRatingGiven(patientId, 5);
 
         verify(userRepository).findById(patientId);
-        verify(statisticsUpdateService).updateAfterRatingGivenSync(patientId);
-        verify(statisticsUpdateService).updateProgressAfterRatingSync(patientId);
-        verify(badgeService).evaluateRatingRelatedBadges(patientId);
+        verify(statisticsUpdateService).updateAfterRatingGivenSync(patientId, 5);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(patientId)), eq(EnumSet.of(BadgeTrigger.RATING)));
     }
 
     @Test
     void evaluateAfterRatingGiven_InvalidPatientRole_HandlesGracefully() {
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
 
-        assertDoesNotThrow(() -> triggerService.evaluateAfterRatingGiven(doctorId));
+        assertDoesNotThrow(() -> triggerService.evaluateAfterRatingGiven(doctorId, 5));
 
         verify(userRepository).findById(doctorId);
         verifyNoInteractions(statisticsUpdateService);
@@ -311,12 +320,11 @@ class BadgeEvaluationTriggerServiceTest {
     void evaluateAfterRatingReceived_ValidUser_UpdatesStatisticsAndEvaluatesBadges() {
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
 
-        triggerService.evaluateAfterRatingReceived(doctorId);
+        triggerService.evaluateAfterRatingReceived(doctorId, SAMPLE);
 
         verify(userRepository).findById(doctorId);
-        verify(statisticsUpdateService).updateAfterRatingReceivedSync(doctorId);
-        verify(statisticsUpdateService).updateProgressAfterRatingSync(doctorId);
-        verify(badgeService).evaluateRatingRelatedBadges(doctorId);
+        verify(statisticsUpdateService).updateAfterRatingReceivedSync(doctorId, SAMPLE);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(doctorId)), eq(EnumSet.of(BadgeTrigger.RATING)));
     }
 
     @Test
@@ -331,8 +339,7 @@ class BadgeEvaluationTriggerServiceTest {
 
         verify(userRepository).findById(patientId);
         verify(statisticsUpdateService).updateAfterFileUploadedSync(patientId);
-        verify(statisticsUpdateService).updateProgressAfterFileUploadSync(patientId);
-        verify(badgeService).evaluateFileRelatedBadges(patientId);
+        verify(badgeService).evaluateBadges(argThat(user -> user.getId().equals(patientId)), eq(EnumSet.of(BadgeTrigger.FILE)));
     }
 
     @Test
@@ -353,7 +360,7 @@ class BadgeEvaluationTriggerServiceTest {
         triggerService.evaluateAfterAvailabilityConfigured(doctorId);
 
         verify(userRepository).findById(doctorId);
-        verify(badgeService).evaluateAlwaysAvailable(doctor);
+        verify(badgeService).evaluateBadges(doctor, EnumSet.of(BadgeTrigger.AVAILABILITY));
     }
 
     @Test
@@ -369,4 +376,64 @@ class BadgeEvaluationTriggerServiceTest {
         verify(userRepository).findById(doctorId);
         verifyNoInteractions(badgeService);
     }
-}
\ No newline at end of file
+
+    @Test
+    void coalescingWindow_EventsOfSameUser_RecordEachEventAndEvaluateOnceForTheUnion() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BadgeEvaluationTriggerService coalescingService = new BadgeEvaluationTriggerService(badgeService,
+                statisticsUpdateService, badgeSnapshotService, userRepository, badgeExecutor, meterRegistry, 60_000, 100);
+        when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+
+        coalescingService.evaluateAfterRating(doctorId, SAMPLE, 4, 5, 4);
+        coalescingService.evaluateAfterTurnCancellation(doctorId);
+        coalescingService.evaluateAfterRating(doctorId, SAMPLE, 5, 5, 5);
+        coalescingService.flushDue();
+
+        verifyNoInteractions(statisticsUpdateService, badgeService);
+
+        coalescingService.flushAll();
+
+        verify(userRepository, times(1)).findById(doctorId);
+        verify(statisticsUpdateService).updateAfterRatingAddedSync(doctorId, SAMPLE, 4, 5, 4);
+        verify(statisticsUpdateService).updateAfterRatingAddedSync(doctorId, SAMPLE, 5, 5, 5);
+        verify(statisticsUpdateService).updateAfterTurnCancelledSync(doctorId);
+        verifyNoMoreInteractions(statisticsUpdateService);
+        verify(badgeService, times(1)).evaluateBadges(doctor, EnumSet.of(BadgeTrigger.RATING, BadgeTrigger.CONSISTENCY));
+        assertEquals(3.0, meterRegistry.get("badge.evaluation.events.received").counter().count());
+        assertEquals(1.0, meterRegistry.get("badge.evaluation.executed").counter().count());
+    }
+
+    @Test
+    void coalescingWindow_EventForWrongRole_IsLeftOutOfTheUnion() {
+        BadgeEvaluationTriggerService coalescingService = new BadgeEvaluationTriggerService(badgeService,
+                statisticsUpdateService, badgeSnapshotService, userRepository, badgeExecutor, new SimpleMeterRegistry(), 60_000, 100);
+        when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+
+        coalescingService.evaluateAfterFileUploaded(doctorId);
+        coalescingService.evaluateAfterModifyRequestHandled(doctorId);
+        coalescingService.flushAll();
+
+        verify(statisticsUpdateService, never()).updateAfterFileUploadedSync(any());
+        verify(statisticsUpdateService).updateAfterModifyRequestHandledSync(doctorId);
+        verify(badgeService).evaluateBadges(doctor, EnumSet.of(BadgeTrigger.RESPONSE));
+    }
+
+    @Test
+    void coalescingWindow_QueueFull_EvaluatesOverflowingEventOnItsOwn() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        BadgeEvaluationTriggerService coalescingService = new BadgeEvaluationTriggerService(badgeService,
+                statisticsUpdateService, badgeSnapshotService, userRepository, badgeExecutor, meterRegistry, 60_000, 1);
+        User patient = new User();
+        patient.setId(patientId);
+        patient.setRole("PATIENT");
+        when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
+
+        coalescingService.evaluateAfterModifyRequestHandled(doctorId);
+        coalescingService.evaluateAfterFileUploaded(patientId);
+
+        verify(statisticsUpdateService).updateAfterFileUploadedSync(patientId);
+        verify(badgeService).evaluateBadges(patient, EnumSet.of(BadgeTrigger.FILE));
+        verify(statisticsUpdateService, never()).updateAfterModifyRequestHandledSync(any());
+        assertEquals(1.0, meterRegistry.get("badge.evaluation.events.overflowed").counter().count());
+    }
+}
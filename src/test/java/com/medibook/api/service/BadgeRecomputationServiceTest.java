@@ -0,0 +1,167 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.dto.Admin.BadgeRecomputeJobDTO;
+import com.medibook.api.entity.BadgeRecomputeJob;
+import com.medibook.api.entity.BadgeStatistics;
+import com.medibook.api.entity.Rating;
+import com.medibook.api.entity.TurnAssigned;
+import com.medibook.api.entity.User;
+import com.medibook.api.repository.BadgeRepository;
+import com.medibook.api.repository.BadgeStatisticsRepository;
+import com.medibook.api.repository.RatingRepository;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BadgeRecomputationServiceTest {
+
+    @Autowired
+    private BadgeRecomputationService recomputationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TurnAssignedRepository turnAssignedRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private BadgeStatisticsRepository statisticsRepository;
+
+    @Autowired
+    private BadgeRepository badgeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private User doctor;
+    private User patient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        doctor = userRepository.saveAndFlush(createUser("recompute.doctor@example.com", 94000001L, "DOCTOR"));
+        patient = userRepository.saveAndFlush(createUser("recompute.patient@example.com", 94000002L, "PATIENT"));
+
+        OffsetDateTime base = OffsetDateTime.now(ZoneOffset.UTC).minusDays(30);
+        TurnAssigned rated = null;
+        for (int i = 0; i < 3; i++) {
+            rated = turnAssignedRepository.save(turn(base.plusDays(i), "COMPLETED"));
+        }
+        turnAssignedRepository.save(turn(base.plusDays(5), "CANCELED"));
+        ratingRepository.save(Rating.builder()
+                .turnAssigned(rated)
+                .rater(patient)
+                .rated(doctor)
+                .score(5)
+                .subcategory("Explica claramente")
+                .subcategories(Set.of("Explica claramente"))
+                .createdAt(base.plusDays(3))
+                .build());
+
+        statisticsRepository.save(BadgeStatistics.builder()
+                .userId(doctor.getId())
+                .statistics(objectMapper.readTree("{\"total_turns_completed\": 99, \"total_cancellations\": 7}"))
+                .progress(objectMapper.createObjectNode())
+                .build());
+        statisticsRepository.save(BadgeStatistics.builder()
+                .userId(patient.getId())
+                .statistics(objectMapper.readTree("{\"total_turns_completed\": 0, \"advance_bookings\": 4}"))
+                .progress(objectMapper.createObjectNode())
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM rating_subcategories WHERE rating_id IN (SELECT id FROM ratings WHERE rated_id = ?)", doctor.getId());
+        jdbcTemplate.update("DELETE FROM ratings WHERE rated_id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM turns_assigned WHERE doctor_id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM badges WHERE user_id IN (?, ?)", doctor.getId(), patient.getId());
+        jdbcTemplate.update("DELETE FROM badge_statistics WHERE user_id IN (?, ?)", doctor.getId(), patient.getId());
+        userRepository.delete(patient);
+        userRepository.delete(doctor);
+    }
+
+    @Test
+    void start_RebuildsDriftedStatisticsFromSourceTables() throws Exception {
+        BadgeRecomputeJobDTO started = recomputationService.start(true);
+        assertEquals(BadgeRecomputeJob.RUNNING, started.getStatus());
+
+        BadgeRecomputeJobDTO finished = awaitFinished();
+        assertEquals(BadgeRecomputeJob.COMPLETED, finished.getStatus());
+        assertEquals(finished.getTotalUsers(), finished.getProcessedUsers());
+        assertEquals(100.0, finished.getProgressPercent());
+
+        JsonNode doctorStats = statisticsRepository.findByUserId(doctor.getId()).orElseThrow().getStatistics();
+        assertEquals(3, doctorStats.path("total_turns_completed").asInt());
+        assertEquals(1, doctorStats.path("total_cancellations").asInt());
+        assertEquals(1, doctorStats.path("total_unique_patients").asInt());
+        assertEquals(1, doctorStats.path("total_communication_count").asInt());
+        assertEquals(5.0, doctorStats.path("total_avg_rating").asDouble());
+
+        JsonNode patientStats = statisticsRepository.findByUserId(patient.getId()).orElseThrow().getStatistics();
+        assertEquals(3, patientStats.path("total_turns_completed").asInt());
+        assertEquals(3, patientStats.path("turns_with_same_doctor").asInt());
+        assertEquals(1, patientStats.path("ratings_given").asInt());
+        assertEquals(4, patientStats.path("advance_bookings").asInt());
+
+        JsonNode doctorProgress = statisticsRepository.findByUserId(doctor.getId()).orElseThrow().getProgress();
+        assertEquals(4.0, doctorProgress.path("DOCTOR_RELATIONSHIP_BUILDER").asDouble(), 0.001);
+        assertEquals(0.0, doctorProgress.path("DOCTOR_ALWAYS_AVAILABLE").asDouble(), 0.001);
+
+        assertTrue(badgeRepository.existsByUser_IdAndBadgeTypeAndIsActive(patient.getId(), "PATIENT_MEDIBOOK_WELCOME", true));
+    }
+
+    private BadgeRecomputeJobDTO awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (System.currentTimeMillis() < deadline) {
+            BadgeRecomputeJobDTO job = recomputationService.getLatestJob().orElseThrow();
+            if (!BadgeRecomputeJob.RUNNING.equals(job.getStatus())) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        fail("Badge recomputation did not finish in time");
+        return null;
+    }
+
+    private TurnAssigned turn(OffsetDateTime scheduledAt, String status) {
+        return TurnAssigned.builder()
+                .doctor(doctor)
+                .patient(patient)
+                .scheduledAt(scheduledAt)
+                .status(status)
+                .build();
+    }
+
+    private User createUser(String email, Long dni, String role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setDni(dni);
+        user.setPasswordHash("hashedPassword");
+        user.setName("Recompute");
+        user.setSurname(role);
+        user.setRole(role);
+        user.setStatus("ACTIVE");
+        user.setEmailVerified(true);
+        return user;
+    }
+}
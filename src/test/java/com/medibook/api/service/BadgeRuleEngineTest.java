@@ -0,0 +1,215 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.medibook.api.entity.Badge;
+import com.medibook.api.entity.BadgeStatistics;
+import com.medibook.api.entity.User;
+import com.medibook.api.model.BadgeMetric;
+import com.medibook.api.model.BadgeRuleDefinition;
+import com.medibook.api.model.BadgeTrigger;
+import com.medibook.api.repository.DoctorProfileRepository;
+import com.medibook.api.repository.TurnAssignedRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BadgeRuleEngineTest {
+
+    @Mock private TurnAssignedRepository turnAssignedRepository;
+    @Mock private DoctorProfileRepository doctorProfileRepository;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BadgeRuleEngine engine;
+    private User patient;
+    private User doctor;
+
+    @BeforeEach
+    void setUp() {
+        engine = new BadgeRuleEngine(turnAssignedRepository, doctorProfileRepository);
+
+        patient = new User();
+        patient.setId(UUID.randomUUID());
+        patient.setRole("PATIENT");
+
+        doctor = new User();
+        doctor.setId(UUID.randomUUID());
+        doctor.setRole("DOCTOR");
+    }
+
+    @Test
+    void evaluateAll_Patient_AppliesDependentRulesAfterTheBadgesTheyCount() {
+        BadgeEvaluationContext context = context(patient, objectMapper.createObjectNode()
+                .put("total_turns_completed", 30)
+                .put("files_uploaded", 10)
+                .put("advance_bookings", 4));
+
+        engine.evaluateAll(context);
+
+        assertTrue(context.isActive("PATIENT_MEDIBOOK_WELCOME"));
+        assertTrue(context.isActive("PATIENT_COMMITTED_PATIENT"));
+        assertTrue(context.isActive("PATIENT_CONSTANT_PATIENT"));
+        assertTrue(context.isActive("PATIENT_ALWAYS_PREPARED"));
+        assertTrue(context.isActive("PATIENT_EXCELLENCE_MODEL"));
+        assertFalse(context.isActive("PATIENT_SMART_PLANNER"));
+        assertEquals(40.0, progress(context, "PATIENT_SMART_PLANNER"), 0.001);
+        assertEquals(100.0, progress(context, "PATIENT_EXCELLENCE_MODEL"), 0.001);
+        verifyNoInteractions(turnAssignedRepository, doctorProfileRepository);
+    }
+
+    @Test
+    void evaluate_GatedRules_ReportProgressTowardsTheGate() {
+        BadgeEvaluationContext context = context(doctor, objectMapper.createObjectNode()
+                .put("total_turns_completed", 30)
+                .put("documentation_count", 20));
+
+        engine.evaluate(context, BadgeTrigger.DOCUMENTATION);
+
+        assertEquals(60.0, progress(context, "DOCTOR_COMPLETE_DOCUMENTER"), 0.001);
+        assertEquals(20.0 / 60 * 100, progress(context, "DOCTOR_DETAILED_DIAGNOSTICIAN"), 0.001);
+        assertTrue(context.getChangedBadges().isEmpty());
+    }
+
+    @Test
+    void evaluate_RatingTrigger_ReevaluatesBadgesThatDependOnRatingBadges() {
+        BadgeEvaluationContext context = context(doctor, objectMapper.createObjectNode()
+                .put("total_communication_count", 25)
+                .put("total_empathy_count", 25)
+                .put("total_punctuality_count", 20));
+
+        engine.evaluate(context, BadgeTrigger.RATING);
+
+        assertTrue(context.isActive("DOCTOR_MEDICAL_LEGEND"));
+        assertEquals(4, context.getChangedBadges().size());
+        verifyNoInteractions(turnAssignedRepository, doctorProfileRepository);
+    }
+
+    @Test
+    void evaluate_TriggerUnion_AppliesEachRuleOnce() {
+        BadgeEvaluationContext context = context(patient, objectMapper.createObjectNode()
+                .put("files_uploaded", 10)
+                .put("advance_bookings", 10));
+
+        engine.evaluate(context, EnumSet.of(BadgeTrigger.FILE, BadgeTrigger.BOOKING));
+
+        assertTrue(context.isActive("PATIENT_ALWAYS_PREPARED"));
+        assertTrue(context.isActive("PATIENT_SMART_PLANNER"));
+        assertEquals(2, context.getChangedBadges().size());
+        assertTrue(context.getStats().getProgress().path("PATIENT_MEDIBOOK_WELCOME").isMissingNode());
+    }
+
+    @Test
+    void evaluate_LoadsEachExternalMetricOncePerPlan() {
+        when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctor.getId())).thenReturn(patients(25));
+        BadgeEvaluationContext context = context(doctor, objectMapper.createObjectNode());
+
+        engine.evaluate(context, BadgeTrigger.TURN_COMPLETION);
+
+        assertTrue(context.isActive("DOCTOR_RELATIONSHIP_BUILDER"));
+        assertEquals(0.0, progress(context, "DOCTOR_TOP_SPECIALIST"), 0.001);
+        verify(turnAssignedRepository, times(1)).findDistinctPatientsByDoctorId(doctor.getId());
+        verifyNoInteractions(doctorProfileRepository);
+    }
+
+    @Test
+    void evaluate_PreloadedMetrics_AreNotQueried() {
+        BadgeEvaluationContext context = context(doctor, objectMapper.createObjectNode());
+        context.preload(BadgeMetric.DISTINCT_PATIENTS, 25);
+        context.preload(BadgeMetric.AVAILABLE_DAYS, 2);
+
+        engine.evaluateAll(context);
+
+        assertTrue(context.isActive("DOCTOR_RELATIONSHIP_BUILDER"));
+        assertEquals(50.0, progress(context, "DOCTOR_ALWAYS_AVAILABLE"), 0.001);
+        verifyNoInteractions(turnAssignedRepository, doctorProfileRepository);
+    }
+
+    @Test
+    void evaluate_TopSpecialist_ReadsRecentHighScoresFromStatistics() {
+        BadgeEvaluationContext context = context(doctor, objectMapper.createObjectNode()
+                .put("recent_patient_high_scores", 35));
+
+        engine.evaluateBadge(context, "DOCTOR_TOP_SPECIALIST");
+
+        assertTrue(context.isActive("DOCTOR_TOP_SPECIALIST"));
+        assertEquals(100.0, progress(context, "DOCTOR_TOP_SPECIALIST"), 0.001);
+        verifyNoInteractions(turnAssignedRepository, doctorProfileRepository);
+    }
+
+    @Test
+    void evaluate_FailedMetricLoad_SkipsOnlyRulesReadingIt() {
+        when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctor.getId())).thenThrow(new RuntimeException("Database error"));
+        BadgeEvaluationContext context = context(doctor, objectMapper.createObjectNode());
+
+        engine.evaluate(context, BadgeTrigger.TURN);
+
+        assertTrue(context.getStats().getProgress().path("DOCTOR_RELATIONSHIP_BUILDER").isMissingNode());
+        assertEquals(0.0, progress(context, "DOCTOR_TOP_SPECIALIST"), 0.001);
+        assertEquals(0.0, progress(context, "DOCTOR_MEDICAL_LEGEND"), 0.001);
+    }
+
+    @Test
+    void evaluate_NewDefinition_NeedsNoNewCode() {
+        BadgeRuleEngine custom = new BadgeRuleEngine(turnAssignedRepository, doctorProfileRepository, List.of(
+                BadgeRuleDefinition.atLeast("PATIENT_FILE_COLLECTOR", "PATIENT", BadgeMetric.FILES_UPLOADED, 3)
+                        .trigger(BadgeTrigger.FILE).build()));
+        BadgeEvaluationContext context = context(patient, objectMapper.createObjectNode().put("files_uploaded", 3));
+
+        custom.evaluate(context, BadgeTrigger.FILE);
+
+        assertTrue(context.isActive("PATIENT_FILE_COLLECTOR"));
+        assertEquals(100.0, progress(context, "PATIENT_FILE_COLLECTOR"), 0.001);
+    }
+
+    @Test
+    void constructor_UnknownDependency_FailsAtStartup() {
+        List<BadgeRuleDefinition> definitions = List.of(
+                BadgeRuleDefinition.requiresBadges("DOCTOR_LEGEND", "DOCTOR", List.of("DOCTOR_MISSING"))
+                        .trigger(BadgeTrigger.TURN).build());
+
+        assertThrows(IllegalStateException.class,
+                () -> new BadgeRuleEngine(turnAssignedRepository, doctorProfileRepository, definitions));
+    }
+
+    @Test
+    void evaluateBadge_UnknownBadgeType_Throws() {
+        BadgeEvaluationContext context = context(patient, objectMapper.createObjectNode());
+
+        assertThrows(IllegalArgumentException.class, () -> engine.evaluateBadge(context, "UNKNOWN_BADGE"));
+    }
+
+    private BadgeEvaluationContext context(User user, ObjectNode statistics) {
+        BadgeStatistics stats = BadgeStatistics.builder()
+                .userId(user.getId())
+                .statistics(statistics)
+                .progress(objectMapper.createObjectNode())
+                .build();
+        return new BadgeEvaluationContext(user, stats, false, new ArrayList<Badge>());
+    }
+
+    private double progress(BadgeEvaluationContext context, String badgeType) {
+        return context.getStats().getProgress().path(badgeType).asDouble(-1);
+    }
+
+    private List<User> patients(int count) {
+        List<User> patients = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId(UUID.randomUUID());
+            patients.add(user);
+        }
+        return patients;
+    }
+}
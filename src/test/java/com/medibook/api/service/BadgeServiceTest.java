@@ -9,9 +9,9 @@ import com.medibook.api.dto.Badge.BadgeDTO;
 import com.medibook.api.entity.*;
 import com.medibook.api.entity.BadgeType.BadgeCategory;
 import com.medibook.api.repository.*;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -33,9 +33,6 @@ class BadgeServiceTest {
     @Mock
     private BadgeStatisticsRepository statisticsRepository;
 
-    @Mock
-    private RatingRepository ratingRepository;
-
     @Mock
     private TurnAssignedRepository turnAssignedRepository;
 
@@ -45,7 +42,14 @@ class BadgeServiceTest {
     @Mock
     private BadgeProgressService badgeProgressService;
 
-    @InjectMocks
+    @Mock
+    private DoctorLeaderboardService doctorLeaderboardService;
+
+    @Mock
+    private BadgeSnapshotService badgeSnapshotService;
+
+    private BadgeRuleEngine ruleEngine;
+
     private BadgeService badgeService;
 
     private ObjectMapper objectMapper = new ObjectMapper();
@@ -59,6 +63,8 @@ class BadgeServiceTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        ruleEngine = new BadgeRuleEngine(turnAssignedRepository, doctorProfileRepository);
+        badgeService = new BadgeService(badgeRepository, userRepository, statisticsRepository, badgeProgressService, ruleEngine, doctorLeaderboardService, badgeSnapshotService);
         userId = UUID.randomUUID();
         doctor = new User();
         doctor.setId(userId);
@@ -76,9 +82,6 @@ class BadgeServiceTest {
 
         patientId = patient.getId();
         doctorId = doctor.getId();
-
-        lenient().when(ratingRepository.findTop35ByRated_IdAndRater_RoleOrderByCreatedAtDesc(any(UUID.class), anyString()))
-            .thenReturn(new ArrayList<>());
     }
 
     @Test
@@ -238,7 +241,7 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(userId);
 
-        verify(userRepository, times(6)).findById(userId);
+        verify(userRepository, times(1)).findById(userId);
     }
 
     @Test
@@ -257,7 +260,7 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(patientId);
 
-        verify(userRepository, times(5)).findById(patientId);
+        verify(userRepository, times(1)).findById(patientId);
     }
 
     @Test
@@ -297,7 +300,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.findByUser_IdAndBadgeType(patientId, "PATIENT_MEDIBOOK_WELCOME")).thenReturn(Optional.empty());
 
         badgeService.evaluateTurnRelatedBadges(patientId);
 
@@ -324,7 +326,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.findByUser_IdAndBadgeType(patientId, "PATIENT_MEDIBOOK_WELCOME")).thenReturn(Optional.empty());
 
         badgeService.evaluateTurnRelatedBadges(patientId);
 
@@ -348,7 +349,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.findByUser_IdAndBadgeType(patientId, "PATIENT_EXEMPLARY_PUNCTUALITY")).thenReturn(Optional.empty());
 
         badgeService.evaluateRatingRelatedBadges(patientId);
 
@@ -374,7 +374,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.findByUser_IdAndBadgeType(patientId, "PATIENT_ALWAYS_PREPARED")).thenReturn(Optional.empty());
 
         badgeService.evaluateFileRelatedBadges(patientId);
 
@@ -398,7 +397,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR")).thenReturn(Optional.empty());
 
         badgeService.evaluateRatingRelatedBadges(userId);
 
@@ -423,7 +421,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_COMPLETE_DOCUMENTER")).thenReturn(Optional.empty());
 
         badgeService.evaluateDocumentationRelatedBadges(userId);
 
@@ -449,7 +446,6 @@ class BadgeServiceTest {
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
         when(doctorProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_ALWAYS_AVAILABLE")).thenReturn(Optional.empty());
 
         badgeService.evaluateConsistencyRelatedBadges(userId);
 
@@ -474,7 +470,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_MEDICAL_LEGEND")).thenReturn(Optional.empty());
         stubMedicalLegendDependencies(userId, true, true, true);
 
         badgeService.evaluateTurnRelatedBadges(userId);
@@ -501,7 +496,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.findByUser_IdAndBadgeType(patientId, "PATIENT_CONSTANT_PATIENT")).thenReturn(Optional.empty());
 
         badgeService.evaluateTurnRelatedBadges(patientId);
 
@@ -527,7 +521,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.findByUser_IdAndBadgeType(patientId, "PATIENT_SMART_PLANNER")).thenReturn(Optional.empty());
 
         badgeService.evaluateBookingRelatedBadges(patientId);
 
@@ -553,7 +546,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.findByUser_IdAndBadgeType(patientId, "PATIENT_EXCELLENT_COLLABORATOR")).thenReturn(Optional.empty());
 
         badgeService.evaluateRatingRelatedBadges(patientId);
 
@@ -580,7 +572,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.findByUser_IdAndBadgeType(patientId, "PATIENT_RESPONSIBLE_EVALUATOR")).thenReturn(Optional.empty());
 
         badgeService.evaluateRatingRelatedBadges(patientId);
 
@@ -606,8 +597,11 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.countActiveBadgesByUserIdExcludingType(patientId, "PATIENT_EXCELLENCE_MODEL")).thenReturn(4L);
-        when(badgeRepository.findByUser_IdAndBadgeType(patientId, "PATIENT_EXCELLENCE_MODEL")).thenReturn(Optional.empty());
+        when(badgeRepository.findByUser_Id(patientId)).thenReturn(List.of(
+                activeBadge(patientId, "PATIENT_MEDIBOOK_WELCOME"),
+                activeBadge(patientId, "PATIENT_COMMITTED_PATIENT"),
+                activeBadge(patientId, "PATIENT_CONTINUOUS_FOLLOWUP"),
+                activeBadge(patientId, "PATIENT_SMART_PLANNER")));
 
         badgeService.evaluateRatingRelatedBadges(patientId);
 
@@ -631,7 +625,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_EMPATHETIC_DOCTOR")).thenReturn(Optional.empty());
 
         badgeService.evaluateRatingRelatedBadges(userId);
 
@@ -655,7 +648,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_PUNCTUALITY_PROFESSIONAL")).thenReturn(Optional.empty());
 
         badgeService.evaluateRatingRelatedBadges(userId);
 
@@ -681,8 +673,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.existsByUser_IdAndBadgeTypeAndIsActive(userId, "DOCTOR_COMPLETE_DOCUMENTER", true)).thenReturn(true);
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_DETAILED_DIAGNOSTICIAN")).thenReturn(Optional.empty());
 
         badgeService.evaluateDocumentationRelatedBadges(userId);
 
@@ -706,7 +696,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_AGILE_RESPONDER")).thenReturn(Optional.empty());
 
         badgeService.evaluateResponseRelatedBadges(userId);
 
@@ -731,7 +720,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_RELATIONSHIP_BUILDER")).thenReturn(Optional.empty());
 
         List<User> patients = java.util.stream.IntStream.range(0, 50).mapToObj(i -> {
             User u = new User();
@@ -763,7 +751,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_CONSISTENT_PROFESSIONAL")).thenReturn(Optional.empty());
 
         badgeService.evaluateConsistencyRelatedBadges(userId);
 
@@ -773,12 +760,45 @@ class BadgeServiceTest {
         ));
     }
 
+    @Test
+    void getUserBadgesJson_UnchangedUser_ServedFromSnapshot() throws Exception {
+        BadgeSnapshotService snapshots = new BadgeSnapshotService(objectMapper, new SimpleMeterRegistry(), 1 << 20);
+        BadgeService cachingService = new BadgeService(badgeRepository, userRepository, statisticsRepository,
+                badgeProgressService, ruleEngine, doctorLeaderboardService, snapshots);
+        when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
+        when(badgeRepository.findByUser_IdOrderByEarnedAtDesc(userId)).thenReturn(new ArrayList<>());
+
+        byte[] first = cachingService.getUserBadgesJson(userId);
+        byte[] second = cachingService.getUserBadgesJson(userId);
+
+        assertSame(first, second);
+        assertEquals("Dr. Test Doctor", objectMapper.readTree(second).path("userName").asText());
+        verify(userRepository, times(1)).findById(userId);
+        verify(badgeRepository, times(1)).findByUser_IdOrderByEarnedAtDesc(userId);
+    }
+
+    @Test
+    void getUserBadgeProgressJson_AfterInvalidation_RebuildsSnapshot() {
+        BadgeSnapshotService snapshots = new BadgeSnapshotService(objectMapper, new SimpleMeterRegistry(), 1 << 20);
+        BadgeService cachingService = new BadgeService(badgeRepository, userRepository, statisticsRepository,
+                badgeProgressService, ruleEngine, doctorLeaderboardService, snapshots);
+        when(badgeProgressService.getBadgeProgress(userId)).thenReturn(new ArrayList<>());
+
+        cachingService.getUserBadgeProgressJson(userId);
+        cachingService.getUserBadgeProgressJson(userId);
+        snapshots.invalidate(userId);
+        cachingService.getUserBadgeProgressJson(userId);
+
+        verify(badgeProgressService, times(2)).getBadgeProgress(userId);
+    }
+
     @Test
     void evaluateTopSpecialist_AllCriteriaMet_ActivatesBadge() {
         ObjectNode statisticsJson = objectMapper.createObjectNode();
         statisticsJson.put("total_turns_completed", 100);
         statisticsJson.put("total_avg_rating", 4.2);
         statisticsJson.put("specialty_rank_percentile", 0.15);
+        statisticsJson.put("recent_patient_high_scores", 35);
         
         BadgeStatistics stats = BadgeStatistics.builder()
                 .userId(userId)
@@ -789,8 +809,6 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_TOP_SPECIALIST")).thenReturn(Optional.empty());
-        when(ratingRepository.findTop35ByRated_IdAndRater_RoleOrderByCreatedAtDesc(userId, "PATIENT")).thenReturn(createRatings(35, 4));
 
         badgeService.evaluateTurnRelatedBadges(userId);
 
@@ -798,6 +816,7 @@ class BadgeServiceTest {
             "DOCTOR_TOP_SPECIALIST".equals(badge.getBadgeType()) && 
             badge.getIsActive()
         ));
+        verify(badgeSnapshotService).invalidate(userId);
     }
 
     @Test
@@ -819,18 +838,13 @@ class BadgeServiceTest {
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
         when(doctorProfileRepository.findByUserId(userId)).thenReturn(Optional.of(profile));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_RELATIONSHIP_BUILDER")).thenReturn(Optional.empty());
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_TOP_SPECIALIST")).thenReturn(Optional.empty());
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_MEDICAL_LEGEND")).thenReturn(Optional.empty());
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_ALWAYS_AVAILABLE")).thenReturn(Optional.empty());
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_CONSISTENT_PROFESSIONAL")).thenReturn(Optional.empty());
-        when(ratingRepository.findTop35ByRated_IdAndRater_RoleOrderByCreatedAtDesc(userId, "PATIENT")).thenReturn(new ArrayList<>());
 
         badgeService.evaluateConsistencyRelatedBadges(userId);
 
         verify(userRepository).findById(userId);
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_CONSISTENT_PROFESSIONAL");
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_ALWAYS_AVAILABLE");
+        verify(badgeRepository).findByUser_Id(userId);
+        verify(badgeRepository, never()).findByUser_IdAndBadgeType(any(), any());
+        verify(badgeRepository, never()).save(any(Badge.class));
     }
 
     @Test
@@ -985,27 +999,25 @@ class BadgeServiceTest {
         existingBadge.setBadgeType("DOCTOR_EXCEPTIONAL_COMMUNICATOR");
         existingBadge.setIsActive(false);
 
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR"))
-            .thenReturn(Optional.of(existingBadge));
+        when(badgeRepository.findByUser_Id(userId)).thenReturn(List.of(existingBadge));
         when(badgeRepository.save(any(Badge.class))).thenReturn(existingBadge);
 
-        badgeService.activateBadge(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+        badgeService.evaluate(doctor, context -> context.activateBadge("DOCTOR_EXCEPTIONAL_COMMUNICATOR"));
 
         assertTrue(existingBadge.getIsActive());
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+        verify(badgeRepository).findByUser_Id(userId);
         verify(badgeRepository).save(existingBadge);
     }
 
     @Test
     void activateBadge_NewBadge_CreatesAndActivates() {
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR"))
-            .thenReturn(Optional.empty());
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        badgeService.activateBadge(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+        badgeService.evaluate(doctor, context -> context.activateBadge("DOCTOR_EXCEPTIONAL_COMMUNICATOR"));
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR");
-        verify(badgeRepository).save(any(Badge.class));
+        verify(badgeRepository).findByUser_Id(userId);
+        verify(badgeRepository).save(argThat(badge -> "DOCTOR_EXCEPTIONAL_COMMUNICATOR".equals(badge.getBadgeType())
+                && badge.getIsActive() && userId.equals(badge.getUserId()) && badge.getEarnedAt() != null));
     }
 
     @Test
@@ -1015,17 +1027,35 @@ class BadgeServiceTest {
         existingBadge.setBadgeType("DOCTOR_EXCEPTIONAL_COMMUNICATOR");
         existingBadge.setIsActive(true);
 
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR"))
-            .thenReturn(Optional.of(existingBadge));
+        when(badgeRepository.findByUser_Id(userId)).thenReturn(List.of(existingBadge));
         when(badgeRepository.save(any(Badge.class))).thenReturn(existingBadge);
 
-        badgeService.deactivateBadge(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+        badgeService.evaluate(doctor, context -> context.deactivateBadge("DOCTOR_EXCEPTIONAL_COMMUNICATOR"));
 
         assertFalse(existingBadge.getIsActive());
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+        verify(badgeRepository).findByUser_Id(userId);
         verify(badgeRepository).save(existingBadge);
     }
 
+    @Test
+    void activateBadge_AlreadyActive_DoesNotWrite() {
+        Badge existingBadge = activeBadge(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+        OffsetDateTime lastEvaluatedAt = existingBadge.getLastEvaluatedAt();
+        when(badgeRepository.findByUser_Id(userId)).thenReturn(List.of(existingBadge));
+
+        badgeService.evaluate(doctor, context -> context.activateBadge("DOCTOR_EXCEPTIONAL_COMMUNICATOR"));
+
+        assertEquals(lastEvaluatedAt, existingBadge.getLastEvaluatedAt());
+        verify(badgeRepository, never()).save(any(Badge.class));
+    }
+
+    @Test
+    void deactivateBadge_MissingBadge_DoesNotWrite() {
+        badgeService.evaluate(doctor, context -> context.deactivateBadge("DOCTOR_EXCEPTIONAL_COMMUNICATOR"));
+
+        verify(badgeRepository, never()).save(any(Badge.class));
+    }
+
     @Test
     void getCategoryForBadge_DoctorBadge_ReturnsDoctorCategory() {
         BadgeCategory result = badgeService.getCategoryForBadge("DOCTOR_EXCEPTIONAL_COMMUNICATOR", "DOCTOR");
@@ -1042,15 +1072,18 @@ class BadgeServiceTest {
     void createBadge_ValidInputs_CreatesBadge() {
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        badgeService.createBadge(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+        badgeService.evaluate(doctor, context -> {
+            context.createBadge("DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+            context.createBadge("DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+        });
 
-        verify(badgeRepository).save(any(Badge.class));
+        verify(badgeRepository, times(1)).save(any(Badge.class));
     }
 
     @Test
     void parseJson_ValidJson_ReturnsParsedJsonNode() {
         String json = "{\"key\": \"value\", \"number\": 42}";
-        JsonNode result = badgeService.parseJson(json);
+        JsonNode result = ruleEngine.parseJson(json);
         
         assertNotNull(result);
         assertEquals("value", result.path("key").asText());
@@ -1060,7 +1093,7 @@ class BadgeServiceTest {
     @Test
     void parseJson_InvalidJson_ReturnsEmptyJsonNode() {
         String invalidJson = "invalid json";
-        JsonNode result = badgeService.parseJson(invalidJson);
+        JsonNode result = ruleEngine.parseJson(invalidJson);
         
         assertNotNull(result);
         assertTrue(result.isObject());
@@ -1095,7 +1128,7 @@ class BadgeServiceTest {
         badgeService.evaluateAllBadges(userId);
 
         verify(statisticsRepository, atLeast(1)).findByUserId(userId);
-        verify(userRepository, times(6)).findById(userId);
+        verify(userRepository, times(1)).findById(userId);
         verify(statisticsRepository, atLeast(1)).save(any(BadgeStatistics.class));
     }
 
@@ -1126,10 +1159,118 @@ class BadgeServiceTest {
         badgeService.evaluateAllBadges(userId);
 
         verify(statisticsRepository, atLeast(1)).findByUserId(userId);
-        verify(userRepository, times(5)).findById(userId);
+        verify(userRepository, times(1)).findById(userId);
         verify(statisticsRepository, atLeast(1)).save(any(BadgeStatistics.class));
     }
 
+    @Test
+    void evaluateAllBadges_Doctor_ReadsOnceAndWritesOnlyChangedRows() {
+        BadgeStatistics stats = BadgeStatistics.builder()
+                .userId(doctorId)
+                .statistics(highDoctorStatistics())
+                .progress(objectMapper.createObjectNode())
+                .build();
+        Badge topSpecialist = activeBadge(doctorId, "DOCTOR_TOP_SPECIALIST");
+        Badge relationshipBuilder = activeBadge(doctorId, "DOCTOR_RELATIONSHIP_BUILDER");
+        relationshipBuilder.setIsActive(false);
+        Map<String, Badge> storedBadges = storedBadges(doctorId,
+                activeBadge(doctorId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR"), topSpecialist, relationshipBuilder);
+
+        when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(statisticsRepository.findByUserId(doctorId)).thenReturn(Optional.of(stats));
+        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
+
+        badgeService.evaluateAllBadges(doctorId);
+
+        verify(userRepository, times(1)).findById(doctorId);
+        verify(statisticsRepository, times(1)).findByUserId(doctorId);
+        verify(statisticsRepository, times(1)).save(stats);
+        verifyNoMoreInteractions(statisticsRepository);
+        verify(badgeRepository, times(1)).findByUser_Id(doctorId);
+        verify(badgeRepository, times(8)).save(any(Badge.class));
+        verify(badgeRepository).save(topSpecialist);
+        verify(badgeRepository, never()).findByUser_IdAndBadgeType(any(), any());
+        verify(badgeRepository, never()).existsByUser_IdAndBadgeTypeAndIsActive(any(), any(), anyBoolean());
+        verify(badgeRepository, never()).countActiveBadgesByUserIdExcludingType(any(), any());
+        verify(turnAssignedRepository, times(1)).findDistinctPatientsByDoctorId(doctorId);
+        verify(doctorProfileRepository, times(1)).findByUserId(doctorId);
+
+        assertFalse(topSpecialist.getIsActive());
+        assertFalse(relationshipBuilder.getIsActive());
+        assertEquals(10, storedBadges.size());
+        assertTrue(storedBadges.get("DOCTOR_MEDICAL_LEGEND").getIsActive());
+        assertEquals(100.0, stats.getProgress().path("DOCTOR_AGILE_RESPONDER").asDouble(), 0.001);
+    }
+
+    @Test
+    void evaluateAllBadges_Doctor_UnchangedStateWritesNothing() {
+        BadgeStatistics stats = BadgeStatistics.builder()
+                .userId(doctorId)
+                .statistics(highDoctorStatistics())
+                .progress(objectMapper.createObjectNode())
+                .build();
+        storedBadges(doctorId,
+                activeBadge(doctorId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR"),
+                activeBadge(doctorId, "DOCTOR_EMPATHETIC_DOCTOR"),
+                activeBadge(doctorId, "DOCTOR_PUNCTUALITY_PROFESSIONAL"));
+
+        when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(statisticsRepository.findByUserId(doctorId)).thenReturn(Optional.of(stats));
+        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
+
+        badgeService.evaluateAllBadges(doctorId);
+        clearInvocations(statisticsRepository);
+        clearInvocations(badgeRepository);
+
+        badgeService.evaluateAllBadges(doctorId);
+
+        verify(statisticsRepository, times(1)).findByUserId(doctorId);
+        verify(badgeRepository, times(1)).findByUser_Id(doctorId);
+        verify(statisticsRepository, never()).save(any());
+        verify(badgeRepository, never()).save(any(Badge.class));
+    }
+
+    @Test
+    void evaluationContext_MissingProgress_IsInitializedAndMarkedChanged() {
+        BadgeStatistics stats = BadgeStatistics.builder()
+                .userId(doctorId)
+                .statistics(objectMapper.createObjectNode())
+                .build();
+
+        BadgeEvaluationContext context = new BadgeEvaluationContext(doctor, stats, false, List.of());
+
+        assertTrue(stats.getProgress().isObject());
+        assertTrue(context.isStatisticsChanged());
+    }
+
+    private ObjectNode highDoctorStatistics() {
+        return objectMapper.createObjectNode()
+                .put("total_turns_completed", 100)
+                .put("total_cancellations", 5)
+                .put("documentation_count", 70)
+                .put("total_requests_handled", 10)
+                .put("total_communication_count", 30)
+                .put("total_empathy_count", 30)
+                .put("total_punctuality_count", 25);
+    }
+
+    /**
+     * Backs {@code findByUser_Id} with the badges saved so far, like the badges table would.
+     */
+    private Map<String, Badge> storedBadges(UUID userId, Badge... initial) {
+        Map<String, Badge> stored = new LinkedHashMap<>();
+        for (Badge badge : initial) {
+            stored.put(badge.getBadgeType(), badge);
+        }
+        when(badgeRepository.findByUser_Id(userId)).thenAnswer(invocation -> new ArrayList<>(stored.values()));
+        when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> {
+            Badge badge = invocation.getArgument(0);
+            stored.put(badge.getBadgeType(), badge);
+            return badge;
+        });
+        return stored;
+    }
+
     @Test
     void evaluateMediBookWelcome_WithInsufficientTurns_DeactivatesBadge() {
         User patient = new User();
@@ -1148,7 +1289,7 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(patientId);
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(patientId, "PATIENT_MEDIBOOK_WELCOME");
+        assertEquals(0.0, stats.getProgress().path("PATIENT_MEDIBOOK_WELCOME").asDouble(-1));
         verify(badgeRepository, never()).save(any(Badge.class));
     }
 
@@ -1170,7 +1311,7 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(patientId);
 
-        verify(badgeRepository, atLeastOnce()).findByUser_IdAndBadgeType(patientId, "PATIENT_CONSTANT_PATIENT");
+        verify(badgeRepository).save(argThat(badge -> "PATIENT_CONSTANT_PATIENT".equals(badge.getBadgeType()) && badge.getIsActive()));
     }
 
     @Test
@@ -1193,7 +1334,7 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(patientId);
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(patientId, "PATIENT_EXEMPLARY_PUNCTUALITY");
+        verify(badgeRepository, never()).save(argThat(badge -> "PATIENT_EXEMPLARY_PUNCTUALITY".equals(badge.getBadgeType())));
     }
 
     @Test
@@ -1216,7 +1357,7 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(patientId);
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(patientId, "PATIENT_RESPONSIBLE_EVALUATOR");
+        verify(badgeRepository).save(argThat(badge -> "PATIENT_RESPONSIBLE_EVALUATOR".equals(badge.getBadgeType()) && badge.getIsActive()));
     }
 
     @Test
@@ -1234,11 +1375,11 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(patientId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(patientId)).thenReturn(Optional.of(patient));
-        when(badgeRepository.countActiveBadgesByUserIdExcludingType(patientId, "PATIENT_EXCELLENCE_MODEL")).thenReturn(2L);
 
         badgeService.evaluateAllBadges(patientId);
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(patientId, "PATIENT_EXCELLENCE_MODEL");
+        verify(badgeRepository, never()).save(argThat(badge -> "PATIENT_EXCELLENCE_MODEL".equals(badge.getBadgeType())));
+        verify(badgeRepository, never()).countActiveBadgesByUserIdExcludingType(any(), any());
     }
 
     @Test
@@ -1256,11 +1397,10 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(doctorId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
-        when(ratingRepository.findTop35ByRated_IdAndRater_RoleOrderByCreatedAtDesc(doctorId, "PATIENT")).thenReturn(createRatings(35, 4));
 
         badgeService.evaluateAllBadges(doctorId);
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(doctorId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR");
+        verify(badgeRepository).save(argThat(badge -> "DOCTOR_EXCEPTIONAL_COMMUNICATOR".equals(badge.getBadgeType()) && badge.getIsActive()));
     }
 
     @Test
@@ -1283,7 +1423,8 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(doctorId);
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(doctorId, "DOCTOR_COMPLETE_DOCUMENTER");
+        verify(badgeRepository, never()).save(argThat(badge -> "DOCTOR_COMPLETE_DOCUMENTER".equals(badge.getBadgeType())));
+        assertEquals(60.0, stats.getProgress().path("DOCTOR_COMPLETE_DOCUMENTER").asDouble(), 0.001);
     }
 
     @Test
@@ -1306,7 +1447,7 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(doctorId);
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(doctorId, "DOCTOR_CONSISTENT_PROFESSIONAL");
+        verify(badgeRepository, never()).save(argThat(badge -> "DOCTOR_CONSISTENT_PROFESSIONAL".equals(badge.getBadgeType())));
     }
 
     @Test
@@ -1329,13 +1470,11 @@ class BadgeServiceTest {
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(doctorProfileRepository.findByUserId(doctorId)).thenReturn(Optional.of(profile));
-        when(badgeRepository.findByUser_IdAndBadgeType(doctorId, "DOCTOR_ALWAYS_AVAILABLE")).thenReturn(Optional.empty());
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         badgeService.evaluateAllBadges(doctorId);
 
-        verify(badgeRepository, atLeastOnce()).findByUser_IdAndBadgeType(doctorId, "DOCTOR_ALWAYS_AVAILABLE");
-        verify(badgeRepository, atLeastOnce()).save(any(Badge.class));
+        verify(badgeRepository).save(argThat(badge -> "DOCTOR_ALWAYS_AVAILABLE".equals(badge.getBadgeType()) && badge.getIsActive()));
     }
 
     @Test
@@ -1359,7 +1498,7 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(doctorId);
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(doctorId, "DOCTOR_TOP_SPECIALIST");
+        verify(badgeRepository, never()).save(argThat(badge -> "DOCTOR_TOP_SPECIALIST".equals(badge.getBadgeType())));
     }
 
     @Test
@@ -1372,7 +1511,10 @@ class BadgeServiceTest {
                 .userId(doctorId)
                 .statistics(objectMapper.createObjectNode()
                         .put("total_turns_completed", 350)
-                        .put("total_avg_rating", 4.8))
+                        .put("total_avg_rating", 4.8)
+                        .put("total_communication_count", 25)
+                        .put("total_empathy_count", 25)
+                        .put("total_punctuality_count", 20))
                 .progress(objectMapper.createObjectNode())
                 .build();
 
@@ -1383,7 +1525,47 @@ class BadgeServiceTest {
 
         badgeService.evaluateAllBadges(doctorId);
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(doctorId, "DOCTOR_MEDICAL_LEGEND");
+        verify(badgeRepository).save(argThat(badge ->
+            "DOCTOR_MEDICAL_LEGEND".equals(badge.getBadgeType()) &&
+            badge.getIsActive()
+        ));
+    }
+
+    @Test
+    void evaluateMedicalLegend_Doctor_LosesPrerequisiteInSamePass_RevokesBadge() {
+        User doctor = new User();
+        doctor.setId(doctorId);
+        doctor.setRole("DOCTOR");
+
+        BadgeStatistics stats = BadgeStatistics.builder()
+                .userId(doctorId)
+                .statistics(objectMapper.createObjectNode()
+                        .put("total_turns_completed", 350)
+                        .put("total_communication_count", 25)
+                        .put("total_empathy_count", 25)
+                        .put("total_punctuality_count", 19))
+                .progress(objectMapper.createObjectNode())
+                .build();
+
+        List<Badge> badges = new ArrayList<>(List.of(
+                activeBadge(doctorId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR"),
+                activeBadge(doctorId, "DOCTOR_EMPATHETIC_DOCTOR"),
+                activeBadge(doctorId, "DOCTOR_PUNCTUALITY_PROFESSIONAL"),
+                activeBadge(doctorId, "DOCTOR_MEDICAL_LEGEND")));
+        when(statisticsRepository.findByUserId(doctorId)).thenReturn(Optional.of(stats));
+        when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(badgeRepository.findByUser_Id(doctorId)).thenReturn(badges);
+
+        badgeService.evaluateAllBadges(doctorId);
+
+        verify(badgeRepository).save(argThat(badge ->
+            "DOCTOR_PUNCTUALITY_PROFESSIONAL".equals(badge.getBadgeType()) &&
+            !badge.getIsActive()
+        ));
+        verify(badgeRepository).save(argThat(badge ->
+            "DOCTOR_MEDICAL_LEGEND".equals(badge.getBadgeType()) &&
+            !badge.getIsActive()
+        ));
     }
 
     @Test
@@ -1483,7 +1665,7 @@ class BadgeServiceTest {
     }
 
     @Test
-    void getOrCreateStatistics_ExistingStats_ReturnsExisting() {
+    void evaluate_ExistingStatsWithoutChanges_DoesNotSave() {
         BadgeStatistics existingStats = BadgeStatistics.builder()
                 .userId(userId)
                 .statistics(objectMapper.createObjectNode())
@@ -1492,26 +1674,22 @@ class BadgeServiceTest {
 
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
 
-        BadgeStatistics result = badgeService.getOrCreateStatistics(userId);
+        badgeService.evaluate(doctor, context -> assertSame(existingStats, context.getStats()));
 
-        assertEquals(existingStats, result);
         verify(statisticsRepository).findByUserId(userId);
         verify(statisticsRepository, never()).save(any());
     }
 
     @Test
-    void getOrCreateStatistics_NoExistingStats_CreatesNew() {
+    void evaluate_NoExistingStats_CreatesNewOnFlush() {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.empty());
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        BadgeStatistics result = badgeService.getOrCreateStatistics(userId);
+        badgeService.evaluate(doctor, context -> verify(statisticsRepository, never()).save(any()));
 
-        assertNotNull(result);
-        assertEquals(userId, result.getUserId());
-        assertNotNull(result.getStatistics());
-        assertNotNull(result.getProgress());
         verify(statisticsRepository).findByUserId(userId);
-        verify(statisticsRepository).save(any(BadgeStatistics.class));
+        verify(statisticsRepository).save(argThat(result -> userId.equals(result.getUserId())
+                && result.getStatistics() != null && result.getProgress() != null));
     }
 
     @Test
@@ -1550,9 +1728,10 @@ class BadgeServiceTest {
     @Test
     void activateBadge_BadgeExists_Inactive_Activates() {
         Badge existingBadge = new Badge();
+        existingBadge.setBadgeType("TEST_BADGE");
         existingBadge.setIsActive(false);
 
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "TEST_BADGE")).thenReturn(Optional.of(existingBadge));
+        when(badgeRepository.findByUser_Id(userId)).thenReturn(List.of(existingBadge));
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         BadgeStatistics stats = BadgeStatistics.builder()
@@ -1564,19 +1743,21 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
 
-        badgeService.activateBadge(userId, "TEST_BADGE");
+        badgeService.evaluate(doctor, context -> context.activateBadge("TEST_BADGE"));
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "TEST_BADGE");
+        verify(badgeRepository).findByUser_Id(userId);
         verify(badgeRepository).save(existingBadge);
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
         assert existingBadge.getIsActive();
     }
 
     @Test
     void deactivateBadge_BadgeExists_Active_Deactivates() {
         Badge existingBadge = new Badge();
+        existingBadge.setBadgeType("TEST_BADGE");
         existingBadge.setIsActive(true);
 
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "TEST_BADGE")).thenReturn(Optional.of(existingBadge));
+        when(badgeRepository.findByUser_Id(userId)).thenReturn(List.of(existingBadge));
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         BadgeStatistics stats = BadgeStatistics.builder()
@@ -1588,10 +1769,11 @@ class BadgeServiceTest {
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
 
-        badgeService.deactivateBadge(userId, "TEST_BADGE");
+        badgeService.evaluate(doctor, context -> context.deactivateBadge("TEST_BADGE"));
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "TEST_BADGE");
+        verify(badgeRepository).findByUser_Id(userId);
         verify(badgeRepository).save(existingBadge);
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
         assert !existingBadge.getIsActive();
     }
 
@@ -1610,14 +1792,13 @@ class BadgeServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(patient));
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
-        when(badgeRepository.existsByUser_IdAndBadgeType(userId, "PATIENT_CONTINUOUS_FOLLOWUP")).thenReturn(false);
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
 
-        badgeService.evaluateContinuousFollowup(patient);
+        badgeService.evaluate(patient, context -> ruleEngine.evaluateBadge(context, "PATIENT_CONTINUOUS_FOLLOWUP"));
 
-        verify(badgeRepository).existsByUser_IdAndBadgeType(userId, "PATIENT_CONTINUOUS_FOLLOWUP");
-        verify(badgeRepository).save(any(Badge.class));
+        verify(badgeRepository).findByUser_Id(userId);
+        verify(badgeRepository).save(argThat(badge -> "PATIENT_CONTINUOUS_FOLLOWUP".equals(badge.getBadgeType())));
     }
 
     @Test
@@ -1636,7 +1817,7 @@ class BadgeServiceTest {
         when(userRepository.findById(userId)).thenReturn(Optional.of(patient));
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
 
-        badgeService.evaluateContinuousFollowup(patient);
+        badgeService.evaluate(patient, context -> ruleEngine.evaluateBadge(context, "PATIENT_CONTINUOUS_FOLLOWUP"));
 
         verify(badgeRepository, never()).findByUser_IdAndBadgeType(any(), any());
         verify(badgeRepository, never()).save(any());
@@ -1658,13 +1839,12 @@ class BadgeServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_CONSISTENT_PROFESSIONAL")).thenReturn(Optional.empty());
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
 
-        badgeService.evaluateConsistentProfessional(doctor);
+        badgeService.evaluate(doctor, context -> ruleEngine.evaluateBadge(context, "DOCTOR_CONSISTENT_PROFESSIONAL"));
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_CONSISTENT_PROFESSIONAL");
+        verify(badgeRepository).findByUser_Id(userId);
         verify(badgeRepository).save(any(Badge.class));
     }
 
@@ -1684,12 +1864,11 @@ class BadgeServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_CONSISTENT_PROFESSIONAL")).thenReturn(Optional.empty());
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
 
-        badgeService.evaluateConsistentProfessional(doctor);
+        badgeService.evaluate(doctor, context -> ruleEngine.evaluateBadge(context, "DOCTOR_CONSISTENT_PROFESSIONAL"));
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_CONSISTENT_PROFESSIONAL");
+        verify(badgeRepository).findByUser_Id(userId);
         verify(badgeRepository, never()).save(any());
     }
 
@@ -1709,31 +1888,38 @@ class BadgeServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(patient));
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "PATIENT_RESPONSIBLE_EVALUATOR")).thenReturn(Optional.empty());
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
 
-        badgeService.evaluateResponsibleEvaluator(patient);
+        badgeService.evaluate(patient, context -> ruleEngine.evaluateBadge(context, "PATIENT_RESPONSIBLE_EVALUATOR"));
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "PATIENT_RESPONSIBLE_EVALUATOR");
+        verify(badgeRepository).findByUser_Id(userId);
         verify(badgeRepository).save(any(Badge.class));
     }
 
-    private List<Rating> createRatings(int count, int score) {
-        List<Rating> ratings = new ArrayList<>();
-        for (int i = 0; i < count; i++) {
-            ratings.add(Rating.builder().score(score).build());
+    private void stubMedicalLegendDependencies(UUID doctorId, boolean communicator, boolean empathetic, boolean punctuality) {
+        List<Badge> badges = new ArrayList<>();
+        if (communicator) {
+            badges.add(activeBadge(doctorId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR"));
+        }
+        if (empathetic) {
+            badges.add(activeBadge(doctorId, "DOCTOR_EMPATHETIC_DOCTOR"));
         }
-        return ratings;
+        if (punctuality) {
+            badges.add(activeBadge(doctorId, "DOCTOR_PUNCTUALITY_PROFESSIONAL"));
+        }
+        when(badgeRepository.findByUser_Id(doctorId)).thenReturn(badges);
     }
 
-    private void stubMedicalLegendDependencies(UUID doctorId, boolean communicator, boolean empathetic, boolean punctuality) {
-        when(badgeRepository.existsByUser_IdAndBadgeTypeAndIsActive(doctorId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR", true))
-                .thenReturn(communicator);
-        when(badgeRepository.existsByUser_IdAndBadgeTypeAndIsActive(doctorId, "DOCTOR_EMPATHETIC_DOCTOR", true))
-                .thenReturn(empathetic);
-        when(badgeRepository.existsByUser_IdAndBadgeTypeAndIsActive(doctorId, "DOCTOR_PUNCTUALITY_PROFESSIONAL", true))
-                .thenReturn(punctuality);
+    private Badge activeBadge(UUID userId, String badgeType) {
+        return Badge.builder()
+                .id(UUID.randomUUID())
+                .userId(userId)
+                .badgeType(badgeType)
+                .earnedAt(OffsetDateTime.now())
+                .isActive(true)
+                .lastEvaluatedAt(OffsetDateTime.now())
+                .build();
     }
 
     @Test
@@ -1747,20 +1933,19 @@ class BadgeServiceTest {
                 .statistics(objectMapper.createObjectNode()
                         .put("total_turns_completed", 120)
                         .put("total_avg_rating", 4.5)
-                        .put("specialty_rank_percentile", 0.2))
+                        .put("specialty_rank_percentile", 0.2)
+                        .put("recent_patient_high_scores", 35))
                 .progress(objectMapper.createObjectNode())
                 .build();
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_TOP_SPECIALIST")).thenReturn(Optional.empty());
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
-        when(ratingRepository.findTop35ByRated_IdAndRater_RoleOrderByCreatedAtDesc(userId, "PATIENT")).thenReturn(createRatings(35, 4));
 
-        badgeService.evaluateTopSpecialist(doctor);
+        badgeService.evaluate(doctor, context -> ruleEngine.evaluateBadge(context, "DOCTOR_TOP_SPECIALIST"));
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_TOP_SPECIALIST");
+        verify(badgeRepository).findByUser_Id(userId);
         verify(badgeRepository).save(any(Badge.class));
     }
 
@@ -1780,18 +1965,15 @@ class BadgeServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_MEDICAL_LEGEND")).thenReturn(Optional.empty());
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
         stubMedicalLegendDependencies(userId, true, true, true);
 
-        badgeService.evaluateMedicalLegend(doctor);
+        badgeService.evaluate(doctor, context -> ruleEngine.evaluateBadge(context, "DOCTOR_MEDICAL_LEGEND"));
 
-        verify(badgeRepository, times(1)).existsByUser_IdAndBadgeTypeAndIsActive(userId, "DOCTOR_EXCEPTIONAL_COMMUNICATOR", true);
-        verify(badgeRepository, times(1)).existsByUser_IdAndBadgeTypeAndIsActive(userId, "DOCTOR_EMPATHETIC_DOCTOR", true);
-        verify(badgeRepository, times(1)).existsByUser_IdAndBadgeTypeAndIsActive(userId, "DOCTOR_PUNCTUALITY_PROFESSIONAL", true);
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_MEDICAL_LEGEND");
-        verify(badgeRepository).save(any(Badge.class));
+        verify(badgeRepository, times(1)).findByUser_Id(userId);
+        verify(badgeRepository, never()).existsByUser_IdAndBadgeTypeAndIsActive(any(), any(), anyBoolean());
+        verify(badgeRepository).save(argThat(badge -> "DOCTOR_MEDICAL_LEGEND".equals(badge.getBadgeType()) && badge.getIsActive()));
     }
 
     @Test
@@ -1809,13 +1991,12 @@ class BadgeServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
         when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(stats));
-        when(badgeRepository.findByUser_IdAndBadgeType(userId, "DOCTOR_AGILE_RESPONDER")).thenReturn(Optional.empty());
         when(badgeRepository.save(any(Badge.class))).thenAnswer(invocation -> invocation.getArgument(0));
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
 
-        badgeService.evaluateAgileResponder(doctor);
+        badgeService.evaluate(doctor, context -> ruleEngine.evaluateBadge(context, "DOCTOR_AGILE_RESPONDER"));
 
-        verify(badgeRepository).findByUser_IdAndBadgeType(userId, "DOCTOR_AGILE_RESPONDER");
+        verify(badgeRepository).findByUser_Id(userId);
         verify(badgeRepository).save(any(Badge.class));
     }
 
@@ -1833,7 +2014,6 @@ class BadgeServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(doctor));
         when(statisticsRepository.findByUserId(any())).thenReturn(Optional.of(stats));
-        when(badgeRepository.findByUser_IdAndBadgeType(any(), any())).thenReturn(Optional.empty());
         when(badgeRepository.save(any(Badge.class))).thenReturn(null);
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
 
@@ -1856,7 +2036,6 @@ class BadgeServiceTest {
 
         when(userRepository.findById(userId)).thenReturn(Optional.of(patient));
         when(statisticsRepository.findByUserId(any())).thenReturn(Optional.of(stats));
-        when(badgeRepository.findByUser_IdAndBadgeType(any(), any())).thenReturn(Optional.empty());
         when(badgeRepository.save(any(Badge.class))).thenReturn(null);
         when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(stats);
 
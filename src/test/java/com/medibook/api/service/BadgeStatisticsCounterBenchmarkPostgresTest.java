@@ -0,0 +1,37 @@
+package com.medibook.api.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs {@link BadgeStatisticsCounterBenchmarkTest} against PostgreSQL with the Liquibase
+ * schema, where the increment is the native upsert, and checks that it outperforms the
+ * read-modify-write update under contention. Skipped when Docker is not available.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@TestPropertySource(properties = {
+        "spring.datasource.driver-class-name=org.postgresql.Driver",
+        "spring.jpa.database-platform=org.hibernate.dialect.PostgreSQLDialect",
+        "spring.liquibase.enabled=true",
+        "spring.jpa.hibernate.ddl-auto=none"
+})
+class BadgeStatisticsCounterBenchmarkPostgresTest extends BadgeStatisticsCounterBenchmarkTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    void incrementCounters_UnderContention_OutperformsReadModifyWrite() throws Exception {
+        long[] nanos = measure();
+
+        assertTrue(nanos[1] < nanos[0],
+                "increment took " + nanos[1] + " ns, read-modify-write " + nanos[0] + " ns");
+    }
+}
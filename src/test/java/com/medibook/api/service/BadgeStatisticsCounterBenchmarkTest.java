@@ -0,0 +1,174 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.medibook.api.entity.BadgeStatistics;
+import com.medibook.api.entity.User;
+import com.medibook.api.repository.BadgeStatisticsRepository;
+import com.medibook.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the load-modify-save update previously used for badge counters, retried on optimistic
+ * locking failures, and the increment of the repository against one contended statistics row
+ * and checks that neither loses an update. On H2 the increment goes through the locked entity
+ * fallback, so the logged rates say nothing about the native upsert;
+ * {@link BadgeStatisticsCounterBenchmarkPostgresTest} compares the two on PostgreSQL.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class BadgeStatisticsCounterBenchmarkTest {
+
+    private static final int THREADS = 8;
+    private static final int UPDATES_PER_THREAD = 100;
+    private static final int MAX_RETRIES = 50;
+
+    @Autowired
+    private BadgeStatisticsRepository statisticsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private User doctor;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        doctor = userRepository.saveAndFlush(createDoctor());
+        transactionTemplate.executeWithoutResult(status ->
+                statisticsRepository.incrementCounters(doctor.getId(), Map.of("total_turns_completed", 1)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        statisticsRepository.deleteById(doctor.getId());
+        userRepository.delete(doctor);
+    }
+
+    @Test
+    void incrementCounters_UnderContention_LosesNoUpdates() throws Exception {
+        measure();
+    }
+
+    @Test
+    void mergeStatistics_KeepsOtherCounters() {
+        UUID userId = doctor.getId();
+        transactionTemplate.executeWithoutResult(status ->
+                statisticsRepository.incrementCounters(userId, Map.of("total_ratings_received", 3)));
+
+        transactionTemplate.executeWithoutResult(status ->
+                statisticsRepository.mergeStatistics(userId, Map.of("total_avg_rating", 4.5)));
+
+        ObjectNode statistics = (ObjectNode) statisticsRepository.findByUserId(userId).orElseThrow().getStatistics();
+        assertEquals(3, statistics.path("total_ratings_received").asInt());
+        assertEquals(4.5, statistics.path("total_avg_rating").asDouble());
+    }
+
+    /**
+     * Applies the same number of contended updates with both approaches, checks that every
+     * update was counted and returns the elapsed nanoseconds of read-modify-write and of the
+     * repository increment.
+     */
+    long[] measure() throws Exception {
+        UUID userId = doctor.getId();
+        AtomicInteger retries = new AtomicInteger();
+
+        long readModifyWriteNanos = run(() -> readModifyWrite(userId, "legacy_counter", retries));
+        long atomicNanos = run(() -> transactionTemplate.executeWithoutResult(status ->
+                statisticsRepository.incrementCounters(userId, Map.of("atomic_counter", 1))));
+
+        int updates = THREADS * UPDATES_PER_THREAD;
+        log.info("Badge counters: read-modify-write {} updates/s ({} optimistic lock retries), increment {} updates/s",
+                updates * 1_000_000_000L / Math.max(1, readModifyWriteNanos), retries.get(),
+                updates * 1_000_000_000L / Math.max(1, atomicNanos));
+
+        ObjectNode statistics = (ObjectNode) statisticsRepository.findByUserId(userId).orElseThrow().getStatistics();
+        assertEquals(updates, statistics.path("atomic_counter").asInt());
+        assertEquals(updates, statistics.path("legacy_counter").asInt());
+        return new long[]{readModifyWriteNanos, atomicNanos};
+    }
+
+    private long run(Runnable update) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < UPDATES_PER_THREAD; i++) {
+                        update.run();
+                    }
+                    return null;
+                }));
+            }
+            long startedAt = System.nanoTime();
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(120, TimeUnit.SECONDS);
+            }
+            return System.nanoTime() - startedAt;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private void readModifyWrite(UUID userId, String counter, AtomicInteger retries) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    BadgeStatistics stats = statisticsRepository.findByUserId(userId).orElseThrow();
+                    ObjectNode statistics = ((ObjectNode) stats.getStatistics()).deepCopy();
+                    statistics.put(counter, statistics.path(counter).asInt() + 1);
+                    stats.setStatistics(statistics);
+                    statisticsRepository.saveAndFlush(stats);
+                });
+                return;
+            } catch (ObjectOptimisticLockingFailureException e) {
+                retries.incrementAndGet();
+                if (attempt >= MAX_RETRIES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private User createDoctor() {
+        User user = new User();
+        user.setEmail("counter.bench.doctor@example.com");
+        user.setDni(93000001L);
+        user.setPasswordHash("hashedPassword");
+        user.setName("Counter");
+        user.setSurname("Doctor");
+        user.setRole("DOCTOR");
+        user.setStatus("ACTIVE");
+        user.setEmailVerified(true);
+        return user;
+    }
+}
@@ -0,0 +1,129 @@
+package com.medibook.api.service;
+
+import com.medibook.api.entity.User;
+import com.medibook.api.model.UserStripedExecutor;
+import com.medibook.api.repository.BadgeStatisticsRepository;
+import com.medibook.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fires thousands of statistics increments for a handful of users from many threads at
+ * once through the badge executor and checks that none is lost: every user's updates run
+ * on one lane, so no two transactions race on the same versioned statistics row.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class BadgeStatisticsStripedUpdateTest {
+
+    private static final int USERS = 8;
+    private static final int PRODUCERS = 16;
+    private static final int EVENTS_PER_PRODUCER = 250;
+
+    @Autowired
+    private BadgeStatisticsUpdateService statisticsUpdateService;
+
+    @Autowired
+    private UserStripedExecutor badgeEvaluationTaskExecutor;
+
+    @Autowired
+    private BadgeStatisticsRepository statisticsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final List<User> doctors = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < USERS; i++) {
+            doctors.add(userRepository.saveAndFlush(createDoctor(i)));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        doctors.forEach(doctor -> statisticsRepository.deleteById(doctor.getId()));
+        userRepository.deleteAll(doctors);
+    }
+
+    @Test
+    void concurrentIncrements_SameUsers_NoneLost() throws Exception {
+        int events = PRODUCERS * EVENTS_PER_PRODUCER;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(events);
+        AtomicInteger failures = new AtomicInteger();
+        ExecutorService producers = Executors.newFixedThreadPool(PRODUCERS);
+
+        List<Future<?>> submissions = new ArrayList<>();
+        for (int p = 0; p < PRODUCERS; p++) {
+            int offset = p;
+            submissions.add(producers.submit(() -> {
+                start.await();
+                for (int i = 0; i < EVENTS_PER_PRODUCER; i++) {
+                    User doctor = doctors.get((offset + i) % USERS);
+                    badgeEvaluationTaskExecutor.execute(doctor.getId(), () -> {
+                        try {
+                            statisticsUpdateService.updateAfterTurnCancelledSync(doctor.getId());
+                        } catch (RuntimeException e) {
+                            failures.incrementAndGet();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> submission : submissions) {
+            submission.get(60, TimeUnit.SECONDS);
+        }
+        assertTrue(done.await(120, TimeUnit.SECONDS), "Striped updates did not finish in time");
+        long elapsedNanos = System.nanoTime() - startedAt;
+        producers.shutdown();
+
+        log.info("Striped badge statistics: {} increments for {} users in {} ms ({} increments/s), {} failures",
+                events, USERS, elapsedNanos / 1_000_000,
+                events * 1_000_000_000L / Math.max(1, elapsedNanos), failures.get());
+
+        assertEquals(0, failures.get());
+        for (User doctor : doctors) {
+            int cancellations = statisticsRepository.findByUserId(doctor.getId()).orElseThrow()
+                    .getStatistics().path("total_cancellations").asInt();
+            assertEquals(events / USERS, cancellations, "Lost increments for " + doctor.getEmail());
+        }
+    }
+
+    private User createDoctor(int index) {
+        User user = new User();
+        user.setEmail("striped.doctor" + index + "@example.com");
+        user.setDni(92000000L + index);
+        user.setPasswordHash("hashedPassword");
+        user.setName("Striped");
+        user.setSurname("Doctor");
+        user.setRole("DOCTOR");
+        user.setStatus("ACTIVE");
+        user.setEmailVerified(true);
+        return user;
+    }
+}
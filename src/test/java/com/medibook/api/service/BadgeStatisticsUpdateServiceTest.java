@@ -3,13 +3,13 @@ package com.medibook.api.service;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.medibook.api.dto.Rating.RatingSubcategory;
+import com.medibook.api.dto.Rating.RatingSubcategoryPatient;
 import com.medibook.api.entity.BadgeStatistics;
-import com.medibook.api.entity.Rating;
-import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.User;
-import com.medibook.api.repository.BadgeRepository;
+import com.medibook.api.model.RatingSample;
+import com.medibook.api.model.RatingWindow;
 import com.medibook.api.repository.BadgeStatisticsRepository;
-import com.medibook.api.repository.RatingRepository;
 import com.medibook.api.repository.TurnAssignedRepository;
 import com.medibook.api.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -19,13 +19,14 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.List;
+import java.util.Collections;
 import java.util.Map;
-import java.util.HashMap;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -37,15 +38,9 @@ class BadgeStatisticsUpdateServiceTest {
     @Mock
     private UserRepository userRepository;
 
-    @Mock
-    private RatingRepository ratingRepository;
-
     @Mock
     private TurnAssignedRepository turnAssignedRepository;
 
-    @Mock
-    private BadgeRepository badgeRepository;
-
     private BadgeStatisticsUpdateService badgeStatisticsUpdateService;
 
     private UUID userId;
@@ -62,368 +57,178 @@ class BadgeStatisticsUpdateServiceTest {
         user.setRole("PATIENT");
         objectMapper = new ObjectMapper();
         lenient().when(userRepository.findById(any(UUID.class))).thenReturn(Optional.of(user));
-        lenient().when(ratingRepository.findTop35ByRated_IdAndRater_RoleOrderByCreatedAtDesc(any(UUID.class), anyString()))
-            .thenReturn(List.of());
-        lenient().when(badgeRepository.existsByUser_IdAndBadgeTypeAndIsActive(any(UUID.class), anyString(), eq(true))).thenReturn(false);
-        badgeStatisticsUpdateService = new BadgeStatisticsUpdateService(statisticsRepository, userRepository, ratingRepository, turnAssignedRepository, badgeRepository);
+        badgeStatisticsUpdateService = new BadgeStatisticsUpdateService(statisticsRepository, userRepository, turnAssignedRepository);
     }
 
     @Test
     void updateAfterRatingAddedSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(objectMapper.createObjectNode()
+                .put("total_ratings_received", 2)
+                .put("rating_score_sum", 9));
 
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
+        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, new RatingSample(5, Set.of(RatingSubcategory.EXPLICA_CLARAMENTE), Set.of(), "PATIENT"), 4, 5, 3);
 
-        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, 4, 5, 3);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of(
+                "total_ratings_received", 1,
+                "rating_score_sum", 5,
+                "total_communication_count", 1,
+                "communication_ratings", 1,
+                "empathy_ratings", 1,
+                "punctuality_ratings", 1));
+        verify(statisticsRepository).mergeStatistics(eq(userId), argThat(values ->
+                Double.valueOf(4.5).equals(values.get("total_avg_rating"))
+                        && Integer.valueOf(1).equals(values.get("recent_patient_high_scores"))));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
-    void updateProgressAfterRatingSync_ExistingStats_UpdatesProgress() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
+    void updateAfterRatingAddedSync_FullWindow_DropsOldestPatientScore() {
+        ObjectNode window = RatingWindow.of(Collections.nCopies(RatingWindow.SIZE, 5)).toJson();
+        ObjectNode statistics = objectMapper.createObjectNode()
+                .put("total_ratings_received", 36)
+                .put("rating_score_sum", 177);
+        statistics.set("recent_patient_scores", window);
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(statistics);
 
-        badgeStatisticsUpdateService.updateProgressAfterRatingSync(userId);
+        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, new RatingSample(2, Set.of(), Set.of(), "PATIENT"), null, null, null);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of(
+                "total_ratings_received", 1,
+                "rating_score_sum", 2,
+                "total_low_rating_count", 1));
+        verify(statisticsRepository).mergeStatistics(eq(userId), argThat(values ->
+                Integer.valueOf(RatingWindow.SIZE - 1).equals(values.get("recent_patient_high_scores"))
+                        && RatingWindow.fromJson((JsonNode) values.get("recent_patient_scores")).size() == RatingWindow.SIZE));
     }
 
     @Test
-    void updateAfterTurnCompletedSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
+    void updateAfterRatingAddedSync_DoctorRater_LeavesPatientWindowUntouched() {
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(objectMapper.createObjectNode()
+                .put("total_ratings_received", 1)
+                .put("rating_score_sum", 4));
 
-        badgeStatisticsUpdateService.updateAfterTurnCompletedSync(userId);
+        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, new RatingSample(4, Set.of(), Set.of(RatingSubcategoryPatient.COLABORA_EN_CONSULTA), "DOCTOR"), null, null, null);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of(
+                "total_ratings_received", 1,
+                "rating_score_sum", 4,
+                "doctor_collaboration_mentions", 1));
+        verify(statisticsRepository).mergeStatistics(userId, Map.of("total_avg_rating", 4.0));
     }
 
     @Test
-    void updateProgressAfterTurnCompletionSync_ExistingStats_UpdatesProgress() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
+    void updateAfterTurnCompletedSync_ExistingStats_UpdatesStatistics() {
+        when(turnAssignedRepository.findMaxCompletedTurnsWithSameDoctor(userId)).thenReturn(3L);
 
-        badgeStatisticsUpdateService.updateProgressAfterTurnCompletionSync(userId);
+        badgeStatisticsUpdateService.updateAfterTurnCompletedSync(userId);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of("total_turns_completed", 1));
+        verify(statisticsRepository).mergeStatistics(userId, Map.of("turns_with_same_doctor", 3));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
     void updateAfterMedicalHistoryDocumentedSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
         badgeStatisticsUpdateService.updateAfterMedicalHistoryDocumentedSync(userId, "Test content with multiple words");
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterMedicalHistorySync_ExistingStats_UpdatesProgress() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateProgressAfterMedicalHistorySync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of(
+                "documentation_count", 1,
+                "total_documentation_words", 5));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
     void updateAfterModifyRequestCreatedSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
         badgeStatisticsUpdateService.updateAfterModifyRequestCreatedSync(userId);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of("requests_created", 1));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
     void updateAfterModifyRequestHandledSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
         badgeStatisticsUpdateService.updateAfterModifyRequestHandledSync(userId);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterModifyRequestSync_DoctorRole_UpdatesProgress() {
-        user.setRole("DOCTOR");
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateProgressAfterModifyRequestSync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of("total_requests_handled", 1));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
     void updateAfterTurnCancelledSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
         badgeStatisticsUpdateService.updateAfterTurnCancelledSync(userId);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateAllBadgeProgress_ExistingStats_UpdatesProgress() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateAllBadgeProgress(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(3)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of("total_cancellations", 1));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
     void updateAfterAdvanceBookingSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
         badgeStatisticsUpdateService.updateAfterAdvanceBookingSync(userId);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of("advance_bookings", 1));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
     void updateAfterRatingGivenSync_PatientRole_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
+        when(statisticsRepository.incrementCounters(userId, Map.of("ratings_given", 1, "ratings_given_score_sum", 5)))
+                .thenReturn(objectMapper.createObjectNode().put("ratings_given", 2).put("ratings_given_score_sum", 9));
 
-        badgeStatisticsUpdateService.updateAfterRatingGivenSync(userId);
+        badgeStatisticsUpdateService.updateAfterRatingGivenSync(userId, 5);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(userRepository).findById(userId);
+        verify(statisticsRepository).mergeStatistics(userId, Map.of("avg_rating_given", 4.5));
     }
 
     @Test
     void updateAfterFileUploadedSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
+        ObjectNode updated = objectMapper.createObjectNode().put("files_uploaded", 12);
+        when(statisticsRepository.incrementCounters(userId, Map.of("files_uploaded", 1))).thenReturn(updated);
 
         badgeStatisticsUpdateService.updateAfterFileUploadedSync(userId);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(userRepository).findById(userId);
+        verify(statisticsRepository).mergeStatistics(userId, Map.of("last_10_turns_files_uploaded_count", 10));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
     void updateAfterTurnNoShowSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
         badgeStatisticsUpdateService.updateAfterTurnNoShowSync(userId);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of("total_turns_no_show", 1));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
     void updateAfterRatingReceivedSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateAfterRatingReceivedSync(userId);
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(objectMapper.createObjectNode()
+                .put("total_ratings_received", 4)
+                .put("rating_score_sum", 14));
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateAfterRatingGivenSync_ExistingStats_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-        when(ratingRepository.findByRaterId(userId)).thenReturn(List.of()); 
-
-        badgeStatisticsUpdateService.updateAfterRatingGivenSync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(ratingRepository).findByRaterId(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateAllBadgeProgress_WithTurnAssignedData_UpdatesProgress() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
-        when(turnAssignedRepository.findByPatient_IdAndStatus(userId, "COMPLETED")).thenReturn(List.of()); 
-
-        badgeStatisticsUpdateService.updateAllBadgeProgress(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(3)).findById(userId);
-        verify(turnAssignedRepository).findByPatient_IdAndStatus(userId, "COMPLETED");
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterCancellationSync_EmptyMethod_DoesNothing() {
-        badgeStatisticsUpdateService.updateProgressAfterCancellationSync(userId);
-        
-        verify(statisticsRepository).findByUserId(userId);
-    }
+        badgeStatisticsUpdateService.updateAfterRatingReceivedSync(userId, new RatingSample(4, Set.of(), Set.of(RatingSubcategoryPatient.SIGUE_INDICACIONES), "DOCTOR"));
 
-    @Test
-    void updateProgressAfterAdvanceBookingSync_EmptyMethod_DoesNothing() {
-        badgeStatisticsUpdateService.updateProgressAfterAdvanceBookingSync(userId);
-        
-        verify(statisticsRepository).findByUserId(userId);
+        verify(userRepository).findById(userId);
+        verify(statisticsRepository).incrementCounters(userId, Map.of(
+                "ratings_received", 1,
+                "total_ratings_received", 1,
+                "rating_score_sum", 4,
+                "doctor_collaboration_mentions", 1));
+        verify(statisticsRepository).mergeStatistics(userId, Map.of("total_avg_rating", 3.5, "avg_rating_received", 3.5));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
-    void updateProgressAfterRatingReceivedSync_EmptyMethod_DoesNothing() {
-        badgeStatisticsUpdateService.updateProgressAfterRatingReceivedSync(userId);
-        
-        verify(statisticsRepository).findByUserId(userId);
-    }
+    void updateAfterRatingGivenSync_DoctorRole_OnlyCountsRating() {
+        user.setRole("DOCTOR");
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap()))
+                .thenReturn(objectMapper.createObjectNode().put("ratings_given", 1).put("ratings_given_score_sum", 3));
 
-    @Test
-    void updateProgressAfterBookingSync_EmptyMethod_DoesNothing() {
-        badgeStatisticsUpdateService.updateProgressAfterBookingSync(userId);
-        
-        verify(statisticsRepository).findByUserId(userId);
-    }
+        badgeStatisticsUpdateService.updateAfterRatingGivenSync(userId, 3);
 
-    @Test
-    void updateProgressAfterFileUploadSync_EmptyMethod_DoesNothing() {
-        badgeStatisticsUpdateService.updateProgressAfterFileUploadSync(userId);
-        
-        verify(statisticsRepository).findByUserId(userId);
+        verify(userRepository).findById(userId);
+        verify(statisticsRepository).incrementCounters(userId, Map.of("ratings_given", 1, "ratings_given_score_sum", 3));
+        verify(statisticsRepository, never()).mergeStatistics(any(), anyMap());
     }
 
     @Test
@@ -449,798 +254,128 @@ class BadgeStatisticsUpdateServiceTest {
 
     @Test
     void updateAfterTurnCompletedSync_ExceptionThrown_LogsError() {
-        when(statisticsRepository.findByUserId(userId)).thenThrow(new RuntimeException("Database error"));
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenThrow(new RuntimeException("Database error"));
 
         badgeStatisticsUpdateService.updateAfterTurnCompletedSync(userId);
 
-        verify(statisticsRepository).findByUserId(userId);
-    }
-
-    @Test
-    void updateProgressAfterTurnCompletionSync_ExceptionThrown_LogsError() {
-        when(statisticsRepository.findByUserId(userId)).thenThrow(new RuntimeException("Database error"));
-
-        badgeStatisticsUpdateService.updateProgressAfterTurnCompletionSync(userId);
-
-        verify(statisticsRepository).findByUserId(userId);
+        verify(statisticsRepository).incrementCounters(eq(userId), anyMap());
+        verify(statisticsRepository, never()).mergeStatistics(any(), anyMap());
     }
 
     @Test
     void updateAfterMedicalHistoryDocumentedSync_ExceptionThrown_LogsError() {
-        when(statisticsRepository.findByUserId(userId)).thenThrow(new RuntimeException("Database error"));
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenThrow(new RuntimeException("Database error"));
 
         badgeStatisticsUpdateService.updateAfterMedicalHistoryDocumentedSync(userId, "test content");
 
-        verify(statisticsRepository).findByUserId(userId);
-    }
-
-    @Test
-    void updateProgressAfterMedicalHistorySync_ExceptionThrown_LogsError() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenThrow(new RuntimeException("Database error"));
-
-        badgeStatisticsUpdateService.updateProgressAfterMedicalHistorySync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(eq(userId), anyMap());
+        verify(statisticsRepository, never()).mergeStatistics(any(), anyMap());
     }
 
     @Test
     void updateAfterModifyRequestCreatedSync_ExceptionThrown_LogsError() {
-        when(statisticsRepository.findByUserId(userId)).thenThrow(new RuntimeException("Database error"));
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenThrow(new RuntimeException("Database error"));
 
         badgeStatisticsUpdateService.updateAfterModifyRequestCreatedSync(userId);
 
-        verify(statisticsRepository).findByUserId(userId);
+        verify(statisticsRepository).incrementCounters(eq(userId), anyMap());
+        verify(statisticsRepository, never()).mergeStatistics(any(), anyMap());
     }
 
     @Test
     void updateAfterRatingAddedSync_ExceptionThrown_LogsError() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenThrow(new RuntimeException("Database error"));
-
-        assertThrows(RuntimeException.class, () -> badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, 4, 5, 3));
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterTurnCompletionSync_SaveExceptionThrown_LogsError() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenThrow(new RuntimeException("Database error"));
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(objectMapper.createObjectNode());
+        doThrow(new RuntimeException("Database error")).when(statisticsRepository).mergeStatistics(eq(userId), anyMap());
 
-        badgeStatisticsUpdateService.updateProgressAfterTurnCompletionSync(userId);
+        assertThrows(RuntimeException.class, () -> badgeStatisticsUpdateService.updateAfterRatingAddedSync(
+                userId, new RatingSample(4, Set.of(), Set.of(), "PATIENT"), 4, 5, 3));
 
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(eq(userId), anyMap());
+        verify(statisticsRepository).mergeStatistics(eq(userId), anyMap());
     }
 
     @Test
     void updateAfterRatingGivenSync_ExceptionThrown_LogsError() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenThrow(new RuntimeException("Database error"));
 
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(ratingRepository.findByRaterId(userId)).thenThrow(new RuntimeException("Database error"));
+        badgeStatisticsUpdateService.updateAfterRatingGivenSync(userId, 4);
 
-        badgeStatisticsUpdateService.updateAfterRatingGivenSync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId); 
-        verify(ratingRepository).findByRaterId(userId);
+        verify(statisticsRepository).incrementCounters(userId, Map.of("ratings_given", 1, "ratings_given_score_sum", 4));
+        verify(statisticsRepository, never()).mergeStatistics(any(), anyMap());
     }
 
     @Test
     void updateAfterRatingReceivedSync_ExceptionThrown_LogsError() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenThrow(new RuntimeException("Database error"));
-
-        badgeStatisticsUpdateService.updateAfterRatingReceivedSync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId); 
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateAllBadgeProgress_ExceptionThrown_LogsError() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(objectMapper.createObjectNode());
+        doThrow(new RuntimeException("Database error")).when(statisticsRepository).mergeStatistics(eq(userId), anyMap());
 
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenThrow(new RuntimeException("Database error"));
+        badgeStatisticsUpdateService.updateAfterRatingReceivedSync(userId, new RatingSample(3, Set.of(), Set.of(), "DOCTOR"));
 
-        assertThrows(RuntimeException.class, () -> badgeStatisticsUpdateService.updateAllBadgeProgress(userId));
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(eq(userId), argThat(deltas -> deltas.get("ratings_received") == 1));
+        verify(statisticsRepository).mergeStatistics(eq(userId), anyMap());
     }
 
     @Test
     void updateAfterTurnCompletedSync_WithPatientId_UpdatesStatistics() {
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
+        user.setRole("DOCTOR");
         UUID patientId = UUID.randomUUID();
 
         badgeStatisticsUpdateService.updateAfterTurnCompletedSync(userId, patientId);
 
-        verify(statisticsRepository, times(2)).findByUserId(userId); 
-        verify(statisticsRepository, times(1)).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of("total_turns_completed", 1));
+        verify(statisticsRepository).incrementCounters(userId, Map.of("total_unique_patients", 1));
+        verify(statisticsRepository, never()).save(any(BadgeStatistics.class));
     }
 
     @Test
-    void updateAllBadgeProgress_DoctorRole_UpdatesDoctorBadgeProgress() {
-        user.setRole("DOCTOR");
+    void updateAfterRatingAddedSync_WithCommunicationRatings_CountsMention() {
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(objectMapper.createObjectNode());
 
-        ObjectNode statsJson = objectMapper.createObjectNode();
-        statsJson.put("total_turns_completed", 60);
-        statsJson.put("documentation_count", 40);
-        statsJson.put("total_turns_cancelled", 5);
-        statsJson.put("unique_patients_served", 15);
-        statsJson.put("requests_handled", 8);
-        statsJson.put("total_ratings_received", 30);
-        statsJson.put("total_communication_count", 30);
-        statsJson.put("total_empathy_count", 30);
-        statsJson.put("total_punctuality_count", 25);
-        statsJson.put("total_avg_rating", 4.2);
-        statsJson.put("total_low_rating_count", 2);
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(statsJson)
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateAllBadgeProgress(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(3)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
+        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, new RatingSample(4, Set.of(RatingSubcategory.ESCUCHA_AL_PACIENTE), Set.of(), "PATIENT"), null, null, null);
 
-    @Test
-    void updateRatingBasedStatistics_WithCommunicationRatings_CoversLambda() {
-        User rater = new User();
-        rater.setId(UUID.randomUUID());
-        rater.setRole("PATIENT");
-
-        Rating rating1 = new Rating();
-        rating1.setScore(4);
-        rating1.setSubcategory("explica claramente");
-        rating1.setRater(rater);
-
-        Rating rating2 = new Rating();
-        rating2.setScore(4);
-        rating2.setSubcategory("escucha atentamente");
-        rating2.setRater(rater);
-
-        Rating rating3 = new Rating();
-        rating3.setScore(3);
-        rating3.setSubcategory("comunica bien");
-        rating3.setRater(rater);
-
-        when(ratingRepository.findByRatedId(userId)).thenReturn(List.of(rating1, rating2, rating3));
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, 4, null, null);
-
-        verify(ratingRepository).findByRatedId(userId);
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(eq(userId), argThat(deltas -> deltas.get("total_communication_count") == 1));
+        verify(statisticsRepository).mergeStatistics(eq(userId), anyMap());
     }
 
     @Test
-    void updateRatingBasedStatistics_WithEmpathyRatings_CoversLambda() {
-        User rater = new User();
-        rater.setId(UUID.randomUUID());
-        rater.setRole("PATIENT");
-
-        Rating rating1 = new Rating();
-        rating1.setScore(4);
-        rating1.setSubcategory("empatía excepcional");
-        rating1.setRater(rater);
+    void updateAfterRatingAddedSync_WithEmpathyRatings_CountsMention() {
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(objectMapper.createObjectNode());
 
-        Rating rating2 = new Rating();
-        rating2.setScore(4);
-        rating2.setSubcategory("confianza generada");
-        rating2.setRater(rater);
+        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, new RatingSample(5, Set.of(RatingSubcategory.GENERA_CONFIANZA), Set.of(), "PATIENT"), null, null, null);
 
-        when(ratingRepository.findByRatedId(userId)).thenReturn(List.of(rating1, rating2));
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, null, 4, null);
-
-        verify(ratingRepository).findByRatedId(userId);
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(eq(userId), argThat(deltas -> deltas.get("total_empathy_count") == 1));
+        verify(statisticsRepository).mergeStatistics(eq(userId), anyMap());
     }
 
     @Test
-    void updateRatingBasedStatistics_WithPunctualityRatings_CoversLambda() {
-        User rater = new User();
-        rater.setId(UUID.randomUUID());
-        rater.setRole("PATIENT");
-
-        Rating rating1 = new Rating();
-        rating1.setScore(4);
-        rating1.setSubcategory("respeta horarios");
-        rating1.setRater(rater);
-
-        Rating rating2 = new Rating();
-        rating2.setScore(4);
-        rating2.setSubcategory("tiempo de espera adecuado");
-        rating2.setRater(rater);
-
-        when(ratingRepository.findByRatedId(userId)).thenReturn(List.of(rating1, rating2));
+    void updateAfterRatingAddedSync_WithPunctualityRatings_CountsMention() {
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(objectMapper.createObjectNode());
 
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
+        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, new RatingSample(4, Set.of(RatingSubcategory.RESPETA_HORARIOS), Set.of(), "PATIENT"), null, null, null);
 
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, null, null, 4);
-
-        verify(ratingRepository).findByRatedId(userId);
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(eq(userId), argThat(deltas -> deltas.get("total_punctuality_count") == 1));
+        verify(statisticsRepository).mergeStatistics(eq(userId), anyMap());
     }
 
     @Test
-    void updateRatingBasedStatistics_WithDoctorCollaborationRatings_CoversLambda() {
-        User doctorRater = new User();
-        doctorRater.setId(UUID.randomUUID());
-        doctorRater.setRole("DOCTOR");
-
-        Rating rating1 = new Rating();
-        rating1.setScore(4);
-        rating1.setSubcategory("colabora bien");
-        rating1.setRater(doctorRater);
-
-        Rating rating2 = new Rating();
-        rating2.setScore(4);
-        rating2.setSubcategory("sigue indicaciones");
-        rating2.setRater(doctorRater);
+    void updateAfterRatingAddedSync_LowScore_CountsNoMention() {
+        when(statisticsRepository.incrementCounters(eq(userId), anyMap())).thenReturn(objectMapper.createObjectNode());
 
-        when(ratingRepository.findByRatedId(userId)).thenReturn(List.of(rating1, rating2));
+        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, new RatingSample(3, Set.of(RatingSubcategory.EXPLICA_CLARAMENTE), Set.of(), "PATIENT"), null, null, null);
 
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, null, 4, null);
-
-        verify(ratingRepository).findByRatedId(userId);
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateAllBadgeProgress_WithCompletedTurns_CoversLambda() {
-        User doctor = new User();
-        doctor.setId(UUID.randomUUID());
-
-        TurnAssigned turn1 = new TurnAssigned();
-        turn1.setDoctor(doctor);
-        turn1.setStatus("COMPLETED");
-
-        TurnAssigned turn2 = new TurnAssigned();
-        turn2.setDoctor(doctor);
-        turn2.setStatus("COMPLETED");
-
-        when(turnAssignedRepository.findByPatient_IdAndStatus(userId, "COMPLETED")).thenReturn(List.of(turn1, turn2));
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateAllBadgeProgress(userId);
-
-        verify(turnAssignedRepository).findByPatient_IdAndStatus(userId, "COMPLETED");
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
+        verify(statisticsRepository).incrementCounters(userId, Map.of(
+                "total_ratings_received", 1,
+                "rating_score_sum", 3,
+                "total_low_rating_count", 1));
     }
 
     @Test
     void ensureStatisticsExist_UserNotFound_ThrowsException() {
         when(userRepository.findById(userId)).thenReturn(Optional.empty());
 
-        assertThrows(RuntimeException.class, () -> badgeStatisticsUpdateService.updateAfterRatingAddedSync(userId, 4, 5, 3));
+        assertThrows(RuntimeException.class, () -> badgeStatisticsUpdateService.updateAfterRatingAddedSync(
+                userId, new RatingSample(4, Set.of(), Set.of(), "PATIENT"), 4, 5, 3));
 
         verify(userRepository).findById(userId);
     }
-
-    @Test
-    void updateProgressAfterRatingSync_DoctorRole_WithHighStats_ActivatesSustainedExcellence() {
-        user.setRole("DOCTOR");
-
-        ObjectNode statsJson = objectMapper.createObjectNode();
-        statsJson.put("total_ratings_received", 120);
-        statsJson.put("total_communication_count", 30);
-        statsJson.put("total_empathy_count", 30);
-        statsJson.put("total_punctuality_count", 25);
-        statsJson.put("total_avg_rating", 4.5);
-        statsJson.put("total_low_rating_count", 5); 
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(statsJson)
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateProgressAfterRatingSync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterRatingSync_DoctorRole_WithLowRating_NoSustainedExcellence() {
-        user.setRole("DOCTOR");
-
-        ObjectNode statsJson = objectMapper.createObjectNode();
-        statsJson.put("total_ratings_received", 120);
-        statsJson.put("total_communication_count", 30);
-        statsJson.put("total_empathy_count", 30);
-        statsJson.put("total_punctuality_count", 25);
-        statsJson.put("total_avg_rating", 3.8); 
-        statsJson.put("total_low_rating_count", 5);
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(statsJson)
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateProgressAfterRatingSync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterRatingSync_DoctorRole_WithHighLowRatingCount_NoSustainedExcellence() {
-        user.setRole("DOCTOR");
-
-        ObjectNode statsJson = objectMapper.createObjectNode();
-        statsJson.put("total_ratings_received", 120);
-        statsJson.put("total_communication_count", 30);
-        statsJson.put("total_empathy_count", 30);
-        statsJson.put("total_punctuality_count", 25);
-        statsJson.put("total_avg_rating", 4.5);
-        statsJson.put("total_low_rating_count", 15); 
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(statsJson)
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateProgressAfterRatingSync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterTurnCompletionSync_DoctorRole_WithHighCancellationRate_NoConsistentProfessional() {
-        user.setRole("DOCTOR");
-
-        ObjectNode statsJson = objectMapper.createObjectNode();
-        statsJson.put("total_turns_completed", 100);
-        statsJson.put("total_turns_cancelled", 20); 
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(statsJson)
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateProgressAfterTurnCompletionSync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterTurnCompletionSync_DoctorRole_WithLowCancellationRate_ActivatesConsistentProfessional() {
-        user.setRole("DOCTOR");
-
-        ObjectNode statsJson = objectMapper.createObjectNode();
-        statsJson.put("total_turns_completed", 100);
-        statsJson.put("total_turns_cancelled", 10); 
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(statsJson)
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateProgressAfterTurnCompletionSync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterMedicalHistorySync_DoctorRole_WithHighDocumentation_ActivatesCompleteDocumenter() {
-        user.setRole("DOCTOR");
-
-        ObjectNode statsJson = objectMapper.createObjectNode();
-        statsJson.put("total_turns_completed", 60);
-        statsJson.put("documentation_count", 40);
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(statsJson)
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateProgressAfterMedicalHistorySync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateProgressAfterMedicalHistorySync_DoctorRole_WithLowTurns_ScalesRequirement() {
-        user.setRole("DOCTOR");
-
-        ObjectNode statsJson = objectMapper.createObjectNode();
-        statsJson.put("total_turns_completed", 30);
-        statsJson.put("documentation_count", 20);
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(statsJson)
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateProgressAfterMedicalHistorySync(userId);
-
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(userRepository, times(2)).findById(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateDoctorBadgeProgress_WithHighStats_ActivatesMultipleBadges() {
-        ObjectNode statsJson = objectMapper.createObjectNode();
-        statsJson.put("total_turns_completed", 150);
-        statsJson.put("documentation_count", 40);
-        statsJson.put("total_turns_cancelled", 5);
-        statsJson.put("unique_patients_served", 15);
-        statsJson.put("requests_handled", 8);
-        statsJson.put("total_ratings_received", 30);
-        statsJson.put("total_communication_count", 30);
-        statsJson.put("total_empathy_count", 30);
-        statsJson.put("total_punctuality_count", 25);
-        statsJson.put("total_avg_rating", 4.5);
-        statsJson.put("total_low_rating_count", 2);
-
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("total_turns_completed", 150);
-        statistics.put("documentation_count", 40);
-        statistics.put("total_turns_cancelled", 5);
-        statistics.put("unique_patients_served", 15);
-        statistics.put("requests_handled", 8);
-        statistics.put("total_ratings_received", 30);
-        statistics.put("total_communication_count", 30);
-        statistics.put("total_empathy_count", 30);
-        statistics.put("total_punctuality_count", 25);
-        statistics.put("total_avg_rating", 4.5);
-        statistics.put("total_low_rating_count", 2);
-
-        Map<String, Object> progress = new HashMap<>();
-
-        badgeStatisticsUpdateService.updateDoctorBadgeProgress(userId, statistics, progress, 150);
-
-        assert progress.containsKey("DOCTOR_COMPLETE_DOCUMENTER");
-        assert progress.containsKey("DOCTOR_CONSISTENT_PROFESSIONAL");
-        assert progress.containsKey("DOCTOR_RELATIONSHIP_BUILDER");
-        assert progress.containsKey("DOCTOR_AGILE_RESPONDER");
-        assert progress.containsKey("DOCTOR_TOP_SPECIALIST");
-        assert progress.containsKey("DOCTOR_MEDICAL_LEGEND");
-        assert progress.containsKey("DOCTOR_EXCEPTIONAL_COMMUNICATOR");
-        assert progress.containsKey("DOCTOR_EMPATHETIC_DOCTOR");
-        assert progress.containsKey("DOCTOR_PUNCTUALITY_PROFESSIONAL");
-    }
-
-    @Test
-    void updateDoctorBadgeProgress_WithLowStats_NoBadgesActivated() {
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("total_turns_completed", 10);
-        statistics.put("documentation_count", 2);
-        statistics.put("total_turns_cancelled", 5);
-        statistics.put("unique_patients_served", 2);
-        statistics.put("requests_handled", 1);
-        statistics.put("total_ratings_received", 5);
-        statistics.put("total_communication_count", 2);
-        statistics.put("total_empathy_count", 2);
-        statistics.put("total_punctuality_count", 2);
-        statistics.put("total_avg_rating", 3.5);
-        statistics.put("total_low_rating_count", 2);
-
-        Map<String, Object> progress = new HashMap<>();
-
-        badgeStatisticsUpdateService.updateDoctorBadgeProgress(userId, statistics, progress, 10);
-
-        assert progress.containsKey("DOCTOR_COMPLETE_DOCUMENTER");
-        assert progress.containsKey("DOCTOR_CONSISTENT_PROFESSIONAL");
-        assert progress.containsKey("DOCTOR_RELATIONSHIP_BUILDER");
-        assert progress.containsKey("DOCTOR_AGILE_RESPONDER");
-        assert progress.containsKey("DOCTOR_TOP_SPECIALIST");
-        assert progress.containsKey("DOCTOR_MEDICAL_LEGEND");
-        assert progress.containsKey("DOCTOR_EXCEPTIONAL_COMMUNICATOR");
-        assert progress.containsKey("DOCTOR_EMPATHETIC_DOCTOR");
-        assert progress.containsKey("DOCTOR_PUNCTUALITY_PROFESSIONAL");
-    }
-
-    @Test
-    void updateAllBadgeProgress_CoversLambdaExpressions() {
-        User doctor = new User();
-        doctor.setId(UUID.randomUUID());
-
-        TurnAssigned turn1 = new TurnAssigned();
-        turn1.setDoctor(doctor);
-        turn1.setStatus("COMPLETED");
-
-        TurnAssigned turn2 = new TurnAssigned();
-        turn2.setDoctor(doctor);
-        turn2.setStatus("COMPLETED");
-
-        TurnAssigned turn3 = new TurnAssigned();
-        turn3.setDoctor(doctor);
-        turn3.setStatus("COMPLETED");
-
-        when(turnAssignedRepository.findByPatient_IdAndStatus(userId, "COMPLETED")).thenReturn(List.of(turn1, turn2, turn3));
-
-        BadgeStatistics existingStats = BadgeStatistics.builder()
-                .userId(userId)
-                .statistics(objectMapper.createObjectNode())
-                .progress(objectMapper.createObjectNode())
-                .build();
-
-        when(statisticsRepository.findByUserId(userId)).thenReturn(Optional.of(existingStats));
-        when(statisticsRepository.save(any(BadgeStatistics.class))).thenReturn(existingStats);
-
-        badgeStatisticsUpdateService.updateAllBadgeProgress(userId);
-
-        verify(turnAssignedRepository).findByPatient_IdAndStatus(userId, "COMPLETED");
-        verify(statisticsRepository, times(2)).findByUserId(userId);
-        verify(statisticsRepository).save(existingStats);
-    }
-
-    @Test
-    void updateDoctorBadgeProgress_LessThan50Turns_CoversScaledRequirements() {
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("documentation_count", 10); 
-        statistics.put("total_turns_cancelled", 2);
-        statistics.put("unique_patients_served", 8);
-        statistics.put("requests_handled", 5);
-        statistics.put("total_ratings_received", 50);
-        statistics.put("total_communication_count", 15);
-        statistics.put("total_empathy_count", 15);
-        statistics.put("total_punctuality_count", 10);
-        statistics.put("total_avg_rating", 4.2);
-        statistics.put("total_low_rating_count", 2);
-
-        Map<String, Object> progress = new HashMap<>();
-
-        badgeStatisticsUpdateService.updateDoctorBadgeProgress(userId, statistics, progress, 30);
-
-        assert progress.containsKey("DOCTOR_COMPLETE_DOCUMENTER");
-        assert progress.containsKey("DOCTOR_CONSISTENT_PROFESSIONAL");
-        assert progress.containsKey("DOCTOR_RELATIONSHIP_BUILDER");
-        assert progress.containsKey("DOCTOR_AGILE_RESPONDER");
-        assert progress.containsKey("DOCTOR_TOP_SPECIALIST");
-        assert progress.containsKey("DOCTOR_MEDICAL_LEGEND");
-        assert progress.containsKey("DOCTOR_EXCEPTIONAL_COMMUNICATOR");
-        assert progress.containsKey("DOCTOR_EMPATHETIC_DOCTOR");
-        assert progress.containsKey("DOCTOR_PUNCTUALITY_PROFESSIONAL");
-    }
-
-    @Test
-    void updateDoctorBadgeProgress_50OrMoreTurns_CoversFullRequirements() {
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("documentation_count", 40); 
-        statistics.put("total_turns_cancelled", 5); 
-        statistics.put("unique_patients_served", 12);
-        statistics.put("requests_handled", 8);
-        statistics.put("total_ratings_received", 100);
-        statistics.put("total_communication_count", 30);
-        statistics.put("total_empathy_count", 30);
-        statistics.put("total_punctuality_count", 25);
-        statistics.put("total_avg_rating", 4.5);
-        statistics.put("total_low_rating_count", 5);
-
-        Map<String, Object> progress = new HashMap<>();
-
-        badgeStatisticsUpdateService.updateDoctorBadgeProgress(userId, statistics, progress, 80);
-
-        assert progress.containsKey("DOCTOR_COMPLETE_DOCUMENTER");
-        assert progress.containsKey("DOCTOR_CONSISTENT_PROFESSIONAL");
-        assert progress.containsKey("DOCTOR_RELATIONSHIP_BUILDER");
-        assert progress.containsKey("DOCTOR_AGILE_RESPONDER");
-        assert progress.containsKey("DOCTOR_TOP_SPECIALIST");
-        assert progress.containsKey("DOCTOR_MEDICAL_LEGEND");
-        assert progress.containsKey("DOCTOR_EXCEPTIONAL_COMMUNICATOR");
-        assert progress.containsKey("DOCTOR_EMPATHETIC_DOCTOR");
-        assert progress.containsKey("DOCTOR_PUNCTUALITY_PROFESSIONAL");
-    }
-
-    @Test
-    void updateDoctorBadgeProgress_HighCancellationRate_CoversFailureCondition() {
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("documentation_count", 40);
-        statistics.put("total_turns_cancelled", 20); 
-        statistics.put("unique_patients_served", 12);
-        statistics.put("requests_handled", 8);
-        statistics.put("total_ratings_received", 100);
-        statistics.put("total_communication_count", 30);
-        statistics.put("total_empathy_count", 30);
-        statistics.put("total_punctuality_count", 25);
-        statistics.put("total_avg_rating", 4.5);
-        statistics.put("total_low_rating_count", 5);
-
-        Map<String, Object> progress = new HashMap<>();
-
-        badgeStatisticsUpdateService.updateDoctorBadgeProgress(userId, statistics, progress, 80);
-
-        assert progress.containsKey("DOCTOR_CONSISTENT_PROFESSIONAL");
-        assert progress.get("DOCTOR_CONSISTENT_PROFESSIONAL").equals(0.0);
-    }
-
-    @Test
-    void updateDoctorBadgeProgress_LowRequestsHandled_CoversPartialProgress() {
-        Map<String, Object> statistics = new HashMap<>();
-        statistics.put("documentation_count", 40);
-        statistics.put("total_turns_cancelled", 5);
-        statistics.put("unique_patients_served", 12);
-        statistics.put("total_requests_handled", 4); 
-        statistics.put("total_ratings_received", 100);
-        statistics.put("total_communication_count", 30);
-        statistics.put("total_empathy_count", 30);
-        statistics.put("total_punctuality_count", 25);
-        statistics.put("total_avg_rating", 4.5);
-        statistics.put("total_low_rating_count", 5);
-
-        Map<String, Object> progress = new HashMap<>();
-
-        badgeStatisticsUpdateService.updateDoctorBadgeProgress(userId, statistics, progress, 80);
-
-        assert progress.containsKey("DOCTOR_AGILE_RESPONDER");
-        assert progress.get("DOCTOR_AGILE_RESPONDER").equals(4 * 100.0 / 7);
-    }
-
-    @Test
-    void parseJson_NullJson_ReturnsEmptyMap() {
-        Map<String, Object> result = badgeStatisticsUpdateService.parseJson(null);
-
-        assert result.isEmpty();
-    }
-
-    @Test
-    void parseJson_NullNode_ReturnsEmptyMap() {
-        JsonNode nullNode = objectMapper.nullNode();
-
-        Map<String, Object> result = badgeStatisticsUpdateService.parseJson(nullNode);
-
-        assert result.isEmpty();
-    }
-
-    @Test
-    void parseJson_ExceptionDuringParsing_ReturnsEmptyMap() {
-        ObjectNode invalidNode = objectMapper.createObjectNode();
-        invalidNode.put("invalid", "data");
-
-        BadgeStatisticsUpdateService serviceWithMockMapper = new BadgeStatisticsUpdateService(
-            statisticsRepository, userRepository, ratingRepository, turnAssignedRepository, badgeRepository) {
-            @Override
-            protected Map<String, Object> parseJson(com.fasterxml.jackson.databind.JsonNode json) {
-                throw new RuntimeException("Parsing failed");
-            }
-        };
-
-        try {
-            Map<String, Object> result = serviceWithMockMapper.parseJson(invalidNode);
-            assert result.isEmpty();
-        } catch (Exception e) {
-        }
-    }
-}
\ No newline at end of file
+}
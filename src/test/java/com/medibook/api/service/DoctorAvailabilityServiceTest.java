@@ -14,6 +14,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -401,4 +403,75 @@ class DoctorAvailabilityServiceTest {
         assertTrue(result.isEmpty()); // No debe generar slots porque weeklyAvailability es null
         verify(spyService).getAvailability(doctorId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailableSlots_UsesCompiledScheduleCache() throws Exception {
+        UUID doctorId = doctorUser.getId();
+        LocalDate monday = LocalDate.of(2025, 9, 29);
+        String scheduleJson = "[{\"day\":\"MONDAY\",\"enabled\":true,\"ranges\":[{\"start\":\"09:00\",\"end\":\"12:00\"}]}]";
+        CollectionType listType = new ObjectMapper().getTypeFactory().constructCollectionType(List.class, DayAvailabilityDTO.class);
+
+        doctorProfile.setAvailabilitySchedule(scheduleJson);
+        when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctorUser));
+        when(objectMapper.readValue(scheduleJson, listType)).thenReturn(testRequest.getWeeklyAvailability());
+        when(objectMapper.getTypeFactory()).thenReturn(new ObjectMapper().getTypeFactory());
+
+        List<AvailableSlotDTO> first = doctorAvailabilityService.getAvailableSlots(doctorId, monday, monday);
+        List<AvailableSlotDTO> second = doctorAvailabilityService.getAvailableSlots(doctorId, monday.plusWeeks(1), monday.plusWeeks(1));
+
+        assertEquals(6, first.size());
+        assertEquals(6, second.size());
+        assertEquals("Monday", second.get(0).getDayOfWeek());
+        verify(userRepository, times(1)).findById(doctorId);
+        verify(objectMapper, times(1)).readValue(scheduleJson, listType);
+    }
+
+    @Test
+    void saveAvailability_EvictsCompiledSchedule() throws Exception {
+        UUID doctorId = doctorUser.getId();
+        LocalDate monday = LocalDate.of(2025, 9, 29);
+
+        doctorProfile.setAvailabilitySchedule(null);
+        when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctorUser));
+        when(userRepository.save(any(User.class))).thenReturn(doctorUser);
+        when(objectMapper.writeValueAsString(any())).thenReturn(null);
+
+        assertTrue(doctorAvailabilityService.getAvailableSlots(doctorId, monday, monday).isEmpty());
+        doctorAvailabilityService.saveAvailability(doctorId, testRequest);
+        doctorAvailabilityService.getAvailableSlots(doctorId, monday, monday);
+
+        verify(userRepository, times(3)).findById(doctorId);
+    }
+
+    @Test
+    void validateSlotWithinSchedule_RejectsTimesOutsideSchedule() throws Exception {
+        String scheduleJson = "[{\"day\":\"MONDAY\",\"enabled\":true,\"ranges\":[{\"start\":\"09:00\",\"end\":\"12:00\"}]}]";
+        CollectionType listType = new ObjectMapper().getTypeFactory().constructCollectionType(List.class, DayAvailabilityDTO.class);
+
+        doctorProfile.setAvailabilitySchedule(scheduleJson);
+        when(objectMapper.readValue(scheduleJson, listType)).thenReturn(testRequest.getWeeklyAvailability());
+        when(objectMapper.getTypeFactory()).thenReturn(new ObjectMapper().getTypeFactory());
+
+        OffsetDateTime mondayNineThirty = OffsetDateTime.of(2025, 9, 29, 9, 30, 0, 0, ZoneOffset.ofHours(-3));
+
+        assertDoesNotThrow(() -> doctorAvailabilityService.validateSlotWithinSchedule(doctorUser, mondayNineThirty));
+
+        RuntimeException offGrid = assertThrows(RuntimeException.class,
+            () -> doctorAvailabilityService.validateSlotWithinSchedule(doctorUser, mondayNineThirty.plusMinutes(10)));
+        assertEquals("Selected time is outside the doctor's availability", offGrid.getMessage());
+
+        assertThrows(RuntimeException.class,
+            () -> doctorAvailabilityService.validateSlotWithinSchedule(doctorUser, mondayNineThirty.plusDays(1)));
+        assertThrows(RuntimeException.class,
+            () -> doctorAvailabilityService.validateSlotWithinSchedule(doctorUser, mondayNineThirty.withHour(12)));
+        verify(objectMapper, times(1)).readValue(scheduleJson, listType);
+    }
+
+    @Test
+    void validateSlotWithinSchedule_NoScheduleConfigured_AcceptsAnyTime() {
+        doctorProfile.setAvailabilitySchedule(null);
+
+        assertDoesNotThrow(() -> doctorAvailabilityService.validateSlotWithinSchedule(
+            doctorUser, OffsetDateTime.of(2025, 9, 30, 7, 10, 0, 0, ZoneOffset.ofHours(-3))));
+    }
+}
@@ -0,0 +1,110 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.DoctorLeaderboardEntryDTO;
+import com.medibook.api.entity.DoctorProfile;
+import com.medibook.api.entity.User;
+import com.medibook.api.repository.BadgeRepository;
+import com.medibook.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DoctorLeaderboardServiceTest {
+
+    private static final String CARDIOLOGY = "Cardiología";
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private BadgeRepository badgeRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private DoctorLeaderboardService doctorLeaderboardService;
+    private User doctor;
+
+    @BeforeEach
+    void setUp() {
+        doctorLeaderboardService = new DoctorLeaderboardService(userRepository, badgeRepository, transactionManager);
+        doctor = doctor(UUID.randomUUID(), 4.5, 10);
+        when(userRepository.findDoctorsByStatus("ACTIVE")).thenReturn(List.of(doctor));
+        when(badgeRepository.countActiveBadgesOfDoctors()).thenReturn(List.<Object[]>of(new Object[]{doctor.getId(), 3L}));
+        doctorLeaderboardService.rebuild();
+    }
+
+    @Test
+    void refresh_TakesScoreFromDatabaseAndKeepsBadgeCount() {
+        when(userRepository.findById(doctor.getId())).thenReturn(Optional.of(doctor(doctor.getId(), 4.6, 11)));
+
+        doctorLeaderboardService.refresh(doctor.getId());
+
+        DoctorLeaderboardEntryDTO entry = doctorLeaderboardService.getLeaderboard(CARDIOLOGY, null, null).getItems().get(0);
+        assertEquals(4.6, entry.getScore());
+        assertEquals(11, entry.getRatingCount());
+        assertEquals(3, entry.getActiveBadges());
+        verify(badgeRepository, never()).countActiveBadgesByUserId(any());
+    }
+
+    @Test
+    void refresh_DeactivatedDoctor_IsRemoved() {
+        doctor.setStatus("DISABLED");
+        when(userRepository.findById(doctor.getId())).thenReturn(Optional.of(doctor));
+
+        doctorLeaderboardService.refresh(doctor.getId());
+
+        assertTrue(doctorLeaderboardService.getLeaderboard(CARDIOLOGY, null, null).getItems().isEmpty());
+    }
+
+    @Test
+    void refresh_SpecialtyChanged_MovesDoctor() {
+        doctor.getDoctorProfile().setSpecialty("Dermatología");
+        when(userRepository.findById(doctor.getId())).thenReturn(Optional.of(doctor));
+
+        doctorLeaderboardService.refresh(doctor.getId());
+
+        assertTrue(doctorLeaderboardService.getLeaderboard(CARDIOLOGY, null, null).getItems().isEmpty());
+        assertEquals(1, doctorLeaderboardService.getLeaderboard("Dermatología", null, null).getItems().size());
+    }
+
+    @Test
+    void refresh_NewlyApprovedDoctor_IsAddedWithBadgeCount() {
+        User approved = doctor(UUID.randomUUID(), null, 0);
+        when(userRepository.findById(approved.getId())).thenReturn(Optional.of(approved));
+        when(badgeRepository.countActiveBadgesByUserId(approved.getId())).thenReturn(1L);
+
+        doctorLeaderboardService.refresh(approved.getId());
+
+        List<DoctorLeaderboardEntryDTO> items = doctorLeaderboardService.getLeaderboard(CARDIOLOGY, null, null).getItems();
+        assertEquals(2, items.size());
+        assertEquals(approved.getId(), items.get(1).getDoctorId());
+        assertEquals(1, items.get(1).getActiveBadges());
+    }
+
+    private User doctor(UUID id, Double score, long ratingCount) {
+        User user = new User();
+        user.setId(id);
+        user.setName("Hugo");
+        user.setSurname("Martinez");
+        user.setRole("DOCTOR");
+        user.setStatus("ACTIVE");
+        user.setScore(score);
+        user.setRatingCount(ratingCount);
+        DoctorProfile profile = new DoctorProfile();
+        profile.setSpecialty(CARDIOLOGY);
+        user.setDoctorProfile(profile);
+        return user;
+    }
+}
@@ -5,7 +5,6 @@ import com.medibook.api.dto.PatientDTO;
 import com.medibook.api.entity.DoctorProfile;
 import com.medibook.api.entity.User;
 import com.medibook.api.mapper.DoctorMapper;
-import com.medibook.api.repository.RatingRepository;
 import com.medibook.api.repository.TurnAssignedRepository;
 import com.medibook.api.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -45,7 +44,7 @@ class DoctorServiceComprehensiveTest {
     private FamilyService familyService;
 
     @Mock
-    private RatingRepository ratingRepository;
+    private RatingSummaryService ratingSummaryService;
 
     @InjectMocks
     private DoctorService doctorService;
@@ -114,8 +113,8 @@ class DoctorServiceComprehensiveTest {
                 .thenReturn(Collections.emptyList());
         lenient().when(medicalHistoryService.getLatestMedicalHistoryContents(anyList()))
                 .thenReturn(Collections.emptyMap());
-        lenient().when(ratingRepository.countSubcategoriesByRatedIds(anyList(), anyString()))
-                .thenReturn(Collections.emptyList());
+        lenient().when(ratingSummaryService.getSubcategoryCounts(anyList(), anyString()))
+                .thenReturn(Collections.emptyMap());
     }
 
     private User createUser(UUID id, String email, Long dni, String role, String status) {
@@ -252,8 +251,8 @@ class DoctorServiceComprehensiveTest {
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId1))
                 .thenReturn(Arrays.asList(patientUser1, patientUser2));
         when(medicalHistoryService.getLatestMedicalHistoryContents(Arrays.asList(patientId1, patientId2))).thenReturn(Collections.emptyMap());
-        when(ratingRepository.countSubcategoriesByRatedIds(Arrays.asList(patientId1, patientId2), "DOCTOR"))
-                .thenReturn(Collections.emptyList());
+        when(ratingSummaryService.getSubcategoryCounts(Arrays.asList(patientId1, patientId2), "DOCTOR"))
+                .thenReturn(Collections.emptyMap());
 
         List<PatientDTO> result = doctorService.getPatientsByDoctor(doctorId1);
 
@@ -275,7 +274,7 @@ class DoctorServiceComprehensiveTest {
         verify(medicalHistoryService).getPatientMedicalHistory(patientId1);
         verify(medicalHistoryService).getPatientMedicalHistory(patientId2);
         verify(medicalHistoryService).getLatestMedicalHistoryContents(Arrays.asList(patientId1, patientId2));
-        verify(ratingRepository).countSubcategoriesByRatedIds(Arrays.asList(patientId1, patientId2), "DOCTOR");
+        verify(ratingSummaryService).getSubcategoryCounts(Arrays.asList(patientId1, patientId2), "DOCTOR");
     }
 
     @Test
@@ -314,13 +313,13 @@ class DoctorServiceComprehensiveTest {
     void getPatientsByDoctor_NoPatients_ReturnsEmptyList() {        when(userRepository.findById(doctorId1)).thenReturn(Optional.of(doctorUser1));
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId1))
                 .thenReturn(Collections.emptyList());        when(medicalHistoryService.getLatestMedicalHistoryContents(Collections.emptyList())).thenReturn(Collections.emptyMap());
-        when(ratingRepository.countSubcategoriesByRatedIds(Collections.emptyList(), "DOCTOR")).thenReturn(Collections.emptyList());        List<PatientDTO> result = doctorService.getPatientsByDoctor(doctorId1);        assertNotNull(result);
+        when(ratingSummaryService.getSubcategoryCounts(Collections.emptyList(), "DOCTOR")).thenReturn(Collections.emptyMap());        List<PatientDTO> result = doctorService.getPatientsByDoctor(doctorId1);        assertNotNull(result);
         assertTrue(result.isEmpty());
         
         verify(userRepository).findById(doctorId1);
         verify(turnAssignedRepository).findDistinctPatientsByDoctorId(doctorId1);
         verify(medicalHistoryService).getLatestMedicalHistoryContents(Collections.emptyList());
-        verify(ratingRepository).countSubcategoriesByRatedIds(Collections.emptyList(), "DOCTOR");
+        verify(ratingSummaryService).getSubcategoryCounts(Collections.emptyList(), "DOCTOR");
     }
 
     @Test
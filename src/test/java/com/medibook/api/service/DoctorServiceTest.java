@@ -2,10 +2,10 @@ package com.medibook.api.service;
 
 import com.medibook.api.dto.MedicalHistoryDTO;
 import com.medibook.api.dto.PatientDTO;
+import com.medibook.api.dto.Rating.SubcategoryCountDTO;
 import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.User;
 import com.medibook.api.mapper.DoctorMapper;
-import com.medibook.api.repository.RatingRepository;
 import com.medibook.api.repository.TurnAssignedRepository;
 import com.medibook.api.repository.UserRepository;
 import com.medibook.api.repository.BadgeRepository;
@@ -45,7 +45,7 @@ class DoctorServiceTest {
     private FamilyService familyService;
 
     @Mock
-    private RatingRepository ratingRepository;
+    private RatingSummaryService ratingSummaryService;
 
     @Mock
     private BadgeRepository badgeRepository;
@@ -121,7 +121,7 @@ class DoctorServiceTest {
         when(medicalHistoryService.getPatientMedicalHistory(patientId1)).thenReturn(Collections.emptyList());
         when(medicalHistoryService.getPatientMedicalHistory(patientId2)).thenReturn(Collections.emptyList());
         when(medicalHistoryService.getLatestMedicalHistoryContents(Arrays.asList(patientId1, patientId2))).thenReturn(Collections.emptyMap());
-        when(ratingRepository.countSubcategoriesByRatedIds(Arrays.asList(patientId1, patientId2), "DOCTOR")).thenReturn(Collections.emptyList());
+        when(ratingSummaryService.getSubcategoryCounts(Arrays.asList(patientId1, patientId2), "DOCTOR")).thenReturn(Collections.emptyMap());
 
         List<PatientDTO> result = doctorService.getPatientsByDoctor(doctorId);
 
@@ -158,7 +158,7 @@ class DoctorServiceTest {
         verify(medicalHistoryService).getPatientMedicalHistory(patientId1);
         verify(medicalHistoryService).getPatientMedicalHistory(patientId2);
         verify(medicalHistoryService).getLatestMedicalHistoryContents(Arrays.asList(patientId1, patientId2));
-        verify(ratingRepository).countSubcategoriesByRatedIds(Arrays.asList(patientId1, patientId2), "DOCTOR");
+        verify(ratingSummaryService).getSubcategoryCounts(Arrays.asList(patientId1, patientId2), "DOCTOR");
     }
 
     @Test
@@ -204,7 +204,7 @@ class DoctorServiceTest {
         when(userRepository.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId)).thenReturn(Collections.emptyList());
         when(medicalHistoryService.getLatestMedicalHistoryContents(Collections.emptyList())).thenReturn(Collections.emptyMap());
-        when(ratingRepository.countSubcategoriesByRatedIds(Collections.emptyList(), "DOCTOR")).thenReturn(Collections.emptyList());
+        when(ratingSummaryService.getSubcategoryCounts(Collections.emptyList(), "DOCTOR")).thenReturn(Collections.emptyMap());
 
         List<PatientDTO> result = doctorService.getPatientsByDoctor(doctorId);
 
@@ -212,7 +212,7 @@ class DoctorServiceTest {
         verify(userRepository).findById(doctorId);
         verify(turnAssignedRepository).findDistinctPatientsByDoctorId(doctorId);
         verify(medicalHistoryService).getLatestMedicalHistoryContents(Collections.emptyList());
-        verify(ratingRepository).countSubcategoriesByRatedIds(Collections.emptyList(), "DOCTOR");
+        verify(ratingSummaryService).getSubcategoryCounts(Collections.emptyList(), "DOCTOR");
     }
 
     @Test
@@ -298,7 +298,7 @@ class DoctorServiceTest {
                 .thenReturn(Collections.emptyList());
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId))
                 .thenReturn(Collections.emptyList());
-        when(ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT"))
+        when(ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT"))
                 .thenReturn(Collections.emptyList());
 
         com.medibook.api.dto.DoctorMetricsDTO result = doctorService.getDoctorMetrics(doctorId);
@@ -388,7 +388,7 @@ class DoctorServiceTest {
                 .thenReturn(allTurns);
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId))
                 .thenReturn(Arrays.asList(patient1, patient2));
-        when(ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT"))
+        when(ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT"))
                 .thenReturn(Collections.emptyList());
 
         com.medibook.api.dto.DoctorMetricsDTO result = doctorService.getDoctorMetrics(doctorId);
@@ -407,7 +407,7 @@ class DoctorServiceTest {
                 .thenReturn(Collections.emptyList());
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId))
                 .thenReturn(Collections.emptyList());
-        when(ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT"))
+        when(ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT"))
                 .thenReturn(Collections.emptyList());
 
         com.medibook.api.dto.DoctorMetricsDTO result = doctorService.getDoctorMetrics(doctorId);
@@ -436,7 +436,7 @@ class DoctorServiceTest {
                 .thenReturn(Collections.singletonList(scheduledPast));
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId))
                 .thenReturn(Collections.singletonList(patient1));
-        when(ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT"))
+        when(ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT"))
                 .thenReturn(Collections.emptyList());
 
         com.medibook.api.dto.DoctorMetricsDTO result = doctorService.getDoctorMetrics(doctorId);
@@ -462,7 +462,7 @@ class DoctorServiceTest {
                 .thenReturn(Collections.singletonList(completedAtStart));
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId))
                 .thenReturn(Collections.singletonList(patient1));
-        when(ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT"))
+        when(ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT"))
                 .thenReturn(Collections.emptyList());
 
         com.medibook.api.dto.DoctorMetricsDTO result = doctorService.getDoctorMetrics(doctorId);
@@ -489,7 +489,7 @@ class DoctorServiceTest {
                 .thenReturn(Collections.singletonList(completedLastMonth));
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId))
                 .thenReturn(Collections.singletonList(patient1));
-        when(ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT"))
+        when(ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT"))
                 .thenReturn(Collections.emptyList());
 
         com.medibook.api.dto.DoctorMetricsDTO result = doctorService.getDoctorMetrics(doctorId);
@@ -524,7 +524,7 @@ class DoctorServiceTest {
                 .thenReturn(Arrays.asList(cancelled1, cancelled2));
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId))
                 .thenReturn(Arrays.asList(patient1, patient2));
-        when(ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT"))
+        when(ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT"))
                 .thenReturn(Collections.emptyList());
 
         com.medibook.api.dto.DoctorMetricsDTO result = doctorService.getDoctorMetrics(doctorId);
@@ -543,31 +543,10 @@ class DoctorServiceTest {
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId))
                 .thenReturn(Collections.emptyList());
 
-        RatingRepository.SubcategoryCount subcategory1 = new RatingRepository.SubcategoryCount() {
-            @Override
-            public String getSubcategory() {
-                return "Puntualidad";
-            }
-
-            @Override
-            public Long getCount() {
-                return 5L;
-            }
-        };
-
-        RatingRepository.SubcategoryCount subcategory2 = new RatingRepository.SubcategoryCount() {
-            @Override
-            public String getSubcategory() {
-                return "Profesionalismo";
-            }
-
-            @Override
-            public Long getCount() {
-                return 3L;
-            }
-        };
-
-        when(ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT"))
+        SubcategoryCountDTO subcategory1 = new SubcategoryCountDTO("Puntualidad", 5L);
+        SubcategoryCountDTO subcategory2 = new SubcategoryCountDTO("Profesionalismo", 3L);
+
+        when(ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT"))
                 .thenReturn(Arrays.asList(subcategory1, subcategory2));
 
         com.medibook.api.dto.DoctorMetricsDTO result = doctorService.getDoctorMetrics(doctorId);
@@ -606,7 +585,7 @@ class DoctorServiceTest {
                 .thenReturn(Arrays.asList(turn1, turn2));
         when(turnAssignedRepository.findDistinctPatientsByDoctorId(doctorId))
                 .thenReturn(Collections.singletonList(patient1));
-        when(ratingRepository.countSubcategoriesByRatedId(doctorId, "PATIENT"))
+        when(ratingSummaryService.getSubcategoryCounts(doctorId, "PATIENT"))
                 .thenReturn(Collections.emptyList());
 
         com.medibook.api.dto.DoctorMetricsDTO result = doctorService.getDoctorMetrics(doctorId);
@@ -39,9 +39,10 @@ class FamilyTurnServiceTest {
     @Mock
     private TurnAssignedMapper mapper;
     
-    @Mock private NotificationService notificationService;
-    @Mock private EmailService emailService;
     @Mock private BadgeEvaluationTriggerService badgeEvaluationTrigger;
+    @Mock private OutboxService outboxService;
+    @Mock private DoctorAvailabilityService doctorAvailabilityService;
+    @Mock private SlotHoldService slotHoldService;
 
     @InjectMocks
     private TurnAssignedService turnService;
@@ -90,14 +91,13 @@ class FamilyTurnServiceTest {
         // Arrange
         when(userRepo.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(userRepo.findById(patientId)).thenReturn(Optional.of(patient));
-        when(turnRepo.existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(any(), any())).thenReturn(false);
         
         TurnAssigned savedTurn = new TurnAssigned();
         savedTurn.setId(UUID.randomUUID());
         savedTurn.setScheduledAt(turnRequest.getScheduledAt());
         savedTurn.setDoctor(doctor);
         
-        when(turnRepo.save(any(TurnAssigned.class))).thenReturn(savedTurn);
+        when(turnRepo.saveAndFlush(any(TurnAssigned.class))).thenReturn(savedTurn);
         TurnResponseDTO responseDTO = TurnResponseDTO.builder()
                 .id(savedTurn.getId())
                 .build();
@@ -108,7 +108,7 @@ class FamilyTurnServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(turnRepo).save(argThat(turn -> 
+        verify(turnRepo).saveAndFlush(argThat(turn -> 
             turn.getPatient().equals(patient) && 
             turn.getFamilyMember() == null
         ));
@@ -122,14 +122,13 @@ class FamilyTurnServiceTest {
         when(userRepo.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(userRepo.findById(patientId)).thenReturn(Optional.of(patient));
         when(familyMemberRepository.findById(familyId)).thenReturn(Optional.of(familyMember));
-        when(turnRepo.existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(any(), any())).thenReturn(false);
 
         TurnAssigned savedTurn = new TurnAssigned();
         savedTurn.setId(UUID.randomUUID());
         savedTurn.setScheduledAt(turnRequest.getScheduledAt());
         savedTurn.setDoctor(doctor);
 
-        when(turnRepo.save(any(TurnAssigned.class))).thenReturn(savedTurn);
+        when(turnRepo.saveAndFlush(any(TurnAssigned.class))).thenReturn(savedTurn);
         TurnResponseDTO responseDTO = TurnResponseDTO.builder()
                 .id(savedTurn.getId())
                 .build();
@@ -140,7 +139,7 @@ class FamilyTurnServiceTest {
 
         // Assert
         assertNotNull(result);
-        verify(turnRepo).save(argThat(turn -> 
+        verify(turnRepo).saveAndFlush(argThat(turn -> 
             turn.getPatient().equals(patient) && 
             turn.getFamilyMember().equals(familyMember)
         ));
@@ -168,7 +167,7 @@ class FamilyTurnServiceTest {
         });
 
         assertEquals("El familiar indicado no pertenece al paciente", exception.getMessage());
-        verify(turnRepo, never()).save(any());
+        verify(turnRepo, never()).saveAndFlush(any());
     }
 
     @Test
@@ -187,6 +186,6 @@ class FamilyTurnServiceTest {
             turnService.createTurn(turnRequest);
         });
         
-        verify(turnRepo, never()).save(any());
+        verify(turnRepo, never()).saveAndFlush(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,94 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.medibook.api.entity.OutboxEvent;
+import com.medibook.api.entity.OutboxEventType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxDispatcherTest {
+
+    @Mock private OutboxService outboxService;
+    @Mock private OutboxEventHandler handler;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private OutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        dispatcher = new OutboxDispatcher(outboxService, handler, transactionManager);
+    }
+
+    @Test
+    void dispatchBatch_HandlesEventsInOrderAndMarksThemDone() {
+        UUID turnId = UUID.randomUUID();
+        OutboxEvent first = event(1L, turnId, OutboxEventType.APPOINTMENT_CONFIRMATION_EMAIL_PATIENT);
+        OutboxEvent second = event(2L, turnId, OutboxEventType.TURN_RESERVED_NOTIFICATION);
+        when(outboxService.claimBatch(anyInt())).thenReturn(List.of(first, second));
+
+        assertEquals(2, dispatcher.dispatchBatch());
+
+        InOrder inOrder = inOrder(handler, outboxService);
+        inOrder.verify(handler).handle(first);
+        inOrder.verify(outboxService).markDone(1L);
+        inOrder.verify(handler).handle(second);
+        inOrder.verify(outboxService).markDone(2L);
+        verify(transactionManager, times(2)).commit(any());
+        verify(outboxService, never()).markFailed(any(), any());
+        verify(outboxService).release(List.of());
+    }
+
+    @Test
+    void dispatchBatch_FailureHoldsBackLaterEventsOfSameTurnOnly() {
+        UUID failingTurn = UUID.randomUUID();
+        UUID otherTurn = UUID.randomUUID();
+        OutboxEvent failing = event(1L, failingTurn, OutboxEventType.APPOINTMENT_CANCELLATION_EMAIL_PATIENT);
+        OutboxEvent other = event(2L, otherTurn, OutboxEventType.TURN_RESERVED_NOTIFICATION);
+        OutboxEvent heldBack = event(3L, failingTurn, OutboxEventType.TURN_CANCELLED_NOTIFICATION);
+        when(outboxService.claimBatch(anyInt())).thenReturn(List.of(failing, other, heldBack));
+        RuntimeException error = new RuntimeException("Email sending failed");
+        doThrow(error).when(handler).handle(failing);
+
+        dispatcher.dispatchBatch();
+
+        verify(transactionManager).rollback(any());
+        verify(outboxService).markFailed(failing, error);
+        verify(outboxService, never()).markDone(1L);
+        verify(handler).handle(other);
+        verify(outboxService).markDone(2L);
+        verify(handler, never()).handle(heldBack);
+        verify(outboxService).release(List.of(3L));
+    }
+
+    @Test
+    void dispatch_StopsWhenBatchIsNotFull() {
+        when(outboxService.claimBatch(anyInt())).thenReturn(List.of());
+
+        dispatcher.dispatch();
+
+        verify(outboxService, times(1)).claimBatch(50);
+        verifyNoInteractions(handler);
+    }
+
+    private OutboxEvent event(Long id, UUID aggregateId, OutboxEventType type) {
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateId(aggregateId)
+                .eventType(type)
+                .payload(JsonNodeFactory.instance.objectNode())
+                .build();
+    }
+}
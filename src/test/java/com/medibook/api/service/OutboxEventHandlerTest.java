@@ -0,0 +1,105 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.dto.email.EmailResponseDto;
+import com.medibook.api.entity.OutboxEvent;
+import com.medibook.api.entity.OutboxEventType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxEventHandlerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock private EmailService emailService;
+    @Mock private NotificationService notificationService;
+    @Mock private BadgeEvaluationTriggerService badgeEvaluationTrigger;
+    @Mock private MedicalCheckApiService medicalCheckApiService;
+    @Mock private TurnFileService turnFileService;
+
+    @InjectMocks
+    private OutboxEventHandler handler;
+
+    private final UUID turnId = UUID.randomUUID();
+
+    @Test
+    void handle_ConfirmationEmail_SendsWithStoredPayload() {
+        when(emailService.sendAppointmentConfirmationToPatientAsync("juan@example.com", "Juan", "Gregory", "10/10/2028", "08:00", turnId.toString()))
+                .thenReturn(CompletableFuture.completedFuture(EmailResponseDto.builder().success(true).build()));
+
+        handler.handle(event(OutboxEventType.APPOINTMENT_CONFIRMATION_EMAIL_PATIENT, OutboxService.payload(
+                "to", "juan@example.com", "name", "Juan", "otherName", "Gregory", "date", "10/10/2028", "time", "08:00")));
+
+        verify(emailService).sendAppointmentConfirmationToPatientAsync("juan@example.com", "Juan", "Gregory", "10/10/2028", "08:00", turnId.toString());
+    }
+
+    @Test
+    void handle_UnsuccessfulEmail_ThrowsSoTheEventIsRetried() {
+        when(emailService.sendAppointmentCancellationToDoctorAsync(any(), any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(EmailResponseDto.builder().success(false).message("quota exceeded").build()));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> handler.handle(event(
+                OutboxEventType.APPOINTMENT_CANCELLATION_EMAIL_DOCTOR, OutboxService.payload("to", "house@example.com"))));
+
+        assertTrue(exception.getMessage().contains("quota exceeded"));
+    }
+
+    @Test
+    void handle_SeriesNotificationAndEmail_ReadTypedValues() {
+        UUID doctorId = UUID.randomUUID();
+        when(emailService.sendAppointmentSeriesConfirmationToPatientAsync(any(), any(), any(), anyList()))
+                .thenReturn(CompletableFuture.completedFuture(EmailResponseDto.builder().success(true).build()));
+
+        handler.handle(event(OutboxEventType.TURN_SERIES_RESERVED_NOTIFICATION, OutboxService.payload(
+                "userId", doctorId, "patientName", "Juan Perez", "turnCount", 4, "date", "10/10/2028", "time", "08:00")));
+        handler.handle(event(OutboxEventType.APPOINTMENT_SERIES_EMAIL_PATIENT, OutboxService.payload(
+                "to", "juan@example.com", "name", "Juan", "otherName", null, "appointments", List.of("a", "b"))));
+
+        verify(notificationService).createTurnSeriesReservedNotification(doctorId, turnId, "Juan Perez", 4, "10/10/2028", "08:00");
+        verify(emailService).sendAppointmentSeriesConfirmationToPatientAsync("juan@example.com", "Juan", null, List.of("a", "b"));
+    }
+
+    @Test
+    void handle_FileDeletion_SkipsWhenFileIsAlreadyGone() {
+        when(turnFileService.fileExistsForTurn(turnId)).thenReturn(true, false);
+        when(turnFileService.deleteTurnFile(turnId)).thenReturn(Mono.empty());
+
+        handler.handle(event(OutboxEventType.TURN_FILE_DELETION, OutboxService.payload()));
+        handler.handle(event(OutboxEventType.TURN_FILE_DELETION, OutboxService.payload()));
+
+        verify(turnFileService, times(1)).deleteTurnFile(turnId);
+    }
+
+    @Test
+    void handle_BadgeCompletion_TriggersEvaluation() {
+        UUID doctorId = UUID.randomUUID();
+        UUID patientId = UUID.randomUUID();
+
+        handler.handle(event(OutboxEventType.BADGE_TURN_COMPLETION, OutboxService.payload("userId", doctorId, "otherUserId", patientId)));
+
+        verify(badgeEvaluationTrigger).evaluateAfterTurnCompletion(doctorId, patientId);
+    }
+
+    private OutboxEvent event(OutboxEventType type, Map<String, Object> payload) {
+        return OutboxEvent.builder()
+                .id(1L)
+                .aggregateId(turnId)
+                .eventType(type)
+                .payload(objectMapper.valueToTree(payload))
+                .build();
+    }
+}
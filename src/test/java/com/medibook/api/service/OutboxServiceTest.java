@@ -0,0 +1,85 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.entity.OutboxEvent;
+import com.medibook.api.entity.OutboxEventType;
+import com.medibook.api.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxServiceTest {
+
+    @Mock
+    private OutboxEventRepository outboxRepository;
+
+    private OutboxService outboxService;
+
+    @BeforeEach
+    void setUp() {
+        outboxService = new OutboxService(outboxRepository, new ObjectMapper());
+    }
+
+    @Test
+    void enqueue_StoresPendingEventWithJsonPayload() {
+        UUID turnId = UUID.randomUUID();
+
+        outboxService.enqueue(OutboxEventType.TURN_RESERVED_NOTIFICATION, turnId,
+                OutboxService.payload("patientName", "Juan Perez", "familyMember", null));
+
+        ArgumentCaptor<OutboxEvent> saved = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxRepository).save(saved.capture());
+        OutboxEvent event = saved.getValue();
+        assertEquals(turnId, event.getAggregateId());
+        assertEquals(OutboxEvent.PENDING, event.getStatus());
+        assertEquals(0, event.getAttempts());
+        assertEquals("Juan Perez", event.getPayload().get("patientName").asText());
+        assertTrue(event.getPayload().get("familyMember").isNull());
+        assertNotNull(event.getAvailableAt());
+    }
+
+    @Test
+    void claimBatch_LeasesClaimedEvents() {
+        OutboxEvent event = OutboxEvent.builder().id(1L).availableAt(OffsetDateTime.now().minusSeconds(5)).build();
+        when(outboxRepository.findDueForUpdate(any(OffsetDateTime.class), any(Pageable.class))).thenReturn(List.of(event));
+
+        List<OutboxEvent> batch = outboxService.claimBatch(10);
+
+        assertEquals(1, batch.size());
+        assertTrue(event.getAvailableAt().isAfter(OffsetDateTime.now().plusSeconds(60)));
+    }
+
+    @Test
+    void markFailed_SchedulesRetryWithBackoffUntilAttemptsRunOut() {
+        OutboxEvent retried = OutboxEvent.builder().id(1L).attempts(2).build();
+        OutboxEvent exhausted = OutboxEvent.builder().id(2L).attempts(9).build();
+
+        outboxService.markFailed(retried, new RuntimeException("timeout"));
+        outboxService.markFailed(exhausted, new RuntimeException("timeout"));
+
+        verify(outboxRepository).markFailedAttempt(eq(1L), eq(OutboxEvent.PENDING), eq(3),
+                argThat(retryAt -> retryAt.isAfter(OffsetDateTime.now().plusSeconds(6))), eq("RuntimeException: timeout"));
+        verify(outboxRepository).markFailedAttempt(eq(2L), eq(OutboxEvent.FAILED), eq(10), any(), anyString());
+    }
+
+    @Test
+    void backoff_GrowsExponentiallyAndIsCapped() {
+        assertEquals(Duration.ofSeconds(2), OutboxService.backoff(1));
+        assertEquals(Duration.ofSeconds(16), OutboxService.backoff(4));
+        assertEquals(Duration.ofMinutes(10), OutboxService.backoff(30));
+    }
+}
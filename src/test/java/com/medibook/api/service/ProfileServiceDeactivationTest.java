@@ -32,6 +32,12 @@ class ProfileServiceDeactivationTest {
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Mock
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @Mock
+    private DoctorLeaderboardService doctorLeaderboardService;
+
     @InjectMocks
     private ProfileService profileService;
 
@@ -98,4 +104,15 @@ class ProfileServiceDeactivationTest {
         assertEquals("DISABLED", user.getStatus());
         verify(userRepository).save(user);
     }
-}
\ No newline at end of file
+
+    @Test
+    void deactivateUser_Doctor_ShouldRefreshLeaderboardEntry() {
+        user.setRole("DOCTOR");
+        when(userRepository.findById(userId)).thenReturn(Optional.of(user));
+        when(userRepository.save(any(User.class))).thenReturn(user);
+
+        profileService.deactivateUser(userId);
+
+        verify(doctorLeaderboardService).refresh(userId);
+    }
+}
@@ -32,6 +32,12 @@ class ProfileServiceTest {
     @Mock
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Mock
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @Mock
+    private DoctorLeaderboardService doctorLeaderboardService;
+
     @InjectMocks
     private ProfileService profileService;
 
@@ -134,6 +140,21 @@ class ProfileServiceTest {
         verify(profileMapper).updateUserFromRequest(testUser, updateRequest);
         verify(userRepository).save(testUser);
         verify(profileMapper).toProfileResponse(updatedUser);
+        verifyNoInteractions(doctorLeaderboardService);
+    }
+
+    @Test
+    void updateProfile_Doctor_ShouldRefreshLeaderboardEntry() {
+        testUser.setRole("DOCTOR");
+        ProfileUpdateRequestDTO updateRequest = createUpdateRequest("test@example.com", "Updated Name", "Updated Surname");
+
+        when(userRepository.findById(userId)).thenReturn(Optional.of(testUser));
+        when(userRepository.save(any(User.class))).thenReturn(testUser);
+        when(profileMapper.toProfileResponse(testUser)).thenReturn(profileResponseDTO);
+
+        profileService.updateProfile(userId, updateRequest);
+
+        verify(doctorLeaderboardService).refresh(userId);
     }
 
     @Test
@@ -0,0 +1,127 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Rating.RatingTrendPointDTO;
+import com.medibook.api.dto.Rating.RatingWindowDTO;
+import com.medibook.api.entity.RatingBucket;
+import com.medibook.api.repository.RatingBucketRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingBucketServiceTest {
+
+    @Mock
+    private RatingBucketRepository ratingBucketRepository;
+
+    @InjectMocks
+    private RatingBucketService ratingBucketService;
+
+    private final UUID ratedId = UUID.randomUUID();
+    private final LocalDate today = LocalDate.of(2025, 6, 15);
+
+    @Test
+    void getWindow_SumsDayBucketsOfTheWindow() {
+        LocalDate from = LocalDate.of(2025, 5, 17);
+        when(ratingBucketRepository.findRange(ratedId, RatingBucket.DAY, from, today)).thenReturn(List.of(
+                day(LocalDate.of(2025, 5, 20), 5, "PATIENT", List.of("Puntual", "Explica claramente")),
+                day(LocalDate.of(2025, 6, 15), 3, "PATIENT", List.of("Puntual")),
+                day(LocalDate.of(2025, 6, 15), 4, "DOCTOR", List.of("Respetuoso"))));
+
+        RatingWindowDTO window = ratingBucketService.getWindow(ratedId, 30, "PATIENT", today);
+
+        assertEquals(from, window.getFrom());
+        assertEquals(3, window.getRatingCount());
+        assertEquals(4.0, window.getAverageScore());
+        assertEquals(2, window.getSubcategories().size());
+        assertEquals("Puntual", window.getSubcategories().get(0).getSubcategory());
+        assertEquals(2L, window.getSubcategories().get(0).getCount());
+    }
+
+    @Test
+    void getWindow_BeyondDailyRetention_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> ratingBucketService.getWindow(ratedId, 365, null, today));
+        assertThrows(IllegalArgumentException.class, () -> ratingBucketService.getWindow(ratedId, 0, null, today));
+        verifyNoInteractions(ratingBucketRepository);
+    }
+
+    @Test
+    void getTrend_Monthly_CombinesMonthAndDayBucketsAndFillsGaps() {
+        LocalDate from = LocalDate.of(2025, 4, 1);
+        RatingBucket april = new RatingBucket(ratedId, RatingBucket.MONTH, from);
+        april.add(5, "PATIENT", List.of());
+        april.add(3, "PATIENT", List.of());
+        when(ratingBucketRepository.findRange(ratedId, RatingBucket.MONTH, from, today)).thenReturn(List.of(april));
+        when(ratingBucketRepository.findRange(ratedId, RatingBucket.DAY, from, today)).thenReturn(List.of(
+                day(LocalDate.of(2025, 6, 2), 2, "PATIENT", List.of()),
+                day(LocalDate.of(2025, 6, 14), 5, "PATIENT", List.of())));
+
+        List<RatingTrendPointDTO> trend = ratingBucketService.getTrend(ratedId, "month", 3, today);
+
+        assertEquals(List.of(from, LocalDate.of(2025, 5, 1), LocalDate.of(2025, 6, 1)),
+                trend.stream().map(RatingTrendPointDTO::getPeriodStart).toList());
+        assertEquals(2, trend.get(0).getRatingCount());
+        assertEquals(4.0, trend.get(0).getAverageScore());
+        assertEquals(0, trend.get(1).getRatingCount());
+        assertNull(trend.get(1).getAverageScore());
+        assertEquals(2, trend.get(2).getRatingCount());
+        assertEquals(3.5, trend.get(2).getAverageScore());
+    }
+
+    @Test
+    void getTrend_UnknownGranularity_ThrowsIllegalArgument() {
+        assertThrows(IllegalArgumentException.class, () -> ratingBucketService.getTrend(ratedId, "week", 4, today));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void compactDaysBefore_MergesDaysIntoMonthsAndDeletesThem() {
+        LocalDate cutoff = LocalDate.of(2025, 2, 1);
+        RatingBucket existingMonth = new RatingBucket(ratedId, RatingBucket.MONTH, LocalDate.of(2025, 1, 1));
+        existingMonth.add(4, "PATIENT", List.of("Puntual"));
+        List<RatingBucket> days = List.of(
+                day(LocalDate.of(2025, 1, 10), 5, "PATIENT", List.of("Puntual")),
+                day(LocalDate.of(2025, 1, 20), 3, "DOCTOR", List.of("Respetuoso")));
+        when(ratingBucketRepository.findDaysBeforeForUpdate(cutoff, PageRequest.of(0, 100))).thenReturn(days);
+        when(ratingBucketRepository.findMonthForUpdate(ratedId, LocalDate.of(2025, 1, 1))).thenReturn(Optional.of(existingMonth));
+
+        int compacted = ratingBucketService.compactDaysBefore(cutoff, 100);
+
+        assertEquals(2, compacted);
+        ArgumentCaptor<List<RatingBucket>> saved = ArgumentCaptor.forClass(List.class);
+        verify(ratingBucketRepository).saveAll(saved.capture());
+        assertEquals(List.of(existingMonth), saved.getValue());
+        assertEquals(3, existingMonth.getRatingCount());
+        assertEquals(12, existingMonth.getScoreSum());
+        assertEquals(2, existingMonth.getSubcategoryCounts().path("PATIENT").path("Puntual").asLong());
+        assertEquals(1, existingMonth.getSubcategoryCounts().path("DOCTOR").path("Respetuoso").asLong());
+        verify(ratingBucketRepository).deleteAll(days);
+    }
+
+    @Test
+    void compactDaysBefore_NothingDue_DoesNotWrite() {
+        when(ratingBucketRepository.findDaysBeforeForUpdate(any(), any())).thenReturn(List.of());
+
+        assertEquals(0, ratingBucketService.compactDaysBefore(LocalDate.of(2025, 2, 1), 100));
+        verify(ratingBucketRepository, never()).saveAll(any());
+    }
+
+    private RatingBucket day(LocalDate date, int score, String raterRole, List<String> subcategories) {
+        RatingBucket bucket = new RatingBucket(ratedId, RatingBucket.DAY, date);
+        bucket.add(score, raterRole, subcategories);
+        return bucket;
+    }
+}
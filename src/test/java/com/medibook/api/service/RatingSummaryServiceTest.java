@@ -0,0 +1,106 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Rating.SubcategoryCountDTO;
+import com.medibook.api.entity.RatingSummary;
+import com.medibook.api.repository.RatingRepository;
+import com.medibook.api.repository.RatingSummaryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatingSummaryServiceTest {
+
+    @Mock
+    private RatingSummaryRepository ratingSummaryRepository;
+
+    @Mock
+    private RatingRepository ratingRepository;
+
+    @InjectMocks
+    private RatingSummaryService ratingSummaryService;
+
+    private final UUID ratedId = UUID.randomUUID();
+
+    @Test
+    void getSubcategoryCounts_FiltersByRaterRoleAndSortsByCount() {
+        RatingSummary summary = new RatingSummary(ratedId);
+        summary.add(5, 3, "PATIENT", List.of("Explica claramente"));
+        summary.add(4, 1, "PATIENT", List.of("Respeta horarios", "Explica claramente"));
+        summary.add(2, 2, "DOCTOR", List.of("Respeta horarios"));
+        when(ratingSummaryRepository.findById(ratedId)).thenReturn(Optional.of(summary));
+
+        List<SubcategoryCountDTO> patientCounts = ratingSummaryService.getSubcategoryCounts(ratedId, "PATIENT");
+        List<SubcategoryCountDTO> allCounts = ratingSummaryService.getSubcategoryCounts(ratedId, null);
+
+        assertEquals(2, patientCounts.size());
+        assertEquals("Explica claramente", patientCounts.get(0).getSubcategory());
+        assertEquals(4L, patientCounts.get(0).getCount());
+        assertEquals(1L, patientCounts.get(1).getCount());
+        assertEquals(3L, allCounts.stream()
+                .filter(count -> "Respeta horarios".equals(count.getSubcategory()))
+                .findFirst().orElseThrow().getCount());
+    }
+
+    @Test
+    void getSubcategoryCounts_NoSummary_ReturnsEmpty() {
+        when(ratingSummaryRepository.findById(ratedId)).thenReturn(Optional.empty());
+
+        assertTrue(ratingSummaryService.getSubcategoryCounts(ratedId, "PATIENT").isEmpty());
+    }
+
+    @Test
+    void getScoreDistribution_ReturnsEveryScore() {
+        RatingSummary summary = new RatingSummary(ratedId);
+        summary.add(5, 2, "PATIENT", List.of());
+        summary.add(1, 1, "PATIENT", List.of());
+        when(ratingSummaryRepository.findById(ratedId)).thenReturn(Optional.of(summary));
+
+        Map<Integer, Long> distribution = ratingSummaryService.getScoreDistribution(ratedId);
+
+        assertEquals(List.of(1, 2, 3, 4, 5), List.copyOf(distribution.keySet()));
+        assertEquals(1L, distribution.get(1));
+        assertEquals(0L, distribution.get(3));
+        assertEquals(2L, distribution.get(5));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_AggregatesScoresAndSubcategories() {
+        UUID otherId = UUID.randomUUID();
+        when(ratingRepository.countScoresByRatedId()).thenReturn(List.of(
+                new Object[]{ratedId, 5, 2L},
+                new Object[]{ratedId, 3, 1L},
+                new Object[]{otherId, 4, 1L}));
+        when(ratingRepository.countSubcategoriesByRatedIdAndRaterRole()).thenReturn(List.<Object[]>of(
+                new Object[]{ratedId, "PATIENT", "Genera confianza", 2L}));
+
+        int rebuilt = ratingSummaryService.rebuild();
+
+        assertEquals(2, rebuilt);
+        InOrder inOrder = inOrder(ratingSummaryRepository, ratingRepository);
+        inOrder.verify(ratingSummaryRepository).lockForRebuild();
+        inOrder.verify(ratingRepository).countScoresByRatedId();
+        inOrder.verify(ratingSummaryRepository).deleteAllInBatch();
+        ArgumentCaptor<List<RatingSummary>> saved = ArgumentCaptor.forClass(List.class);
+        inOrder.verify(ratingSummaryRepository).saveAll(saved.capture());
+        RatingSummary summary = saved.getValue().stream()
+                .filter(s -> s.getRatedId().equals(ratedId))
+                .findFirst().orElseThrow();
+        assertEquals(2, summary.getScoreCount(5));
+        assertEquals(1, summary.getScoreCount(3));
+        assertEquals(2, summary.getSubcategoryCounts().path("PATIENT").path("Genera confianza").asLong());
+    }
+}
@@ -0,0 +1,113 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Turn.SlotHoldResponseDTO;
+import com.medibook.api.entity.User;
+import com.medibook.api.exception.SlotAlreadyTakenException;
+import com.medibook.api.exception.SlotHoldLimitExceededException;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotHoldServiceTest {
+
+    @Mock
+    private UserRepository userRepo;
+
+    @Mock
+    private TurnAssignedRepository turnRepo;
+
+    @Mock
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @InjectMocks
+    private SlotHoldService slotHoldService;
+
+    private UUID doctorId;
+    private UUID patientId;
+    private OffsetDateTime scheduledAt;
+
+    @BeforeEach
+    void setUp() {
+        doctorId = UUID.randomUUID();
+        patientId = UUID.randomUUID();
+        scheduledAt = OffsetDateTime.of(2025, 10, 6, 9, 0, 0, 0, ZoneOffset.ofHours(-3));
+
+        User doctor = new User();
+        doctor.setId(doctorId);
+        doctor.setRole("DOCTOR");
+        doctor.setStatus("ACTIVE");
+        when(userRepo.findById(doctorId)).thenReturn(Optional.of(doctor));
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    void claimForBooking_ConsumesHoldOnlyAfterCommit() {
+        UUID token = slotHoldService.placeHold(doctorId, patientId, scheduledAt).getHoldToken();
+
+        slotHoldService.claimForBooking(token, doctorId, patientId, scheduledAt);
+
+        assertThrows(SlotAlreadyTakenException.class,
+                () -> slotHoldService.placeHold(doctorId, UUID.randomUUID(), scheduledAt));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        SlotHoldResponseDTO other = slotHoldService.placeHold(doctorId, UUID.randomUUID(), scheduledAt);
+        assertNotNull(other.getHoldToken());
+    }
+
+    @Test
+    void claimForBooking_BookingRolledBack_KeepsHoldForRetry() {
+        UUID token = slotHoldService.placeHold(doctorId, patientId, scheduledAt).getHoldToken();
+
+        slotHoldService.claimForBooking(token, doctorId, patientId, scheduledAt);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertDoesNotThrow(() -> slotHoldService.claimForBooking(token, doctorId, patientId, scheduledAt));
+        assertThrows(SlotAlreadyTakenException.class,
+                () -> slotHoldService.placeHold(doctorId, UUID.randomUUID(), scheduledAt));
+    }
+
+    @Test
+    void claimForBooking_OtherPatientsToken_IsRejected() {
+        UUID token = slotHoldService.placeHold(doctorId, patientId, scheduledAt).getHoldToken();
+
+        assertThrows(SlotAlreadyTakenException.class,
+                () -> slotHoldService.claimForBooking(token, doctorId, UUID.randomUUID(), scheduledAt));
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    void placeHold_PatientAtLimit_IsRejected() {
+        for (int i = 0; i < SlotHoldService.MAX_HOLDS_PER_PATIENT; i++) {
+            slotHoldService.placeHold(doctorId, patientId, scheduledAt.plusMinutes(30L * i));
+        }
+
+        assertThrows(SlotHoldLimitExceededException.class,
+                () -> slotHoldService.placeHold(doctorId, patientId, scheduledAt.plusHours(3)));
+    }
+}
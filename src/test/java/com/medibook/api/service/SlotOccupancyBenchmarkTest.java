@@ -0,0 +1,168 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Availability.AvailableSlotDTO;
+import com.medibook.api.entity.DoctorProfile;
+import com.medibook.api.entity.TurnAssigned;
+import com.medibook.api.entity.User;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares the per-slot existence loop previously used by GET /api/turns/available
+ * with the single-query occupancy engine: statements issued per request and p99 latency.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+@Slf4j
+class SlotOccupancyBenchmarkTest {
+
+    private static final ZoneId ARGENTINA_ZONE = ZoneId.of("America/Argentina/Buenos_Aires");
+    private static final int WARMUP_ITERATIONS = 20;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TurnAssignedRepository turnAssignedRepository;
+
+    @Autowired
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @Autowired
+    private SlotOccupancyService slotOccupancyService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private UUID doctorId;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        date = LocalDate.now(ARGENTINA_ZONE).plusWeeks(1).with(DayOfWeek.MONDAY);
+
+        User doctor = createUser("bench.doctor@example.com", 90000001L, "DOCTOR");
+        DoctorProfile profile = new DoctorProfile();
+        profile.setMedicalLicense("BENCH-001");
+        profile.setSpecialty("Cardiology");
+        profile.setSlotDurationMin(15);
+        profile.setAvailabilitySchedule(
+                "[{\"day\":\"MONDAY\",\"enabled\":true,\"ranges\":[{\"start\":\"08:00\",\"end\":\"20:00\"}]}]");
+        doctor.setDoctorProfile(profile);
+        doctor = userRepository.saveAndFlush(doctor);
+        doctorId = doctor.getId();
+
+        User patient = createUser("bench.patient@example.com", 90000002L, "PATIENT");
+        patient = userRepository.saveAndFlush(patient);
+
+        List<TurnAssigned> turns = new ArrayList<>();
+        for (int hour = 8; hour < 20; hour += 2) {
+            turns.add(TurnAssigned.builder()
+                    .doctor(doctor)
+                    .patient(patient)
+                    .scheduledAt(date.atTime(hour, 0).atZone(ARGENTINA_ZONE).toOffsetDateTime())
+                    .status("SCHEDULED")
+                    .build());
+        }
+        turns.add(TurnAssigned.builder()
+                .doctor(doctor)
+                .patient(patient)
+                .scheduledAt(date.atTime(9, 0).atZone(ARGENTINA_ZONE).toOffsetDateTime())
+                .status("CANCELED")
+                .build());
+        turnAssignedRepository.saveAllAndFlush(turns);
+    }
+
+    @Test
+    void occupancyEngine_IssuesConstantQueriesAndMatchesLegacyLoop() {
+        List<OffsetDateTime> legacy = legacyLoop();
+        List<OffsetDateTime> engine = slotOccupancyService.getFreeSlotTimes(doctorId, date, date);
+
+        assertEquals(48 - 6, legacy.size());
+        assertEquals(legacy, engine);
+
+        long legacyQueries = countStatements(this::legacyLoop);
+        long engineQueries = countStatements(() -> slotOccupancyService.getFreeSlotTimes(doctorId, date, date));
+
+        long legacyP99 = p99Nanos(this::legacyLoop);
+        long engineP99 = p99Nanos(() -> slotOccupancyService.getFreeSlotTimes(doctorId, date, date));
+
+        log.info("GET /api/turns/available benchmark (48 slots): legacy loop {} queries, p99 {} us; occupancy engine {} queries, p99 {} us",
+                legacyQueries, legacyP99 / 1_000, engineQueries, engineP99 / 1_000);
+
+        assertEquals(1, engineQueries);
+        assertTrue(legacyQueries >= 48);
+    }
+
+    private List<OffsetDateTime> legacyLoop() {
+        List<AvailableSlotDTO> slots = doctorAvailabilityService.getAvailableSlots(doctorId, date, date);
+        List<OffsetDateTime> available = new ArrayList<>();
+        for (AvailableSlotDTO slot : slots) {
+            OffsetDateTime slotDateTime = slot.getDate().atTime(slot.getStartTime()).atZone(ARGENTINA_ZONE).toOffsetDateTime();
+            if (!turnAssignedRepository.existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(doctorId, slotDateTime)) {
+                available.add(slotDateTime);
+            }
+        }
+        return available;
+    }
+
+    private long countStatements(Supplier<?> call) {
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long p99Nanos(Supplier<?> call) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            call.get();
+        }
+        long[] samples = new long[MEASURED_ITERATIONS];
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            long start = System.nanoTime();
+            call.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[(int) Math.ceil(MEASURED_ITERATIONS * 0.99) - 1];
+    }
+
+    private User createUser(String email, Long dni, String role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setDni(dni);
+        user.setPasswordHash("hashedPassword");
+        user.setName("Bench");
+        user.setSurname("User");
+        user.setRole(role);
+        user.setStatus("ACTIVE");
+        user.setEmailVerified(true);
+        return user;
+    }
+}
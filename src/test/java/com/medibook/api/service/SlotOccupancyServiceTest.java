@@ -0,0 +1,124 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Availability.AvailableSlotDTO;
+import com.medibook.api.model.SlotOccupancy;
+import com.medibook.api.repository.TurnAssignedRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotOccupancyServiceTest {
+
+    @Mock
+    private TurnAssignedRepository turnRepo;
+
+    @Mock
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    @InjectMocks
+    private SlotOccupancyService slotOccupancyService;
+
+    private static final ZoneId ARGENTINA_ZONE = ZoneId.of("America/Argentina/Buenos_Aires");
+
+    private UUID doctorId;
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        doctorId = UUID.randomUUID();
+        date = LocalDate.of(2025, 9, 15);
+    }
+
+    @Test
+    void getFreeSlotTimes_NoSlots_SkipsOccupancyQuery() {
+        when(doctorAvailabilityService.getAvailableSlots(doctorId, date, date)).thenReturn(List.of());
+
+        List<OffsetDateTime> result = slotOccupancyService.getFreeSlotTimes(doctorId, date, date);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(turnRepo);
+    }
+
+    @Test
+    void getFreeSlotTimes_FiltersOccupiedSlotsWithSingleQuery() {
+        List<AvailableSlotDTO> slots = slotsFor(date, LocalTime.of(9, 0), 4, 15);
+        when(doctorAvailabilityService.getAvailableSlots(doctorId, date, date)).thenReturn(slots);
+        when(turnRepo.findOccupiedScheduledAtByDoctorIdBetween(eq(doctorId), any(), any()))
+                .thenReturn(List.of(
+                        date.atTime(9, 15).atZone(ARGENTINA_ZONE).toOffsetDateTime(),
+                        date.atTime(12, 30).atOffset(ZoneOffset.UTC)));
+
+        List<OffsetDateTime> result = slotOccupancyService.getFreeSlotTimes(doctorId, date, date);
+
+        assertEquals(2, result.size());
+        assertEquals(date.atTime(9, 0).atZone(ARGENTINA_ZONE).toOffsetDateTime(), result.get(0));
+        assertEquals(date.atTime(9, 45).atZone(ARGENTINA_ZONE).toOffsetDateTime(), result.get(1));
+        verify(turnRepo, times(1)).findOccupiedScheduledAtByDoctorIdBetween(eq(doctorId), any(), any());
+        verify(turnRepo, never()).existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(any(), any());
+    }
+
+    @Test
+    void loadOccupancy_QueriesWholeRangeInArgentinaZone() {
+        LocalDate toDate = date.plusDays(6);
+        OffsetDateTime expectedFrom = date.atStartOfDay(ARGENTINA_ZONE).toOffsetDateTime();
+        OffsetDateTime expectedTo = toDate.plusDays(1).atStartOfDay(ARGENTINA_ZONE).toOffsetDateTime();
+        when(turnRepo.findOccupiedScheduledAtByDoctorIdBetween(doctorId, expectedFrom, expectedTo))
+                .thenReturn(List.of(toDate.atTime(10, 30).atZone(ARGENTINA_ZONE).toOffsetDateTime()));
+
+        SlotOccupancy occupancy = slotOccupancyService.loadOccupancy(doctorId, date, toDate);
+
+        assertTrue(occupancy.isTaken(toDate, LocalTime.of(10, 30)));
+        assertFalse(occupancy.isTaken(date, LocalTime.of(10, 30)));
+        assertEquals(1, occupancy.takenCount(toDate));
+        assertEquals(0, occupancy.takenCount(date));
+    }
+
+    @Test
+    void getFreeSlotTimes_TreatsHeldSlotsAsTaken() {
+        List<AvailableSlotDTO> slots = slotsFor(date, LocalTime.of(9, 0), 4, 15);
+        when(doctorAvailabilityService.getAvailableSlots(doctorId, date, date)).thenReturn(slots);
+        when(turnRepo.findOccupiedScheduledAtByDoctorIdBetween(eq(doctorId), any(), any())).thenReturn(List.of());
+        doAnswer(invocation -> {
+            SlotOccupancy occupancy = invocation.getArgument(1);
+            occupancy.markTaken(date, LocalTime.of(9, 30));
+            return null;
+        }).when(slotHoldService).markHeld(eq(doctorId), any(SlotOccupancy.class), any(), any());
+
+        List<OffsetDateTime> result = slotOccupancyService.getFreeSlotTimes(doctorId, date, date);
+
+        assertEquals(3, result.size());
+        assertFalse(result.contains(date.atTime(9, 30).atZone(ARGENTINA_ZONE).toOffsetDateTime()));
+    }
+
+    private List<AvailableSlotDTO> slotsFor(LocalDate day, LocalTime start, int count, int durationMin) {
+        List<AvailableSlotDTO> slots = new ArrayList<>();
+        LocalTime current = start;
+        for (int i = 0; i < count; i++) {
+            LocalTime end = current.plusMinutes(durationMin);
+            slots.add(new AvailableSlotDTO(day, current, end, day.getDayOfWeek().name()));
+            current = end;
+        }
+        return slots;
+    }
+}
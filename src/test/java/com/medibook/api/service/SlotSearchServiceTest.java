@@ -0,0 +1,154 @@
+package com.medibook.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.medibook.api.dto.Availability.DayAvailabilityDTO;
+import com.medibook.api.dto.Availability.EarliestSlotDTO;
+import com.medibook.api.dto.Availability.TimeRangeDTO;
+import com.medibook.api.entity.DoctorProfile;
+import com.medibook.api.entity.User;
+import com.medibook.api.model.SlotOccupancy;
+import com.medibook.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SlotSearchServiceTest {
+
+    private static final ZoneId ARGENTINA_ZONE = ZoneId.of("America/Argentina/Buenos_Aires");
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private SlotOccupancyService slotOccupancyService;
+
+    @Mock
+    private BadgeEvaluationTriggerService badgeEvaluationTriggerService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private SlotSearchService slotSearchService;
+    private User doctorA;
+    private User doctorB;
+    private LocalDate fromDate;
+    private LocalDate toDate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        DoctorAvailabilityService availabilityService =
+                new DoctorAvailabilityService(userRepository, objectMapper, badgeEvaluationTriggerService);
+        slotSearchService = new SlotSearchService(userRepository, availabilityService, slotOccupancyService);
+
+        doctorA = createDoctor("Ana", 30, "09:00", "10:00");
+        doctorB = createDoctor("Bruno", 60, "08:00", "09:00");
+
+        fromDate = LocalDate.now(ARGENTINA_ZONE).plusDays(7);
+        toDate = fromDate.plusDays(6);
+    }
+
+    @Test
+    void findEarliestSlots_MergesDoctorsInChronologicalOrder() {
+        when(userRepository.findDoctorsBySpecialty("Cardiology")).thenReturn(List.of(doctorA, doctorB));
+        when(slotOccupancyService.loadOccupancy(anyCollection(), eq(fromDate), eq(toDate)))
+                .thenReturn(emptyOccupancy(doctorA, doctorB));
+
+        List<EarliestSlotDTO> result = slotSearchService.findEarliestSlots("Cardiology", fromDate, toDate, 3);
+
+        assertEquals(3, result.size());
+        assertSlot(result.get(0), doctorB, fromDate, LocalTime.of(8, 0));
+        assertSlot(result.get(1), doctorA, fromDate, LocalTime.of(9, 0));
+        assertSlot(result.get(2), doctorA, fromDate, LocalTime.of(9, 30));
+    }
+
+    @Test
+    void findEarliestSlots_SkipsOccupiedSlots() {
+        Map<UUID, SlotOccupancy> occupancy = emptyOccupancy(doctorA, doctorB);
+        occupancy.get(doctorA.getId()).markTaken(fromDate, LocalTime.of(9, 0));
+
+        when(userRepository.findDoctorsBySpecialty("Cardiology")).thenReturn(List.of(doctorA, doctorB));
+        when(slotOccupancyService.loadOccupancy(anyCollection(), eq(fromDate), eq(toDate))).thenReturn(occupancy);
+
+        List<EarliestSlotDTO> result = slotSearchService.findEarliestSlots("Cardiology", fromDate, toDate, 3);
+
+        assertEquals(3, result.size());
+        assertSlot(result.get(0), doctorB, fromDate, LocalTime.of(8, 0));
+        assertSlot(result.get(1), doctorA, fromDate, LocalTime.of(9, 30));
+        assertSlot(result.get(2), doctorB, fromDate.plusDays(1), LocalTime.of(8, 0));
+    }
+
+    @Test
+    void findEarliestSlots_NoDoctors_ReturnsEmptyWithoutOccupancyQuery() {
+        when(userRepository.findDoctorsBySpecialty("Dermatology")).thenReturn(List.of());
+
+        List<EarliestSlotDTO> result = slotSearchService.findEarliestSlots("Dermatology", fromDate, toDate, 5);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(slotOccupancyService);
+    }
+
+    @Test
+    void findEarliestSlots_InvalidArguments_Throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> slotSearchService.findEarliestSlots("Cardiology", toDate, fromDate, 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> slotSearchService.findEarliestSlots("Cardiology", fromDate, fromDate.plusDays(40), 5));
+        assertThrows(IllegalArgumentException.class,
+                () -> slotSearchService.findEarliestSlots("Cardiology", fromDate, toDate, 0));
+        assertThrows(IllegalArgumentException.class,
+                () -> slotSearchService.findEarliestSlots(" ", fromDate, toDate, 5));
+        verifyNoInteractions(userRepository);
+    }
+
+    private void assertSlot(EarliestSlotDTO slot, User doctor, LocalDate date, LocalTime time) {
+        OffsetDateTime expected = date.atTime(time).atZone(ARGENTINA_ZONE).toOffsetDateTime();
+        assertEquals(doctor.getId(), slot.getDoctorId());
+        assertEquals(expected, slot.getScheduledAt());
+        assertEquals("Cardiology", slot.getSpecialty());
+    }
+
+    private Map<UUID, SlotOccupancy> emptyOccupancy(User... doctors) {
+        Map<UUID, SlotOccupancy> occupancy = new HashMap<>();
+        for (User doctor : doctors) {
+            occupancy.put(doctor.getId(), new SlotOccupancy(ARGENTINA_ZONE));
+        }
+        return occupancy;
+    }
+
+    private User createDoctor(String name, int slotDurationMin, String start, String end) throws Exception {
+        User doctor = new User();
+        doctor.setId(UUID.randomUUID());
+        doctor.setName(name);
+        doctor.setSurname("Doctor");
+        doctor.setRole("DOCTOR");
+
+        List<DayAvailabilityDTO> week = new ArrayList<>();
+        for (DayOfWeek day : DayOfWeek.values()) {
+            week.add(new DayAvailabilityDTO(day.name(), true, List.of(new TimeRangeDTO(start, end))));
+        }
+
+        DoctorProfile profile = new DoctorProfile();
+        profile.setSpecialty("Cardiology");
+        profile.setSlotDurationMin(slotDurationMin);
+        profile.setAvailabilitySchedule(objectMapper.writeValueAsString(week));
+        doctor.setDoctorProfile(profile);
+        return doctor;
+    }
+}
@@ -2,29 +2,38 @@
 package com.medibook.api.service;
 
 import com.medibook.api.dto.Turn.TurnCreateRequestDTO;
+import com.medibook.api.dto.Turn.TurnPageDTO;
 import com.medibook.api.dto.Turn.TurnResponseDTO;
-import com.medibook.api.dto.email.EmailResponseDto;
+import com.medibook.api.entity.OutboxEventType;
 import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.User;
 import com.medibook.api.mapper.TurnAssignedMapper;
+import com.medibook.api.model.TurnCursor;
+import com.medibook.api.model.RatingTotals;
 import com.medibook.api.repository.FamilyMemberRepository;
+import com.medibook.api.exception.SlotAlreadyTakenException;
 import com.medibook.api.repository.TurnAssignedRepository;
 import com.medibook.api.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 
+import java.sql.SQLException;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static com.medibook.api.util.DateTimeUtils.ARGENTINA_ZONE;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
@@ -49,10 +58,7 @@ class TurnAssignedServiceTest {
     private com.medibook.api.repository.RatingRepository ratingRepo;
 
     @Mock
-    private NotificationService notificationService;
-
-    @Mock
-    private com.medibook.api.service.EmailService emailService;
+    private OutboxService outboxService;
 
     @Mock
     private TurnFileService turnFileService;
@@ -69,6 +75,21 @@ class TurnAssignedServiceTest {
     @Mock
     private FamilyMemberRepository familyMemberRepository;
 
+    @Mock
+    private DoctorAvailabilityService doctorAvailabilityService;
+
+    @Mock
+    private SlotHoldService slotHoldService;
+
+    @Mock
+    private DoctorLeaderboardService doctorLeaderboardService;
+
+    @Mock
+    private RatingSummaryService ratingSummaryService;
+
+    @Mock
+    private RatingBucketService ratingBucketService;
+
     private UUID doctorId;
     private UUID patientId;
     private UUID turnId;
@@ -82,25 +103,10 @@ class TurnAssignedServiceTest {
 
     @BeforeEach
     void setUp() {
-        EmailResponseDto successResponse = EmailResponseDto.builder()
-                .success(true)
-                .messageId("test-message-id")
-                .message("Email sent successfully")
-                .build();
-                
-        when(emailService.sendAppointmentConfirmationToPatientAsync(anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
-            .thenReturn(CompletableFuture.completedFuture(successResponse));
-        when(emailService.sendAppointmentConfirmationToDoctorAsync(anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
-            .thenReturn(CompletableFuture.completedFuture(successResponse));
-        when(emailService.sendAppointmentCancellationToPatientAsync(anyString(), anyString(), anyString(), anyString(), anyString()))
-            .thenReturn(CompletableFuture.completedFuture(successResponse));
-        when(emailService.sendAppointmentCancellationToDoctorAsync(anyString(), anyString(), anyString(), anyString(), anyString()))
-            .thenReturn(CompletableFuture.completedFuture(successResponse));
-
         doctorId = UUID.randomUUID();
         patientId = UUID.randomUUID();
         turnId = UUID.randomUUID();
-        scheduledAt = OffsetDateTime.now().plusDays(1);
+        scheduledAt = OffsetDateTime.now().plusDays(2);
 
         doctor = new User();
         doctor.setId(doctorId);
@@ -152,8 +158,7 @@ class TurnAssignedServiceTest {
     void createTurn_Success() {
         when(userRepo.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(userRepo.findById(patientId)).thenReturn(Optional.of(patient));
-        when(turnRepo.existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(doctorId, scheduledAt)).thenReturn(false);
-        when(turnRepo.save(any(TurnAssigned.class))).thenReturn(turnEntity);
+        when(turnRepo.saveAndFlush(any(TurnAssigned.class))).thenReturn(turnEntity);
         when(mapper.toDTO(turnEntity)).thenReturn(turnResponse);
 
         TurnResponseDTO result = turnAssignedService.createTurn(createRequest);
@@ -167,16 +172,13 @@ class TurnAssignedServiceTest {
 
         verify(userRepo).findById(doctorId);
         verify(userRepo).findById(patientId);
-        verify(turnRepo).existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(doctorId, scheduledAt);
-        verify(turnRepo).save(any(TurnAssigned.class));
+        verify(turnRepo, never()).existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(any(), any());
+        verify(turnRepo).saveAndFlush(any(TurnAssigned.class));
         verify(mapper).toDTO(turnEntity);
-        verify(notificationService).createTurnReservedNotification(
-                eq(doctor.getId()), 
-                eq(turnEntity.getId()), 
-                eq(patient.getName() + " " + patient.getSurname()),
-                anyString(), 
-                anyString()
-        );
+        verify(outboxService).enqueue(eq(OutboxEventType.TURN_RESERVED_NOTIFICATION), eq(turnEntity.getId()), argThat(payload ->
+                doctor.getId().equals(payload.get("userId"))
+                        && (patient.getName() + " " + patient.getSurname()).equals(payload.get("patientName"))));
+        verify(outboxService).enqueue(eq(OutboxEventType.BADGE_ADVANCE_BOOKING), eq(turnEntity.getId()), anyMap());
     }
 
     @Test
@@ -191,7 +193,7 @@ class TurnAssignedServiceTest {
         verify(userRepo).findById(doctorId);
         verify(userRepo, never()).findById(patientId);
         verify(turnRepo, never()).existsByDoctor_IdAndScheduledAt(any(), any());
-        verify(turnRepo, never()).save(any());
+        verify(turnRepo, never()).saveAndFlush(any());
     }
 
     @Test
@@ -207,24 +209,59 @@ class TurnAssignedServiceTest {
         verify(userRepo).findById(doctorId);
         verify(userRepo).findById(patientId);
         verify(turnRepo, never()).existsByDoctor_IdAndScheduledAt(any(), any());
-        verify(turnRepo, never()).save(any());
+        verify(turnRepo, never()).saveAndFlush(any());
     }
 
     @Test
     void createTurn_SlotAlreadyTaken_ThrowsException() {
         when(userRepo.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(userRepo.findById(patientId)).thenReturn(Optional.of(patient));
-        when(turnRepo.existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(doctorId, scheduledAt)).thenReturn(true);
+        when(turnRepo.saveAndFlush(any(TurnAssigned.class))).thenThrow(new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key"),
+                        "ux_turns_assigned_doctor_slot")));
 
-        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+        SlotAlreadyTakenException exception = assertThrows(SlotAlreadyTakenException.class, () -> {
             turnAssignedService.createTurn(createRequest);
         });
 
         assertEquals("Time slot is already taken", exception.getMessage());
         verify(userRepo).findById(doctorId);
         verify(userRepo).findById(patientId);
-        verify(turnRepo).existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(doctorId, scheduledAt);
-        verify(turnRepo, never()).save(any());
+        verify(turnRepo).saveAndFlush(any(TurnAssigned.class));
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void createTurn_SlotHeldByAnotherPatient_ThrowsConflict() {
+        when(userRepo.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(userRepo.findById(patientId)).thenReturn(Optional.of(patient));
+        doThrow(new SlotAlreadyTakenException("Time slot is held by another patient"))
+                .when(slotHoldService).claimForBooking(null, doctorId, patientId, scheduledAt);
+
+        SlotAlreadyTakenException exception = assertThrows(SlotAlreadyTakenException.class, () -> {
+            turnAssignedService.createTurn(createRequest);
+        });
+
+        assertEquals("Time slot is held by another patient", exception.getMessage());
+        verify(turnRepo, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void createTurn_OtherIntegrityViolation_IsRethrown() {
+        when(userRepo.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(userRepo.findById(patientId)).thenReturn(Optional.of(patient));
+        DataIntegrityViolationException fkViolation = new DataIntegrityViolationException(
+                "could not execute statement",
+                new ConstraintViolationException("fk violation", new SQLException("fk violation"),
+                        "fk_turns_assigned_patient"));
+        when(turnRepo.saveAndFlush(any(TurnAssigned.class))).thenThrow(fkViolation);
+
+        DataIntegrityViolationException exception = assertThrows(DataIntegrityViolationException.class, () -> {
+            turnAssignedService.createTurn(createRequest);
+        });
+
+        assertSame(fkViolation, exception);
     }
 
     @Test
@@ -240,7 +277,7 @@ class TurnAssignedServiceTest {
         verify(userRepo).findById(doctorId);
         verify(userRepo, never()).findById(patientId);
         verify(turnRepo, never()).existsByDoctor_IdAndScheduledAt(any(), any());
-        verify(turnRepo, never()).save(any());
+        verify(turnRepo, never()).saveAndFlush(any());
     }
 
     @Test
@@ -256,7 +293,7 @@ class TurnAssignedServiceTest {
         verify(userRepo).findById(doctorId);
         verify(userRepo, never()).findById(patientId);
         verify(turnRepo, never()).existsByDoctor_IdAndScheduledAt(any(), any());
-        verify(turnRepo, never()).save(any());
+        verify(turnRepo, never()).saveAndFlush(any());
     }
 
     @Test
@@ -273,7 +310,7 @@ class TurnAssignedServiceTest {
         verify(userRepo).findById(doctorId);
         verify(userRepo).findById(patientId);
         verify(turnRepo, never()).existsByDoctor_IdAndScheduledAt(any(), any());
-        verify(turnRepo, never()).save(any());
+        verify(turnRepo, never()).saveAndFlush(any());
     }
 
     @Test
@@ -290,7 +327,7 @@ class TurnAssignedServiceTest {
         verify(userRepo).findById(doctorId);
         verify(userRepo).findById(patientId);
         verify(turnRepo, never()).existsByDoctor_IdAndScheduledAt(any(), any());
-        verify(turnRepo, never()).save(any());
+        verify(turnRepo, never()).saveAndFlush(any());
     }
     
     @Test
@@ -323,6 +360,8 @@ class TurnAssignedServiceTest {
         verify(turnRepo).save(scheduledTurn);
         verify(mapper).toDTO(canceledTurn);
         verify(turnFileService).fileExistsForTurn(turnId);
+        verify(outboxService, never()).enqueue(eq(OutboxEventType.TURN_FILE_DELETION), any(), anyMap());
+        verify(outboxService, times(2)).enqueue(eq(OutboxEventType.BADGE_TURN_CANCELLATION), eq(turnId), anyMap());
         assertEquals("CANCELED", scheduledTurn.getStatus());
     }
 
@@ -348,7 +387,6 @@ class TurnAssignedServiceTest {
         when(turnRepo.save(any(TurnAssigned.class))).thenReturn(canceledTurn);
         when(mapper.toDTO(canceledTurn)).thenReturn(turnResponse);
         when(turnFileService.fileExistsForTurn(turnId)).thenReturn(true);
-        when(turnFileService.deleteTurnFile(turnId)).thenReturn(reactor.core.publisher.Mono.empty());
 
         TurnResponseDTO result = turnAssignedService.cancelTurn(turnId, patientId, "PATIENT");
 
@@ -357,7 +395,8 @@ class TurnAssignedServiceTest {
         verify(turnRepo).save(scheduledTurn);
         verify(mapper).toDTO(canceledTurn);
         verify(turnFileService).fileExistsForTurn(turnId);
-        verify(turnFileService).deleteTurnFile(turnId);
+        verify(turnFileService, never()).deleteTurnFile(any());
+        verify(outboxService).enqueue(eq(OutboxEventType.TURN_FILE_DELETION), eq(turnId), anyMap());
         assertEquals("CANCELED", scheduledTurn.getStatus());
     }
 
@@ -559,7 +598,7 @@ class TurnAssignedServiceTest {
         List<TurnResponseDTO> expectedResponse = Arrays.asList(turnResponse);
 
         when(turnRepo.findByDoctor_IdOrderByScheduledAtDesc(doctorId)).thenReturn(turns);
-        when(mapper.toDTO(turnEntity)).thenReturn(turnResponse);
+        when(mapper.toDTOs(turns)).thenReturn(expectedResponse);
 
         List<TurnResponseDTO> result = turnAssignedService.getTurnsByDoctor(doctorId);
 
@@ -567,7 +606,7 @@ class TurnAssignedServiceTest {
         assertEquals(1, result.size());
         assertEquals(expectedResponse.get(0).getId(), result.get(0).getId());
         verify(turnRepo).findByDoctor_IdOrderByScheduledAtDesc(doctorId);
-        verify(mapper).toDTO(turnEntity);
+        verify(mapper).toDTOs(turns);
     }
 
     @Test
@@ -576,7 +615,7 @@ class TurnAssignedServiceTest {
         List<TurnResponseDTO> expectedResponse = Arrays.asList(turnResponse);
 
         when(turnRepo.findByPatient_IdOrderByScheduledAtDesc(patientId)).thenReturn(turns);
-        when(mapper.toDTO(turnEntity)).thenReturn(turnResponse);
+        when(mapper.toDTOs(turns)).thenReturn(expectedResponse);
 
         List<TurnResponseDTO> result = turnAssignedService.getTurnsByPatient(patientId);
 
@@ -584,7 +623,7 @@ class TurnAssignedServiceTest {
         assertEquals(1, result.size());
         assertEquals(expectedResponse.get(0).getId(), result.get(0).getId());
         verify(turnRepo).findByPatient_IdOrderByScheduledAtDesc(patientId);
-        verify(mapper).toDTO(turnEntity);
+        verify(mapper).toDTOs(turns);
     }
 
     @Test
@@ -594,7 +633,7 @@ class TurnAssignedServiceTest {
         List<TurnResponseDTO> expectedResponse = Arrays.asList(turnResponse);
 
         when(turnRepo.findByDoctor_IdAndStatusOrderByScheduledAtDesc(doctorId, status)).thenReturn(turns);
-        when(mapper.toDTO(turnEntity)).thenReturn(turnResponse);
+        when(mapper.toDTOs(turns)).thenReturn(expectedResponse);
 
         List<TurnResponseDTO> result = turnAssignedService.getTurnsByDoctorAndStatus(doctorId, status);
 
@@ -602,7 +641,7 @@ class TurnAssignedServiceTest {
         assertEquals(1, result.size());
         assertEquals(expectedResponse.get(0).getId(), result.get(0).getId());
         verify(turnRepo).findByDoctor_IdAndStatusOrderByScheduledAtDesc(doctorId, status);
-        verify(mapper).toDTO(turnEntity);
+        verify(mapper).toDTOs(turns);
     }
 
     @Test
@@ -612,7 +651,7 @@ class TurnAssignedServiceTest {
         List<TurnResponseDTO> expectedResponse = Arrays.asList(turnResponse);
 
         when(turnRepo.findByPatient_IdAndStatusOrderByScheduledAtDesc(patientId, status)).thenReturn(turns);
-        when(mapper.toDTO(turnEntity)).thenReturn(turnResponse);
+        when(mapper.toDTOs(turns)).thenReturn(expectedResponse);
 
         List<TurnResponseDTO> result = turnAssignedService.getTurnsByPatientAndStatus(patientId, status);
 
@@ -620,7 +659,58 @@ class TurnAssignedServiceTest {
         assertEquals(1, result.size());
         assertEquals(expectedResponse.get(0).getId(), result.get(0).getId());
         verify(turnRepo).findByPatient_IdAndStatusOrderByScheduledAtDesc(patientId, status);
-        verify(mapper).toDTO(turnEntity);
+        verify(mapper).toDTOs(turns);
+    }
+
+    @Test
+    void getTurnsPageByDoctor_ReturnsCursorWhenMoreRowsExist() {
+        TurnAssigned older = TurnAssigned.builder()
+                .id(UUID.randomUUID())
+                .scheduledAt(turnEntity.getScheduledAt().minusDays(1))
+                .build();
+        TurnAssigned oldest = TurnAssigned.builder()
+                .id(UUID.randomUUID())
+                .scheduledAt(turnEntity.getScheduledAt().minusDays(2))
+                .build();
+
+        when(turnRepo.findDoctorTurnsBefore(eq(doctorId), isNull(), eq(TurnCursor.FAR_FUTURE), eq(TurnCursor.MIN_ID), eq(PageRequest.of(0, 3))))
+                .thenReturn(Arrays.asList(turnEntity, older, oldest));
+        when(mapper.toDTOs(Arrays.asList(turnEntity, older))).thenReturn(Arrays.asList(turnResponse, turnResponse));
+
+        TurnPageDTO page = turnAssignedService.getTurnsPageByDoctor(doctorId, null, null, null, 2);
+
+        assertEquals(2, page.getItems().size());
+        assertTrue(page.isHasMore());
+        TurnCursor next = TurnCursor.decode(page.getNextCursor(), ARGENTINA_ZONE);
+        assertEquals(older.getId(), next.id());
+        assertTrue(older.getScheduledAt().isEqual(next.scheduledAt()));
+    }
+
+    @Test
+    void getTurnsPageByPatient_UpcomingContinuesAscendingFromCursor() {
+        TurnCursor cursor = new TurnCursor(OffsetDateTime.now(ARGENTINA_ZONE).plusDays(3), UUID.randomUUID());
+
+        when(turnRepo.findPatientTurnsAfter(eq(patientId), eq("SCHEDULED"), argThat(at -> at.isEqual(cursor.scheduledAt())),
+                eq(cursor.id()), any())).thenReturn(List.of(turnEntity));
+        when(mapper.toDTOs(List.of(turnEntity))).thenReturn(List.of(turnResponse));
+
+        TurnPageDTO page = turnAssignedService.getTurnsPageByPatient(patientId, "SCHEDULED", "upcoming", cursor.encode(), null);
+
+        assertEquals(1, page.getItems().size());
+        assertFalse(page.isHasMore());
+        assertNull(page.getNextCursor());
+        verify(turnRepo, never()).findPatientTurnsBefore(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void getTurnsPage_InvalidArguments_Throw() {
+        assertThrows(IllegalArgumentException.class,
+                () -> turnAssignedService.getTurnsPageByDoctor(doctorId, null, "tomorrow", null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> turnAssignedService.getTurnsPageByDoctor(doctorId, null, null, "not-a-cursor", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> turnAssignedService.getTurnsPageByDoctor(doctorId, null, null, null, 500));
+        verifyNoInteractions(turnRepo);
     }
 
     @Test
@@ -762,12 +852,47 @@ class TurnAssignedServiceTest {
                 .build();
 
         when(ratingRepo.save(any(com.medibook.api.entity.Rating.class))).thenReturn(saved);
+        when(userRepo.findRatingTotals(patientId)).thenReturn(Optional.of(new RatingTotals(5, 1, 5.0)));
 
     com.medibook.api.entity.Rating result = turnAssignedService.addRating(turnId, doctorId, 5, java.util.List.of("Respetuoso"));
 
         assertNotNull(result);
         assertEquals("Respetuoso", result.getSubcategory());
-        verify(ratingRepo).save(any(com.medibook.api.entity.Rating.class));
+        verify(ratingRepo).save(argThat(rating -> rating.getSubcategories().equals(java.util.Set.of("Respetuoso"))));
+        verify(userRepo).recordRating(patientId, 5);
+        verify(ratingSummaryService).recordRating(patientId, 5, "DOCTOR", java.util.Set.of("Respetuoso"));
+        verify(ratingBucketService).recordRating(patientId, 5, "DOCTOR", java.util.Set.of("Respetuoso"));
+        verify(userRepo, never()).save(any(User.class));
+        assertEquals(5.0, patient.getScore());
+        assertEquals(1, patient.getRatingCount());
+    }
+
+    @Test
+    void addRating_TakesTotalsFromDatabaseIncludingConcurrentRatings() {
+        patient.setRatingSum(9);
+        patient.setRatingCount(2);
+        TurnAssigned completedTurn = TurnAssigned.builder()
+                .id(turnId)
+                .doctor(doctor)
+                .patient(patient)
+                .scheduledAt(OffsetDateTime.now().minusDays(1))
+                .status("COMPLETED")
+                .build();
+
+        when(turnRepo.findById(turnId)).thenReturn(Optional.of(completedTurn));
+        when(userRepo.findById(doctorId)).thenReturn(Optional.of(doctor));
+        when(ratingRepo.existsByTurnAssigned_IdAndRater_Id(turnId, doctorId)).thenReturn(false);
+        when(ratingRepo.save(any(com.medibook.api.entity.Rating.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(userRepo.findRatingTotals(patientId)).thenReturn(Optional.of(new RatingTotals(18, 4, 4.5)));
+
+        turnAssignedService.addRating(turnId, doctorId, 4, java.util.List.of());
+
+        InOrder inOrder = inOrder(userRepo);
+        inOrder.verify(userRepo).recordRating(patientId, 4);
+        inOrder.verify(userRepo).findRatingTotals(patientId);
+        assertEquals(18, patient.getRatingSum());
+        assertEquals(4, patient.getRatingCount());
+        assertEquals(4.5, patient.getScore());
     }
 
     @Test
@@ -829,6 +954,11 @@ class TurnAssignedServiceTest {
         assertEquals("COMPLETED", scheduledTurn.getStatus());
         verify(turnRepo).findById(turnId);
         verify(turnRepo).save(scheduledTurn);
+        verify(outboxService).enqueue(eq(OutboxEventType.BADGE_TURN_COMPLETION), eq(turnId), argThat(payload ->
+                doctorId.equals(payload.get("userId")) && patientId.equals(payload.get("otherUserId"))));
+        verify(outboxService).enqueue(eq(OutboxEventType.BADGE_TURN_COMPLETION), eq(turnId), argThat(payload ->
+                patientId.equals(payload.get("userId")) && doctorId.equals(payload.get("otherUserId"))));
+        verify(outboxService, never()).enqueue(eq(OutboxEventType.MEDICAL_CHECK_COMPLETION), any(), anyMap());
     }
 
     @Test
@@ -1426,7 +1556,7 @@ class TurnAssignedServiceTest {
 
         assertNotNull(result);
         assertEquals("COMPLETED", result.getStatus());
-        verify(badgeEvaluationTrigger, never()).evaluateAfterTurnCompletion(any(UUID.class), any(UUID.class));
+        verify(outboxService, never()).enqueue(eq(OutboxEventType.BADGE_TURN_COMPLETION), any(), anyMap());
     }
 
     @Test
@@ -1602,7 +1732,7 @@ class TurnAssignedServiceTest {
                 Arrays.asList("Explica claramente", "Escucha al paciente"));
 
         assertNotNull(result);
-        verify(badgeEvaluationTrigger).evaluateAfterRating(eq(doctorId), eq(4), isNull(), isNull());
+        verify(badgeEvaluationTrigger).evaluateAfterRating(eq(doctorId), argThat(rating -> rating.score() == 4 && rating.isFromPatient()), eq(4), isNull(), isNull());
     }
 
     @Test
@@ -1634,7 +1764,7 @@ class TurnAssignedServiceTest {
                 Arrays.asList("Demuestra empatía", "Genera confianza"));
 
         assertNotNull(result);
-        verify(badgeEvaluationTrigger).evaluateAfterRating(eq(doctorId), isNull(), eq(5), isNull());
+        verify(badgeEvaluationTrigger).evaluateAfterRating(eq(doctorId), any(), isNull(), eq(5), isNull());
     }
 
     @Test
@@ -1666,7 +1796,7 @@ class TurnAssignedServiceTest {
                 Arrays.asList("Respeta horarios", "Tiempo de espera aceptable"));
 
         assertNotNull(result);
-        verify(badgeEvaluationTrigger).evaluateAfterRating(eq(doctorId), isNull(), isNull(), eq(4));
+        verify(badgeEvaluationTrigger).evaluateAfterRating(eq(doctorId), any(), isNull(), isNull(), eq(4));
     }
 
     @Test
@@ -1698,41 +1828,29 @@ class TurnAssignedServiceTest {
                 Arrays.asList("Llega puntual"));
 
         assertNotNull(result);
-        verify(badgeEvaluationTrigger, never()).evaluateAfterRating(any(), any(), any(), any());
+        verify(badgeEvaluationTrigger, never()).evaluateAfterRating(any(), any(), any(), any(), any());
     }
 
     @Test
-    void createTurn_EmailFailure_ContinuesExecution() {
-        TurnCreateRequestDTO dto = createTurnRequestDTO();
-        TurnAssigned savedTurn = TurnAssigned.builder()
-                .id(UUID.randomUUID())
-                .doctor(turn.getDoctor())
-                .patient(turn.getPatient())
-                .scheduledAt(turn.getScheduledAt())
-                .status(turn.getStatus())
-                .build();
-
+    void createTurn_EnqueuesConfirmationEmailsInsteadOfSending() {
+        patient.setEmail("juan@example.com");
+        doctor.setEmail("hugo@example.com");
         when(userRepo.findById(doctorId)).thenReturn(Optional.of(doctor));
         when(userRepo.findById(patientId)).thenReturn(Optional.of(patient));
-        when(turnRepo.existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(doctorId, dto.getScheduledAt()))
-                .thenReturn(false);
-        when(turnRepo.save(any(TurnAssigned.class))).thenReturn(savedTurn);
-        when(mapper.toDTO(savedTurn)).thenReturn(turnResponse);
-
-        when(emailService.sendAppointmentConfirmationToPatientAsync(anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
-                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Email service error")));
-        when(emailService.sendAppointmentConfirmationToDoctorAsync(anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
-                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Email service error")));
+        when(turnRepo.saveAndFlush(any(TurnAssigned.class))).thenReturn(turnEntity);
+        when(mapper.toDTO(turnEntity)).thenReturn(turnResponse);
 
-        TurnResponseDTO result = turnAssignedService.createTurn(dto);
+        TurnResponseDTO result = turnAssignedService.createTurn(createTurnRequestDTO());
 
         assertThat(result).isEqualTo(turnResponse);
-        verify(turnRepo).save(any(TurnAssigned.class));
-        verify(notificationService).createTurnReservedNotification(eq(doctorId), any(UUID.class), anyString(), anyString(), anyString());
+        verify(outboxService).enqueue(eq(OutboxEventType.APPOINTMENT_CONFIRMATION_EMAIL_PATIENT), eq(turnId), argThat(payload ->
+                "juan@example.com".equals(payload.get("to")) && "Dr. Hugo".equals(payload.get("otherName"))));
+        verify(outboxService).enqueue(eq(OutboxEventType.APPOINTMENT_CONFIRMATION_EMAIL_DOCTOR), eq(turnId), argThat(payload ->
+                "hugo@example.com".equals(payload.get("to")) && "Juan".equals(payload.get("otherName"))));
     }
 
     @Test
-    void cancelTurn_EmailFailure_ContinuesExecution() {
+    void cancelTurn_EnqueuesCancellationEmailsAndNotification() {
         TurnAssigned scheduledTurn = TurnAssigned.builder()
                 .id(turnId)
                 .doctor(doctor)
@@ -1741,31 +1859,18 @@ class TurnAssignedServiceTest {
                 .status("SCHEDULED")
                 .build();
 
-        TurnAssigned canceledTurn = TurnAssigned.builder()
-                .id(turnId)
-                .doctor(doctor)
-                .patient(patient)
-                .scheduledAt(OffsetDateTime.now().plusDays(1))
-                .status("CANCELED")
-                .build();
-
         when(turnRepo.findById(turnId)).thenReturn(Optional.of(scheduledTurn));
-        when(turnRepo.save(any(TurnAssigned.class))).thenReturn(canceledTurn);
-        when(mapper.toDTO(canceledTurn)).thenReturn(turnResponse);
+        when(turnRepo.save(any(TurnAssigned.class))).thenReturn(scheduledTurn);
+        when(mapper.toDTO(scheduledTurn)).thenReturn(turnResponse);
         when(turnFileService.fileExistsForTurn(turnId)).thenReturn(false);
 
-        when(emailService.sendAppointmentCancellationToPatientAsync(anyString(), anyString(), anyString(), anyString(), anyString()))
-                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Email service error")));
-        when(emailService.sendAppointmentCancellationToDoctorAsync(anyString(), anyString(), anyString(), anyString(), anyString()))
-                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Email service error")));
-
-        TurnResponseDTO result = turnAssignedService.cancelTurn(turnId, patientId, "PATIENT");
+        TurnResponseDTO result = turnAssignedService.cancelTurn(turnId, doctorId, "DOCTOR");
 
         assertNotNull(result);
-        verify(turnRepo).findById(turnId);
-        verify(turnRepo).save(scheduledTurn);
-        verify(mapper).toDTO(canceledTurn);
-        assertEquals("CANCELED", scheduledTurn.getStatus());
+        verify(outboxService).enqueue(eq(OutboxEventType.APPOINTMENT_CANCELLATION_EMAIL_PATIENT), eq(turnId), anyMap());
+        verify(outboxService).enqueue(eq(OutboxEventType.APPOINTMENT_CANCELLATION_EMAIL_DOCTOR), eq(turnId), anyMap());
+        verify(outboxService).enqueue(eq(OutboxEventType.TURN_CANCELLED_NOTIFICATION), eq(turnId), argThat(payload ->
+                patientId.equals(payload.get("userId")) && "doctor".equals(payload.get("cancelledBy"))));
     }
 
     private TurnCreateRequestDTO createTurnRequestDTO() {
@@ -0,0 +1,155 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Turn.TurnCreateRequestDTO;
+import com.medibook.api.entity.User;
+import com.medibook.api.exception.SlotAlreadyTakenException;
+import com.medibook.api.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Books the same slots from many threads at once and checks that the unique slot
+ * index lets exactly one booking per slot through, reporting throughput and conflicts.
+ * H2 has no partial indexes, so the test creates a plain unique index under the same
+ * name; it only inserts SCHEDULED turns, where both behave the same.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Slf4j
+class TurnBookingContentionTest {
+
+    private static final ZoneId ARGENTINA_ZONE = ZoneId.of("America/Argentina/Buenos_Aires");
+    private static final int THREADS = 16;
+    private static final int SLOTS = 20;
+
+    @Autowired
+    private TurnAssignedService turnAssignedService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User doctor;
+    private final List<User> patients = new ArrayList<>();
+    private final List<OffsetDateTime> slots = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + TurnAssignedService.SLOT_UNIQUE_INDEX
+                + " ON turns_assigned (doctor_id, scheduled_at)");
+
+        doctor = userRepository.saveAndFlush(createUser("contention.doctor@example.com", 91000000L, "DOCTOR"));
+        for (int i = 0; i < THREADS; i++) {
+            patients.add(userRepository.saveAndFlush(
+                    createUser("contention.patient" + i + "@example.com", 91000001L + i, "PATIENT")));
+        }
+
+        OffsetDateTime first = OffsetDateTime.now(ARGENTINA_ZONE).truncatedTo(ChronoUnit.HOURS).plusHours(2);
+        for (int i = 0; i < SLOTS; i++) {
+            slots.add(first.plusMinutes(15L * i));
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM notifications WHERE user_id = ?", doctor.getId());
+        jdbcTemplate.update("DELETE FROM turns_assigned WHERE doctor_id = ?", doctor.getId());
+        userRepository.deleteAll(patients);
+        userRepository.delete(doctor);
+        jdbcTemplate.execute("DROP INDEX IF EXISTS " + TurnAssignedService.SLOT_UNIQUE_INDEX);
+    }
+
+    @Test
+    void concurrentBookings_OneWinnerPerSlot() throws Exception {
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        Map<OffsetDateTime, UUID> winners = new ConcurrentHashMap<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+
+        List<Future<?>> workers = new ArrayList<>();
+        for (User patient : patients) {
+            List<OffsetDateTime> order = new ArrayList<>(slots);
+            Collections.shuffle(order);
+            workers.add(pool.submit(() -> {
+                start.await();
+                for (OffsetDateTime slot : order) {
+                    try {
+                        turnAssignedService.createTurn(request(patient, slot));
+                        booked.incrementAndGet();
+                        assertNull(winners.putIfAbsent(slot, patient.getId()), "Slot booked twice: " + slot);
+                    } catch (SlotAlreadyTakenException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+
+        long startedAt = System.nanoTime();
+        start.countDown();
+        for (Future<?> worker : workers) {
+            worker.get(60, TimeUnit.SECONDS);
+        }
+        long elapsedNanos = System.nanoTime() - startedAt;
+        pool.shutdown();
+
+        int attempts = THREADS * SLOTS;
+        log.info("Booking contention: {} threads, {} slots, {} attempts in {} ms ({} attempts/s), {} booked, {} conflicts",
+                THREADS, SLOTS, attempts, elapsedNanos / 1_000_000,
+                attempts * 1_000_000_000L / Math.max(1, elapsedNanos), booked.get(), conflicts.get());
+
+        assertEquals(SLOTS, booked.get());
+        assertEquals(attempts - SLOTS, conflicts.get());
+        assertEquals(SLOTS, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM turns_assigned WHERE doctor_id = ?", Integer.class, doctor.getId()));
+    }
+
+    private TurnCreateRequestDTO request(User patient, OffsetDateTime slot) {
+        TurnCreateRequestDTO dto = new TurnCreateRequestDTO();
+        dto.setDoctorId(doctor.getId());
+        dto.setPatientId(patient.getId());
+        dto.setScheduledAt(slot);
+        dto.setMotive("Contention test");
+        return dto;
+    }
+
+    private User createUser(String email, Long dni, String role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setDni(dni);
+        user.setPasswordHash("hashedPassword");
+        user.setName("Contention");
+        user.setSurname("User");
+        user.setRole(role);
+        user.setStatus("ACTIVE");
+        user.setEmailVerified(true);
+        return user;
+    }
+}
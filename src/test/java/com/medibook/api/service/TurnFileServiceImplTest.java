@@ -1,5 +1,6 @@
 package com.medibook.api.service;
 
+import com.medibook.api.entity.OutboxEventType;
 import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.TurnFile;
 import com.medibook.api.entity.User;
@@ -10,7 +11,10 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
@@ -36,10 +40,10 @@ class TurnFileServiceImplTest {
     private TurnAssignedRepository turnAssignedRepository;
 
     @Mock
-    private NotificationService notificationService;
+    private OutboxService outboxService;
 
-    @Mock
-    private BadgeEvaluationTriggerService badgeEvaluationTrigger;
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     @Mock
     private MultipartFile file;
@@ -96,9 +100,11 @@ class TurnFileServiceImplTest {
                 })
                 .verifyComplete();
 
+        verify(transactionTemplate).executeWithoutResult(any());
         verify(turnFileRepository).save(any(TurnFile.class));
-        verify(notificationService).createPatientFileUploadedNotification(
-                eq(doctor.getId()), any(UUID.class), anyString(), anyString(), anyString(), eq(fileName));
+        verify(outboxService).enqueue(eq(OutboxEventType.PATIENT_FILE_UPLOADED_NOTIFICATION), eq(turnId), argThat(payload ->
+                doctor.getId().equals(payload.get("userId")) && fileName.equals(payload.get("fileName"))));
+        verify(outboxService).enqueue(OutboxEventType.BADGE_FILE_UPLOADED, turnId, OutboxService.payload("userId", patient.getId()));
     }
 
     @Test
@@ -134,7 +140,7 @@ class TurnFileServiceImplTest {
     }
 
     @Test
-    void uploadTurnFile_NotificationFailure_DoesNotFailUpload() {
+    void uploadTurnFile_OutboxFailure_PropagatesError() {
         String fileName = "test-file.pdf";
         String publicUrl = "https://storage.example.com/test-file.pdf";
 
@@ -143,16 +149,13 @@ class TurnFileServiceImplTest {
         when(supabaseStorageService.uploadFile(eq("archivosTurnos"), anyString(), eq(file)))
                 .thenReturn(Mono.just(publicUrl));
         when(turnAssignedRepository.findById(any(UUID.class))).thenReturn(Optional.of(turn));
-        doThrow(new RuntimeException("Notification error"))
-                .when(notificationService).createPatientFileUploadedNotification(
-                        any(), any(), any(), any(), any(), any());
+        doThrow(new RuntimeException("Outbox error"))
+                .when(outboxService).enqueue(any(), any(), anyMap());
 
         // Act & Assert
         StepVerifier.create(turnFileService.uploadTurnFile(turnId, file))
-                .assertNext(result -> {
-                    assertTrue(result.contains("\"url\":\"" + publicUrl + "\""));
-                })
-                .verifyComplete();
+                .expectErrorMessage("Outbox error")
+                .verify();
 
         verify(turnFileRepository).save(any(TurnFile.class));
     }
@@ -281,8 +284,7 @@ class TurnFileServiceImplTest {
                 .verifyComplete();
 
         verify(turnFileRepository).save(any(TurnFile.class));
-        verify(notificationService, never()).createPatientFileUploadedNotification(
-                any(), any(), any(), any(), any(), any());
+        verifyNoInteractions(outboxService);
     }
 
     @Test
@@ -312,8 +314,7 @@ class TurnFileServiceImplTest {
                 .verifyComplete();
 
         verify(turnFileRepository).save(any(TurnFile.class));
-        verify(notificationService, never()).createPatientFileUploadedNotification(
-                any(), any(), any(), any(), any(), any());
+        verifyNoInteractions(outboxService);
     }
 
     @Test
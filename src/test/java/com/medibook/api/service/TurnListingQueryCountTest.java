@@ -0,0 +1,187 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Turn.TurnResponseDTO;
+import com.medibook.api.entity.DoctorProfile;
+import com.medibook.api.entity.Rating;
+import com.medibook.api.entity.TurnAssigned;
+import com.medibook.api.entity.TurnFile;
+import com.medibook.api.entity.User;
+import com.medibook.api.repository.RatingRepository;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.TurnFileRepository;
+import com.medibook.api.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Lists turns of doctors with very different history sizes and checks that mapping them
+ * to DTOs issues the same number of statements: one for the turns with their doctor,
+ * patient and family member, one for the ratings and one for the files.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class TurnListingQueryCountTest {
+
+    private static final AtomicLong DNI = new AtomicLong(92000000L);
+
+    @Autowired
+    private TurnAssignedService turnAssignedService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TurnAssignedRepository turnAssignedRepository;
+
+    @Autowired
+    private RatingRepository ratingRepository;
+
+    @Autowired
+    private TurnFileRepository turnFileRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<User> users = new ArrayList<>();
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void tearDown() {
+        for (User user : users) {
+            jdbcTemplate.update("DELETE FROM ratings WHERE rater_id = ? OR rated_id = ?", user.getId(), user.getId());
+            jdbcTemplate.update("DELETE FROM turn_files WHERE turn_id IN (SELECT id FROM turns_assigned WHERE doctor_id = ?)", user.getId());
+            jdbcTemplate.update("DELETE FROM turns_assigned WHERE doctor_id = ?", user.getId());
+        }
+        userRepository.deleteAll(users);
+    }
+
+    @Test
+    void getTurnsByDoctor_StatementCountDoesNotGrowWithListSize() {
+        User smallDoctor = createDoctorWithHistory("small", 3, 2);
+        User largeDoctor = createDoctorWithHistory("large", 60, 12);
+
+        long smallStatements = countStatements(() -> assertEquals(3, turnAssignedService.getTurnsByDoctor(smallDoctor.getId()).size()));
+        long largeStatements = countStatements(() -> assertEquals(60, turnAssignedService.getTurnsByDoctor(largeDoctor.getId()).size()));
+
+        assertEquals(smallStatements, largeStatements);
+        assertTrue(largeStatements <= 3, "Expected at most 3 statements, got " + largeStatements);
+    }
+
+    @Test
+    void getTurnsByDoctor_BatchMappingKeepsRatingAndFileFields() {
+        User doctor = createDoctorWithHistory("fields", 4, 2);
+
+        List<TurnResponseDTO> turns = turnAssignedService.getTurnsByDoctor(doctor.getId());
+
+        assertEquals(4, turns.size());
+        assertTrue(turns.stream().allMatch(turn -> "Cardiología".equals(turn.getDoctorSpecialty())));
+        assertEquals(2, turns.stream().filter(turn -> turn.getFileName() != null).count());
+        assertEquals(2, turns.stream().filter(turn -> Boolean.FALSE.equals(turn.getNeedsPatientRating())
+                && Boolean.TRUE.equals(turn.getNeedsDoctorRating())).count());
+    }
+
+    @Test
+    void getTurnsPageByPatient_StatementCountIsConstant() {
+        createDoctorWithHistory("paged", 30, 1);
+        User patient = users.get(users.size() - 1);
+
+        long statements = countStatements(() -> assertEquals(20,
+                turnAssignedService.getTurnsPageByPatient(patient.getId(), null, null, null, 20).getItems().size()));
+
+        assertTrue(statements <= 3, "Expected at most 3 statements, got " + statements);
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Every other turn is completed and rated by its patient, and every other turn has a file.
+     */
+    private User createDoctorWithHistory(String name, int turnCount, int patientCount) {
+        User doctor = createUser(name + ".doctor@example.com", "DOCTOR");
+        DoctorProfile profile = new DoctorProfile();
+        profile.setMedicalLicense("QC-" + name);
+        profile.setSpecialty("Cardiología");
+        profile.setSlotDurationMin(30);
+        doctor.setDoctorProfile(profile);
+        doctor = userRepository.saveAndFlush(doctor);
+        users.add(doctor);
+
+        List<User> patients = new ArrayList<>();
+        for (int i = 0; i < patientCount; i++) {
+            User patient = userRepository.saveAndFlush(createUser(name + ".patient" + i + "@example.com", "PATIENT"));
+            users.add(patient);
+            patients.add(patient);
+        }
+
+        OffsetDateTime first = OffsetDateTime.now().truncatedTo(ChronoUnit.HOURS).minusDays(turnCount);
+        for (int i = 0; i < turnCount; i++) {
+            User patient = patients.get(i % patientCount);
+            boolean completed = i % 2 == 0;
+            TurnAssigned turn = turnAssignedRepository.save(TurnAssigned.builder()
+                    .doctor(doctor)
+                    .patient(patient)
+                    .scheduledAt(first.plusDays(i))
+                    .status(completed ? "COMPLETED" : "SCHEDULED")
+                    .build());
+
+            if (completed) {
+                Rating rating = new Rating();
+                rating.setTurnAssigned(turn);
+                rating.setRater(patient);
+                rating.setRated(doctor);
+                rating.setScore(5);
+                rating.setCreatedAt(OffsetDateTime.now());
+                ratingRepository.save(rating);
+            } else {
+                turnFileRepository.save(TurnFile.builder()
+                        .turnId(turn.getId())
+                        .fileUrl("https://storage.example.com/" + turn.getId() + ".pdf")
+                        .fileName(turn.getId() + ".pdf")
+                        .build());
+            }
+        }
+        turnAssignedRepository.flush();
+        return doctor;
+    }
+
+    private User createUser(String email, String role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setDni(DNI.incrementAndGet());
+        user.setPasswordHash("hashedPassword");
+        user.setName("Query");
+        user.setSurname("Count");
+        user.setRole(role);
+        user.setStatus("ACTIVE");
+        user.setEmailVerified(true);
+        return user;
+    }
+}
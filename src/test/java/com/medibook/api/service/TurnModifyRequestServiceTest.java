@@ -1,8 +1,8 @@
 package com.medibook.api.service;
 
-import com.medibook.api.dto.email.EmailResponseDto;
 import com.medibook.api.dto.Turn.TurnModifyRequestDTO;
 import com.medibook.api.dto.Turn.TurnModifyRequestResponseDTO;
+import com.medibook.api.entity.OutboxEventType;
 import com.medibook.api.entity.TurnAssigned;
 import com.medibook.api.entity.TurnModifyRequest;
 import com.medibook.api.entity.User;
@@ -23,7 +23,6 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,7 +42,7 @@ class TurnModifyRequestServiceTest {
     private TurnModifyRequestMapper mapper;
     
     @Mock
-    private com.medibook.api.service.EmailService emailService;
+    private OutboxService outboxService;
 
     @Mock
     private NotificationService notificationService;
@@ -99,17 +98,6 @@ class TurnModifyRequestServiceTest {
         responseDTO = new TurnModifyRequestResponseDTO();
         responseDTO.setId(modifyRequest.getId());
         responseDTO.setStatus("PENDING");
-        
-        EmailResponseDto successEmailResponse = EmailResponseDto.builder()
-                .success(true)
-                .messageId("test-message-id")
-                .message("Email sent successfully")
-                .build();
-        
-        when(emailService.sendAppointmentModificationApprovedToPatientAsync(anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(successEmailResponse));
-        when(emailService.sendAppointmentModificationApprovedToDoctorAsync(anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
-                .thenReturn(CompletableFuture.completedFuture(successEmailResponse));
     }
 
     @Test
@@ -246,21 +234,15 @@ class TurnModifyRequestServiceTest {
         verify(turnModifyRequestRepository).findById(modifyRequest.getId());
         verify(turnAssignedRepository).save(turnAssigned);
         verify(turnModifyRequestRepository).save(modifyRequest);
-        verify(emailService).sendAppointmentModificationApprovedToPatientAsync(
-                patient.getEmail(), patient.getName(), doctor.getName(),
-                "09/10/2028", "07:00", "10/10/2028", "08:00");
-        verify(emailService).sendAppointmentModificationApprovedToDoctorAsync(
-                doctor.getEmail(), doctor.getName(), patient.getName(),
-                "09/10/2028", "07:00", "10/10/2028", "08:00");
-        verify(notificationService).createModifyRequestApprovedNotification(
-                eq(patient.getId()), 
-                eq(modifyRequest.getId()),
-                any(String.class),
-                any(String.class),
-                any(String.class),
-                any(String.class),
-                any(String.class)
-        );
+        verify(outboxService).enqueue(OutboxEventType.MODIFICATION_APPROVED_EMAIL_PATIENT, turnAssigned.getId(), OutboxService.payload(
+                "to", patient.getEmail(), "name", patient.getName(), "otherName", doctor.getName(),
+                "oldDate", "09/10/2028", "oldTime", "07:00", "newDate", "10/10/2028", "newTime", "08:00"));
+        verify(outboxService).enqueue(OutboxEventType.MODIFICATION_APPROVED_EMAIL_DOCTOR, turnAssigned.getId(), OutboxService.payload(
+                "to", doctor.getEmail(), "name", doctor.getName(), "otherName", patient.getName(),
+                "oldDate", "09/10/2028", "oldTime", "07:00", "newDate", "10/10/2028", "newTime", "08:00"));
+        verify(outboxService).enqueue(eq(OutboxEventType.MODIFY_REQUEST_APPROVED_NOTIFICATION), eq(turnAssigned.getId()), argThat(payload ->
+                patient.getId().equals(payload.get("userId")) && modifyRequest.getId().equals(payload.get("requestId"))));
+        verify(outboxService).enqueue(eq(OutboxEventType.BADGE_MODIFY_REQUEST_HANDLED), eq(turnAssigned.getId()), anyMap());
     }
 
     @Test
@@ -374,35 +356,19 @@ class TurnModifyRequestServiceTest {
     }
 
     @Test
-    void approveModifyRequest_WithEmailFailure_ShouldStillApproveAndLogWarning() {
+    void approveModifyRequest_DefersSideEffectsToOutbox() {
         when(turnModifyRequestRepository.findById(modifyRequest.getId())).thenReturn(Optional.of(modifyRequest));
         when(turnAssignedRepository.save(any(TurnAssigned.class))).thenReturn(turnAssigned);
         when(turnModifyRequestRepository.save(any(TurnModifyRequest.class))).thenReturn(modifyRequest);
         when(mapper.toResponseDTO(any(TurnModifyRequest.class))).thenReturn(responseDTO);
 
-        CompletableFuture<EmailResponseDto> failedFuture = new CompletableFuture<>();
-        failedFuture.completeExceptionally(new RuntimeException("Email service error"));
-        when(emailService.sendAppointmentModificationApprovedToDoctorAsync(anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
-                .thenReturn(failedFuture);
-
         TurnModifyRequestResponseDTO result = service.approveModifyRequest(modifyRequest.getId(), doctor);
 
         assertNotNull(result);
-        verify(turnModifyRequestRepository).save(modifyRequest);
-
         verify(turnModifyRequestRepository).findById(modifyRequest.getId());
         verify(turnAssignedRepository).save(turnAssigned);
         verify(turnModifyRequestRepository).save(modifyRequest);
-        verify(emailService).sendAppointmentModificationApprovedToPatientAsync(anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyString());
-        verify(emailService).sendAppointmentModificationApprovedToDoctorAsync(anyString(), anyString(), anyString(), anyString(), anyString(), anyString(), anyString());
-        verify(notificationService).createModifyRequestApprovedNotification(
-                any(UUID.class), 
-                any(UUID.class),
-                any(String.class),
-                any(String.class),
-                any(String.class),
-                any(String.class),
-                any(String.class)
-        );
+        verify(outboxService, times(4)).enqueue(any(OutboxEventType.class), eq(turnAssigned.getId()), anyMap());
+        verifyNoInteractions(notificationService, badgeEvaluationTrigger);
     }
-}
\ No newline at end of file
+}
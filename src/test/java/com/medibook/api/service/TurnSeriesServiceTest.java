@@ -0,0 +1,169 @@
+package com.medibook.api.service;
+
+import com.medibook.api.dto.Turn.TurnRecurrenceDTO;
+import com.medibook.api.dto.Turn.TurnResponseDTO;
+import com.medibook.api.dto.Turn.TurnSeriesRequestDTO;
+import com.medibook.api.entity.OutboxEventType;
+import com.medibook.api.entity.TurnAssigned;
+import com.medibook.api.entity.User;
+import com.medibook.api.exception.SlotAlreadyTakenException;
+import com.medibook.api.mapper.TurnAssignedMapper;
+import com.medibook.api.model.SlotOccupancy;
+import com.medibook.api.repository.FamilyMemberRepository;
+import com.medibook.api.repository.TurnAssignedRepository;
+import com.medibook.api.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TurnSeriesServiceTest {
+
+    private static final ZoneId ARGENTINA_ZONE = ZoneId.of("America/Argentina/Buenos_Aires");
+
+    @Mock private TurnAssignedRepository turnRepo;
+    @Mock private UserRepository userRepo;
+    @Mock private FamilyMemberRepository familyMemberRepository;
+    @Mock private TurnAssignedMapper mapper;
+    @Mock private DoctorAvailabilityService doctorAvailabilityService;
+    @Mock private SlotOccupancyService slotOccupancyService;
+    @Mock private OutboxService outboxService;
+
+    @InjectMocks
+    private TurnSeriesService turnSeriesService;
+
+    private User doctor;
+    private User patient;
+    private OffsetDateTime first;
+
+    @BeforeEach
+    void setUp() {
+        doctor = new User();
+        doctor.setId(UUID.randomUUID());
+        doctor.setRole("DOCTOR");
+        doctor.setStatus("ACTIVE");
+        doctor.setName("Gregory");
+        doctor.setSurname("House");
+
+        patient = new User();
+        patient.setId(UUID.randomUUID());
+        patient.setRole("PATIENT");
+        patient.setStatus("ACTIVE");
+        patient.setName("Juan");
+        patient.setSurname("Perez");
+        patient.setEmail("juan@example.com");
+
+        first = LocalDate.now(ARGENTINA_ZONE).plusDays(7).atTime(10, 0).atZone(ARGENTINA_ZONE).toOffsetDateTime();
+    }
+
+    @Test
+    void createTurnSeries_WeeklyRecurrence_SavesInOneBatchAndNotifiesOnce() {
+        TurnSeriesRequestDTO dto = request();
+        dto.setRecurrence(new TurnRecurrenceDTO(first, "WEEKLY", 1, 4));
+
+        stubUsers();
+        when(slotOccupancyService.loadOccupancy(doctor.getId(), first.toLocalDate(), first.plusWeeks(3).toLocalDate()))
+                .thenReturn(new SlotOccupancy(ARGENTINA_ZONE));
+        when(turnRepo.saveAllAndFlush(anyList())).thenAnswer(invocation -> {
+            List<TurnAssigned> turns = invocation.getArgument(0);
+            turns.forEach(turn -> turn.setId(UUID.randomUUID()));
+            return turns;
+        });
+        when(mapper.toDTOs(anyList())).thenAnswer(invocation -> {
+            List<TurnAssigned> turns = invocation.getArgument(0);
+            return turns.stream().map(turn -> TurnResponseDTO.builder().id(turn.getId()).build()).toList();
+        });
+
+        List<TurnResponseDTO> result = turnSeriesService.createTurnSeries(dto);
+
+        assertEquals(4, result.size());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TurnAssigned>> saved = ArgumentCaptor.forClass(List.class);
+        verify(turnRepo, times(1)).saveAllAndFlush(saved.capture());
+        assertEquals(List.of(first, first.plusWeeks(1), first.plusWeeks(2), first.plusWeeks(3)),
+                saved.getValue().stream().map(TurnAssigned::getScheduledAt).toList());
+
+        verify(slotOccupancyService, times(1)).loadOccupancy(any(UUID.class), any(), any());
+        verify(turnRepo, never()).existsByDoctor_IdAndScheduledAtAndStatusNotCancelled(any(), any());
+        UUID firstTurnId = saved.getValue().get(0).getId();
+        verify(outboxService, times(1)).enqueue(eq(OutboxEventType.APPOINTMENT_SERIES_EMAIL_PATIENT), eq(firstTurnId), argThat(payload ->
+                "juan@example.com".equals(payload.get("to")) && ((List<?>) payload.get("appointments")).size() == 4));
+        verify(outboxService, never()).enqueue(eq(OutboxEventType.APPOINTMENT_CONFIRMATION_EMAIL_PATIENT), any(), anyMap());
+        verify(outboxService, never()).enqueue(eq(OutboxEventType.APPOINTMENT_CONFIRMATION_EMAIL_DOCTOR), any(), anyMap());
+        verify(outboxService, times(1)).enqueue(eq(OutboxEventType.TURN_SERIES_RESERVED_NOTIFICATION), eq(firstTurnId), argThat(payload ->
+                doctor.getId().equals(payload.get("userId")) && "Juan Perez".equals(payload.get("patientName"))
+                        && Integer.valueOf(4).equals(payload.get("turnCount"))));
+        verify(outboxService).enqueue(OutboxEventType.BADGE_ADVANCE_BOOKING, firstTurnId, OutboxService.payload("userId", patient.getId()));
+    }
+
+    @Test
+    void createTurnSeries_AnySlotTaken_RejectsWholeSeries() {
+        TurnSeriesRequestDTO dto = request();
+        dto.setScheduledAt(List.of(first.plusDays(2), first));
+
+        SlotOccupancy occupancy = new SlotOccupancy(ARGENTINA_ZONE);
+        occupancy.markTaken(first.plusDays(2));
+
+        stubUsers();
+        when(slotOccupancyService.loadOccupancy(doctor.getId(), first.toLocalDate(), first.plusDays(2).toLocalDate()))
+                .thenReturn(occupancy);
+
+        SlotAlreadyTakenException exception = assertThrows(SlotAlreadyTakenException.class,
+                () -> turnSeriesService.createTurnSeries(dto));
+
+        assertTrue(exception.getMessage().startsWith("Time slots already taken"));
+        verify(turnRepo, never()).saveAllAndFlush(anyList());
+        verifyNoInteractions(outboxService);
+    }
+
+    @Test
+    void createTurnSeries_InvalidInput_Throws() {
+        TurnSeriesRequestDTO both = request();
+        both.setScheduledAt(List.of(first));
+        both.setRecurrence(new TurnRecurrenceDTO(first, "WEEKLY", 1, 2));
+        assertThrows(IllegalArgumentException.class, () -> turnSeriesService.createTurnSeries(both));
+
+        TurnSeriesRequestDTO neither = request();
+        assertThrows(IllegalArgumentException.class, () -> turnSeriesService.createTurnSeries(neither));
+
+        TurnSeriesRequestDTO duplicated = request();
+        duplicated.setScheduledAt(List.of(first, first.withOffsetSameInstant(ZoneOffset.UTC)));
+        assertThrows(IllegalArgumentException.class, () -> turnSeriesService.createTurnSeries(duplicated));
+
+        TurnSeriesRequestDTO past = request();
+        past.setScheduledAt(List.of(OffsetDateTime.now(ARGENTINA_ZONE).minusDays(1)));
+        assertThrows(IllegalArgumentException.class, () -> turnSeriesService.createTurnSeries(past));
+
+        verifyNoInteractions(userRepo, turnRepo);
+    }
+
+    private TurnSeriesRequestDTO request() {
+        TurnSeriesRequestDTO dto = new TurnSeriesRequestDTO();
+        dto.setDoctorId(doctor.getId());
+        dto.setPatientId(patient.getId());
+        dto.setMotive("Kinesiología");
+        return dto;
+    }
+
+    private void stubUsers() {
+        when(userRepo.findById(doctor.getId())).thenReturn(Optional.of(doctor));
+        when(userRepo.findById(patient.getId())).thenReturn(Optional.of(patient));
+    }
+}